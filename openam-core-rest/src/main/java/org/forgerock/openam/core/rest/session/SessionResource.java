@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session;
@@ -57,6 +58,7 @@ import org.forgerock.json.resource.BadRequestException;
 import org.forgerock.json.resource.CollectionResourceProvider;
 import org.forgerock.json.resource.CreateRequest;
 import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.InternalServerErrorException;
 import org.forgerock.json.resource.NotSupportedException;
 import org.forgerock.json.resource.PatchRequest;
 import org.forgerock.json.resource.QueryRequest;
@@ -80,6 +82,7 @@ import org.forgerock.openam.core.rest.session.action.IsActiveActionHandler;
 import org.forgerock.openam.core.rest.session.action.LogoutActionHandler;
 import org.forgerock.openam.core.rest.session.action.SetPropertyActionHandler;
 import org.forgerock.openam.core.rest.session.action.ValidateActionHandler;
+import org.forgerock.openam.dpro.session.PartialSession;
 import org.forgerock.openam.rest.RestUtils;
 import org.forgerock.openam.session.SessionConstants;
 import org.forgerock.openam.session.SessionPropertyWhitelist;
@@ -87,6 +90,7 @@ import org.forgerock.services.context.Context;
 import org.forgerock.util.promise.Promise;
 
 import com.iplanet.am.util.SystemProperties;
+import com.iplanet.dpro.session.SessionException;
 import com.iplanet.dpro.session.share.SessionInfo;
 import com.iplanet.services.naming.WebtopNaming;
 import com.iplanet.sso.SSOTokenManager;
@@ -734,19 +738,23 @@ public class SessionResource implements CollectionResourceProvider {
             LOGGER.message("SessionResource.queryCollection() :: Retrieved list of servers for query.");
             handler.handleResource(newResourceResponse(KEYWORD_LIST, String.valueOf(currentTimeMillis()),
                     new JsonValue(servers)));
-        } else {
-            Collection<SessionInfo> sessions;
-
-            if (KEYWORD_ALL.equals(id)) {
-                sessions = sessionResourceUtil.generateAllSessions();
-                LOGGER.message("SessionResource.queryCollection() :: Retrieved list of sessions for query.");
-            } else {
-                if (SERVER_QUERY_ID.equals(id)) {
-                    id = request.getAdditionalParameter(KEYWORD_SERVER_ID);
+        } else if (KEYWORD_ALL.equals(id)) {
+            try {
+                for (PartialSession session : sessionResourceUtil.generateAllPartialSessions()) {
+                    handler.handleResource(newResourceResponse("Sessions", String.valueOf(currentTimeMillis()),
+                            sessionResourceUtil.jsonValueOf(session)));
                 }
-                sessions = sessionResourceUtil.generateNamedServerSession(id);
-                LOGGER.message("SessionResource.queryCollection() :: Retrieved list of specified servers for query.");
+            } catch (SessionException e) {
+                LOGGER.error("SessionResource.queryCollection() :: Unable to query for all sessions.", e);
+                return new InternalServerErrorException("Unable to query for sessions").asPromise();
+            }
+            LOGGER.message("SessionResource.queryCollection() :: Retrieved list of sessions for query.");
+        } else {
+            if (SERVER_QUERY_ID.equals(id)) {
+                id = request.getAdditionalParameter(KEYWORD_SERVER_ID);
             }
+            Collection<SessionInfo> sessions = sessionResourceUtil.generateNamedServerSession(id);
+            LOGGER.message("SessionResource.queryCollection() :: Retrieved list of specified servers for query.");
 
             for (SessionInfo session : sessions) {
                 handler.handleResource(newResourceResponse("Sessions", String.valueOf(currentTimeMillis()),
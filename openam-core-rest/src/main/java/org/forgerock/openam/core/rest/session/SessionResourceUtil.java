@@ -12,18 +12,26 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session;
 
 import static org.forgerock.json.JsonValue.*;
+import static org.forgerock.openam.session.SessionConstants.JSON_SESSION_MAX_SESSION_EXPIRATION_TIME;
+import static org.forgerock.openam.session.SessionConstants.JSON_SESSION_USERNAME;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
 
+import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import com.google.inject.Inject;
+import com.iplanet.dpro.session.SessionException;
+import com.iplanet.dpro.session.SessionID;
 import com.iplanet.dpro.session.share.SessionInfo;
 import com.iplanet.services.naming.WebtopNamingQuery;
 import com.iplanet.sso.SSOException;
@@ -31,11 +39,16 @@ import com.iplanet.sso.SSOToken;
 import com.iplanet.sso.SSOTokenManager;
 import com.sun.identity.idm.AMIdentity;
 import com.sun.identity.idm.IdRepoException;
+import com.sun.identity.shared.DateUtils;
 import com.sun.identity.shared.debug.Debug;
 import com.sun.identity.sm.DNMapper;
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.openam.core.rest.session.query.SessionQueryManager;
+import org.forgerock.openam.dpro.session.PartialSession;
 import org.forgerock.openam.session.SessionConstants;
+import org.forgerock.openam.session.service.access.SessionSummary;
+import org.forgerock.openam.session.service.access.persistence.caching.SessionSummaryCacheStep;
 import org.forgerock.openam.utils.StringUtils;
 
 /**
@@ -57,23 +70,34 @@ public class SessionResourceUtil {
     public static final String HEADER_TIME_REMAINING = "timeleft";
     public static final String SESSION_INFO_USER_ID = "UserId";
 
+    private static final List<JsonPointer> SESSION_LIST_FIELDS = Arrays.asList(
+            new JsonPointer(JSON_SESSION_USERNAME), new JsonPointer(JSON_SESSION_MAX_SESSION_EXPIRATION_TIME));
+
     private final SSOTokenManager ssoTokenManager;
     private final SessionQueryManager queryManager;
+    private final org.forgerock.openam.session.service.access.SessionQueryManager sessionQueryManager;
     private final WebtopNamingQuery webtopNamingQuery;
+    private final SessionSummaryCacheStep sessionSummaryCache;
 
     /**
      * Creates an instance of the SessionResourceUtil
      *
      * @param ssoTokenManager An instance of the SSOTokenManager.
-     * @param sessionQueryManager An instance of the SessionQueryManager. Must not null.
+     * @param queryManager An instance of the SessionQueryManager used to query named servers. Must not null.
+     * @param sessionQueryManager An instance of the SessionQueryManager used to query the CTS. Must not null.
      * @param webtopNamingQuery An Instance of the WebtopNamingQuery.
+     * @param sessionSummaryCache An instance of the SessionSummaryCacheStep used to validate sessions without
+     *                            reading them in full.
      */
     @Inject
-    public SessionResourceUtil(final SSOTokenManager ssoTokenManager,
-            final SessionQueryManager sessionQueryManager, final WebtopNamingQuery webtopNamingQuery) {
+    public SessionResourceUtil(final SSOTokenManager ssoTokenManager, final SessionQueryManager queryManager,
+            final org.forgerock.openam.session.service.access.SessionQueryManager sessionQueryManager,
+            final WebtopNamingQuery webtopNamingQuery, final SessionSummaryCacheStep sessionSummaryCache) {
         this.ssoTokenManager = ssoTokenManager;
-        this.queryManager = sessionQueryManager;
+        this.queryManager = queryManager;
+        this.sessionQueryManager = sessionQueryManager;
         this.webtopNamingQuery = webtopNamingQuery;
+        this.sessionSummaryCache = sessionSummaryCache;
     }
 
     /**
@@ -105,6 +129,35 @@ public class SessionResourceUtil {
         return ssoToken;
     }
 
+    /**
+     * Returns a summary of the session identified by the token id if the summary alone shows the session to be
+     * valid, so that a validation request can be answered without reading the full session. Returns null if the
+     * session must be read in full, in which case the caller should carry on as it would without a summary.
+     *
+     * @param tokenId The id of the token to validate.
+     * @param resetIdleTime True if the validation request would reset the idle time of the session.
+     * @return The summary of the valid session, or null.
+     * @see SessionSummaryCacheStep#getValidSessionSummary(SessionID, boolean)
+     */
+    public SessionSummary getValidSessionSummary(String tokenId, boolean resetIdleTime) {
+        if (StringUtils.isEmpty(tokenId) || !sessionSummaryCache.isEnabled()) {
+            return null;
+        }
+        return sessionSummaryCache.getValidSessionSummary(new SessionID(tokenId), resetIdleTime);
+    }
+
+    /**
+     * Sets each of the properties on the session of the token as a single update, so that the session is persisted
+     * and notified once.
+     *
+     * @param ssoToken The token whose session should be updated.
+     * @param properties The property names and values.
+     * @throws SSOException If the properties could not be set.
+     */
+    public void setProperties(SSOToken ssoToken, Map<String, String> properties) throws SSOException {
+        ssoTokenManager.setProperties(ssoToken, properties);
+    }
+
     /**
      * Returns a collection of all Server ID that are known to the OpenAM instance.
      *
@@ -134,12 +187,17 @@ public class SessionResourceUtil {
     }
 
     /**
-     * @return A non null collection of SessionInfo instances queried across all servers.
+     * Queries the CTS for all valid sessions, reading only the fields required to list them. As sessions are held
+     * in the CTS, this covers the sessions of all servers without querying each of them in turn.
+     *
+     * @return A non null collection of partial sessions, populated with the user name and max session expiration
+     * time.
+     * @throws SessionException If the CTS could not be queried.
      */
-    public Collection<SessionInfo> generateAllSessions() {
-        Collection<SessionInfo> sessions = queryManager.getAllSessions(getAllServerIds());
+    public Collection<PartialSession> generateAllPartialSessions() throws SessionException {
+        Collection<PartialSession> sessions = sessionQueryManager.getAllValidPartialSessions(SESSION_LIST_FIELDS);
         if (LOGGER.messageEnabled()) {
-            LOGGER.message("SessionResource.generateNmaedServerSession :: retrieved session list for all servers.");
+            LOGGER.message("SessionResource.generateAllPartialSessions :: retrieved session list from CTS.");
         }
         return sessions;
     }
@@ -178,6 +236,17 @@ public class SessionResourceUtil {
         return new AMIdentity(ssoToken);
     }
 
+    /**
+     * Creates a AMIdentity for the owner of the session described by the specified summary.
+     *
+     * @param summary The session summary, which must have a universal id.
+     * @return The AMIdentity.
+     * @throws IdRepoException If the universal id of the summary is not valid.
+     */
+    public AMIdentity getIdentity(SessionSummary summary) throws IdRepoException {
+        return new AMIdentity((SSOToken) null, summary.getUniversalId());
+    }
+
     /**
      * Returns realm name in "/" separated format for the provided
      * realm/organization name in DN format.
@@ -206,6 +275,31 @@ public class SessionResourceUtil {
         );
     }
 
+    /**
+     * Creates the JsonValue representing the PartialSession, in the same form as for a SessionInfo.
+     *
+     * @param session The partial session, populated with the user name and max session expiration time.
+     * @return The json value representing the PartialSession
+     */
+    public JsonValue jsonValueOf(PartialSession session) {
+        long timeLeft = 0;
+        if (session.getMaxSessionExpirationTime() != null) {
+            try {
+                timeLeft = Math.max(0,
+                        DateUtils.stringToDate(session.getMaxSessionExpirationTime()).getTime() - currentTimeMillis());
+            } catch (ParseException e) {
+                LOGGER.warning("SessionResource.jsonValueOf :: invalid max session expiration time {}",
+                        session.getMaxSessionExpirationTime(), e);
+            }
+        }
+        return json(
+                object(
+                        field(HEADER_USER_ID, session.getUsername()),
+                        field(HEADER_TIME_REMAINING, TimeUnit.MILLISECONDS.toMinutes(timeLeft))
+                )
+        );
+    }
+
     /**
      * Creates a json representation to denote invalis session
      *
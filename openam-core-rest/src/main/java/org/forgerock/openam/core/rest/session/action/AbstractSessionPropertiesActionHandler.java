@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session.action;
@@ -19,6 +20,8 @@ package org.forgerock.openam.core.rest.session.action;
 import static org.forgerock.json.JsonValue.json;
 import static org.forgerock.json.JsonValue.object;
 
+import java.util.Map;
+
 import com.iplanet.sso.SSOException;
 import com.iplanet.sso.SSOToken;
 import com.sun.identity.idm.IdRepoException;
@@ -61,6 +64,10 @@ public abstract class AbstractSessionPropertiesActionHandler implements ActionHa
         return sessionResourceUtil.getTokenWithoutResettingIdleTime(tokenId);
     }
 
+    void setProperties(SSOToken ssoToken, Map<String, String> properties) throws SSOException {
+        sessionResourceUtil.setProperties(ssoToken, properties);
+    }
+
     String getTargetRealm(SSOToken ssoToken) throws IdRepoException, SSOException {
         return sessionResourceUtil.convertDNToRealm(sessionResourceUtil.getIdentity(ssoToken).getRealm());
     }
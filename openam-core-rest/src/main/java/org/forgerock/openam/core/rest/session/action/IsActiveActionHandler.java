@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session.action;
@@ -63,11 +64,15 @@ public class IsActiveActionHandler implements ActionHandler {
      * Figure whether the token id, which has been passed as an argument to the REST call
      * is valid and optionally refresh it.  This is different from validateSession because this,
      * rather inconveniently, requires you to be logged in as admin before this can be invoked.
+     * If the token is not to be refreshed, it is first checked against a summary of its session.
      *
      * @param tokenId The SSO Token Id.
      * @return a jsonic "true" or "false" depending on whether the token is valid
      */
     private JsonValue isTokenIdValid(String tokenId, String refresh) {
+        if (!Boolean.valueOf(refresh) && sessionResourceUtil.getValidSessionSummary(tokenId, false) != null) {
+            return json(object(field(ACTIVE, true)));
+        }
         boolean isActive = false;
         try {
             SSOToken theToken = sessionResourceUtil.getTokenWithoutResettingIdleTime(tokenId);
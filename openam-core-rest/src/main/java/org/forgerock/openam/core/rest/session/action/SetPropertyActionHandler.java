@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session.action;
@@ -83,9 +84,7 @@ public class SetPropertyActionHandler implements ActionHandler {
 
             if (sessionPropertyWhitelist.isPropertyListed(caller, realm, entrySet.keySet()) &&
                     sessionPropertyWhitelist.isPropertyMapSettable(caller, entrySet)) {
-                for (Map.Entry<String, String> entry : request.getContent().asMap(String.class).entrySet()) {
-                    target.setProperty(entry.getKey(), entry.getValue());
-                }
+                sessionResourceUtil.setProperties(target, entrySet);
             } else {
                 LOGGER.warning("User {} requested property/ies {} to set on {} which was not whitelisted.",
                         caller.getPrincipal(), target.getPrincipal(), entrySet.toString());
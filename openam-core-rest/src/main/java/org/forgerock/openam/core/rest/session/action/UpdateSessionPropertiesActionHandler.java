@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session.action;
@@ -70,9 +71,7 @@ public class UpdateSessionPropertiesActionHandler extends AbstractSessionPropert
             JsonValue content = request.getContent();
             ensureUpdatePermitted(context, content, target);
 
-            for (Map.Entry<String, String> entry : content.asMap(String.class).entrySet()) {
-                target.setProperty(entry.getKey(), entry.getValue());
-            }
+            setProperties(target, content.asMap(String.class));
             result = getSessionProperties(tokenId);
         } catch (BadRequestException | ForbiddenException e) {
             return e.asPromise();
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session.action;
@@ -32,6 +33,7 @@ import org.forgerock.json.resource.ActionResponse;
 import org.forgerock.json.resource.ResourceException;
 import org.forgerock.openam.core.rest.session.SessionResourceUtil;
 import org.forgerock.openam.session.SessionConstants;
+import org.forgerock.openam.session.service.access.SessionSummary;
 import org.forgerock.services.context.Context;
 import org.forgerock.util.promise.Promise;
 
@@ -78,6 +80,11 @@ public class ValidateActionHandler implements ActionHandler {
      */
     private JsonValue validateSession(final String tokenId) {
 
+        final JsonValue summaryResult = validateSessionSummary(tokenId);
+        if (summaryResult != null) {
+            return summaryResult;
+        }
+
         try {
             final SSOToken ssoToken = ssoTokenManager.createSSOToken(tokenId);
             return validateSession(ssoToken);
@@ -89,6 +96,39 @@ public class ValidateActionHandler implements ActionHandler {
         }
     }
 
+    /**
+     * Will validate the specified SSO Token Id from a summary of its session, if the summary alone shows the session
+     * to be valid.
+     *
+     * @param tokenId The SSO Token Id.
+     * @return The json response of the validation, or null if the token must be validated in full.
+     */
+    private JsonValue validateSessionSummary(final String tokenId) {
+        final SessionSummary summary = sessionResourceUtil.getValidSessionSummary(tokenId, true);
+        if (summary == null || summary.getUniversalId() == null) {
+            return null;
+        }
+        try {
+            final JsonValue result = validSession(sessionResourceUtil.getIdentity(summary));
+            if (LOGGER.messageEnabled()) {
+                LOGGER.message("SessionResource.validateSession() :: Session validation for token, " +
+                        tokenId + ", returned true from its session summary.");
+            }
+            return result;
+        } catch (IdRepoException e) {
+            if (LOGGER.messageEnabled()) {
+                LOGGER.message("SessionResource.validateSession() :: Session summary for token, " +
+                        tokenId + ", has an invalid universal id.", e);
+            }
+            return null;
+        }
+    }
+
+    private JsonValue validSession(final AMIdentity identity) {
+        return json(object(field(sessionResourceUtil.VALID, true), field("uid", identity.getName()),
+                field("realm", sessionResourceUtil.convertDNToRealm(identity.getRealm()))));
+    }
+
     /**
      * Will validate that the specified SSOToken is valid or not.
      * <br/>
@@ -116,9 +156,7 @@ public class ValidateActionHandler implements ActionHandler {
                 LOGGER.message("SessionResource.validateSession() :: Session validation for token, " +
                         ssoToken.getTokenID() + ", returned true.");
             }
-            final AMIdentity identity = sessionResourceUtil.getIdentity(ssoToken);
-            return json(object(field(sessionResourceUtil.VALID, true), field("uid", identity.getName()),
-                    field("realm", sessionResourceUtil.convertDNToRealm(identity.getRealm()))));
+            return validSession(sessionResourceUtil.getIdentity(ssoToken));
         } catch (SSOException e) {
             if (LOGGER.errorEnabled()) {
                 LOGGER.error("SessionResource.validateSession() :: Session validation for token, " +
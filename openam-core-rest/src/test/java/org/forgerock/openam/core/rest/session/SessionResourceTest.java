@@ -12,16 +12,18 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.forgerock.json.JsonValue.array;
 import static org.forgerock.json.JsonValue.field;
 import static org.forgerock.json.JsonValue.json;
 import static org.forgerock.json.JsonValue.object;
 import static org.forgerock.json.resource.test.assertj.AssertJActionResponseAssert.assertThat;
+import static org.forgerock.json.resource.test.assertj.AssertJQueryResponseAssert.assertThat;
 import static org.forgerock.openam.core.rest.session.SessionResource.DELETE_PROPERTY_ACTION_ID;
 import static org.forgerock.openam.core.rest.session.SessionResource.GET_IDLE_ACTION_ID;
 import static org.forgerock.openam.core.rest.session.SessionResource.GET_MAX_TIME_ACTION_ID;
@@ -31,8 +33,10 @@ import static org.forgerock.openam.core.rest.session.SessionResource.IS_ACTIVE_A
 import static org.forgerock.openam.core.rest.session.SessionResource.LOGOUT_ACTION_ID;
 import static org.forgerock.openam.core.rest.session.SessionResource.SET_PROPERTY_ACTION_ID;
 import static org.forgerock.openam.core.rest.session.SessionResource.VALIDATE_ACTION_ID;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -40,6 +44,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -49,6 +54,7 @@ import java.security.Principal;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -69,14 +75,19 @@ import org.forgerock.json.resource.InternalServerErrorException;
 import org.forgerock.json.resource.NotSupportedException;
 import org.forgerock.json.resource.QueryRequest;
 import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
 import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.openam.authentication.service.AuthUtilsWrapper;
 import org.forgerock.openam.core.realms.Realm;
 import org.forgerock.openam.core.realms.RealmTestHelper;
 import org.forgerock.openam.core.rest.session.query.SessionQueryManager;
+import org.forgerock.openam.dpro.session.PartialSession;
 import org.forgerock.openam.rest.RealmContext;
 import org.forgerock.openam.rest.resource.SSOTokenContext;
 import org.forgerock.openam.session.SessionPropertyWhitelist;
+import org.forgerock.openam.session.service.access.SessionSummary;
+import org.forgerock.openam.session.service.access.persistence.caching.SessionSummaryCacheStep;
 import org.forgerock.openam.test.apidescriptor.ApiAnnotationAssert;
 import org.forgerock.opendj.ldap.DN;
 import org.forgerock.services.context.AttributesContext;
@@ -85,10 +96,14 @@ import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RootContext;
 import org.forgerock.services.context.SecurityContext;
 import org.forgerock.util.promise.Promise;
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.iplanet.dpro.session.SessionException;
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.SessionState;
 import com.iplanet.services.naming.WebtopNamingQuery;
 import com.iplanet.sso.SSOException;
 import com.iplanet.sso.SSOToken;
@@ -97,6 +112,7 @@ import com.iplanet.sso.SSOTokenManager;
 import com.sun.identity.delegation.DelegationException;
 import com.sun.identity.idm.AMIdentity;
 import com.sun.identity.idm.IdRepoException;
+import com.sun.identity.shared.DateUtils;
 import com.sun.identity.shared.debug.Debug;
 
 public class SessionResourceTest {
@@ -110,6 +126,7 @@ public class SessionResourceTest {
     private SessionResourceUtil sessionResourceUtil;
     private SessionPropertyWhitelist propertyWhitelist;
     private WebtopNamingQuery webtopNamingQuery;
+    private SessionSummaryCacheStep sessionSummaryCache;
     private RealmContext realmContext;
     private RealmTestHelper realmTestHelper;
 
@@ -128,6 +145,7 @@ public class SessionResourceTest {
         authUtilsWrapper = mock(AuthUtilsWrapper.class);
         propertyWhitelist = mock(SessionPropertyWhitelist.class);
         webtopNamingQuery = mock(WebtopNamingQuery.class);
+        sessionSummaryCache = mock(SessionSummaryCacheStep.class);
         headerResponse = null;
         urlResponse = null;
         cookieResponse = null;
@@ -148,7 +166,8 @@ public class SessionResourceTest {
         final List<String> list = Arrays.asList(badger, weasel);
         given(webtopNamingQuery.getAllServerIDs()).willReturn(list);
 
-        sessionResourceUtil = spy(new SessionResourceUtil(ssoTokenManager, sessionQueryManager, webtopNamingQuery) {
+        sessionResourceUtil = spy(new SessionResourceUtil(ssoTokenManager, sessionQueryManager, null, webtopNamingQuery,
+                sessionSummaryCache) {
 
             @Override
             public Collection<String> getAllServerIds() {return list; }
@@ -158,6 +177,11 @@ public class SessionResourceTest {
                 return amIdentity;
             }
 
+            @Override
+            public AMIdentity getIdentity(SessionSummary summary) {
+                return amIdentity;
+            }
+
             @Override
             public String convertDNToRealm(String dn) {
                 return "/example/com";
@@ -200,28 +224,55 @@ public class SessionResourceTest {
     }
 
     @Test
-    public void shouldUseSessionQueryManagerForAllSessionsQuery() {
+    public void shouldQueryCTSForAllSessionsQuery() throws Exception {
         // Given
-        String badger = "badger";
-        String weasel = "weasel";
-
-        SessionQueryManager mockManager = mock(SessionQueryManager.class);
+        org.forgerock.openam.session.service.access.SessionQueryManager mockCtsManager =
+                mock(org.forgerock.openam.session.service.access.SessionQueryManager.class);
+        PartialSession session = new PartialSession.Builder()
+                .username("demo")
+                .maxSessionExpirationTime(DateUtils.toUTCDateFormat(new Date(currentTimeMillis() + 600000)))
+                .build();
+        given(mockCtsManager.getAllValidPartialSessions(anyList())).willReturn(Collections.singletonList(session));
         QueryRequest request = mock(QueryRequest.class);
         given(request.getQueryId()).willReturn(SessionResource.KEYWORD_ALL);
         QueryResourceHandler handler = mock(QueryResourceHandler.class);
 
-        SessionResourceUtil sessionResourceUtil = spy(new SessionResourceUtil(null, mockManager, null));
-        List<String> list = Arrays.asList(badger, weasel);
-        doReturn(list).when(sessionResourceUtil).getAllServerIds();
+        SessionResourceUtil sessionResourceUtil = spy(new SessionResourceUtil(null, null, mockCtsManager, null,
+                sessionSummaryCache));
         SessionResource resource = new SessionResource(null, null, null, sessionResourceUtil);
 
-
         // When
         resource.queryCollection(null, request, handler);
 
         // Then
-        List<String> result = Arrays.asList(badger, weasel);
-        verify(mockManager, times(1)).getAllSessions(result);
+        verify(sessionResourceUtil, times(0)).getAllServerIds();
+        ArgumentCaptor<ResourceResponse> response = ArgumentCaptor.forClass(ResourceResponse.class);
+        verify(handler).handleResource(response.capture());
+        assertThat(response.getValue().getContent().get(SessionResourceUtil.HEADER_USER_ID).asString())
+                .isEqualTo("demo");
+        assertThat(response.getValue().getContent().get(SessionResourceUtil.HEADER_TIME_REMAINING).asLong())
+                .isBetween(9L, 10L);
+    }
+
+    @Test
+    public void shouldFailAllSessionsQueryWhenCTSQueryFails() throws Exception {
+        // Given
+        org.forgerock.openam.session.service.access.SessionQueryManager mockCtsManager =
+                mock(org.forgerock.openam.session.service.access.SessionQueryManager.class);
+        given(mockCtsManager.getAllValidPartialSessions(anyList())).willThrow(new SessionException("failed"));
+        QueryRequest request = mock(QueryRequest.class);
+        given(request.getQueryId()).willReturn(SessionResource.KEYWORD_ALL);
+
+        SessionResourceUtil sessionResourceUtil = new SessionResourceUtil(null, null, mockCtsManager, null,
+                sessionSummaryCache);
+        SessionResource resource = new SessionResource(null, null, null, sessionResourceUtil);
+
+        // When
+        Promise<QueryResponse, ResourceException> promise =
+                resource.queryCollection(null, request, mock(QueryResourceHandler.class));
+
+        // Then
+        assertThat(promise).failedWithException().isInstanceOf(InternalServerErrorException.class);
     }
 
     @Test
@@ -235,7 +286,8 @@ public class SessionResourceTest {
         given(request.getQueryId()).willReturn(badger);
 
 
-        SessionResourceUtil sessionResourceUtil = spy(new SessionResourceUtil(null, mockManager, null));
+        SessionResourceUtil sessionResourceUtil = spy(new SessionResourceUtil(null, mockManager, null, null,
+                sessionSummaryCache));
         SessionResource resource = new SessionResource(null, null, null, sessionResourceUtil);
 
         // When
@@ -416,6 +468,122 @@ public class SessionResourceTest {
         assertThat(promise).succeeded().withContent().booleanAt("active").isFalse();
     }
 
+    @Test
+    public void actionInstanceShouldValidateSessionFromSessionSummary() throws SSOException {
+        //Given
+        final Context context = mock(Context.class);
+        final String resourceId = "SSO_TOKEN_ID";
+        final ActionRequest request = mock(ActionRequest.class);
+
+        given(request.getAction()).willReturn(VALIDATE_ACTION_ID);
+        given(sessionSummaryCache.isEnabled()).willReturn(true);
+        given(sessionSummaryCache.getValidSessionSummary(any(SessionID.class), eq(true)))
+                .willReturn(sessionSummary(resourceId));
+
+        //When
+        Promise<ActionResponse, ResourceException> promise = sessionResource.actionInstance(context, resourceId, request);
+
+        //Then
+        assertThat(promise).succeeded().withContent().booleanAt("valid").isTrue();
+        assertThat(promise).succeeded().withContent().stringAt("uid").isEqualTo("demo");
+        verify(ssoTokenManager, never()).createSSOToken(anyString());
+    }
+
+    @Test
+    public void actionInstanceShouldValidateSessionInFullWhenNoSessionSummary() throws SSOException {
+        //Given
+        final Context context = mock(Context.class);
+        final String resourceId = "SSO_TOKEN_ID";
+        final ActionRequest request = mock(ActionRequest.class);
+        final SSOToken ssoToken = mock(SSOToken.class);
+
+        given(request.getAction()).willReturn(VALIDATE_ACTION_ID);
+        given(sessionSummaryCache.isEnabled()).willReturn(true);
+        given(ssoTokenManager.createSSOToken(resourceId)).willReturn(ssoToken);
+        given(ssoTokenManager.isValidToken(ssoToken)).willReturn(false);
+
+        //When
+        Promise<ActionResponse, ResourceException> promise = sessionResource.actionInstance(context, resourceId, request);
+
+        //Then
+        assertThat(promise).succeeded().withContent().booleanAt("valid").isFalse();
+        verify(ssoTokenManager).createSSOToken(resourceId);
+    }
+
+    @Test
+    public void actionInstanceShouldValidateSessionInFullWhenSessionNotAccessedWithinWindow() throws SSOException {
+        //Given
+        final Context context = mock(Context.class);
+        final String resourceId = "SSO_TOKEN_ID";
+        final ActionRequest request = mock(ActionRequest.class);
+        final SSOToken ssoToken = mock(SSOToken.class);
+
+        given(request.getAction()).willReturn(VALIDATE_ACTION_ID);
+        given(sessionSummaryCache.isEnabled()).willReturn(true);
+        // A summary can answer requests which do not reset the idle time, but not those which do
+        given(sessionSummaryCache.getValidSessionSummary(any(SessionID.class), eq(false)))
+                .willReturn(sessionSummary(resourceId));
+        given(sessionSummaryCache.getValidSessionSummary(any(SessionID.class), eq(true))).willReturn(null);
+        given(ssoTokenManager.createSSOToken(resourceId)).willReturn(ssoToken);
+        given(ssoTokenManager.isValidToken(ssoToken)).willReturn(true);
+        given(sessionResourceUtil.convertDNToRealm(anyString())).willReturn("/");
+
+        //When
+        Promise<ActionResponse, ResourceException> promise = sessionResource.actionInstance(context, resourceId, request);
+
+        //Then
+        assertThat(promise).succeeded().withContent().booleanAt("valid").isTrue();
+        verify(ssoTokenManager).createSSOToken(resourceId);
+        verify(ssoTokenManager).isValidToken(ssoToken);
+    }
+
+    @Test
+    public void actionInstanceShouldBeActiveFromSessionSummary() throws SSOException {
+        //Given
+        final Context context = mock(Context.class);
+        final String resourceId = "SSO_TOKEN_ID";
+        final ActionRequest request = mock(ActionRequest.class);
+
+        given(request.getAction()).willReturn(IS_ACTIVE_ACTION_ID);
+        given(sessionSummaryCache.isEnabled()).willReturn(true);
+        given(sessionSummaryCache.getValidSessionSummary(any(SessionID.class), eq(false)))
+                .willReturn(sessionSummary(resourceId));
+
+        //When
+        Promise<ActionResponse, ResourceException> promise = sessionResource.actionInstance(context, resourceId, request);
+
+        //Then
+        assertThat(promise).succeeded().withContent().booleanAt("active").isTrue();
+        verify(ssoTokenManager, never()).retrieveValidTokenWithoutResettingIdleTime(anyString());
+    }
+
+    @Test
+    public void actionInstanceShouldCheckActiveInFullWhenNoSessionSummary() throws SSOException {
+        //Given
+        final Context context = mock(Context.class);
+        final String resourceId = "SSO_TOKEN_ID";
+        final ActionRequest request = mock(ActionRequest.class);
+        final SSOToken ssoToken = mock(SSOToken.class);
+
+        given(request.getAction()).willReturn(IS_ACTIVE_ACTION_ID);
+        given(sessionSummaryCache.isEnabled()).willReturn(true);
+        given(ssoTokenManager.retrieveValidTokenWithoutResettingIdleTime(resourceId)).willReturn(ssoToken);
+        given(ssoTokenManager.isValidToken(ssoToken, false)).willReturn(true);
+
+        //When
+        Promise<ActionResponse, ResourceException> promise = sessionResource.actionInstance(context, resourceId, request);
+
+        //Then
+        assertThat(promise).succeeded().withContent().booleanAt("active").isTrue();
+        verify(ssoTokenManager).retrieveValidTokenWithoutResettingIdleTime(resourceId);
+    }
+
+    private SessionSummary sessionSummary(String sessionId) {
+        long now = currentTimeMillis();
+        return new SessionSummary(sessionId, "id=demo,dc=example,dc=com", SessionState.VALID, now + 600000,
+                now + 60000, now);
+    }
+
     @Test
     public void actionInstanceShouldGiveTimeLeftWhenSSOTokenValid() throws SSOException {
 
@@ -622,7 +790,7 @@ public class SessionResourceTest {
         Promise<ActionResponse, ResourceException> promise = sessionResource.actionInstance(realmContext, resourceId, request);
 
         //then
-        verify(ssoToken).setProperty(eq("one"), eq("testOne"));
+        verify(ssoTokenManager).setProperties(ssoToken, Collections.singletonMap("one", "testOne"));
         assertThat(promise).succeeded();
         assertTrue(promise.get().getJsonContent().get("success").asBoolean().equals(true));
     }
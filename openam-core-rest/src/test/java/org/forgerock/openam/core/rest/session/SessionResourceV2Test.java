@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.core.rest.session;
@@ -54,6 +55,7 @@ import org.forgerock.openam.dpro.session.PartialSession.Builder;
 import org.forgerock.openam.dpro.session.PartialSessionFactory;
 import org.forgerock.openam.rest.resource.SSOTokenContext;
 import org.forgerock.openam.session.SessionPropertyWhitelist;
+import org.forgerock.openam.session.service.access.persistence.caching.SessionSummaryCacheStep;
 import org.forgerock.openam.test.apidescriptor.ApiAnnotationAssert;
 import org.forgerock.opendj.ldap.DN;
 import org.forgerock.util.promise.Promise;
@@ -91,7 +93,8 @@ public class SessionResourceV2Test {
         sessionService = mock(SessionService.class);
         partialSessionFactory = mock(PartialSessionFactory.class);
 
-        sessionResourceUtil = new SessionResourceUtil(ssoTokenManager, sessionQueryManager, null) {
+        sessionResourceUtil = new SessionResourceUtil(ssoTokenManager, sessionQueryManager, null, null,
+                mock(SessionSummaryCacheStep.class)) {
             @Override
             public AMIdentity getIdentity(SSOToken ssoToken) throws IdRepoException, SSOException {
                 return amIdentity;
@@ -337,9 +340,7 @@ public class SessionResourceV2Test {
         sessionResource.actionCollection(mockContext, request);
 
         //then
-        verify(ssoToken).setProperty("foo", "baar");
-        verify(ssoToken).setProperty("ping", "poong");
-        verify(ssoToken).setProperty("woo", "hoo");
+        verify(ssoTokenManager).setProperties(ssoToken, updatedProperties);
     }
 
     @Test
@@ -12,12 +12,16 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.dpro.session;
 
 import java.net.URL;
 import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.forgerock.openam.session.SessionPLLSender;
 
@@ -62,7 +66,21 @@ public class ClientSdkSessionRequests {
      * @exception SessionException
      */
     public SessionResponse sendRequest(URL svcurl, SessionRequest sreq, Session session) throws SessionException {
-        SessionResponse sres;
+        return sendRequests(svcurl, Collections.singletonList(sreq), session).get(0);
+    }
+
+    /**
+     * Sends remote session requests for the session in a single round trip. Requests which fail because the app
+     * token was invalid are sent again once it has been refreshed.
+     *
+     * @param svcurl Session Service URL.
+     * @param sreqs Non empty list of Session Request objects for the session.
+     * @param session The session the requests are for.
+     * @return The responses, in the same order as the requests.
+     * @exception SessionException If a request failed for any other reason.
+     */
+    public List<SessionResponse> sendRequests(URL svcurl, List<SessionRequest> sreqs, Session session)
+            throws SessionException {
         Object context = RestrictedTokenContext.getCurrent();
 
         SSOToken appSSOToken = null;
@@ -74,24 +92,40 @@ public class ClientSdkSessionRequests {
         }
         
         try {
-            if (context != null) {
-                sreq.setRequester(RestrictedTokenContext.marshal(context));
+            List<SessionResponse> sresps = new ArrayList<>(Collections.<SessionResponse>nCopies(sreqs.size(), null));
+            List<Integer> pending = new ArrayList<>(sreqs.size());
+            for (int ii = 0; ii < sreqs.size(); ii++) {
+                pending.add(ii);
             }
-            sres = pllSender.sendPLLRequest(svcurl, sreq);
-            while (sres.getException() != null) {
-                processSessionResponseException(session, sres);
-                context = session.getContext();
-                if (context != null) {
-                    sreq.setRequester(RestrictedTokenContext.marshal(context));
+            while (true) {
+                String requester = context == null ? null : RestrictedTokenContext.marshal(context);
+                List<SessionRequest> batch = new ArrayList<>(pending.size());
+                for (int index : pending) {
+                    SessionRequest sreq = sreqs.get(index);
+                    if (requester != null) {
+                        sreq.setRequester(requester);
+                    }
+                    batch.add(sreq);
+                }
+                List<SessionResponse> responses = pllSender.sendPLLRequests(svcurl, batch);
+                List<Integer> failed = new ArrayList<>();
+                for (int ii = 0; ii < pending.size(); ii++) {
+                    sresps.set(pending.get(ii), responses.get(ii));
+                    if (responses.get(ii).getException() != null) {
+                        failed.add(pending.get(ii));
+                    }
+                }
+                if (failed.isEmpty()) {
+                    return sresps;
                 }
-                // send request again
-                sres = pllSender.sendPLLRequest(svcurl, sreq);
+                processSessionResponseException(session, sresps.get(failed.get(0)));
+                context = session.getContext();
+                // send the failed requests again
+                pending = failed;
             }
         } catch (Exception e) {
             throw new SessionException(e);
         }
-
-        return sres;
     }
 
     /**
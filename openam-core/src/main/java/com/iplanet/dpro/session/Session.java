@@ -25,6 +25,7 @@
  * $Id: Session.java,v 1.25 2009/08/14 17:53:35 weisun2 Exp $
  *
  * Portions copyright 2010-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.dpro.session;
@@ -35,9 +36,11 @@ import static org.forgerock.openam.utils.Time.*;
 import java.net.URL;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.guice.core.InjectorHolder;
 import org.forgerock.openam.blacklist.BlacklistException;
@@ -173,6 +176,11 @@ public class Session implements Blacklistable, AMSession{
      */
     protected Hashtable<String, String> sessionProperties = new Hashtable<>();
 
+    /**
+     * Incremented whenever {@link #sessionProperties} are changed or replaced.
+     */
+    private final AtomicLong propertiesVersion = new AtomicLong();
+
     /**
      * URL of the Session Server, where this session resides.
      * Note: This field only exists to optimise client mode.
@@ -453,6 +461,23 @@ public class Session implements Blacklistable, AMSession{
         return sessionProperties.get(name);
     }
 
+    /**
+     * Returns the version of the properties held by this session object, which changes whenever they are set or
+     * refreshed from the session service. Stale properties are refreshed first, as {@link #getProperty} would.
+     *
+     * @return The properties version.
+     * @exception SessionException is thrown if the session reached its
+     *            maximum session time, or the session was destroyed, or
+     *            there was an error during communication with session
+     *            service.
+     */
+    public long getPropertiesVersion() throws SessionException {
+        if (!usingCachedBasedPolling() && maxCachingTimeReached()) {
+            refresh(false);
+        }
+        return propertiesVersion.get();
+    }
+
     /**
      * Given a restricted token, returns the SSOTokenID of the master token
      * can only be used if the requester is an app token
@@ -522,6 +547,31 @@ public class Session implements Blacklistable, AMSession{
             SessionOperations operation = sessionOperationStrategy.getOperation(this.getID());
             operation.setProperty(this, name, value);
             sessionProperties.put(name, value);
+            propertiesVersion.incrementAndGet();
+        } catch (Exception e) {
+            throw new SessionException(e);
+        }
+    }
+
+    /**
+     * Sets each of the properties on the session, as a single update where the session service allows.
+     *
+     * @param properties The property names and values, none of which may be null.
+     * @exception SessionException If the session reached its maximum session time, or the session was destroyed,
+     *            or there was an error during communication with the session service, or if any property name or
+     *            value was null.
+     */
+    public void setProperties(Map<String, String> properties) throws SessionException {
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            if (property.getKey() == null || property.getValue() == null) {
+                throw new SessionException("Session property name/value cannot be null");
+            }
+        }
+        try {
+            SessionOperations operation = sessionOperationStrategy.getOperation(this.getID());
+            operation.setProperties(this, properties);
+            sessionProperties.putAll(properties);
+            propertiesVersion.incrementAndGet();
         } catch (Exception e) {
             throw new SessionException(e);
         }
@@ -790,6 +840,7 @@ public class Session implements Blacklistable, AMSession{
         sessionTimeLeft = info.getTimeLeft();
         sessionState = SessionState.valueOf(info.getState().toUpperCase());
         sessionProperties = info.getProperties();
+        propertiesVersion.incrementAndGet();
         if (timedOutAt <= 0) {
             String sessionTimedOutProp = sessionProperties.get("SessionTimedOut");
             if (sessionTimedOutProp != null) {
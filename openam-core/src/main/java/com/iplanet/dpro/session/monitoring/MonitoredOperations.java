@@ -12,10 +12,12 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2016 ForgeRock AS.
-*/
+ * Portions Copyright 2026 Wren Security.
+ */
 package com.iplanet.dpro.session.monitoring;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.forgerock.openam.dpro.session.PartialSession;
@@ -116,6 +118,17 @@ public class MonitoredOperations implements SessionOperations {
         sessionMonitoringStore.storeSetPropertyTime(System.nanoTime() - start, monitorType);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setProperties(Session session, Map<String, String> properties) throws SessionException {
+        final long start = System.nanoTime();
+        sessionOperations.setProperties(session, properties);
+
+        sessionMonitoringStore.storeSetPropertyTime(System.nanoTime() - start, monitorType);
+    }
+
     @Override
     public SessionInfo getSessionInfo(SessionID sid, boolean reset) throws SessionException {
         return sessionOperations.getSessionInfo(sid, reset); // Not monitored at present
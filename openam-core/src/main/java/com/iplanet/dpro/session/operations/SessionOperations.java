@@ -12,10 +12,12 @@
  * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
  * Header, with the fields enclosed by brackets [] replaced by your own identifying
  * information: "Portions copyright [year] [name of copyright owner]".
+ * Portions Copyright 2026 Wren Security.
  */
 package com.iplanet.dpro.session.operations;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.forgerock.openam.dpro.session.PartialSession;
 import org.forgerock.openam.utils.CrestQuery;
@@ -82,6 +84,22 @@ public interface SessionOperations {
      */
     void setProperty(Session session, String name, String value) throws SessionException;
 
+    /**
+     * Assigns each of the properties to the Session, as a single update where the implementation allows. By default
+     * each property is assigned with {@link #setProperty(Session, String, String)} in turn.
+     *
+     * @param session The session to perform the set on.
+     * @param properties Non null map of non null property names to non null values.
+     * @throws SessionException SessionException if the session reached its maximum
+     * session time, or the session was destroyed, or there was an error during
+     * communication with session service.
+     */
+    default void setProperties(Session session, Map<String, String> properties) throws SessionException {
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            setProperty(session, property.getKey(), property.getValue());
+        }
+    }
+
     /**
      * Get the Session Info Object from the Session ID.
      * @param sessionId the Session Id of the required Session Info.
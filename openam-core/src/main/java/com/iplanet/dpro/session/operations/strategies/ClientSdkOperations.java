@@ -12,14 +12,17 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.iplanet.dpro.session.operations.strategies;
 
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.forgerock.openam.dpro.session.PartialSession;
@@ -189,6 +192,32 @@ public class ClientSdkOperations implements SessionOperations {
         clientSdkSessionRequests.sendRequest(session.getSessionServiceURL(), sreq, session);
     }
 
+    /**
+     * Perform a remote setProperty on the Session for each of the properties, sent to the remote Service URL
+     * together in a single round trip.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void setProperties(Session session, Map<String, String> properties) throws SessionException {
+        if (properties.isEmpty()) {
+            return;
+        }
+        if (debug.messageEnabled()) {
+            debug.message(MessageFormat.format("Remote setProperties {0} {1}", session, properties));
+        }
+
+        String sessionID = session.getID().toString();
+        List<SessionRequest> sreqs = new ArrayList<>(properties.size());
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            SessionRequest sreq = new SessionRequest(SessionRequest.SetProperty, sessionID, false);
+            sreq.setPropertyName(property.getKey());
+            sreq.setPropertyValue(property.getValue());
+            sreqs.add(sreq);
+        }
+        clientSdkSessionRequests.sendRequests(session.getSessionServiceURL(), sreqs, session);
+    }
+
     @Override
     public SessionInfo getSessionInfo(SessionID sid, boolean reset) {
         throw new UnsupportedOperationException();
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.iplanet.dpro.session.operations.strategies;
 
@@ -22,6 +23,7 @@ import static org.forgerock.openam.utils.Time.currentTimeMillis;
 
 import java.text.MessageFormat;
 import java.util.Collection;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -190,6 +192,18 @@ public class LocalOperations implements SessionOperations {
         resolveToken(session.getID()).putProperty(name, value);
     }
 
+    /**
+     * Sets the properties on the InternalSession as a single update, so that they are persisted and notified once.
+     * {@inheritDoc}
+     */
+    @Override
+    public void setProperties(Session session, Map<String, String> properties) throws SessionException {
+        if (debug.messageEnabled()) {
+            debug.message("Local setProperties for {} {}", session.getID().toString(), properties);
+        }
+        resolveToken(session.getID()).putProperties(properties);
+    }
+
     @Override
     public SessionInfo getSessionInfo(SessionID sessionID, boolean reset) throws SessionException {
         InternalSession session = resolveToken(sessionID);
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.dpro.session.operations.strategies;
@@ -19,6 +20,7 @@ package com.iplanet.dpro.session.operations.strategies;
 import static org.forgerock.openam.utils.Time.currentTimeMillis;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
@@ -124,6 +126,11 @@ public class StatelessOperations implements SessionOperations {
         localOperations.setProperty(session, name, value);
     }
 
+    @Override
+    public void setProperties(final Session session, final Map<String, String> properties) throws SessionException {
+        localOperations.setProperties(session, properties);
+    }
+
     @Override
     public SessionInfo getSessionInfo(SessionID sid, boolean reset) throws SessionException {
         return statelessSessionManager.getSessionInfo(sid);
@@ -25,6 +25,7 @@
  * $Id: InternalSession.java,v 1.21 2009/03/20 21:05:25 weisun2 Exp $
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.iplanet.dpro.session.service;
 
@@ -47,6 +48,9 @@ import java.util.StringTokenizer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -175,6 +179,21 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
     /* Session handle is used to prevent administrator from impersonating other users. */
     @JsonIgnore private String sessionHandle = null;
 
+    /*
+     * Tracks changes to the persisted state of the session other than the latest access time, so that a session
+     * which has only been accessed can be persisted without rewriting its blob.
+     */
+    private transient final AtomicLong contentVersion = new AtomicLong(0);
+    private transient volatile long persistedContentVersion = -1;
+
+    /*
+     * Tracks updates made within a batch started by beginUpdates(), so that the batch is persisted and notified once
+     * when it is committed.
+     */
+    private transient final AtomicInteger updateDepth = new AtomicInteger(0);
+    private transient final AtomicBoolean pendingPersistence = new AtomicBoolean(false);
+    private transient final AtomicBoolean pendingPropertyNotification = new AtomicBoolean(false);
+
     /**
      * Creates an instance of the Internal Session with its key dependencies exposed.
      *
@@ -426,6 +445,7 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
      */
     public void cacheCookieString(String cookieString) {
         this.cookieStr = cookieString;
+        contentChanged();
     }
 
     /**
@@ -642,6 +662,53 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         internalPutProperty(key, value);
     }
 
+    /**
+     * Sets each of the key-value pairs in the Internal Session property table, as {@link #putProperty} does, as a
+     * single update which is persisted and notified once.
+     *
+     * @param properties The non null property keys and values.
+     */
+    public void putProperties(Map<String, String> properties) {
+        beginUpdates();
+        try {
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                internalPutProperty(property.getKey(), property.getValue());
+            }
+        } finally {
+            commitUpdates();
+        }
+    }
+
+    /**
+     * Starts a batch of updates to this session. Until the batch is committed by a matching call to
+     * {@link #commitUpdates()}, updates are applied to the session as usual, but are not persisted and do not fire
+     * {@link SessionEventType#PROPERTY_CHANGED} events. Batches may be nested, in which case the updates are
+     * persisted and notified when the outermost batch is committed.
+     * <p>
+     * The batch applies to all updates to this session, including those made concurrently by other threads, so
+     * batches should be short and must always be committed, in a {@code finally} block.
+     */
+    public void beginUpdates() {
+        updateDepth.incrementAndGet();
+    }
+
+    /**
+     * Commits a batch of updates started by {@link #beginUpdates()}. If this ends the outermost batch, a single
+     * {@link SessionEventType#PROPERTY_CHANGED} event is fired if any notifiable property was changed, and the
+     * session is persisted once if it was changed.
+     */
+    public void commitUpdates() {
+        if (updateDepth.decrementAndGet() > 0) {
+            return;
+        }
+        if (pendingPropertyNotification.getAndSet(false) && sessionState == SessionState.VALID) {
+            fireSessionEvent(SessionEventType.PROPERTY_CHANGED);
+        }
+        if (pendingPersistence.getAndSet(false)) {
+            notifyPersistenceManagerOfAccess();
+        }
+    }
+
     /**
      * Sets the key-value pair in the Internal Session property table.
      *
@@ -682,7 +749,9 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         }
 
         if (sessionState == SessionState.VALID && serviceConfig.isSendPropertyNotification(key)) {
-            fireSessionEvent(SessionEventType.PROPERTY_CHANGED);
+            if (!deferred(pendingPropertyNotification)) {
+                fireSessionEvent(SessionEventType.PROPERTY_CHANGED);
+            }
         }
         notifyPersistenceManager();
     }
@@ -778,6 +847,7 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         maxIdleTimeInMinutes = NON_EXPIRING_SESSION_LENGTH_MINUTES;
         maxCachingTimeInMinutes = serviceConfig.getApplicationMaxCachingTime();
         willExpireFlag = false;
+        contentChanged();
     }
 
     /**
@@ -845,7 +915,7 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         long oldLatestAccessTime = latestAccessTimeInSeconds;
         latestAccessTimeInSeconds = currentTimeMillis() / 1000;
         if ((latestAccessTimeInSeconds - oldLatestAccessTime) > interval) {
-            notifyPersistenceManager();
+            notifyPersistenceManagerOfAccess();
         }
     }
 
@@ -962,6 +1032,7 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
      */
     private void setCreationTime() {
         creationTimeInSeconds = currentTimeMillis() / 1000;
+        contentChanged();
     }
 
     /**
@@ -1043,6 +1114,7 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         debug.message("CookieMode is: {}", cookieMode);
         if (cookieMode != null) {
             this.cookieMode = cookieMode;
+            contentChanged();
         }
     }
 
@@ -1056,6 +1128,7 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         this.sessionHandle = sessionHandle;
         //No need to update the session for failover, as this method is invoked only upon session
         //creation/deserialization.
+        contentChanged();
     }
 
     /**
@@ -1113,6 +1186,43 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         return timeUnit.convert(latestAccessTimeInSeconds + MINUTES.toSeconds(maxIdleTimeInMinutes), SECONDS);
     }
 
+    /**
+     * Returns the last time the client sent a request associated with this session.
+     *
+     * @param timeUnit the time unit to return the result in.
+     * @return the result in the given units.
+     */
+    public long getLatestAccessTime(final TimeUnit timeUnit) {
+        return timeUnit.convert(latestAccessTimeInSeconds, SECONDS);
+    }
+
+    /**
+     * Returns a version number for the persisted state of this session, which changes whenever that state is
+     * modified. Updating the latest access time does not change the version.
+     *
+     * @return The current content version.
+     */
+    public long getContentVersion() {
+        return contentVersion.get();
+    }
+
+    /**
+     * Records that the persisted state of this session, as of the given content version, has been stored.
+     *
+     * @param version The content version read by {@link #getContentVersion()} before the session was stored.
+     */
+    public void setPersistedContentVersion(long version) {
+        persistedContentVersion = version;
+    }
+
+    /**
+     * @return True if the persisted state of this session, other than the latest access time, has not changed
+     * since it was last stored.
+     */
+    public boolean isContentPersisted() {
+        return persistedContentVersion == contentVersion.get();
+    }
+
     /**
      * @return True if the Session has reached an invalid state.
      */
@@ -1126,11 +1236,40 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
     }
 
     private void notifyPersistenceManager() {
+        contentChanged();
+        notifyPersistenceManagerOfAccess();
+    }
+
+    /**
+     * Records a change to the persisted state of the session. Modifications which do not notify the persistence
+     * manager must still call this, so that the change is included the next time the session is persisted rather
+     * than lost to a write of the latest access time alone.
+     */
+    private void contentChanged() {
+        contentVersion.incrementAndGet();
+    }
+
+    private void notifyPersistenceManagerOfAccess() {
+        if (deferred(pendingPersistence)) {
+            return;
+        }
         if (persistenceManager != null) {
             persistenceManager.notifyUpdate(this);
         }
     }
 
+    /**
+     * Records a pending action if a batch of updates is in progress, returning whether the action was deferred.
+     */
+    private boolean deferred(AtomicBoolean pending) {
+        if (updateDepth.get() == 0) {
+            return false;
+        }
+        pending.set(true);
+        // The batch may have been committed after it was checked, in which case the action must be taken now
+        return updateDepth.get() > 0 || !pending.getAndSet(false);
+    }
+
     private void fireSessionEvent(SessionEventType sessionEventType) {
         sessionEventBroker.onEvent(new InternalSessionEvent(this, sessionEventType, Time.currentTimeMillis()));
     }
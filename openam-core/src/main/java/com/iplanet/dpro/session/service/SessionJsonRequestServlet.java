@@ -0,0 +1,147 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.iplanet.dpro.session.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.forgerock.guice.core.InjectorHolder;
+import org.forgerock.openam.audit.AuditEventFactory;
+import org.forgerock.openam.audit.AuditEventPublisher;
+import org.forgerock.util.annotations.VisibleForTesting;
+
+import com.iplanet.am.util.SystemProperties;
+import com.iplanet.dpro.session.share.SessionJsonCodec;
+import com.iplanet.dpro.session.share.SessionRequest;
+import com.iplanet.dpro.session.share.SessionResponse;
+import com.iplanet.services.comm.server.PLLAuditor;
+import com.iplanet.services.comm.server.PLLServer;
+import com.iplanet.services.comm.share.PLLBundle;
+import com.sun.identity.shared.Constants;
+
+/**
+ * Receives batches of session requests encoded by {@link SessionJsonCodec} and responds with the batch of
+ * session responses, in the same order.
+ * <p>
+ * This is a compact alternative to sending session requests to the session service over PLL XML, and is
+ * processed by the same {@link SessionRequestHandler}. Clients which find this endpoint is not available fall
+ * back to PLL, so it is not an error for a server not to provide it.
+ * <p>
+ * Requests larger than the PLL maximum content length are rejected.
+ *
+ * @see Constants#SERVICES_COMM_SERVER_PLLREQUEST_MAX_CONTENT_LENGTH
+ */
+public class SessionJsonRequestServlet extends HttpServlet {
+
+    /* the default content length is set to 16k, as for PLL */
+    private int maxContentLength = 16384;
+    private SessionRequestHandler handler;
+
+    /**
+     * Constructs the servlet, which is initialised by the servlet container.
+     */
+    public SessionJsonRequestServlet() {
+    }
+
+    @VisibleForTesting
+    SessionJsonRequestServlet(SessionRequestHandler handler, int maxContentLength) {
+        this.handler = handler;
+        this.maxContentLength = maxContentLength;
+    }
+
+    @Override
+    public void init() throws ServletException {
+        String maxContentLengthProp = SystemProperties.get(
+                Constants.SERVICES_COMM_SERVER_PLLREQUEST_MAX_CONTENT_LENGTH, String.valueOf(maxContentLength));
+        try {
+            maxContentLength = Integer.parseInt(maxContentLengthProp);
+        } catch (NumberFormatException e) {
+            PLLServer.pllDebug.message("Invalid value [{}] for property {}", maxContentLengthProp,
+                    Constants.SERVICES_COMM_SERVER_PLLREQUEST_MAX_CONTENT_LENGTH);
+        }
+        handler = InjectorHolder.getInstance(SessionRequestHandler.class);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
+        PLLAuditor auditor = createAuditor(req);
+
+        String contentType = req.getContentType();
+        if (contentType == null || !contentType.startsWith(SessionJsonCodec.CONTENT_TYPE)) {
+            res.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+            return;
+        }
+
+        int length = req.getContentLength();
+        if (length == -1) {
+            PLLServer.pllDebug.warning(PLLBundle.getString("unknownLength"));
+            auditor.auditAccessFailure(PLLBundle.getString("unknownLength"));
+            res.sendError(HttpServletResponse.SC_LENGTH_REQUIRED);
+            return;
+        }
+        if (length > maxContentLength) {
+            PLLServer.pllDebug.error("content length exceeded configured max request size - " + length);
+            auditor.auditAccessFailure(PLLBundle.getString("largeContentLength"));
+            res.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        List<SessionRequest> requests;
+        try {
+            byte[] reqData = new byte[length];
+            new DataInputStream(req.getInputStream()).readFully(reqData);
+            requests = SessionJsonCodec.decodeRequests(new ByteArrayInputStream(reqData));
+        } catch (EOFException e) {
+            auditor.auditAccessFailure(PLLBundle.getString("readRequestError"));
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        } catch (IOException e) {
+            PLLServer.pllDebug.warning("Invalid session request batch", e);
+            auditor.auditAccessFailure(e.getMessage());
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (requests.isEmpty()) {
+            res.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        List<SessionResponse> responses = handler.process(auditor, requests, req);
+
+        byte[] body = SessionJsonCodec.encodeResponses(responses);
+        res.setContentType(SessionJsonCodec.CONTENT_TYPE + ";charset=UTF-8");
+        res.setContentLength(body.length);
+        res.getOutputStream().write(body);
+        res.getOutputStream().flush();
+    }
+
+    @VisibleForTesting
+    PLLAuditor createAuditor(HttpServletRequest req) {
+        return new PLLAuditor(
+                PLLServer.pllDebug,
+                InjectorHolder.getInstance(AuditEventPublisher.class),
+                InjectorHolder.getInstance(AuditEventFactory.class),
+                req);
+    }
+}
@@ -25,6 +25,7 @@
  * $Id: SessionMaxStats.java,v 1.4 2008/06/25 05:41:31 qcheng Exp $
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.iplanet.dpro.session.service;
 
@@ -32,6 +33,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.forgerock.openam.session.service.SessionAccessManager;
+import org.forgerock.openam.session.service.access.persistence.SessionUUIDIndex;
 
 import com.sun.identity.shared.stats.Stats;
 import com.sun.identity.shared.stats.StatsListener;
@@ -46,6 +48,7 @@ public class SessionMaxStats implements StatsListener {
 
     private final SessionAccessManager sessionAccessManager;
     private final SessionNotificationSender sessionNotificationSender;
+    private final SessionUUIDIndex sessionUUIDIndex;
     private final Stats stats;
     private int peakSessions = 0;
     private int peakActiveSessions = 0;
@@ -55,16 +58,19 @@ public class SessionMaxStats implements StatsListener {
     * Creates a new SessionMaxStats
     * @param sessionAccessManager session accessManagement
     * @param sessionNotificationSender
+    * @param sessionUUIDIndex
     * @param stats
     */
    @Inject
    public SessionMaxStats(
            SessionAccessManager sessionAccessManager,
            SessionNotificationSender sessionNotificationSender,
+           SessionUUIDIndex sessionUUIDIndex,
            Stats stats) {
 
        this.sessionAccessManager = sessionAccessManager;
        this.sessionNotificationSender = sessionNotificationSender;
+       this.sessionUUIDIndex = sessionUUIDIndex;
        this.stats = stats;
    }
 
@@ -96,7 +102,10 @@ public class SessionMaxStats implements StatsListener {
                            "Max active sessions Current/Peak:" +
                            maxActiveSessions + "/" + peakActiveSessions + "\n" +
                            "Session Notifications in Queue Current/Peak:"
-                           + notificationQueue + "/" + peakNotificationQueue);
+                           + notificationQueue + "/" + peakNotificationQueue + "\n" +
+                           "Users in session index Current/Hits/Misses:"
+                           + sessionUUIDIndex.size() + "/" + sessionUUIDIndex.getHitCount() + "/"
+                           + sessionUUIDIndex.getMissCount());
        } 
        else {
            stats.record("No sessions found in session table");
@@ -25,6 +25,7 @@
  * $Id: SessionService.java,v 1.37 2010/02/03 03:52:54 bina Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.iplanet.dpro.session.service;
 
@@ -36,6 +37,7 @@ import javax.inject.Named;
 
 import org.forgerock.guice.core.InjectorHolder;
 import org.forgerock.openam.session.service.SessionAccessManager;
+import org.forgerock.openam.session.service.access.persistence.SessionUUIDIndex;
 
 import com.sun.identity.setup.SetupListener;
 import com.sun.identity.shared.debug.Debug;
@@ -65,17 +67,20 @@ public class SessionMaxStatsSetupListener implements SetupListener {
         private final Stats stats;
         private final SessionAccessManager accessManager;
         private final SessionNotificationSender notificationSender;
+        private final SessionUUIDIndex sessionUUIDIndex;
 
         @Inject
         InitializeMaxSessionStats(
                 @Named(SESSION_DEBUG) final Debug debug,
                 @Named(STATS_MASTER_TABLE) final Stats stats,
                 final SessionAccessManager sessionAccessManager,
-                final SessionNotificationSender sessionNotificationSender) {
+                final SessionNotificationSender sessionNotificationSender,
+                final SessionUUIDIndex sessionUUIDIndex) {
             this.debug = debug;
             this.stats = stats;
             this.accessManager = sessionAccessManager;
             this.notificationSender = sessionNotificationSender;
+            this.sessionUUIDIndex = sessionUUIDIndex;
         }
 
         @Override
@@ -83,7 +88,7 @@ public class SessionMaxStatsSetupListener implements SetupListener {
             try {
                 if (stats.isEnabled()) {
                     stats.addStatsListener(
-                            new SessionMaxStats(accessManager, notificationSender, stats)
+                            new SessionMaxStats(accessManager, notificationSender, sessionUUIDIndex, stats)
                     );
                 }
             } catch (Exception ex) {
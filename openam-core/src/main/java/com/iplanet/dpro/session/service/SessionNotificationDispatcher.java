@@ -0,0 +1,280 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.iplanet.dpro.session.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.forgerock.util.annotations.VisibleForTesting;
+
+import com.iplanet.services.comm.server.PLLServer;
+import com.iplanet.services.comm.server.SendNotificationException;
+import com.iplanet.services.comm.share.Notification;
+import com.iplanet.services.comm.share.NotificationSet;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Delivers PLL session notifications to remote listeners.
+ * <p>
+ * Notifications are queued per destination URL. Once a notification is queued, the destination is flushed after
+ * {@link SessionServiceConfig#getNotificationCoalesceWindow() the coalescing window}, sending all of the
+ * notifications queued for it as a single {@link NotificationSet}. Each destination is flushed by at most one
+ * delivery thread at a time, so a slow destination holds at most one delivery thread, and the notifications queued
+ * for it in the meantime are sent together once it responds. A destination is forgotten once it has been flushed
+ * with nothing left to send and no retry pending.
+ * <p>
+ * At most {@link SessionServiceConfig#getNotificationThreadPoolThreshold()} notifications are held across all
+ * destinations, counting those awaiting a retry. Once that many are held, further notifications are dropped rather
+ * than held in memory.
+ * <p>
+ * Deliveries reuse open connections to the destination where possible. A delivery which fails is retried, with
+ * the delay doubling on each attempt, up to {@link SessionServiceConfig#getNotificationRetries()} times, after
+ * which its notifications are dropped.
+ */
+@Singleton
+public class SessionNotificationDispatcher {
+
+    private static final String THREAD_POOL_NAME = "amSessionNotification";
+    private static final long MIN_RETRY_DELAY = 100;
+
+    private final ConcurrentMap<String, Destination> destinations = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final ScheduledExecutorService executor;
+    private final long window;
+    private final int queueSize;
+    private final int maxRetries;
+    private final Debug debug;
+
+    /**
+     * @param serviceConfig Required to size the delivery thread pool and queues.
+     * @param executorServiceFactory Required to create the delivery thread pool.
+     * @param debug Required for debugging.
+     */
+    @Inject
+    public SessionNotificationDispatcher(SessionServiceConfig serviceConfig,
+            AMExecutorServiceFactory executorServiceFactory,
+            @Named(SessionConstants.SESSION_DEBUG) Debug debug) {
+        this.window = Math.max(0, serviceConfig.getNotificationCoalesceWindow());
+        this.queueSize = Math.max(1, serviceConfig.getNotificationThreadPoolThreshold());
+        this.maxRetries = Math.max(0, serviceConfig.getNotificationRetries());
+        this.debug = debug;
+        this.executor = executorServiceFactory.createScheduledService(
+                Math.max(1, serviceConfig.getNotificationThreadPoolSize()), THREAD_POOL_NAME);
+    }
+
+    /**
+     * Queues the notification for delivery to the URL.
+     *
+     * @param url Non null URL of the remote listener.
+     * @param notification Non null notification to deliver.
+     */
+    public void send(URL url, Notification notification) {
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            dropped.incrementAndGet();
+            debug.warning("Session notification queue is full, dropping notification to {}", url);
+            return;
+        }
+        Destination destination = destinations.compute(url.toExternalForm(), (key, existing) -> {
+            Destination target = existing == null ? new Destination(key, url) : existing;
+            target.queue.add(notification);
+            return target;
+        });
+        destination.schedule(window);
+    }
+
+    /**
+     * @return The number of notifications queued for delivery, including those awaiting a retry.
+     */
+    public int getQueueSize() {
+        return queued.get();
+    }
+
+    /**
+     * @return The number of notifications delivered since server start up.
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return The number of notification sets delivered since server start up, each of which may hold several
+     * notifications.
+     */
+    public long getDeliveryCount() {
+        return deliveries.get();
+    }
+
+    /**
+     * @return The number of notifications dropped since server start up, either because the queue for their
+     * destination was full or because delivery failed after all retries.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of failed deliveries which have been retried since server start up.
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Sends the notification set to the URL.
+     *
+     * @param url The URL of the remote listener.
+     * @param set The notifications to send.
+     * @throws SendNotificationException If the notification set could not be sent.
+     */
+    void deliver(URL url, NotificationSet set) throws SendNotificationException {
+        PLLServer.deliver(url, set);
+    }
+
+    @VisibleForTesting
+    int getDestinationCount() {
+        return destinations.size();
+    }
+
+    /**
+     * The queue of notifications for a single URL, which is flushed by at most one thread at a time.
+     */
+    private final class Destination implements Runnable {
+
+        private final String key;
+        private final URL url;
+        // Never holds more than the global threshold, and only allocates as notifications are queued
+        private final BlockingQueue<Notification> queue = new LinkedBlockingQueue<>(queueSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        // Only accessed by the thread flushing this destination
+        private List<Notification> failed;
+        private int attempts;
+
+        private Destination(String key, URL url) {
+            this.key = key;
+            this.url = url;
+        }
+
+        private void schedule(long delay) {
+            if (scheduled.compareAndSet(false, true)) {
+                submit(delay);
+            }
+        }
+
+        private void submit(long delay) {
+            try {
+                executor.schedule(this, delay, MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                debug.warning("Session notification delivery to {} rejected", url, e);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (flush()) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                debug.error("Failed to deliver session notifications to {}", url, e);
+            }
+            scheduled.set(false);
+            // A notification queued after the flush drained the queue, but before the flag was cleared, would
+            // otherwise not be delivered until the next notification to this destination
+            if (!queue.isEmpty()) {
+                schedule(window);
+            } else {
+                forgetIfIdle();
+            }
+        }
+
+        /**
+         * Removes this destination, unless a notification has been queued for it or it has been scheduled again.
+         * Notifications are queued while the destination is mapped, so none can be queued on it once it is removed.
+         */
+        private void forgetIfIdle() {
+            destinations.computeIfPresent(key, (mapped, existing) -> existing == this && isIdle() ? null : existing);
+        }
+
+        private boolean isIdle() {
+            return queue.isEmpty() && failed == null && !scheduled.get();
+        }
+
+        /**
+         * @return True if a retry has been scheduled, in which case this destination remains scheduled.
+         */
+        private boolean flush() {
+            List<Notification> batch = failed == null ? new ArrayList<Notification>() : failed;
+            failed = null;
+            queue.drainTo(batch);
+            if (batch.isEmpty()) {
+                return false;
+            }
+            NotificationSet set = new NotificationSet(SessionService.SESSION_SERVICE);
+            for (Notification notification : batch) {
+                set.addNotification(notification);
+            }
+            try {
+                deliver(url, set);
+                attempts = 0;
+                deliveries.incrementAndGet();
+                sent.addAndGet(batch.size());
+                return false;
+            } catch (SendNotificationException e) {
+                if (attempts < maxRetries) {
+                    attempts++;
+                    failed = batch;
+                    retries.incrementAndGet();
+                    long delay = Math.max(window, MIN_RETRY_DELAY) << (attempts - 1);
+                    debug.message("Failed to deliver session notifications to {}, retrying in {}ms", url, delay, e);
+                    submit(delay);
+                    return true;
+                }
+                attempts = 0;
+                dropped.addAndGet(batch.size());
+                debug.error("Failed to deliver {} session notifications to {}, dropping them", batch.size(), url, e);
+                return false;
+            } finally {
+                // Unless they are held for a retry, the notifications no longer count towards the threshold
+                if (failed != batch) {
+                    queued.addAndGet(-batch.size());
+                }
+            }
+        }
+    }
+}
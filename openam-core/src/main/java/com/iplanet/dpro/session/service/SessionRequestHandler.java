@@ -25,6 +25,7 @@
  * $Id: SessionRequestHandler.java,v 1.9 2009/04/02 04:11:44 ericow Exp $
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.iplanet.dpro.session.service;
 
@@ -144,19 +145,39 @@ public class SessionRequestHandler implements RequestHandler {
 
         auditor.setComponent(SESSION);
         for (Request req : requests) {
-            Response res = processRequest(auditor, req, servletRequest);
-            rset.addResponse(res);
+            SessionResponse sres = processRequest(auditor, SessionRequest.parseXML(req.getContent()), servletRequest);
+            rset.addResponse(new Response(sres.toXMLString()));
         }
 
         return rset;
     }
 
-    private Response processRequest(
+    /**
+     * Processes a batch of session requests which were not received as PLL XML, such as those received by
+     * {@link SessionJsonRequestServlet}.
+     *
+     * @param auditor The auditor for the batch.
+     * @param requests The session requests, in the order they should be processed.
+     * @param servletRequest The HTTP request which carried the batch.
+     * @return The session responses, in the same order as the requests.
+     */
+    public List<SessionResponse> process(PLLAuditor auditor, List<SessionRequest> requests,
+            HttpServletRequest servletRequest) {
+        List<SessionResponse> responses = new ArrayList<>(requests.size());
+
+        auditor.setComponent(SESSION);
+        for (SessionRequest sreq : requests) {
+            responses.add(processRequest(auditor, sreq, servletRequest));
+        }
+
+        return responses;
+    }
+
+    private SessionResponse processRequest(
             final PLLAuditor auditor,
-            final Request req,
+            final SessionRequest sreq,
             final HttpServletRequest servletRequest) {
 
-        final SessionRequest sreq = SessionRequest.parseXML(req.getContent());
         auditor.setMethod(sreq.getMethodName());
         SessionResponse sres = new SessionResponse(sreq.getRequestID(), sreq.getMethodID());
 
@@ -225,13 +246,13 @@ public class SessionRequestHandler implements RequestHandler {
             auditor.auditAccessFailure(sres.getException());
         }
 
-        return new Response(sres.toXMLString());
+        return sres;
     }
 
-    private Response auditedExceptionResponse(PLLAuditor auditor, SessionResponse sres) {
+    private SessionResponse auditedExceptionResponse(PLLAuditor auditor, SessionResponse sres) {
         auditor.auditAccessAttempt();
         auditor.auditAccessFailure(sres.getException());
-        return new Response(sres.toXMLString());
+        return sres;
     }
 
     private SessionResponse processSessionRequest(PLLAuditor auditor, SessionRequest req) throws SessionException,
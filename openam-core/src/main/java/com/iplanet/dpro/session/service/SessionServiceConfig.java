@@ -26,6 +26,7 @@
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
  * Portions Copyrighted 2016 Nomura Research Institute, Ltd.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.dpro.session.service;
@@ -86,6 +87,10 @@ public class SessionServiceConfig {
      */
 
     private static final int DEFAULT_MAX_SESSION_CACHE_SIZE = 5000;
+    private static final int DEFAULT_OFF_HEAP_SESSION_CACHE_SIZE = 0;
+    private static final int DEFAULT_SESSION_SUMMARY_CACHE_SIZE = 0;
+    private static final long DEFAULT_ACCESS_TIME_WRITE_WINDOW = 0;
+    private static final int DEFAULT_UUID_INDEX_SIZE = 0;
 
     private static final String LOGSTATUS_ACTIVE = "ACTIVE";
     private final boolean logStatus;
@@ -102,6 +107,9 @@ public class SessionServiceConfig {
     private static final int DEFAULT_NOTIFICATION_THEAD_POOL_THRESHOLD = DEFAULT_NOTIFICATION_THEAD_POOL_SIZE * 10;
     private final int notificationThreadPoolThreshold;
 
+    private static final long DEFAULT_NOTIFICATION_COALESCE_WINDOW = 0;
+    private static final int DEFAULT_NOTIFICATION_RETRIES = 2;
+
     private static final long DEFAULT_APPLICATION_MAX_CACHING_TIME = Long.MAX_VALUE / 60;
     private final long applicationMaxCachingTime;
 
@@ -428,6 +436,49 @@ public class SessionServiceConfig {
         return SystemProperties.getAsInt(AM_SESSION_MAX_CACHE_SIZE, DEFAULT_MAX_SESSION_CACHE_SIZE);
     }
 
+    /**
+     * The size in megabytes of the off-heap tier of the internal session cache, which holds serialised sessions
+     * evicted from the in-memory cache.
+     *
+     * @return SystemProperty "org.forgerock.openam.session.service.access.persistence.caching.offheap.size".
+     * Default 0, which disables the off-heap tier.
+     */
+    public int getOffHeapSessionCacheSize() {
+        return SystemProperties.getAsInt(AM_SESSION_OFF_HEAP_CACHE_SIZE, DEFAULT_OFF_HEAP_SESSION_CACHE_SIZE);
+    }
+
+    /**
+     * The maximum number of session summaries to cache for answering session validation requests without reading
+     * the full session.
+     *
+     * @return SystemProperty "org.forgerock.openam.session.service.access.persistence.caching.summary.size".
+     * Default 0, which disables the summary cache and always reads the full session.
+     */
+    public int getSessionSummaryCacheSize() {
+        return SystemProperties.getAsInt(AM_SESSION_SUMMARY_CACHE_SIZE, DEFAULT_SESSION_SUMMARY_CACHE_SIZE);
+    }
+
+    /**
+     * The window in milliseconds over which writes of the latest access time of a session are coalesced.
+     *
+     * @return SystemProperty "org.forgerock.openam.session.service.access.persistence.accesstime.window".
+     * Default 0, which writes every access time change immediately.
+     */
+    public long getAccessTimeWriteWindow() {
+        return SystemProperties.getAsLong(AM_SESSION_ACCESS_TIME_WRITE_WINDOW, DEFAULT_ACCESS_TIME_WRITE_WINDOW);
+    }
+
+    /**
+     * The maximum number of users whose session handles are held in the local index used to answer session
+     * quota and per user session queries.
+     *
+     * @return SystemProperty "org.forgerock.openam.session.service.access.persistence.uuidindex.size".
+     * Default 0, which disables the index and queries the CTS directly.
+     */
+    public int getSessionUUIDIndexSize() {
+        return SystemProperties.getAsInt(AM_SESSION_UUID_INDEX_SIZE, DEFAULT_UUID_INDEX_SIZE);
+    }
+
     /**
      * Returns true if SystemProperty "com.iplanet.am.logstatus" is "ACTIVE" (case insensitive).
      *
@@ -464,7 +515,9 @@ public class SessionServiceConfig {
     }
 
     /**
-     * Returns value of SystemProperty "com.iplanet.am.notification.threadpool.threshold".
+     * Returns value of SystemProperty "com.iplanet.am.notification.threadpool.threshold", the maximum number of
+     * session notifications queued for a single destination, beyond which further notifications to that
+     * destination are dropped.
      *
      * Defaults to 100 if not specified.
      */
@@ -472,6 +525,25 @@ public class SessionServiceConfig {
         return notificationThreadPoolThreshold;
     }
 
+    /**
+     * The window in milliseconds over which session notifications to the same destination are coalesced.
+     *
+     * @return SystemProperty "com.iplanet.am.notification.coalesce.window". Default 0, which sends notifications as
+     * soon as a delivery thread is free, coalescing only those queued while the previous delivery was in progress.
+     */
+    public long getNotificationCoalesceWindow() {
+        return SystemProperties.getAsLong(NOTIFICATION_COALESCE_WINDOW, DEFAULT_NOTIFICATION_COALESCE_WINDOW);
+    }
+
+    /**
+     * The number of times delivery of session notifications to a destination is retried before they are dropped.
+     *
+     * @return SystemProperty "com.iplanet.am.notification.retries". Default 2.
+     */
+    public int getNotificationRetries() {
+        return SystemProperties.getAsInt(NOTIFICATION_RETRIES, DEFAULT_NOTIFICATION_RETRIES);
+    }
+
     /**
      * Returns value of SystemProperty "com.sun.identity.session.returnAppSession".
      *
@@ -0,0 +1,267 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.iplanet.dpro.session.share;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.identity.common.SearchResults;
+
+/**
+ * Encodes batches of {@link SessionRequest}s and {@link SessionResponse}s as compact JSON, as an alternative to
+ * wrapping the XML form of each one in a PLL {@code RequestSet} or {@code ResponseSet}.
+ * <p>
+ * A batch is a JSON array holding one object per request or response, in order. Members which hold their default
+ * value are omitted. Session times are sent relative to the time the response is encoded, as they are in the XML
+ * form, so that the encoding is not sensitive to clock skew between the client and server.
+ */
+public final class SessionJsonCodec {
+
+    /** The content type of encoded batches. */
+    public static final String CONTENT_TYPE = "application/json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String VERSION = "v";
+    private static final String REQUEST_ID = "id";
+    private static final String METHOD = "m";
+    private static final String SESSION_ID = "sid";
+    private static final String REQUESTER = "rq";
+    private static final String RESET = "reset";
+    private static final String DESTROY_SESSION_ID = "dsid";
+    private static final String NOTIFICATION_URL = "url";
+    private static final String PROPERTY_NAME = "pn";
+    private static final String PROPERTY_VALUE = "pv";
+    private static final String PATTERN = "pattern";
+    private static final String UUID = "uuid";
+    private static final String SESSIONS = "sessions";
+    private static final String SESSIONS_FOR_UUID = "uuidSessions";
+    private static final String FLAG = "flag";
+    private static final String EXCEPTION = "ex";
+    private static final String STATUS = "status";
+    private static final String SESSION_TYPE = "stype";
+    private static final String CLIENT_ID = "cid";
+    private static final String CLIENT_DOMAIN = "cdomain";
+    private static final String MAX_TIME = "maxtime";
+    private static final String MAX_IDLE = "maxidle";
+    private static final String MAX_CACHING = "maxcaching";
+    private static final String TIME_IDLE = "timeidle";
+    private static final String TIME_LEFT = "timeleft";
+    private static final String STATE = "state";
+    private static final String PROPERTIES = "props";
+
+    private SessionJsonCodec() {
+    }
+
+    /**
+     * Encodes a batch of session requests.
+     *
+     * @param requests The non null requests.
+     * @return The UTF-8 encoded JSON batch.
+     * @throws IOException If the batch could not be encoded.
+     */
+    public static byte[] encodeRequests(List<SessionRequest> requests) throws IOException {
+        ArrayNode batch = MAPPER.createArrayNode();
+        for (SessionRequest request : requests) {
+            ObjectNode json = batch.addObject();
+            put(json, VERSION, request.getRequestVersion());
+            put(json, REQUEST_ID, request.getRequestID());
+            json.put(METHOD, request.getMethodID());
+            put(json, SESSION_ID, request.getSessionID());
+            put(json, REQUESTER, request.getRequester());
+            if (request.getResetFlag()) {
+                json.put(RESET, true);
+            }
+            put(json, DESTROY_SESSION_ID, request.getDestroySessionID());
+            put(json, NOTIFICATION_URL, request.getNotificationURL());
+            put(json, PROPERTY_NAME, request.getPropertyName());
+            put(json, PROPERTY_VALUE, request.getPropertyValue());
+            put(json, PATTERN, request.getPattern());
+            put(json, UUID, request.getUUID());
+        }
+        return MAPPER.writeValueAsBytes(batch);
+    }
+
+    /**
+     * Decodes a batch of session requests.
+     *
+     * @param in The UTF-8 encoded JSON batch.
+     * @return The non null requests, in order.
+     * @throws IOException If the batch could not be read or is not a valid batch of requests.
+     */
+    public static List<SessionRequest> decodeRequests(InputStream in) throws IOException {
+        List<SessionRequest> requests = new ArrayList<>();
+        for (JsonNode json : readBatch(in)) {
+            SessionRequest request = new SessionRequest();
+            request.setRequestVersion(text(json, VERSION));
+            request.setRequestID(text(json, REQUEST_ID));
+            request.setMethodID(json.path(METHOD).asInt(-1));
+            request.setSessionID(text(json, SESSION_ID));
+            request.setRequester(text(json, REQUESTER));
+            request.setResetFlag(json.path(RESET).asBoolean(false));
+            request.setDestroySessionID(text(json, DESTROY_SESSION_ID));
+            request.setNotificationURL(text(json, NOTIFICATION_URL));
+            request.setPropertyName(text(json, PROPERTY_NAME));
+            request.setPropertyValue(text(json, PROPERTY_VALUE));
+            request.setPattern(text(json, PATTERN));
+            request.setUUID(text(json, UUID));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    /**
+     * Encodes a batch of session responses.
+     *
+     * @param responses The non null responses.
+     * @return The UTF-8 encoded JSON batch.
+     * @throws IOException If the batch could not be encoded.
+     */
+    public static byte[] encodeResponses(List<SessionResponse> responses) throws IOException {
+        ArrayNode batch = MAPPER.createArrayNode();
+        for (SessionResponse response : responses) {
+            ObjectNode json = batch.addObject();
+            put(json, VERSION, response.getResponseVersion());
+            put(json, REQUEST_ID, response.getRequestID());
+            json.put(METHOD, response.getMethodID());
+            List<SessionInfo> infos = response.getSessionInfo();
+            if (infos != null && !infos.isEmpty()) {
+                ArrayNode sessions = json.putArray(SESSIONS);
+                for (SessionInfo info : infos) {
+                    encodeSessionInfo(sessions.addObject(), info);
+                }
+            }
+            Map<?, ?> sessionsForUUID = response.getSessionsForGivenUUID();
+            if (sessionsForUUID != null && !sessionsForUUID.isEmpty()) {
+                ObjectNode sessions = json.putObject(SESSIONS_FOR_UUID);
+                for (Map.Entry<?, ?> session : sessionsForUUID.entrySet()) {
+                    sessions.put(String.valueOf(session.getKey()), (Long) session.getValue());
+                }
+            }
+            if (response.getBooleanFlag()) {
+                json.put(FLAG, true);
+            }
+            put(json, EXCEPTION, response.getException());
+            if (response.getStatus() != SearchResults.UNDEFINED_RESULT_COUNT) {
+                json.put(STATUS, response.getStatus());
+            }
+        }
+        return MAPPER.writeValueAsBytes(batch);
+    }
+
+    /**
+     * Decodes a batch of session responses.
+     *
+     * @param in The UTF-8 encoded JSON batch.
+     * @return The non null responses, in order.
+     * @throws IOException If the batch could not be read or is not a valid batch of responses.
+     */
+    public static List<SessionResponse> decodeResponses(InputStream in) throws IOException {
+        List<SessionResponse> responses = new ArrayList<>();
+        for (JsonNode json : readBatch(in)) {
+            SessionResponse response = new SessionResponse();
+            response.setResponseVersion(text(json, VERSION));
+            response.setRequestID(text(json, REQUEST_ID));
+            response.setMethodID(json.path(METHOD).asInt(-1));
+            for (JsonNode info : json.path(SESSIONS)) {
+                response.addSessionInfo(decodeSessionInfo(info));
+            }
+            Iterator<Map.Entry<String, JsonNode>> sessions = json.path(SESSIONS_FOR_UUID).fields();
+            while (sessions.hasNext()) {
+                Map.Entry<String, JsonNode> session = sessions.next();
+                response.addSessionForGivenUUID(session.getKey(), session.getValue().asLong());
+            }
+            response.setBooleanFlag(json.path(FLAG).asBoolean(false));
+            response.setException(text(json, EXCEPTION));
+            if (json.has(STATUS)) {
+                response.setStatus(json.get(STATUS).asInt());
+            }
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    private static void encodeSessionInfo(ObjectNode json, SessionInfo info) {
+        put(json, SESSION_ID, info.getSessionID());
+        put(json, SESSION_TYPE, info.getSessionType());
+        put(json, CLIENT_ID, info.getClientID());
+        put(json, CLIENT_DOMAIN, info.getClientDomain());
+        json.put(MAX_TIME, info.getMaxTime());
+        json.put(MAX_IDLE, info.getMaxIdle());
+        json.put(MAX_CACHING, info.getMaxCaching());
+        json.put(TIME_IDLE, info.getTimeIdle());
+        json.put(TIME_LEFT, info.getTimeLeft());
+        put(json, STATE, info.getState());
+        if (info.getProperties() != null && !info.getProperties().isEmpty()) {
+            ObjectNode properties = json.putObject(PROPERTIES);
+            for (Map.Entry<String, String> property : info.getProperties().entrySet()) {
+                properties.put(property.getKey(), property.getValue());
+            }
+        }
+    }
+
+    private static SessionInfo decodeSessionInfo(JsonNode json) {
+        SessionInfo info = new SessionInfo();
+        info.setSessionID(text(json, SESSION_ID));
+        info.setSessionType(text(json, SESSION_TYPE));
+        info.setClientID(text(json, CLIENT_ID));
+        info.setClientDomain(text(json, CLIENT_DOMAIN));
+        info.setMaxTime(json.path(MAX_TIME).asLong());
+        info.setMaxIdle(json.path(MAX_IDLE).asLong());
+        info.setMaxCaching(json.path(MAX_CACHING).asLong());
+        info.setTimeLeft(json.path(TIME_LEFT).asLong());
+        info.setTimeIdle(json.path(TIME_IDLE).asLong());
+        info.setState(text(json, STATE));
+        Iterator<Map.Entry<String, JsonNode>> properties = json.path(PROPERTIES).fields();
+        while (properties.hasNext()) {
+            Map.Entry<String, JsonNode> property = properties.next();
+            info.getProperties().put(property.getKey(), property.getValue().asText());
+        }
+        return info;
+    }
+
+    private static JsonNode readBatch(InputStream in) throws IOException {
+        JsonNode batch = MAPPER.readTree(in);
+        if (batch == null || !batch.isArray()) {
+            throw new IOException("Expected a JSON array of session messages");
+        }
+        for (JsonNode json : batch) {
+            if (!json.isObject()) {
+                throw new IOException("Expected a JSON object for each session message");
+            }
+        }
+        return batch;
+    }
+
+    private static void put(ObjectNode json, String name, String value) {
+        if (value != null) {
+            json.put(name, value);
+        }
+    }
+
+    private static String text(JsonNode json, String name) {
+        JsonNode value = json.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
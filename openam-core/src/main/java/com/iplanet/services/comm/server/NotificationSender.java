@@ -24,6 +24,7 @@
  *
  * $Id: NotificationSender.java,v 1.4 2008/06/25 05:41:34 qcheng Exp $
  *
+ * Portions Copyright 2026 Wren Security.
  */
 
 /**
@@ -33,10 +34,12 @@ package com.iplanet.services.comm.server;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
 import com.iplanet.am.util.SystemProperties;
 import com.iplanet.services.comm.share.NotificationSet;
@@ -118,4 +121,47 @@ public class NotificationSender {
             }
         }
     }
+
+    /**
+     * Sends the notification set, reporting a failure to reach the destination to the caller.
+     * <p>
+     * Unlike {@link #run()}, the connection is not disconnected once the response has been read, so that the
+     * underlying connection can be reused for the next notification set sent to the same destination. A response
+     * other than "OK" is only logged, as not all agents answer with "OK".
+     *
+     * @throws SendNotificationException If the notification set could not be sent.
+     */
+    void deliver() throws SendNotificationException {
+        try {
+            HttpURLConnection conn = HttpURLConnectionManager.getConnection(url);
+            conn.setDoOutput(true);
+            conn.setUseCaches(useCache);
+            conn.setRequestMethod("POST");
+            conn.setRequestProperty("Content-Type", "text/xml;charset=UTF-8");
+            conn.setRequestProperty(TransactionIdHeader.NAME, AuditRequestContext.createSubTransactionIdValue());
+            String xml = set.toXMLString();
+            byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+            conn.setFixedLengthStreamingMode(body.length);
+            if (PLLServer.pllDebug.messageEnabled()) {
+                PLLServer.pllDebug.message("Sent NotificationSet XML :" + xml);
+            }
+            try (OutputStream httpOut = conn.getOutputStream()) {
+                httpOut.write(body);
+            }
+
+            StringBuilder response = new StringBuilder();
+            try (InputStream httpIn = conn.getInputStream();
+                 BufferedReader in = new BufferedReader(new InputStreamReader(httpIn, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    response.append(line);
+                }
+            }
+            if (!"OK".equals(response.toString()) && PLLServer.pllDebug.messageEnabled()) {
+                PLLServer.pllDebug.message("Unexpected response to notification from " + url + ": " + response);
+            }
+        } catch (IOException e) {
+            throw new SendNotificationException(e);
+        }
+    }
 }
@@ -24,6 +24,7 @@
  *
  * $Id: PLLServer.java,v 1.3 2008/06/25 05:41:35 qcheng Exp $
  *
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.services.comm.server;
@@ -68,4 +69,25 @@ public class PLLServer {
         NotificationSender sender = new NotificationSender(url, set);
         sender.run();
     }
+
+    /**
+     * Translates the Java object to an XML NotificationSet document and sends the corresponding XML document to the
+     * URL specified in this method, reusing an open connection to the URL where possible.
+     * <p>
+     * Unlike {@link #send(URL, NotificationSet)}, a failure to connect to or write to the destination is reported to
+     * the caller, so that the caller can retry.
+     *
+     * @param url
+     *            The destination URL for the NotificationSet XML document.
+     * @param set
+     *            The NotificationSet Java object to be translated to an XML
+     *            NotificationSet document.
+     * @exception SendNotificationException
+     *                is thrown if there is an error in sending the XML
+     *                document.
+     */
+    public static void deliver(URL url, NotificationSet set)
+            throws SendNotificationException {
+        new NotificationSender(url, set).deliver();
+    }
 }
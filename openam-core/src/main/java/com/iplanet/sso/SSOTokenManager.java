@@ -25,6 +25,7 @@
  * $Id: SSOTokenManager.java,v 1.7 2009/02/18 23:59:36 qcheng Exp $
  *
  * Portions copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.sso;
@@ -33,6 +34,7 @@ import static org.forgerock.openam.utils.StringUtils.split;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Pattern;
@@ -585,4 +587,16 @@ public class SSOTokenManager {
     public void logout(SSOToken token) throws SSOException {
         getProvider(token).logout(token);
     }
+
+    /**
+     * Sets each of the properties of the session associated with the token, as a single update to the session
+     * where the token's provider supports it, so that the session is persisted and notified once.
+     *
+     * @param token the token whose session should be updated.
+     * @param properties the property names and values.
+     * @throws SSOException if the properties could not be set.
+     */
+    public void setProperties(SSOToken token, Map<String, String> properties) throws SSOException {
+        getProvider(token).setProperties(token, properties);
+    }
 }
@@ -24,6 +24,7 @@
  *
  * $Id: SSOProviderImpl.java,v 1.9 2009/02/19 05:04:01 bhavnab Exp $
  *
+ * Portions Copyright 2026 Wren Security.
  */
 
 /**
@@ -33,6 +34,7 @@ package com.iplanet.sso.providers.dpro;
 
 import java.net.InetAddress;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
@@ -363,6 +365,15 @@ public final class SSOProviderImpl implements SSOProvider {
         }
     }
 
+    @Override
+    public void setProperties(SSOToken token, Map<String, String> properties) throws SSOException {
+        if (token instanceof SSOTokenImpl) {
+            ((SSOTokenImpl) token).setProperties(properties);
+        } else {
+            SSOProvider.super.setProperties(token, properties);
+        }
+    }
+
     /**
      * Validate the IP address of the client with the IP stored in Session.
      *
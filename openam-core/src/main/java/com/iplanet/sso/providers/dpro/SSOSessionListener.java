@@ -25,6 +25,7 @@
  * $Id: SSOSessionListener.java,v 1.2 2008/06/25 05:41:43 qcheng Exp $
  *
  * Portions Copyrighted 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.sso.providers.dpro;
@@ -75,4 +76,18 @@ public class SSOSessionListener implements SessionListener {
             SSOProviderImpl.debug.error("Unknown Error in calling ssoTokenChanged method", t);
         }
     }
+
+    /**
+     * Listeners wrapping the same token listener are equal, so that adding a token listener to a session more than
+     * once does not notify it more than once.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SSOSessionListener && ssoListener.equals(((SSOSessionListener) o).ssoListener);
+    }
+
+    @Override
+    public int hashCode() {
+        return ssoListener.hashCode();
+    }
 }
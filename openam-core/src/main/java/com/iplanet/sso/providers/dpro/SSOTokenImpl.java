@@ -25,6 +25,7 @@
  * $Id: SSOTokenImpl.java,v 1.6 2009/04/10 17:57:07 manish_rustagi Exp $
  *
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.sso.providers.dpro;
@@ -34,6 +35,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.SecureRandom;
 import java.util.HashMap;
+import java.util.Map;
 
 import javax.security.auth.login.LoginException;
 
@@ -365,6 +367,28 @@ class SSOTokenImpl implements SSOToken {
         }
     }
 
+    /**
+     * Sets each of the properties for this token, as a single update to the session where the session service
+     * allows.
+     *
+     * @param properties
+     *            The property names and values.
+     * @throws SSOException if the SSOToken is not VALID or if
+     *         there are errors in setting the properties.
+     */
+    public void setProperties(Map<String, String> properties) throws SSOException {
+        if (ldapConnect) {
+            ldapTokenProperty.putAll(properties);
+            return;
+        }
+        try {
+            session.setProperties(properties);
+        } catch (Exception e) {
+            SSOProviderImpl.debug.error("Can't set properties: " + properties.keySet());
+            throw new SSOException(e);
+        }
+    }
+
     private String getPropertyInternal(String name, boolean logError) throws SSOException {
 
         String property = null;
@@ -24,6 +24,7 @@
  *
  * $Id: LoginState.java,v 1.56 2009/11/25 12:04:19 manish_rustagi Exp $
  *
+ * Portions Copyright 2026 Wren Security.
  */
 
 /**
@@ -107,10 +108,15 @@ public class DefaultSessionActivator implements SessionActivator {
 
     protected void putAllPropertiesFromAuthSession(InternalSession authSession, InternalSession sessionToUpdate) {
         Enumeration<String> authSessionProperties = authSession.getPropertyNames();
-        while (authSessionProperties.hasMoreElements()) {
-            String key = authSessionProperties.nextElement();
-            String value = authSession.getProperty(key);
-            sessionToUpdate.putProperty(key, value);
+        sessionToUpdate.beginUpdates();
+        try {
+            while (authSessionProperties.hasMoreElements()) {
+                String key = authSessionProperties.nextElement();
+                String value = authSession.getProperty(key);
+                sessionToUpdate.putProperty(key, value);
+            }
+        } finally {
+            sessionToUpdate.commitUpdates();
         }
     }
 
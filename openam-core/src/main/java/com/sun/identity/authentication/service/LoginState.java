@@ -26,7 +26,7 @@
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
  * Portions Copyrighted 2016 Nomura Research Institute, Ltd.
- * Portions Copyrighted 2022 Wren Security
+ * Portions Copyrighted 2022-2026 Wren Security
  */
 
 package com.sun.identity.authentication.service;
@@ -1147,6 +1147,16 @@ public class LoginState {
      * @throws AuthException
      */
     void setSessionProperties(InternalSession session) throws AuthException {
+        // Apply all of the properties as one update, so that a stored session is persisted and notified once
+        session.beginUpdates();
+        try {
+            putSessionProperties(session);
+        } finally {
+            session.commitUpdates();
+        }
+    }
+
+    private void putSessionProperties(InternalSession session) throws AuthException {
         if (DEBUG.messageEnabled()) {
             DEBUG.message("LoginState getSession = " +
                     session + " \nrequest token = " + token);
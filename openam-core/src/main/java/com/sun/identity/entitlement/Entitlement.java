@@ -25,6 +25,7 @@
  * $Id: Entitlement.java,v 1.7 2010/01/25 23:48:14 veiming Exp $
  *
  * Portions copyright 2010-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.sun.identity.entitlement;
 
@@ -798,6 +799,16 @@ public class Entitlement {
         this.application = null;
     }
 
+    /**
+     * Shares the application already resolved by another entitlement, so that a copy of that entitlement does not
+     * look its application up again.
+     *
+     * @param entitlement The entitlement whose application is shared.
+     */
+    void copyApplicationFrom(Entitlement entitlement) {
+        this.application = entitlement.application;
+    }
+
     /**
      * Returns application for this entitlement.
      *
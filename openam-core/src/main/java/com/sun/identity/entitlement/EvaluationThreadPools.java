@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.sun.identity.entitlement;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.util.thread.listener.ShutdownListener;
+
+import com.sun.identity.common.ShutdownManager;
+
+/**
+ * Creates the pools which policies are evaluated on. Their threads are named after the pool, are daemon threads and
+ * use the context class loader of the thread which created the pool, and the pools are shut down with the server.
+ */
+final class EvaluationThreadPools {
+
+    private EvaluationThreadPools() {
+    }
+
+    /**
+     * Creates a pool with a fixed number of threads.
+     *
+     * @param name The name of the pool, which its threads are named after.
+     * @param size The number of threads.
+     * @return The pool.
+     */
+    static ExecutorService newFixedThreadPool(final String name, int size) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return shutDownWithServer(Executors.newFixedThreadPool(size, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return prepare(new Thread(runnable), name + "-" + count.getAndIncrement(), classLoader);
+            }
+        }));
+    }
+
+    /**
+     * Creates a work stealing pool in asynchronous mode, which suits tasks that are submitted to it rather than
+     * forked and joined.
+     *
+     * @param name The name of the pool, which its threads are named after.
+     * @param size The parallelism of the pool.
+     * @return The pool.
+     */
+    static ForkJoinPool newWorkStealingPool(final String name, int size) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return shutDownWithServer(new ForkJoinPool(size, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                return prepare(thread, name + "-" + thread.getPoolIndex(), classLoader);
+            }
+        }, null, true));
+    }
+
+    private static <T extends Thread> T prepare(T thread, String name, ClassLoader classLoader) {
+        thread.setName(name);
+        thread.setDaemon(true);
+        thread.setContextClassLoader(classLoader);
+        return thread;
+    }
+
+    private static <T extends ExecutorService> T shutDownWithServer(final T pool) {
+        ShutdownManager.getInstance().addShutdownListener(new ShutdownListener() {
+            @Override
+            public void shutdown() {
+                pool.shutdownNow();
+            }
+        });
+        return pool;
+    }
+}
@@ -25,6 +25,7 @@
  * $Id: Evaluator.java,v 1.2 2009/09/10 16:35:38 veiming Exp $
  *
  * Portions copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.sun.identity.entitlement;
 
@@ -38,11 +39,20 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import javax.security.auth.Subject;
 import org.forgerock.guice.core.InjectorHolder;
 import org.forgerock.openam.entitlement.monitoring.EntitlementConfigurationWrapper;
 import org.forgerock.openam.entitlement.monitoring.PolicyMonitor;
 import org.forgerock.openam.entitlement.monitoring.PolicyMonitoringType;
+import org.forgerock.openam.session.util.AppTokenHandler;
+import org.wrensecurity.guava.common.annotations.VisibleForTesting;
 
 /**
  * The class evaluates entitlement request and provides decisions. The evaluation of a policy depends on the following
@@ -88,13 +98,19 @@ public class Evaluator {
      * @throws EntitlementException if any other abnormal condition occurred.
      */
     public Evaluator(Subject subject, String applicationName) throws EntitlementException {
+        this(subject, applicationName, getPolicyMonitor(), new EntitlementConfigurationWrapper());
+    }
+
+    @VisibleForTesting
+    Evaluator(Subject subject, String applicationName, PolicyMonitor policyMonitor,
+            EntitlementConfigurationWrapper configWrapper) {
         adminSubject = subject;
         this.applicationName = applicationName;
-        policyMonitor = getPolicyMonitor();
-        configWrapper = new EntitlementConfigurationWrapper();
+        this.policyMonitor = policyMonitor;
+        this.configWrapper = configWrapper;
     }
 
-    private PolicyMonitor getPolicyMonitor() {
+    private static PolicyMonitor getPolicyMonitor() {
         //used as no direct access to SystemProperties
         boolean serverMode = Boolean.parseBoolean(SystemPropertiesManager.get(Constants.SERVER_MODE));
 
@@ -131,6 +147,10 @@ public class Evaluator {
 
     /**
      * Returns a list of entitlements for a given subject, resource names and environment.
+     * <p>
+     * The subject indexes used to search for policies are resolved once for all of the resources. If
+     * {@link Constants#POLICY_BATCH_EVALUATION_THREADS} is greater than one, the resources are evaluated in
+     * parallel, and the entitlements are still returned in the iteration order of the resource names.
      *
      * @param realm Realm Name.
      * @param subject Subject who is under evaluation.
@@ -151,11 +171,17 @@ public class Evaluator {
             throw new EntitlementException(424);
         }
 
+        SubjectIndexes subjectIndexes = new SubjectIndexes(realm, subject);
+        ExecutorService pool = getBatchPool();
+        if (pool != null && resourceNames.size() > 1) {
+            return evaluateInParallel(pool, realm, subject, resourceNames, environment, subjectIndexes);
+        }
+
         List<Entitlement> results = new ArrayList<Entitlement>();
 
         for (String res : resourceNames) {
             List<Entitlement> r = evaluate(realm, subject, res, environment,
-                false);
+                false, subjectIndexes);
             if ((r != null) && !r.isEmpty()) {
                 results.addAll(r);
             }
@@ -163,6 +189,83 @@ public class Evaluator {
         return results;
     }
 
+    /**
+     * Evaluates each of the resources on the batch pool, with the first resource evaluated by the calling thread.
+     * The results are returned in the iteration order of the resource names, and evaluation of the remaining
+     * resources is abandoned as soon as any one of them fails.
+     */
+    private List<Entitlement> evaluateInParallel(
+            ExecutorService pool,
+            final String realm,
+            final Subject subject,
+            Set<String> resourceNames,
+            final Map<String, Set<String>> environment,
+            final SubjectIndexes subjectIndexes
+    ) throws EntitlementException {
+        final List<String> resources = new ArrayList<String>(resourceNames);
+        final AtomicReferenceArray<List<Entitlement>> decisions =
+                new AtomicReferenceArray<List<Entitlement>>(resources.size());
+        final Object appToken = AppTokenHandler.getAndClear();
+
+        final CompletionService<Void> completionService = new ExecutorCompletionService<Void>(pool);
+        final List<Future<Void>> tasks = new ArrayList<Future<Void>>(resources.size() - 1);
+
+        try {
+            for (int i = 1; i < resources.size(); i++) {
+                final int index = i;
+                tasks.add(completionService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws EntitlementException {
+                        decisions.set(index, evaluate(realm, subject, resources.get(index), environment,
+                                appToken, subjectIndexes));
+                        return null;
+                    }
+                }));
+            }
+
+            decisions.set(0, evaluate(realm, subject, resources.get(0), environment, appToken, subjectIndexes));
+
+            for (int i = 1; i < resources.size(); i++) {
+                completionService.take().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EntitlementException) {
+                throw (EntitlementException) e.getCause();
+            }
+            throw new EntitlementException(100, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EntitlementException(100, e);
+        } finally {
+            for (Future<Void> task : tasks) {
+                task.cancel(false);
+            }
+        }
+
+        List<Entitlement> results = new ArrayList<Entitlement>();
+        for (int i = 0; i < decisions.length(); i++) {
+            List<Entitlement> r = decisions.get(i);
+            if ((r != null) && !r.isEmpty()) {
+                results.addAll(r);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates a single resource of a batch on behalf of the thread which holds the application token.
+     */
+    private List<Entitlement> evaluate(String realm, Subject subject, String resourceName,
+            Map<String, Set<String>> environment, Object appToken, SubjectIndexes subjectIndexes)
+            throws EntitlementException {
+        AppTokenHandler.set(appToken);
+        try {
+            return evaluate(realm, subject, resourceName, environment, false, subjectIndexes);
+        } finally {
+            AppTokenHandler.getAndClear();
+        }
+    }
+
     /**
      * Returns a list of entitlements for a given subject, resource name
      * and environment.
@@ -184,6 +287,18 @@ public class Evaluator {
             Map<String, Set<String>> environment,
             boolean recursive
     ) throws EntitlementException {
+        return evaluate(realm, subject, resourceName, environment, recursive, null);
+    }
+
+    @VisibleForTesting
+    List<Entitlement> evaluate(
+            String realm,
+            Subject subject,
+            String resourceName,
+            Map<String, Set<String>> environment,
+            boolean recursive,
+            SubjectIndexes subjectIndexes
+    ) throws EntitlementException {
 
         long startTime = currentTimeMillis();
 
@@ -198,9 +313,18 @@ public class Evaluator {
         // Normalise the incoming resource URL.
         String normalisedResourceName = application.getResourceComparator().canonicalize(resourceName);
 
-        PrivilegeEvaluator evaluator = new PrivilegeEvaluator();
-        List<Entitlement> results = evaluator.evaluate(realm, adminSubject, subject,
-                applicationName, normalisedResourceName, resourceName, environment, recursive);
+        PolicyDecisionCache decisionCache = PolicyDecisionCache.getInstance();
+        PolicyDecisionCache.Key key = decisionCache.getKey(realm, applicationName, normalisedResourceName,
+                resourceName, recursive, adminSubject, subject, environment);
+        List<Entitlement> results = decisionCache.get(key);
+
+        if (results == null) {
+            PrivilegeEvaluator evaluator = new PrivilegeEvaluator();
+            results = evaluator.evaluate(realm, adminSubject, subject,
+                    applicationName, normalisedResourceName, resourceName, environment, recursive,
+                    subjectIndexes == null ? null : subjectIndexes.get());
+            decisionCache.put(key, results);
+        }
 
         if (configWrapper.isMonitoringRunning()) {
             policyMonitor.addEvaluation(currentTimeMillis() - startTime, realm, applicationName, resourceName,
@@ -218,5 +342,66 @@ public class Evaluator {
     public String getApplicationName() {
         return applicationName;
     }
+
+    /**
+     * Returns the pool which the resources of a batch request are evaluated on.
+     *
+     * @return The pool, or {@code null} if the resources are evaluated on the calling thread.
+     */
+    @VisibleForTesting
+    ExecutorService getBatchPool() {
+        return BatchPoolHolder.POOL;
+    }
+
+    /**
+     * Resolves the subject indexes used to search for the policies which apply to a subject.
+     *
+     * @param realm Realm Name.
+     * @param subject Subject who is under evaluation.
+     * @return The subject indexes.
+     * @throws EntitlementException if the subject indexes cannot be resolved.
+     */
+    @VisibleForTesting
+    Set<String> getSubjectSearchFilter(String realm, Subject subject) throws EntitlementException {
+        return SubjectAttributesManager.getInstance(adminSubject, realm)
+                .getSubjectSearchFilter(subject, applicationName);
+    }
+
+    /**
+     * The subject indexes used to search for the policies which apply to a subject, resolved when first required
+     * and then shared between the evaluations of all resources in a batch.
+     */
+    final class SubjectIndexes {
+
+        private final String realm;
+        private final Subject subject;
+        private Set<String> indexes;
+
+        SubjectIndexes(String realm, Subject subject) {
+            this.realm = realm;
+            this.subject = subject;
+        }
+
+        synchronized Set<String> get() throws EntitlementException {
+            if (indexes == null) {
+                indexes = getSubjectSearchFilter(realm, subject);
+            }
+            return indexes;
+        }
+    }
+
+    /**
+     * Holds the pool which the resources of a batch request are evaluated on. The pool is created when a batch is
+     * first evaluated, and only if {@link Constants#POLICY_BATCH_EVALUATION_THREADS} is greater than one.
+     */
+    private static final class BatchPoolHolder {
+
+        private static final ExecutorService POOL =
+                newBatchPool(SystemPropertiesManager.getAsInt(Constants.POLICY_BATCH_EVALUATION_THREADS, 0));
+
+        private static ExecutorService newBatchPool(int size) {
+            return size > 1 ? EvaluationThreadPools.newFixedThreadPool("PolicyBatchEvaluator", size) : null;
+        }
+    }
 }
 
@@ -0,0 +1,476 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.sun.identity.entitlement;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.security.AccessController;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.security.auth.Subject;
+
+import org.forgerock.openam.entitlement.PolicyConstants;
+import org.forgerock.openam.session.SessionCache;
+import org.wrensecurity.guava.common.annotations.VisibleForTesting;
+import org.wrensecurity.guava.common.cache.Cache;
+import org.wrensecurity.guava.common.cache.CacheBuilder;
+
+import com.iplanet.dpro.session.Session;
+import com.iplanet.dpro.session.SessionException;
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.sso.SSOException;
+import com.iplanet.sso.SSOToken;
+import com.iplanet.sso.SSOTokenEvent;
+import com.iplanet.sso.SSOTokenListener;
+import com.sun.identity.security.AdminTokenAction;
+import com.sun.identity.shared.Constants;
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
+import com.sun.identity.sm.SMSException;
+import com.sun.identity.sm.ServiceConfigManager;
+import com.sun.identity.sm.ServiceListener;
+
+/**
+ * A server side cache of the decisions made by {@link Evaluator}, so that repeated evaluations of the same
+ * resource for the same subject and environment do not search the policy indexes and re-evaluate subject and
+ * condition plugins.
+ * <p>
+ * Decisions are keyed by realm, application, resource, admin subject, subject session, the version of the session
+ * properties and environment, and are only cached for subjects with an {@link SSOToken} whose session is held in the
+ * {@link SessionCache}. Keying on the properties version means a decision is only reused while conditions would read
+ * the same session properties, whether or not property change notifications are enabled. A decision is held until
+ * the earliest time to live of its entitlements, as given by their conditions, and for no longer than the configured
+ * maximum time to live. Decisions are discarded when any policy or policy set is changed, on this server or another
+ * server in the site, and the decisions for a subject are discarded when their session ends. Changes to the identity
+ * of a subject, such as its group membership, are not tracked, so the maximum time to live bounds how long a
+ * decision made before such a change may be returned.
+ * <p>
+ * The cache is disabled unless {@link Constants#POLICY_DECISION_CACHE_SIZE} is positive.
+ */
+public final class PolicyDecisionCache {
+
+    private static final String POLICY_STORE_SERVICE_NAME = "sunEntitlementIndexes";
+    private static final long DEFAULT_MAX_TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(1);
+    private static final PolicyDecisionCache instance = newInstance();
+
+    private final Cache<Key, Decision> decisions;
+    private final Cache<String, Object> subjects;
+    private final AtomicLong generation = new AtomicLong();
+    private final SSOTokenListener listener = new SSOTokenListener() {
+        @Override
+        public void ssoTokenChanged(SSOTokenEvent event) {
+            subjectChanged(event);
+        }
+    };
+    private final long maxTimeToLive;
+    private final SessionCache sessionCache;
+    private volatile boolean active;
+
+    @VisibleForTesting
+    PolicyDecisionCache(int size, long maxTimeToLive, SessionCache sessionCache) {
+        this.maxTimeToLive = maxTimeToLive;
+        this.sessionCache = sessionCache;
+        if (size > 0 && maxTimeToLive > 0) {
+            this.decisions = CacheBuilder.newBuilder()
+                    .maximumSize(size)
+                    .expireAfterWrite(maxTimeToLive, TimeUnit.MILLISECONDS)
+                    .build();
+            // A subject with no decision accessed within the maximum time to live has none cached
+            this.subjects = CacheBuilder.newBuilder()
+                    .maximumSize(size)
+                    .expireAfterAccess(maxTimeToLive, TimeUnit.MILLISECONDS)
+                    .build();
+            this.active = true;
+        } else {
+            this.decisions = null;
+            this.subjects = null;
+        }
+    }
+
+    /**
+     * Returns the policy decision cache of this server.
+     *
+     * @return The policy decision cache.
+     */
+    public static PolicyDecisionCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return Whether decisions are cached.
+     */
+    public boolean isEnabled() {
+        return active;
+    }
+
+    /**
+     * Returns the key under which the decision for an evaluation is cached. The key must be created before the
+     * evaluation starts, so that a decision made from policies which changed during the evaluation is not cached.
+     *
+     * @param realm Realm name.
+     * @param applicationName Application name.
+     * @param normalisedResourceName Normalised resource name.
+     * @param resourceName Resource name as requested.
+     * @param recursive Whether sub resources are evaluated.
+     * @param adminSubject Admin subject performing the evaluation.
+     * @param subject Subject who is under evaluation.
+     * @param environment Environment parameters.
+     * @return The key, or {@code null} if the decision cannot be cached.
+     */
+    Key getKey(String realm, String applicationName, String normalisedResourceName, String resourceName,
+            boolean recursive, Subject adminSubject, Subject subject, Map<String, Set<String>> environment) {
+        if (!active || subject == null) {
+            return null;
+        }
+        SSOToken token = getSSOToken(subject);
+        if (token == null) {
+            return null;
+        }
+        String tokenId = token.getTokenID().toString();
+        Object marker = register(tokenId, token);
+        if (marker == null) {
+            return null;
+        }
+        Long propertiesVersion = getPropertiesVersion(tokenId);
+        if (propertiesVersion == null) {
+            return null;
+        }
+        return new Key(realm, applicationName, normalisedResourceName, resourceName, recursive,
+                getIdentifier(adminSubject), tokenId, propertiesVersion, copyOf(environment), marker,
+                generation.get());
+    }
+
+    /**
+     * Returns a copy of the cached decision for a key.
+     *
+     * @param key The key returned by {@link #getKey}, may be null.
+     * @return The entitlements, or {@code null} if no decision is cached.
+     */
+    List<Entitlement> get(Key key) {
+        if (key == null) {
+            return null;
+        }
+        Decision decision = decisions.getIfPresent(key);
+        if (decision == null) {
+            return null;
+        }
+        if (!isCurrent(decision.generation, key.tokenId, decision.marker)
+                || decision.expiryTime <= currentTimeMillis()) {
+            decisions.invalidate(key);
+            return null;
+        }
+        return copyOf(decision.entitlements);
+    }
+
+    /**
+     * Caches the decision for a key.
+     *
+     * @param key The key returned by {@link #getKey}, may be null.
+     * @param entitlements The entitlements returned by the evaluation.
+     */
+    void put(Key key, List<Entitlement> entitlements) {
+        if (key == null || entitlements == null) {
+            return;
+        }
+        long expiryTime = currentTimeMillis() + maxTimeToLive;
+        for (Entitlement entitlement : entitlements) {
+            expiryTime = Math.min(expiryTime, entitlement.getTTL());
+        }
+        if (expiryTime <= currentTimeMillis() || !isCurrent(key.generation, key.tokenId, key.marker)) {
+            return;
+        }
+        decisions.put(key, new Decision(copyOf(entitlements), expiryTime, key.marker, key.generation));
+        // Re-check after the put, so that a change racing with the evaluation cannot be lost
+        if (!isCurrent(key.generation, key.tokenId, key.marker)) {
+            decisions.invalidate(key);
+        }
+    }
+
+    /**
+     * Discards all cached decisions.
+     */
+    public void invalidateAll() {
+        if (decisions == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        decisions.invalidateAll();
+    }
+
+    /**
+     * @return The approximate number of cached decisions.
+     */
+    @VisibleForTesting
+    long size() {
+        return decisions == null ? 0 : decisions.size();
+    }
+
+    private boolean isCurrent(long decisionGeneration, String tokenId, Object marker) {
+        return decisionGeneration == generation.get() && subjects.getIfPresent(tokenId) == marker;
+    }
+
+    private Object register(String tokenId, SSOToken token) {
+        Object marker = subjects.getIfPresent(tokenId);
+        if (marker != null) {
+            return marker;
+        }
+        marker = new Object();
+        Object existing = subjects.asMap().putIfAbsent(tokenId, marker);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            // Only cache decisions for sessions which notify us when they end, otherwise they would never be removed
+            token.addSSOTokenListener(listener);
+            return marker;
+        } catch (SSOException e) {
+            PolicyConstants.DEBUG.message("PolicyDecisionCache: Unable to add session listener, not caching: {}",
+                    e.getMessage());
+            subjects.asMap().remove(tokenId, marker);
+            return null;
+        }
+    }
+
+    private Long getPropertiesVersion(String tokenId) {
+        // Conditions read the properties of the cached session object, so a decision is only valid for its version
+        Session session = sessionCache.readSession(new SessionID(tokenId));
+        if (session == null) {
+            return null;
+        }
+        try {
+            return session.getPropertiesVersion();
+        } catch (SessionException e) {
+            PolicyConstants.DEBUG.message("PolicyDecisionCache: Unable to read session properties, not caching: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private void subjectChanged(SSOTokenEvent event) {
+        try {
+            String tokenId = event.getToken().getTokenID().toString();
+            if (event.getType() == SSOTokenEvent.SSO_TOKEN_PROPERTY_CHANGED) {
+                // The listener is still registered, so only the decisions made so far are discarded
+                subjects.asMap().replace(tokenId, new Object());
+            } else {
+                subjects.invalidate(tokenId);
+            }
+        } catch (SSOException e) {
+            PolicyConstants.DEBUG.error("PolicyDecisionCache: Unable to read session event, clearing cache", e);
+            invalidateAll();
+        }
+    }
+
+    private static PolicyDecisionCache newInstance() {
+        PolicyDecisionCache cache = new PolicyDecisionCache(
+                SystemPropertiesManager.getAsInt(Constants.POLICY_DECISION_CACHE_SIZE, 0),
+                getAsLong(Constants.POLICY_DECISION_CACHE_MAX_TTL, DEFAULT_MAX_TIME_TO_LIVE),
+                SessionCache.getInstance());
+        if (cache.isEnabled()) {
+            cache.registerPolicyStoreListener();
+        }
+        return cache;
+    }
+
+    private void registerPolicyStoreListener() {
+        try {
+            SSOToken adminToken = AccessController.doPrivileged(AdminTokenAction.getInstance());
+            new ServiceConfigManager(POLICY_STORE_SERVICE_NAME, adminToken).addListener(new PolicyStoreListener());
+        } catch (SSOException | SMSException e) {
+            PolicyConstants.DEBUG.error("PolicyDecisionCache: Unable to register for policy changes, disabling cache",
+                    e);
+            active = false;
+        }
+    }
+
+    private static long getAsLong(String key, long defaultValue) {
+        String value = SystemPropertiesManager.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static SSOToken getSSOToken(Subject subject) {
+        for (Object credential : subject.getPrivateCredentials()) {
+            if (credential instanceof SSOToken) {
+                return (SSOToken) credential;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies a subject by the ID of its session if it has one, otherwise by its principals.
+     */
+    private static Object getIdentifier(Subject subject) {
+        if (subject == null) {
+            return null;
+        }
+        SSOToken token = getSSOToken(subject);
+        if (token != null) {
+            return token.getTokenID().toString();
+        }
+        return new HashSet<Principal>(subject.getPrincipals());
+    }
+
+    private static Map<String, Set<String>> copyOf(Map<String, Set<String>> values) {
+        if (values == null) {
+            return null;
+        }
+        Map<String, Set<String>> copy = new HashMap<>(values.size());
+        for (Map.Entry<String, Set<String>> entry : values.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue() == null ? null : new HashSet<>(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static List<Entitlement> copyOf(List<Entitlement> entitlements) {
+        List<Entitlement> copy = new ArrayList<>(entitlements.size());
+        for (Entitlement entitlement : entitlements) {
+            Entitlement e = new Entitlement();
+            e.setName(entitlement.getName());
+            e.setApplicationName(entitlement.getApplicationName());
+            e.copyApplicationFrom(entitlement);
+            if (entitlement.getResourceNames() != null) {
+                e.setResourceNames(new HashSet<>(entitlement.getResourceNames()));
+            }
+            if (entitlement.getRequestedResourceNames() != null) {
+                e.setRequestedResourceNames(new HashSet<>(entitlement.getRequestedResourceNames()));
+            }
+            if (entitlement.getActionValues() != null) {
+                e.setActionValues(new HashMap<>(entitlement.getActionValues()));
+            }
+            e.setAdvices(copyOf(entitlement.getAdvices()));
+            e.setAttributes(copyOf(entitlement.getAttributes()));
+            e.setTTL(entitlement.getTTL());
+            copy.add(e);
+        }
+        return copy;
+    }
+
+    /**
+     * The key of a cached decision. The session marker and generation are captured when the key is created and do
+     * not take part in equality.
+     */
+    static final class Key {
+
+        private final String realm;
+        private final String applicationName;
+        private final String normalisedResourceName;
+        private final String resourceName;
+        private final boolean recursive;
+        private final Object adminIdentifier;
+        private final String tokenId;
+        private final long propertiesVersion;
+        private final Map<String, Set<String>> environment;
+        private final Object marker;
+        private final long generation;
+        private final int hashCode;
+
+        private Key(String realm, String applicationName, String normalisedResourceName, String resourceName,
+                boolean recursive, Object adminIdentifier, String tokenId, long propertiesVersion,
+                Map<String, Set<String>> environment, Object marker, long generation) {
+            this.realm = realm;
+            this.applicationName = applicationName;
+            this.normalisedResourceName = normalisedResourceName;
+            this.resourceName = resourceName;
+            this.recursive = recursive;
+            this.adminIdentifier = adminIdentifier;
+            this.tokenId = tokenId;
+            this.propertiesVersion = propertiesVersion;
+            this.environment = environment;
+            this.marker = marker;
+            this.generation = generation;
+            this.hashCode = Objects.hash(realm, applicationName, normalisedResourceName, resourceName, recursive,
+                    adminIdentifier, tokenId, propertiesVersion, environment);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return recursive == other.recursive
+                    && propertiesVersion == other.propertiesVersion
+                    && Objects.equals(realm, other.realm)
+                    && Objects.equals(applicationName, other.applicationName)
+                    && Objects.equals(normalisedResourceName, other.normalisedResourceName)
+                    && Objects.equals(resourceName, other.resourceName)
+                    && Objects.equals(adminIdentifier, other.adminIdentifier)
+                    && Objects.equals(tokenId, other.tokenId)
+                    && Objects.equals(environment, other.environment);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Decision {
+
+        private final List<Entitlement> entitlements;
+        private final long expiryTime;
+        private final Object marker;
+        private final long generation;
+
+        private Decision(List<Entitlement> entitlements, long expiryTime, Object marker, long generation) {
+            this.entitlements = entitlements;
+            this.expiryTime = expiryTime;
+            this.marker = marker;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Discards all cached decisions when policies are changed on any server.
+     */
+    private final class PolicyStoreListener implements ServiceListener {
+
+        @Override
+        public void schemaChanged(String serviceName, String version) {
+        }
+
+        @Override
+        public void globalConfigChanged(String serviceName, String version, String groupName,
+                String serviceComponent, int type) {
+            invalidateAll();
+        }
+
+        @Override
+        public void organizationConfigChanged(String serviceName, String version, String orgName,
+                String groupName, String serviceComponent, int type) {
+            invalidateAll();
+        }
+    }
+}
@@ -25,6 +25,7 @@
  * $Id: PrivilegeChangeNotifier.java,v 1.5 2010/01/07 00:19:11 veiming Exp $
  *
  * Portions Copyrighted 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.sun.identity.entitlement;
@@ -111,6 +112,7 @@ public class PrivilegeChangeNotifier {
         String applicationName,
         String privilegeName,
         Set<String> resources) {
+        PolicyDecisionCache.getInstance().invalidateAll();
         try {
             Set<EntitlementListener> listeners =
                 ListenerManager.getInstance().getListeners(adminSubject);
@@ -25,6 +25,7 @@
  * $Id: PrivilegeEvaluator.java,v 1.2 2009/10/07 06:36:40 veiming Exp $
  *
  * Portions Copyrighted 2010-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.sun.identity.entitlement;
 
@@ -33,24 +34,29 @@ import static org.forgerock.openam.entitlement.utils.EntitlementUtils.getApplica
 import static org.forgerock.openam.entitlement.utils.EntitlementUtils.getEntitlementConfiguration;
 
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.security.auth.Subject;
 
 import org.forgerock.openam.entitlement.PolicyConstants;
 import org.forgerock.openam.entitlement.PrivilegeEvaluatorContext;
+import org.forgerock.openam.entitlement.SubjectMembershipContext;
 import org.forgerock.openam.session.util.AppTokenHandler;
 import org.forgerock.openam.utils.CollectionUtils;
+import org.wrensecurity.guava.common.annotations.VisibleForTesting;
 
-import com.sun.identity.entitlement.interfaces.IThreadPool;
 import com.sun.identity.shared.debug.Debug;
 
 /**
@@ -66,41 +72,33 @@ class PrivilegeEvaluator {
     private String requestedResourceName;
     private Map<String, Set<String>> envParameters;
     private ResourceSearchIndexes indexes;
-    private List<List<Entitlement>> resultQ = new
-        LinkedList<List<Entitlement>>();
+    private Set<String> subjectIndexes;
     private Application application;
     private Set<String> actionNames;
     private EntitlementCombiner entitlementCombiner;
     private boolean recursive;
-    private EntitlementException eException;
-    private final Lock lock = new ReentrantLock();
-    private final Condition hasResults = lock.newCondition();
+    private final AtomicBoolean done = new AtomicBoolean(false);
+    private final ExecutorService threadPool;
 
     // Static variables
     // TODO determine number of tasks per thread
-    private static int evalThreadSize = Evaluator.DEFAULT_POLICY_EVAL_THREAD;
     private static final int TASKS_PER_THREAD = 5;
 
-    private static final IThreadPool threadPool;
-    private static final boolean isMultiThreaded;
-
-    static {
-        EntitlementConfiguration ec = getEntitlementConfiguration(SUPER_ADMIN_SUBJECT, "/");
-        Set<String> setPolicyEvalThread = ec.getConfiguration(
-            EntitlementConfiguration.POLICY_EVAL_THREAD_SIZE);
+    /**
+     * Creates an evaluator which evaluates batches of policies on the shared pool, if one is configured.
+     */
+    PrivilegeEvaluator() {
+        this(ThreadPoolHolder.POOL);
+    }
 
-        if ((setPolicyEvalThread != null) && !setPolicyEvalThread.isEmpty()) {
-            try {
-                evalThreadSize = Integer.parseInt(setPolicyEvalThread.
-                    iterator().next());
-            } catch (NumberFormatException e) {
-                PolicyConstants.DEBUG.error(
-                    "PrivilegeEvaluator.<init>: get evaluation thread pool size",
-                    e);
-            }
-        }
-        isMultiThreaded = evalThreadSize > 1;
-        threadPool = isMultiThreaded ? new EntitlementThreadPool(evalThreadSize) : new SequentialThreadPool();
+    /**
+     * Creates an evaluator which evaluates batches of policies on the given pool.
+     *
+     * @param threadPool The pool, or {@code null} to evaluate all policies on the calling thread.
+     */
+    @VisibleForTesting
+    PrivilegeEvaluator(ExecutorService threadPool) {
+        this.threadPool = threadPool;
     }
 
     /**
@@ -136,6 +134,8 @@ class PrivilegeEvaluator {
         this.normalisedResourceName = normalisedResourceName;
         this.requestedResourceName = requestedResourceName;
         this.envParameters = envParameters;
+        this.subjectIndexes = null;
+        this.done.set(false);
         this.actionNames = new HashSet<String>();
         if (CollectionUtils.isNotEmpty(actions)) {
             this.actionNames.addAll(actions);
@@ -143,8 +143,7 @@ class PrivilegeEvaluator {
 
         Application appl = getApplication();
         entitlementCombiner = appl.getEntitlementCombiner();
-        entitlementCombiner.init(realm, applicationName, normalisedResourceName, requestedResourceName,
-                this.actionNames, recursive);
+        entitlementCombiner.init(normalisedResourceName, requestedResourceName, this.actionNames, recursive, appl);
         this.recursive = recursive;
 
         if (PolicyConstants.DEBUG.messageEnabled()) {
@@ -241,20 +240,54 @@ class PrivilegeEvaluator {
         Map<String, Set<String>> envParameters,
         boolean recursive
     ) throws EntitlementException {
+        return evaluate(realm, adminSubject, subject, applicationName, normalisedResourceName,
+                requestedResourceName, envParameters, recursive, null);
+    }
 
-
+    /**
+     * Returns list of entitlements which is entitled to a subject, searching for policies with subject indexes
+     * which have already been resolved for the subject. This allows the identity lookups required to resolve them
+     * to be shared between evaluations of several resources for the same subject.
+     *
+     * @param adminSubject Administrator subject which is used for evaluation.
+     * @param subject Subject to be evaluated.
+     * @param applicationName Application Name.
+     * @param normalisedResourceName The normalised resource name.
+     * @param requestedResourceName The requested resource name.
+     * @param envParameters Environment parameters.
+     * @param recursive <code>true</code> for sub tree evaluation.
+     * @param subjectIndexes The subject indexes of the subject, or <code>null</code> to resolve them.
+     * @return list of entitlements.
+     * @throws com.sun.identity.entitlement.EntitlementException if
+     * evaluation fails.
+     * @see SubjectAttributesManager#getSubjectSearchFilter(Subject, String)
+     */
+    public List<Entitlement> evaluate(
+        String realm,
+        Subject adminSubject,
+        Subject subject,
+        String applicationName,
+        String normalisedResourceName,
+        String requestedResourceName,
+        Map<String, Set<String>> envParameters,
+        boolean recursive,
+        Set<String> subjectIndexes
+    ) throws EntitlementException {
         init(adminSubject, subject, realm, applicationName,
             normalisedResourceName, requestedResourceName, null, envParameters, recursive);
         indexes = getApplication().getResourceSearchIndex(normalisedResourceName, realm);
+        this.subjectIndexes = subjectIndexes;
 
         return evaluate(realm);
-
-
-
     }
 
     /**
      * Responsible for the core evaluation of policies associated with the request resource.
+     * <p>
+     * Policies are evaluated in batches. The first batch is evaluated by the calling thread, while any further
+     * batches are evaluated on a work stealing pool. Results are combined as they complete, and once the combiner
+     * has reached a decision, batches which have not started are cancelled and running batches stop before their
+     * next policy.
      *
      * @param realm
      *         the evaluation realm
@@ -264,48 +297,92 @@ class PrivilegeEvaluator {
      * @throws EntitlementException
      */
     private List<Entitlement> evaluate(String realm) throws EntitlementException {
-        final Debug debug = PolicyConstants.DEBUG;
-
         // Search for relevant policies.
-        final SubjectAttributesManager sam = SubjectAttributesManager.getInstance(adminSubject, realm);
-        final Set<String> subjectIndexes = sam.getSubjectSearchFilter(subject, applicationName);
-        final PrivilegeIndexStore indexStore = PrivilegeIndexStore.getInstance(adminSubject, realm);
-        final Iterator<IPrivilege> policyIterator = indexStore.search(realm, indexes, subjectIndexes, recursive);
-
-        int totalCount = 0;
-        IPrivilege policy;
+        final Iterator<IPrivilege> policyIterator = search(realm);
 
         // First collect policies to be evaluated locally.
-        final Set<IPrivilege> localBatch = new HashSet<IPrivilege>(2 * TASKS_PER_THREAD);
-        while (totalCount < TASKS_PER_THREAD && policyIterator.hasNext()) {
-            policy = policyIterator.next();
+        final List<IPrivilege> localBatch = nextBatch(policyIterator);
 
-            if (policy instanceof ReferralPrivilege) {
-                // We want to ignore referrals - deprecated.
-                continue;
+        // Define an evaluation context.
+        final PrivilegeEvaluatorContext context =
+                new PrivilegeEvaluatorContext(realm, normalisedResourceName, applicationName);
+        final Object appToken = AppTokenHandler.getAndClear();
+
+        if (threadPool == null || !policyIterator.hasNext()) {
+            List<IPrivilege> batch = localBatch;
+            while (!batch.isEmpty() && !done.get()) {
+                combine(new PrivilegeTask(batch, appToken, context).call());
+                batch = nextBatch(policyIterator);
             }
+            return getResults(context);
+        }
 
-            if (debug.messageEnabled()) {
-                debug.message("[PolicyEval] PolicyEvaluator.evaluate");
-                debug.message("[PolicyEval] search result: privilege=" + policy.getName());
+        final CompletionService<List<List<Entitlement>>> completionService =
+                new ExecutorCompletionService<List<List<Entitlement>>>(threadPool);
+        final List<Future<List<List<Entitlement>>>> tasks = new ArrayList<Future<List<List<Entitlement>>>>();
+        int pending = 0;
+
+        try {
+            // Submit additional policies to be evaluated by worker threads.
+            List<IPrivilege> batch = nextBatch(policyIterator);
+            while (!batch.isEmpty() && !done.get()) {
+                tasks.add(completionService.submit(new PrivilegeTask(batch, appToken, context)));
+                pending++;
+                for (Future<List<List<Entitlement>>> completed = completionService.poll(); completed != null;
+                        completed = completionService.poll()) {
+                    pending--;
+                    combine(completed.get());
+                }
+                batch = nextBatch(policyIterator);
             }
 
-            localBatch.add(policy);
-            totalCount++;
+            // Evaluate the local policies.
+            combine(new PrivilegeTask(localBatch, appToken, context).call());
+
+            // Wait for submitted tasks to complete evaluation.
+            while (pending > 0 && !done.get()) {
+                pending--;
+                combine(completionService.take().get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EntitlementException) {
+                throw (EntitlementException) e.getCause();
+            }
+            throw new EntitlementException(100, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EntitlementException(100, e);
+        } finally {
+            done.set(true);
+            for (Future<List<List<Entitlement>>> task : tasks) {
+                task.cancel(false);
+            }
         }
 
-        // Define an evaluation context.
-        final PrivilegeEvaluatorContext context =
-                new PrivilegeEvaluatorContext(realm, normalisedResourceName, applicationName);
-        final Object appToken = AppTokenHandler.getAndClear();
+        return getResults(context);
+    }
 
-        // Submit additional policies to be executed by worker threads.
-        final Set<IPrivilege> threadBatch = new HashSet<IPrivilege>(2 * TASKS_PER_THREAD);
-        boolean tasksSubmitted = false;
+    /**
+     * Returns the combined results of the evaluation, logging the membership lookups it made and avoided.
+     */
+    private List<Entitlement> getResults(PrivilegeEvaluatorContext context) {
+        if (PolicyConstants.DEBUG.messageEnabled()) {
+            SubjectMembershipContext memberships = context.getMembershipContext();
+            PolicyConstants.DEBUG.message("[PolicyEval] membership lookups: {}, avoided: {}",
+                    memberships.getLookupCount(), memberships.getLookupsAvoidedCount());
+        }
+        return entitlementCombiner.getResults();
+    }
+
+    /**
+     * Returns the next batch of policies to be evaluated, skipping referrals.
+     */
+    private List<IPrivilege> nextBatch(Iterator<IPrivilege> policyIterator) {
+        final Debug debug = PolicyConstants.DEBUG;
+        final List<IPrivilege> batch = new ArrayList<IPrivilege>(TASKS_PER_THREAD);
 
-        while (policyIterator.hasNext()) {
-            tasksSubmitted = true;
-            policy = policyIterator.next();
+        while (batch.size() < TASKS_PER_THREAD && policyIterator.hasNext()) {
+            IPrivilege policy = policyIterator.next();
 
             if (policy instanceof ReferralPrivilege) {
                 // We want to ignore referrals - deprecated.
@@ -317,76 +394,41 @@ class PrivilegeEvaluator {
                 debug.message("[PolicyEval] search result: privilege=" + policy.getName());
             }
 
-            threadBatch.add(policy);
-            totalCount++;
-
-            if (threadBatch.size() == TASKS_PER_THREAD) {
-                final Set<IPrivilege> copiedBatch = new HashSet<IPrivilege>(threadBatch);
-                threadPool.submit(new PrivilegeTask(this, copiedBatch, isMultiThreaded, appToken, context));
-                threadBatch.clear();
-            }
-        }
-
-        if (!threadBatch.isEmpty()) {
-            // Submit any remaining policies.
-            threadPool.submit(new PrivilegeTask(this, threadBatch, isMultiThreaded, appToken, context));
+            batch.add(policy);
         }
+        return batch;
+    }
 
-        // Submit the local policies.
-        final Runnable localTask = new PrivilegeTask(this, localBatch, tasksSubmitted, appToken, context);
-        localTask.run();
-
-        // Wait for submitted threads to complete evaluation.
-        if (tasksSubmitted) {
-            if (isMultiThreaded) {
-                receiveEvalResults(totalCount);
-            } else {
-                boolean isDone = false;
-                while (!resultQ.isEmpty() && !isDone) {
-                    entitlementCombiner.add(resultQ.remove(0));
-                    isDone = entitlementCombiner.isDone();
-                }
+    /**
+     * Adds the results of a batch to the combiner, until it has reached a decision.
+     */
+    private void combine(List<List<Entitlement>> results) {
+        for (List<Entitlement> entitlements : results) {
+            if (done.get()) {
+                return;
             }
-        } else if (eException == null) {
-            boolean isDone = false;
-            while (!resultQ.isEmpty() && !isDone) {
-                entitlementCombiner.add(resultQ.remove(0));
-                isDone = entitlementCombiner.isDone();
+            entitlementCombiner.add(entitlements);
+            if (entitlementCombiner.isDone()) {
+                done.set(true);
             }
         }
-
-        if (eException != null) {
-            // Throw caught exception.
-            throw eException;
-        }
-
-        return entitlementCombiner.getResults();
     }
 
-    private void receiveEvalResults(int totalCount) {
-        int counter = 0;
-        lock.lock();
-        boolean isDone = (eException != null);
-
-        try {
-            while (!isDone && (counter < totalCount)) {
-                if (resultQ.isEmpty()) {
-                    hasResults.await();
-                }
-                while (!resultQ.isEmpty() && !isDone) {
-                    entitlementCombiner.add(resultQ.remove(0));
-                    isDone = entitlementCombiner.isDone();
-                    counter++;
-                }
-            }
-        } catch (InterruptedException ex) {
-            PolicyConstants.DEBUG.error("PrivilegeEvaluator.evaluate", ex);
-        } finally {
-            lock.unlock();
+    /**
+     * Searches for the policies which may apply to the subject and resource, resolving the subject indexes if they
+     * were not given.
+     */
+    @VisibleForTesting
+    Iterator<IPrivilege> search(String realm) throws EntitlementException {
+        if (subjectIndexes == null) {
+            subjectIndexes = SubjectAttributesManager.getInstance(adminSubject, realm)
+                    .getSubjectSearchFilter(subject, applicationName);
         }
+        return PrivilegeIndexStore.getInstance(adminSubject, realm).search(realm, indexes, subjectIndexes, recursive);
     }
-    
-    private Application getApplication()
+
+    @VisibleForTesting
+    Application getApplication()
         throws EntitlementException {
         if (application == null) {
             application = getApplicationService(SUPER_ADMIN_SUBJECT, realm).getApplication(applicationName);
@@ -399,62 +441,73 @@ class PrivilegeEvaluator {
         return application;
     }
 
-    class PrivilegeTask implements Runnable {
-        final PrivilegeEvaluator parent;
-        private final Set<IPrivilege> privileges;
-        private final boolean isThreaded;
+    /**
+     * Evaluates a batch of policies, stopping early once the combiner has reached a decision.
+     */
+    private final class PrivilegeTask implements Callable<List<List<Entitlement>>> {
+        private final List<IPrivilege> privileges;
         private final Object context;
         private final PrivilegeEvaluatorContext ctx;
 
-        PrivilegeTask(PrivilegeEvaluator parent, Set<IPrivilege> privileges,
-            boolean isThreaded, Object context, PrivilegeEvaluatorContext ctx) {
-            this.parent = parent;
+        PrivilegeTask(List<IPrivilege> privileges, Object context, PrivilegeEvaluatorContext ctx) {
             this.privileges = privileges;
-            this.isThreaded = isThreaded;
             this.context = context;
             this.ctx = ctx;
         }
 
-        public void run() {
+        @Override
+        public List<List<Entitlement>> call() throws EntitlementException {
+            PrivilegeEvaluatorContext previous = PrivilegeEvaluatorContext.getCurrent();
             PrivilegeEvaluatorContext.setCurrent(ctx);
-            
+
             try {
+                List<List<Entitlement>> results = new ArrayList<List<Entitlement>>(privileges.size());
                 for (final IPrivilege eval : privileges) {
-                    List<Entitlement> entitlements = eval.evaluate(
-                                            parent.adminSubject,
-                                            parent.realm, parent.subject,
-                                            parent.applicationName, parent.normalisedResourceName,
-                                            parent.requestedResourceName,
-                                            parent.actionNames, parent.envParameters,
-                                            parent.recursive, context);
+                    if (done.get()) {
+                        break;
+                    }
+                    List<Entitlement> entitlements = eval.evaluate(adminSubject, realm, subject, applicationName,
+                            normalisedResourceName, requestedResourceName, actionNames, envParameters, recursive,
+                            context);
 
                     if (entitlements != null) {
-                        if (isThreaded) {
-                            try {
-                                parent.lock.lock();
-                                parent.resultQ.add(entitlements);
-                                parent.hasResults.signal();
-                            } finally {
-                                parent.lock.unlock();
-                            }
-                        } else {
-                            parent.resultQ.add(entitlements);
-                        }
+                        results.add(entitlements);
                     }
                 }
-            } catch (EntitlementException ex) {
-                if (isThreaded) {
-                    try {
-                        parent.lock.lock();
-                        parent.eException = ex;
-                        parent.hasResults.signal();
-                    } finally {
-                        parent.lock.unlock();
-                    }
-                } else {
-                    parent.eException = ex;
+                return results;
+            } finally {
+                // Restore the previous context, so that this evaluation's memberships cannot leak into a later one
+                PrivilegeEvaluatorContext.setCurrent(previous);
+            }
+        }
+    }
+
+    /**
+     * Holds the work stealing pool which batches of policies are evaluated on. The pool is created when a policy is
+     * first evaluated, and only if the configured evaluation thread pool size is greater than one.
+     */
+    private static final class ThreadPoolHolder {
+
+        private static final ExecutorService POOL = newPool();
+
+        private static ExecutorService newPool() {
+            int evalThreadSize = Evaluator.DEFAULT_POLICY_EVAL_THREAD;
+            EntitlementConfiguration ec = getEntitlementConfiguration(SUPER_ADMIN_SUBJECT, "/");
+            Set<String> setPolicyEvalThread = ec.getConfiguration(
+                EntitlementConfiguration.POLICY_EVAL_THREAD_SIZE);
+
+            if ((setPolicyEvalThread != null) && !setPolicyEvalThread.isEmpty()) {
+                try {
+                    evalThreadSize = Integer.parseInt(setPolicyEvalThread.
+                        iterator().next());
+                } catch (NumberFormatException e) {
+                    PolicyConstants.DEBUG.error(
+                        "PrivilegeEvaluator.<init>: get evaluation thread pool size",
+                        e);
                 }
             }
+            return evalThreadSize > 1
+                    ? EvaluationThreadPools.newWorkStealingPool("PrivilegeEvaluator", evalThreadSize) : null;
         }
     }
 }
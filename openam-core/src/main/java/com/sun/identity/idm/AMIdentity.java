@@ -25,6 +25,7 @@
  * $Id: AMIdentity.java,v 1.37 2009/11/20 23:52:54 ww203982 Exp $
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.sun.identity.idm;
 
@@ -993,77 +994,84 @@ public class AMIdentity {
      */
     public boolean isMember(AMIdentity identity) throws IdRepoException,
             SSOException {
-        boolean ismember = false;
-        IdRepoException idException = null;
         IdServices idServices = IdServicesFactory.getDataStoreServices();
-        try {
-            //This method should always retrieve all the membership information a user could possibly have (either
-            //through the user when memberOf attribute is defined, or through the group using uniquemember attribute),
-            //hence there is no need to try to look up the group and query its members to see if this given identity
-            //is in that list.
-            //Generally speaking, this should be the case for every IdRepo implementation -> when we ask for the user
-            //memberships, we should always get all of them for the sake of consistency.
-            Set members = idServices.getMemberships(token, getType(),
-                    getName(), identity.getType(), orgName, getDN());
-            if (members != null && members.contains(identity)) {
-                ismember = true;
-            } else if (members != null) {
-                // Check for fully qualified names or
-                // if AM SDK DNs for these identities match
-                String dn = identity.getDN();
-                Iterator it = members.iterator();
-                while (it.hasNext()) {
-                    AMIdentity id = (AMIdentity) it.next();
-                    if (identity.equals(id)) {
-                        ismember = true;
-                        break;
-                    } else if (dn != null) {
-                        String mdn = id.getDN();
-                        if ((mdn != null) && mdn.equalsIgnoreCase(dn)) {
-                            ismember = true;
-                            break;
-                        }
-                    }
-                }
-            }
+        //This method should always retrieve all the membership information a user could possibly have (either
+        //through the user when memberOf attribute is defined, or through the group using uniquemember attribute),
+        //hence there is no need to try to look up the group and query its members to see if this given identity
+        //is in that list.
+        //Generally speaking, this should be the case for every IdRepo implementation -> when we ask for the user
+        //memberships, we should always get all of them for the sake of consistency.
+        Set members = idServices.getMemberships(token, getType(),
+                getName(), identity.getType(), orgName, getDN());
+        return containsMembership(members, identity);
+    }
 
-            // If membership is still false, check only the UUID
-            // without the amsdkdn
-            if (!ismember && members != null && !members.isEmpty()) {
-                // Get UUID without amsdkdn for "membership" identity
-                String identityDN = identity.getUniversalId();
-                String amsdkdn = identity.getDN();
-                if ((amsdkdn != null) &&
-                    (identityDN.toLowerCase().indexOf(",amsdkdn=") != -1)) {
-                    identityDN = identityDN.substring(0, identityDN
-                            .indexOf(amsdkdn) - 9);
-                }
-                // Get UUID without amsdkdn for users memberships
-                Iterator it = members.iterator();
-                while (it.hasNext()) {
-                    AMIdentity id = (AMIdentity) it.next();
-                    String idDN = id.getUniversalId();
+    /**
+     * Verifies if the identity being passed is one of the memberships of an
+     * identity, matching the identities in the same way as
+     * {@link #isMember(AMIdentity)}.
+     *
+     * @param members
+     *            Memberships of an identity, as returned by
+     *            {@link #getMemberships(IdType)} for the type of the given
+     *            identity. May be <code>null</code>.
+     * @param identity
+     *            <code>AMIdentity</code> to check membership with
+     * @return true if the given identity is one of the memberships
+     */
+    public static boolean containsMembership(Set members,
+            AMIdentity identity) {
+        boolean ismember = false;
+        if (members != null && members.contains(identity)) {
+            ismember = true;
+        } else if (members != null) {
+            // Check for fully qualified names or
+            // if AM SDK DNs for these identities match
+            String dn = identity.getDN();
+            Iterator it = members.iterator();
+            while (it.hasNext()) {
+                AMIdentity id = (AMIdentity) it.next();
+                if (identity.equals(id)) {
+                    ismember = true;
+                    break;
+                } else if (dn != null) {
                     String mdn = id.getDN();
-                    if (mdn != null) {
-                        int endIdx = idDN.indexOf(mdn) - 9;
-                        if (endIdx >= 0) {
-                            idDN = idDN.substring(0, endIdx);
-                        }
-                    }
-                    if (idDN.equalsIgnoreCase(identityDN)) {
+                    if ((mdn != null) && mdn.equalsIgnoreCase(dn)) {
                         ismember = true;
                         break;
                     }
                 }
             }
-
-        } catch (IdRepoException ide) {
-            // Save the exception to be used later
-            idException = ide;
         }
 
-        if (idException != null) {
-            throw (idException);
+        // If membership is still false, check only the UUID
+        // without the amsdkdn
+        if (!ismember && members != null && !members.isEmpty()) {
+            // Get UUID without amsdkdn for "membership" identity
+            String identityDN = identity.getUniversalId();
+            String amsdkdn = identity.getDN();
+            if ((amsdkdn != null) &&
+                (identityDN.toLowerCase().indexOf(",amsdkdn=") != -1)) {
+                identityDN = identityDN.substring(0, identityDN
+                        .indexOf(amsdkdn) - 9);
+            }
+            // Get UUID without amsdkdn for users memberships
+            Iterator it = members.iterator();
+            while (it.hasNext()) {
+                AMIdentity id = (AMIdentity) it.next();
+                String idDN = id.getUniversalId();
+                String mdn = id.getDN();
+                if (mdn != null) {
+                    int endIdx = idDN.indexOf(mdn) - 9;
+                    if (endIdx >= 0) {
+                        idDN = idDN.substring(0, endIdx);
+                    }
+                }
+                if (idDN.equalsIgnoreCase(identityDN)) {
+                    ismember = true;
+                    break;
+                }
+            }
         }
         return ismember;
     }
@@ -23,10 +23,10 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  *
  * $Id: AMIdentityMembershipCondition.java,v 1.2 2008/06/25 05:43:50 qcheng Exp $
- *
  */
 /*
  * Portions Copyrighted 2011-2014 ForgeRock AS
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.sun.identity.policy.plugins;
@@ -52,6 +52,8 @@ import com.sun.identity.security.AdminTokenAction;
 
 import java.security.AccessController;
 
+import org.forgerock.openam.entitlement.SubjectMembershipContext;
+
 /**
  * The class <code>AMIdentityMembershipCondition</code> is a plugin 
  * implementation of <code>Condition</code> interface.
@@ -308,6 +310,8 @@ public class AMIdentityMembershipCondition implements Condition {
         }
 
         if (!nameValues.isEmpty()) {
+            SubjectMembershipContext memberships =
+                    SubjectMembershipContext.getCurrent();
             Iterator valueIter = nameValues.iterator();
             while (valueIter.hasNext()) {
 
@@ -367,8 +371,8 @@ public class AMIdentityMembershipCondition implements Condition {
                             ((allowedMemberTypes 
                             = nameValueIdType.canHaveMembers()) != null) 
                             && allowedMemberTypes.contains(invocatorIdType)) {
-                        subjectMatch = invocatorIdentity.isMember(
-                                nameValueIdentity);
+                        subjectMatch = memberships.isMember(
+                                invocatorIdentity, nameValueIdentity);
                         if (DEBUG.messageEnabled()) {
                             DEBUG.message(
                                     "AMIdentityMembershipCondition.isMember():"
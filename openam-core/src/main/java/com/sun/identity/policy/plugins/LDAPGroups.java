@@ -26,6 +26,7 @@
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
  * Portions Copyrighted 2012 Open Source Solution Technology Corporation 
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.sun.identity.policy.plugins;
@@ -58,6 +59,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.forgerock.i18n.LocalizedIllegalArgumentException;
+import org.forgerock.openam.entitlement.SubjectMembershipContext;
 import org.forgerock.openam.ldap.LDAPRequests;
 import org.forgerock.openam.ldap.LDAPUtils;
 import org.forgerock.opendj.ldap.Attribute;
@@ -450,12 +452,15 @@ public class LDAPGroups implements Subject {
                           + userLocalDN);
         }
         if (selectedRFCGroupDNs.size() > 0) {
+            SubjectMembershipContext memberships = SubjectMembershipContext.getCurrent();
             Iterator<String> groupsIter = selectedRFCGroupDNs.iterator();
             String userRDN = null;
             while (groupsIter.hasNext()) {
                 Boolean matchFound;
                 String groupDN = groupsIter.next();
-                if ((matchFound = SubjectEvaluationCache.isMember(tokenID, ldapServer,groupDN)) != null) {
+                String groupKey = ldapServer + "/" + groupDN;
+                if ((matchFound = memberships.getMembership(tokenID, groupKey)) != null
+                        || (matchFound = SubjectEvaluationCache.isMember(tokenID, ldapServer, groupDN)) != null) {
                     debug.message("LDAPGroups.isMember():Got membership from cache of {} in group {} :{}", userLocalDN,
                             groupDN, matchFound);
                     boolean result = matchFound;
@@ -502,7 +507,9 @@ public class LDAPGroups implements Subject {
                         debug.message("LDAPGroups.isMember(): could not add sso listener: {}", ex.getMessage());
                     }
                 }
-                if (isMemberOfGroup(groupDN, userDN, userRDN, token)) {
+                boolean groupMatch = isMemberOfGroup(groupDN, userDN, userRDN, token);
+                memberships.putMembership(tokenID, groupKey, groupMatch);
+                if (groupMatch) {
                     debug.message("LDAPGroups.isMember(): User {} is a member of this LDAPGroups.", userDN.toString());
                     return  true;
                 }
@@ -12,15 +12,22 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts;
 
 import static org.forgerock.openam.cts.api.CoreTokenConstants.*;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 
 import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.utils.blob.strategies.compression.CompressionCodecType;
+import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.openam.utils.ConfigListener;
 import org.forgerock.util.annotations.VisibleForTesting;
 
@@ -46,11 +53,20 @@ public class CoreTokenConfig {
     private volatile int runPeriod;
     private volatile int cleanupPageSize;
     private volatile int sleepInterval;
+    private volatile int reaperPartitions;
+    private volatile int reaperRateLimit;
 
     // Token Blob strategy flags
     private volatile boolean tokensEncrypted;
     private volatile boolean tokensCompressed;
     private volatile boolean attributeNamesCompressed;
+    private volatile CompressionCodecType compressionCodec;
+    private volatile boolean sessionBinarySerialisation;
+
+    // Local read cache, read once as the cache is sized on creation
+    private final int readCacheSize;
+    private final long readCacheTtl;
+    private final Set<TokenType> readCacheTokenTypes;
 
     /**
      * Create a new default instance of the CoreTokenConfig.
@@ -67,9 +83,13 @@ public class CoreTokenConfig {
                 Constants.SESSION_REPOSITORY_COMPRESSION,
                 Constants.SESSION_REPOSITORY_ATTRIBUTE_NAME_COMPRESSION,
                 Constants.SESSION_REPOSITORY_ATTRIBUTE_NAME_COMPRESSION,
+                CTS_COMPRESSION_CODEC,
+                CTS_SESSION_BINARY_SERIALISATION,
                 Constants.CORE_TOKEN_RESOURCE_ENABLED,
                 CLEANUP_PERIOD,
-                HEALTH_CHECK_PERIOD
+                HEALTH_CHECK_PERIOD,
+                CTS_REAPER_PARTITIONS,
+                CTS_REAPER_RATE_LIMIT
         };
         ConfigurationListener listener = new ConfigurationListener() {
             @Override
@@ -89,6 +109,33 @@ public class CoreTokenConfig {
     @VisibleForTesting
     CoreTokenConfig() {
         loadSystemProperties();
+        readCacheSize = SystemProperties.getAsInt(CTS_READ_CACHE_SIZE, 0);
+        readCacheTtl = SystemProperties.getAsLong(CTS_READ_CACHE_TTL, 5000L);
+        readCacheTokenTypes = parseTokenTypes(
+                SystemProperties.get(CTS_READ_CACHE_TOKEN_TYPES, TokenType.SESSION.name()));
+    }
+
+    private static Set<TokenType> parseTokenTypes(String value) {
+        Set<TokenType> types = EnumSet.noneOf(TokenType.class);
+        for (String type : value.split(",")) {
+            try {
+                types.add(TokenType.valueOf(type.trim()));
+            } catch (IllegalArgumentException e) {
+                // Ignore unknown token types
+            }
+        }
+        return Collections.unmodifiableSet(types);
+    }
+
+    private static CompressionCodecType parseCompressionCodec(String value) {
+        if (value != null) {
+            try {
+                return CompressionCodecType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                // Fall back to the default codec
+            }
+        }
+        return CompressionCodecType.GZIP;
     }
 
     private void loadSystemProperties() {
@@ -110,6 +157,10 @@ public class CoreTokenConfig {
 
         // Control Token Compression.
         tokensCompressed = SystemProperties.getAsBoolean(Constants.SESSION_REPOSITORY_COMPRESSION);
+        compressionCodec = parseCompressionCodec(SystemProperties.get(CTS_COMPRESSION_CODEC));
+
+        // Control Session serialisation format.
+        sessionBinarySerialisation = SystemProperties.getAsBoolean(CTS_SESSION_BINARY_SERIALISATION);
 
         // Control Attribute Name Compression.
         attributeNamesCompressed = SystemProperties.getAsBoolean(Constants.SESSION_REPOSITORY_ATTRIBUTE_NAME_COMPRESSION);
@@ -117,6 +168,10 @@ public class CoreTokenConfig {
         // Controls the size of pages requested for CTS Reaper
         cleanupPageSize = 1000;
 
+        // Controls how the CTS Reaper spreads and paces its deletions
+        reaperPartitions = Math.max(1, getSystemManagerPropertyAsInt(CTS_REAPER_PARTITIONS, 1));
+        reaperRateLimit = Math.max(0, getSystemManagerPropertyAsInt(CTS_REAPER_RATE_LIMIT, 0));
+
         // Whether or not use of the CoreTokenResource is enabled.
         coreTokenResourceEnabled = SystemProperties.getAsBoolean(Constants.CORE_TOKEN_RESOURCE_ENABLED);
     }
@@ -219,6 +274,20 @@ public class CoreTokenConfig {
         return tokensCompressed;
     }
 
+    /**
+     * @return The codec used to compress Tokens when {@link #isTokenCompressed()} is true. GZIP is the default.
+     */
+    public CompressionCodecType getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    /**
+     * @return True if Session Tokens should be written in binary rather than JSON text. False is the default.
+     */
+    public boolean isSessionBinarySerialisation() {
+        return sessionBinarySerialisation;
+    }
+
     /**
      * @return True if The Token Attribute Names should be compressed as well. False by default.
      */
@@ -233,6 +302,41 @@ public class CoreTokenConfig {
         return cleanupPageSize;
     }
 
+    /**
+     * @return The number of partitions the CTS Reaper deletes expired Tokens in concurrently. At least 1.
+     */
+    public int getReaperPartitions() {
+        return reaperPartitions;
+    }
+
+    /**
+     * @return The maximum number of Token deletions per second issued by the CTS Reaper. Zero is unlimited.
+     */
+    public int getReaperRateLimit() {
+        return reaperRateLimit;
+    }
+
+    /**
+     * @return The maximum number of Tokens held in the local read cache. Zero or less disables the cache.
+     */
+    public int getReadCacheSize() {
+        return readCacheSize;
+    }
+
+    /**
+     * @return The maximum duration in milliseconds a Token may be served from the local read cache.
+     */
+    public long getReadCacheTtl() {
+        return readCacheTtl;
+    }
+
+    /**
+     * @return The non null types of Token which are eligible for the local read cache.
+     */
+    public Set<TokenType> getReadCacheTokenTypes() {
+        return readCacheTokenTypes;
+    }
+
     /**
      * Register a listener to be notified when {@link CoreTokenConfig} changes.
      *
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts;
 
@@ -39,6 +40,7 @@ import org.forgerock.openam.cts.impl.query.worker.queries.SessionIdleTimeExpired
 import org.forgerock.openam.cts.impl.queue.ResultHandlerFactory;
 import org.forgerock.openam.cts.monitoring.CTSConnectionMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
+import org.forgerock.openam.cts.monitoring.CTSReadCacheMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
 import org.forgerock.openam.cts.monitoring.impl.CTSMonitoringStoreImpl;
 import org.forgerock.openam.cts.monitoring.impl.queue.MonitoredResultHandlerFactory;
@@ -46,7 +48,7 @@ import org.forgerock.openam.cts.worker.CTSWorkerManager;
 import org.forgerock.openam.cts.worker.CTSWorkerTask;
 import org.forgerock.openam.cts.worker.CTSWorkerTaskProvider;
 import org.forgerock.openam.cts.worker.filter.CTSWorkerSelectAllFilter;
-import org.forgerock.openam.cts.worker.process.CTSWorkerDeleteProcess;
+import org.forgerock.openam.cts.worker.process.CTSWorkerPartitionedDeleteProcess;
 import org.forgerock.openam.cts.worker.process.MaxSessionTimeExpiredProcess;
 import org.forgerock.openam.cts.worker.process.SessionIdleTimeExpiredProcess;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
@@ -121,6 +123,7 @@ public class CoreTokenServiceGuiceModule extends PrivateModule {
         bind(CTSOperationsMonitoringStore.class).to(CTSMonitoringStoreImpl.class);
         bind(CTSReaperMonitoringStore.class).to(CTSMonitoringStoreImpl.class);
         bind(CTSConnectionMonitoringStore.class).to(CTSMonitoringStoreImpl.class);
+        bind(CTSReadCacheMonitoringStore.class).to(CTSMonitoringStoreImpl.class);
 
         // Enable monitoring of all CTS operations
         bind(ResultHandlerFactory.class).to(MonitoredResultHandlerFactory.class);
@@ -140,6 +143,8 @@ public class CoreTokenServiceGuiceModule extends PrivateModule {
         expose(CoreTokenConfig.class);
         expose(CTSPersistentStore.class);
         expose(CTSConnectionMonitoringStore.class);
+        expose(CTSOperationsMonitoringStore.class);
+        expose(CTSReadCacheMonitoringStore.class);
         expose(ExecutorService.class).annotatedWith(Names.named(CoreTokenConstants.CTS_WORKER_POOL));
         expose(ObjectMapper.class).annotatedWith(Names.named(CoreTokenConstants.OBJECT_MAPPER));
         expose(ResultHandlerFactory.class);
@@ -185,7 +190,7 @@ public class CoreTokenServiceGuiceModule extends PrivateModule {
     @Provides @Inject @Named(CTSWorkerConstants.DELETE_ALL_MAX_EXPIRED)
     CTSWorkerTask getDeleteAllMaxExpiredReaperTask(
             CTSWorkerPastExpiryDateQuery query,
-            CTSWorkerDeleteProcess deleteProcess,
+            CTSWorkerPartitionedDeleteProcess deleteProcess,
             CTSWorkerSelectAllFilter selectAllFilter) {
         String taskName = CTSWorkerConstants.DELETE_ALL_MAX_EXPIRED + "Task";
         return new CTSWorkerTask(query, deleteProcess, selectAllFilter, taskName);
@@ -12,13 +12,13 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.adapters;
 
 import static java.util.concurrent.TimeUnit.*;
 
 import java.lang.reflect.Field;
-import java.util.Calendar;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,15 +29,17 @@ import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.cts.api.fields.SessionTokenField;
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.api.tokens.TokenIdFactory;
+import org.forgerock.openam.cts.utils.BinaryJSONSerialisation;
 import org.forgerock.openam.cts.utils.JSONSerialisation;
 import org.forgerock.openam.cts.utils.blob.TokenBlobUtils;
 import org.forgerock.openam.cts.utils.blob.strategies.AttributeCompressionStrategy;
 import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.openam.utils.CollectionUtils;
 import org.forgerock.openam.utils.CrestQuery;
-import org.forgerock.openam.utils.TimeUtils;
 import org.forgerock.util.annotations.VisibleForTesting;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.iplanet.dpro.session.Session;
 import com.iplanet.dpro.session.SessionID;
 import com.iplanet.dpro.session.service.InternalSession;
@@ -52,6 +54,7 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
     private final TokenIdFactory tokenIdFactory;
     private final CoreTokenConfig config;
     private final JSONSerialisation serialisation;
+    private final BinaryJSONSerialisation binarySerialisation;
     private final TokenBlobUtils blobUtils;
     private final DNWrapper dnWrapper;
 
@@ -66,14 +69,16 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
      * @param tokenIdFactory Non null.
      * @param config Non null.
      * @param serialisation Non null.
+     * @param binarySerialisation Non null.
      * @param blobUtils A collection of Binary Object utilities.
      */
     @Inject
     public SessionAdapter(TokenIdFactory tokenIdFactory, CoreTokenConfig config, JSONSerialisation serialisation,
-            TokenBlobUtils blobUtils, DNWrapper dnWrapper) {
+            BinaryJSONSerialisation binarySerialisation, TokenBlobUtils blobUtils, DNWrapper dnWrapper) {
         this.tokenIdFactory = tokenIdFactory;
         this.config = config;
         this.serialisation = serialisation;
+        this.binarySerialisation = binarySerialisation;
         this.blobUtils = blobUtils;
         this.dnWrapper = dnWrapper;
     }
@@ -101,15 +106,23 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
         String userId = config.getUserId(session);
         token.setUserId(userId);
 
+        // Universal Id, unlike the user Id this is stored exactly, so that it can be read without the session
+        String universalId = session.getUUID();
+        if (universalId != null) {
+            token.setAttribute(SessionTokenField.UNIVERSAL_ID.getField(), universalId);
+        }
+
         // Session state
         String state = session.getState().name();
         token.setAttribute(SessionTokenField.SESSION_STATE.getField(), state);
 
+        // Session type, so that application sessions can be told apart without reading the session
+        if (session.getType() != null) {
+            token.setAttribute(SessionTokenField.SESSION_TYPE.getField(), session.getType().name());
+        }
+
         // Expiry Date
-        Calendar expiryTimeStamp = TimeUtils.fromUnixTime(
-                session.getExpirationTime(MILLISECONDS) + config.getSessionExpiryGracePeriod(MILLISECONDS),
-                MILLISECONDS);
-        token.setExpiryTimestamp(expiryTimeStamp);
+        setExpiryTimestamp(token, session);
 
         // Max session expiration time
         setDateAttributeFromMillis(token,
@@ -128,10 +141,14 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
         token.setAttribute(SessionTokenField.SESSION_ID.getField(), session.getID().toString());
 
         // Binary data
-        String jsonBlob = serialisation.serialise(session);
-        blobUtils.setBlobFromString(token, jsonBlob);
-
-        String latestAccessTime = filterLatestAccessTime(token);
+        String latestAccessTime;
+        if (config.isSessionBinarySerialisation()) {
+            latestAccessTime = setBinaryBlob(token, session);
+        } else {
+            String jsonBlob = serialisation.serialise(session);
+            blobUtils.setBlobFromString(token, jsonBlob);
+            latestAccessTime = filterLatestAccessTime(token);
+        }
         if (latestAccessTime != null) {
             token.setAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField(), latestAccessTime);
         }
@@ -147,6 +164,46 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
         return token;
     }
 
+    /**
+     * Convert the InternalSession into a Token containing only the attributes which change when the session is
+     * accessed: the expiry date, the max idle expiration time and the latest access time.
+     *
+     * The session is not serialised, so this Token is only suitable for a partial update of a session which has
+     * already been persisted, and whose other state has not changed since.
+     *
+     * @param session Non null.
+     * @return Non null Token containing the access time attributes.
+     * @see org.forgerock.openam.cts.api.CTSOptions#PARTIAL_UPDATE_OPTION
+     */
+    public Token toAccessTimeToken(InternalSession session) {
+        Token token = new Token(tokenIdFactory.toSessionTokenId(session), TokenType.SESSION);
+        setExpiryTimestamp(token, session);
+        setDateAttributeFromMillis(token,
+                SessionTokenField.MAX_IDLE_EXPIRATION_TIME,
+                session.getMaxIdleExpirationTime(MILLISECONDS));
+        token.setAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField(),
+                String.valueOf(session.getLatestAccessTime(SECONDS)));
+        return token;
+    }
+
+    private void setExpiryTimestamp(Token token, InternalSession session) {
+        token.setExpiryTimeMillis(
+                session.getExpirationTime(MILLISECONDS) + config.getSessionExpiryGracePeriod(MILLISECONDS));
+    }
+
+    /**
+     * Serialise the session to the Token blob in binary, omitting the latest access time which is stored in
+     * its own attribute.
+     *
+     * @return The latest access time removed from the serialised session, or null if it was not present.
+     */
+    private String setBinaryBlob(Token token, InternalSession session) {
+        ObjectNode json = binarySerialisation.toJson(session);
+        JsonNode latestAccessTime = json.remove(SessionTokenField.LATEST_ACCESS_TIME.getInternalSessionFieldName());
+        token.setBlob(binarySerialisation.serialise(json));
+        return latestAccessTime == null ? null : latestAccessTime.asText();
+    }
+
     private void setRestrictedTokens(Token token, InternalSession session) {
         for (SessionID restrictedToken : session.getRestrictedTokens()) {
             token.setMultiAttribute(SessionTokenField.RESTRICTED_TOKENS.getField(), restrictedToken.toString());
@@ -155,18 +212,44 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
 
     @VisibleForTesting
     static void setDateAttributeFromMillis(Token token, SessionTokenField field, long millis) {
-        token.setAttribute(field.getField(), TimeUtils.fromUnixTime(millis, MILLISECONDS));
+        token.setDateAttributeMillis(field.getField(), millis);
     }
 
     /**
      * Convert from a Token to an Internal Session.
      *
-     * Simply deserialise the InternalSession from the JSON blob.
+     * Simply deserialise the InternalSession from the blob, which may be in either JSON text or binary.
      *
      * @param token Token to be converted back to its original format.
      * @return Non null InternalSession.
      */
     public InternalSession fromToken(Token token) {
+        byte[] blob = token.getBlob();
+        InternalSession session;
+        if (blob != null && BinaryJSONSerialisation.isBinary(blob)) {
+            session = fromBinaryBlob(token, blob);
+        } else {
+            session = fromJsonBlob(token);
+        }
+        if (session.getSessionHandle() == null) {
+            //Originally the sessionHandle was stored in the serialize token, so if after the deserialization the
+            //sessionHandle field is not set, then we should attempt to retrieve the value directly from the token.
+            session.setSessionHandle(token.<String>getAttribute(SessionTokenField.SESSION_HANDLE.getField()));
+        }
+        return session;
+    }
+
+    private InternalSession fromBinaryBlob(Token token, byte[] blob) {
+        JsonNode json = binarySerialisation.deserialise(blob);
+        String latestAccessTime = token.getAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField());
+        if (latestAccessTime != null && json.isObject()) {
+            ((ObjectNode) json).put(SessionTokenField.LATEST_ACCESS_TIME.getInternalSessionFieldName(),
+                    Long.parseLong(latestAccessTime));
+        }
+        return binarySerialisation.deserialise(json, InternalSession.class);
+    }
+
+    private InternalSession fromJsonBlob(Token token) {
         String jsonBlob = blobUtils.getBlobAsString(token);
         int index = findIndexOfValidField(jsonBlob);
 
@@ -185,13 +268,7 @@ public class SessionAdapter implements TokenAdapter<InternalSession> {
             jsonBlob = jsonBlob.substring(0, index) + addition + jsonBlob.substring(index, jsonBlob.length());
         }
 
-        InternalSession session = serialisation.deserialise(jsonBlob, InternalSession.class);
-        if (session.getSessionHandle() == null) {
-            //Originally the sessionHandle was stored in the serialize token, so if after the deserialization the
-            //sessionHandle field is not set, then we should attempt to retrieve the value directly from the token.
-            session.setSessionHandle(token.<String>getAttribute(SessionTokenField.SESSION_HANDLE.getField()));
-        }
-        return session;
+        return serialisation.deserialise(jsonBlob, InternalSession.class);
     }
 
     /**
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.api;
@@ -62,4 +63,15 @@ public final class CTSOptions {
      * @see org.forgerock.openam.cts.impl.DeletePreReadOptionFunction
      */
     public static final Option<CoreTokenField[]> PRE_DELETE_READ_OPTION = Option.of(CoreTokenField[].class, null);
+
+    /**
+     * Signals the CTS to update only the attributes present on the token, leaving any other attributes
+     * of the stored token unchanged.
+     *
+     * <p>The update is performed without first reading the stored token, and will fail if the token does
+     * not exist.</p>
+     *
+     * <p>Applicable for use only with the update CTS operation.</p>
+     */
+    public static final Option<Boolean> PARTIAL_UPDATE_OPTION = Option.of(Boolean.class, false);
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.api;
 
@@ -126,6 +127,52 @@ public final class CoreTokenConstants {
      */
     public static final String CTS_ASYNC_QUEUE_SIZE = "org.forgerock.services.cts.async.queue.size";
 
+    /**
+     * The class name of the {@link org.forgerock.openam.cts.impl.queue.TokenQueueSelector} used to assign
+     * tasks to asynchronous work queues.
+     */
+    public static final String CTS_ASYNC_QUEUE_SELECTOR = "org.forgerock.services.cts.async.queue.selector";
+
+    /**
+     * The maximum number of Tokens held in the local CTS read cache. Zero, the default, disables the cache.
+     */
+    public static final String CTS_READ_CACHE_SIZE = "org.forgerock.services.cts.read.cache.size";
+
+    /**
+     * The maximum duration in milliseconds a Token may be served from the local CTS read cache.
+     */
+    public static final String CTS_READ_CACHE_TTL = "org.forgerock.services.cts.read.cache.ttl";
+
+    /**
+     * Comma separated {@link org.forgerock.openam.tokens.TokenType} names of Tokens eligible for the
+     * local CTS read cache.
+     */
+    public static final String CTS_READ_CACHE_TOKEN_TYPES = "org.forgerock.services.cts.read.cache.token.types";
+
+    /**
+     * The number of partitions the expiry date range of expired Tokens is split into, each of which is deleted
+     * concurrently by the CTS Reaper. The default of 1 deletes all expired Tokens with a single paged query.
+     */
+    public static final String CTS_REAPER_PARTITIONS = "org.forgerock.services.cts.reaper.partitions";
+
+    /**
+     * The maximum number of Token deletions per second the CTS Reaper will issue across all partitions.
+     * Zero, the default, does not limit the rate of deletion.
+     */
+    public static final String CTS_REAPER_RATE_LIMIT = "org.forgerock.services.cts.reaper.rate.limit";
+
+    /**
+     * The {@link org.forgerock.openam.cts.utils.blob.strategies.compression.CompressionCodecType} name of the
+     * codec used to compress Tokens, when Token compression is enabled. Defaults to GZIP.
+     */
+    public static final String CTS_COMPRESSION_CODEC = "org.forgerock.services.cts.compression.codec";
+
+    /**
+     * Whether Session Tokens are written with the compact binary serialisation rather than JSON text. Both are
+     * always readable, so this should only be enabled once every server in the cluster supports it.
+     */
+    public static final String CTS_SESSION_BINARY_SERIALISATION = "org.forgerock.services.cts.session.binary";
+
     /**
      * Binding constant for the CTS Jackson Object Mapper.
      */
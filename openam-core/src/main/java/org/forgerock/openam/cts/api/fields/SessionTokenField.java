@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.api.fields;
 
@@ -25,6 +26,8 @@ public enum SessionTokenField {
     LATEST_ACCESS_TIME("latestAccessTime", CoreTokenField.STRING_ONE),
     SESSION_ID("sessionID", CoreTokenField.STRING_TWO),
     SESSION_HANDLE("sessionHandle", CoreTokenField.STRING_THREE),
+    UNIVERSAL_ID("universalId", CoreTokenField.STRING_FOUR),
+    SESSION_TYPE("sessionType", CoreTokenField.STRING_FIVE),
     REALM("clientDomain", CoreTokenField.STRING_ELEVEN),
     SESSION_STATE("sessionState", CoreTokenField.STRING_THIRTEEN), // Must be an un-indexed field for write performance
     MAX_SESSION_EXPIRATION_TIME("maxSessionExpirationTime", CoreTokenField.DATE_ONE),
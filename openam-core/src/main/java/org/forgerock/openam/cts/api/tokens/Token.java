@@ -14,6 +14,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Portions copyright 2022 Wren Security
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.api.tokens;
 
@@ -35,6 +36,7 @@ import org.forgerock.api.annotations.Description;
 import org.forgerock.api.annotations.Title;
 import org.forgerock.openam.cts.api.fields.CoreTokenFieldTypes;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.utils.GeneralizedTimeFormat;
 import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
 import org.forgerock.openam.tokens.CoreTokenField;
 import org.forgerock.openam.tokens.TokenType;
@@ -151,6 +153,20 @@ public class Token {
         put(CoreTokenField.EXPIRY_DATE, expiryDate);
     }
 
+    /**
+     * @return The time in milliseconds since the epoch when the Token is due to expire, or null if it is not set.
+     */
+    public Long getExpiryTimeMillis() {
+        return getDateAttributeMillis(CoreTokenField.EXPIRY_DATE);
+    }
+
+    /**
+     * @param expiryTime The time in milliseconds since the epoch when the Token will expire.
+     */
+    public void setExpiryTimeMillis(long expiryTime) {
+        setDateAttributeMillis(CoreTokenField.EXPIRY_DATE, expiryTime);
+    }
+
     /**
      * A binary representation of the Token being stored can be placed in the Token.
      *
@@ -274,6 +290,58 @@ public class Token {
         put(field, value);
     }
 
+    /**
+     * Accessor for date fields which avoids creating a {@link Calendar}.
+     *
+     * @param field Non null date field.
+     * @return The time in milliseconds since the epoch, or null if the field is not set.
+     */
+    public Long getDateAttributeMillis(CoreTokenField field) {
+        String generalizedTime = getGeneralizedTimeAttribute(field);
+        return generalizedTime == null ? null : GeneralizedTimeFormat.parse(generalizedTime);
+    }
+
+    /**
+     * Mutator for date fields which avoids creating a {@link Calendar}. The time is stored in UTC.
+     *
+     * @param field Non null date field.
+     * @param time The time in milliseconds since the epoch.
+     */
+    public void setDateAttributeMillis(CoreTokenField field, long time) {
+        setGeneralizedTimeAttribute(field, GeneralizedTimeFormat.format(time));
+    }
+
+    /**
+     * Accessor for date fields in the LDAP GeneralizedTime form they are stored in.
+     *
+     * @param field Non null date field.
+     * @return The GeneralizedTime, or null if the field is not set.
+     */
+    public String getGeneralizedTimeAttribute(CoreTokenField field) {
+        validateCalendarField(field);
+        return (String) attributes.get(field.toString());
+    }
+
+    /**
+     * Mutator for date fields in the LDAP GeneralizedTime form they are stored in, which retains the time zone
+     * of the GeneralizedTime without parsing it.
+     *
+     * @param field Non null date field.
+     * @param generalizedTime Non null valid GeneralizedTime.
+     */
+    public void setGeneralizedTimeAttribute(CoreTokenField field, String generalizedTime) {
+        validateCalendarField(field);
+        attributes.put(field.toString(), generalizedTime);
+    }
+
+    private static void validateCalendarField(CoreTokenField field) {
+        if (!CoreTokenFieldTypes.isCalendar(field)) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "Token Field {0} is not a date.",
+                    field.toString()));
+        }
+    }
+
     /**
      * Clear a set attribute.
      *
@@ -379,7 +447,7 @@ public class Token {
             Object value;
             if (field.equals(CoreTokenField.EXPIRY_DATE)) {
                 DateFormat dateFormat = DateFormat.getInstance();
-                Date date = getExpiryTimestamp().getTime();
+                Date date = new Date(getExpiryTimeMillis());
                 value = dateFormat.format(date);
             } else if (field.equals(CoreTokenField.BLOB)) {
                 value = Long.toString(getBlob().length) + " bytes";
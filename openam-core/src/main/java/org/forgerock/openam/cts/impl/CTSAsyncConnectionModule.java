@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.impl;
@@ -21,6 +22,7 @@ import java.util.concurrent.ExecutorService;
 import javax.inject.Inject;
 
 import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.impl.queue.TokenQueueSelector;
 import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
 import org.forgerock.openam.cts.monitoring.CTSConnectionMonitoringStore;
 import org.forgerock.openam.cts.monitoring.impl.connections.MonitoredCTSConnectionFactory;
@@ -30,6 +32,7 @@ import org.forgerock.openam.sm.datalayer.impl.SeriesTaskExecutor;
 import org.forgerock.openam.sm.datalayer.impl.SeriesTaskExecutorThreadFactory;
 import org.forgerock.openam.sm.datalayer.providers.DataLayerConnectionFactoryCache;
 
+import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.PrivateBinder;
 import com.google.inject.Provider;
@@ -47,6 +50,7 @@ public class CTSAsyncConnectionModule extends CTSConnectionModule {
                 binder().getProvider(Key.get(ExecutorService.class, Names.named(CoreTokenConstants.CTS_WORKER_POOL))));
         binder().bind(QueueConfiguration.class).to(CTSQueueConfiguration.class);
         binder().bind(SeriesTaskExecutorThreadFactory.class);
+        binder().bind(TokenQueueSelector.class).toProvider(TokenQueueSelectorProvider.class);
         super.configureTaskExecutor(binder);
     }
 
@@ -55,6 +59,24 @@ public class CTSAsyncConnectionModule extends CTSConnectionModule {
         return CTSConnectionFactoryProvider.class;
     }
 
+    /**
+     * This provider provides the TokenQueueSelector type configured in {@link CTSQueueConfiguration}.
+     */
+    private static class TokenQueueSelectorProvider implements Provider<TokenQueueSelector> {
+        private final CTSQueueConfiguration configuration;
+        private final Injector injector;
+
+        @Inject
+        public TokenQueueSelectorProvider(CTSQueueConfiguration configuration, Injector injector) {
+            this.configuration = configuration;
+            this.injector = injector;
+        }
+
+        public TokenQueueSelector get() {
+            return injector.getInstance(configuration.getQueueSelectorType());
+        }
+    }
+
     /**
      * This provider provides ConnectionFactory instances that are wrapped in a monitoring factory.
      */
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.impl;
 
@@ -56,6 +57,7 @@ public class CoreTokenAdapter {
     private final TokenBlobStrategy strategy;
     private final TaskDispatcher dispatcher;
     private final ResultHandlerFactory handlerFactory;
+    private final TokenReadCache readCache;
     private final Debug debug;
 
     /**
@@ -64,13 +66,16 @@ public class CoreTokenAdapter {
      * @param dispatcher Non null TaskDispatcher to use for CTS operations.
      * @param handlerFactory Factory used to generate ResultHandlers for CTS operations.
      * @param ctsWorkerManager Required for starting the CTS worker tasks.
+     * @param readCache Local cache of Tokens which have been read.
      * @param debug Required for debug logging.
      */
     @Inject
     public CoreTokenAdapter(TokenBlobStrategy strategy, TaskDispatcher dispatcher, ResultHandlerFactory handlerFactory,
-                            CTSWorkerManager ctsWorkerManager, @Named(CoreTokenConstants.CTS_DEBUG) Debug debug) {
+                            CTSWorkerManager ctsWorkerManager, TokenReadCache readCache,
+                            @Named(CoreTokenConstants.CTS_DEBUG) Debug debug) {
         this.strategy = strategy;
         this.handlerFactory = handlerFactory;
+        this.readCache = readCache;
         this.dispatcher = dispatcher;
         this.debug = debug;
 
@@ -88,6 +93,7 @@ public class CoreTokenAdapter {
      * an error as a result of this operation.
      */
     public ResultHandler<Token, CoreTokenException> create(Token token, Options options) throws CoreTokenException {
+        readCache.invalidate(token.getTokenId());
         applyBlobStrategy(token);
         debug("Create: queued {0} Token {1}\n{2}", token.getType(), token.getTokenId(), token);
         final ResultHandler<Token, CoreTokenException> createHandler = handlerFactory.getCreateHandler();
@@ -104,6 +110,16 @@ public class CoreTokenAdapter {
      * @throws CoreTokenException If there was an unexpected problem with the request.
      */
     public Token read(String tokenId, Options options) throws CoreTokenException {
+        if (readCache.isEnabled()) {
+            startReadCacheInvalidation();
+            Token cached = readCache.get(tokenId);
+            if (cached != null) {
+                debug("Read: returned from cache for {0}", tokenId);
+                return cached;
+            }
+        }
+
+        long generation = readCache.generation(tokenId);
         debug("Read: queued {0}", tokenId);
         ResultHandler<Token, CoreTokenException> handler = handlerFactory.getReadHandler();
         dispatcher.read(tokenId, options, handler);
@@ -114,6 +130,7 @@ public class CoreTokenAdapter {
                 debug("Read: no Token found for {0}", tokenId);
             } else {
                 reverseBlobStrategy(token);
+                readCache.put(token, generation);
                 debug("Read: returned for {0}\n{1}", tokenId, token);
             }
             return token;
@@ -141,6 +158,7 @@ public class CoreTokenAdapter {
      */
     public ResultHandler<Token, CoreTokenException> updateOrCreate(Token token, Options options)
             throws CoreTokenException {
+        readCache.invalidate(token.getTokenId());
         applyBlobStrategy(token);
         debug("UpdateOrCreate: queued {0} Token {1}\n{2}", token.getType(), token.getTokenId(), token);
         final ResultHandler<Token, CoreTokenException> updateHandler = handlerFactory.getUpdateHandler();
@@ -156,6 +174,7 @@ public class CoreTokenAdapter {
      * @throws CoreTokenException If there was an error while trying to remove the token with the given Id.
      */
     public ResultHandler<PartialToken, CoreTokenException> delete(String tokenId, Options options) throws CoreTokenException {
+        readCache.invalidate(tokenId);
         debug("Delete: queued delete {0}", tokenId);
         final ResultHandler<PartialToken, CoreTokenException> deleteHandler = handlerFactory.getDeleteHandler();
         dispatcher.delete(tokenId, options, deleteHandler);
@@ -289,6 +308,23 @@ public class CoreTokenAdapter {
         dispatcher.partialQuery(filter, handler);
     }
 
+    /**
+     * Registers the read cache for invalidation the first time it is used, so that the continuous query
+     * is not started during server start up or when the cache is not in use. If the continuous query fails
+     * to start, the read cache is registered again on its next use.
+     */
+    private void startReadCacheInvalidation() {
+        if (readCache.startRegistration()) {
+            try {
+                dispatcher.continuousQuery(readCache, readCache.getInvalidationFilter());
+                readCache.activate();
+            } catch (CoreTokenException e) {
+                debug.error(CoreTokenConstants.DEBUG_HEADER + "Failed to start read cache invalidation", e);
+                readCache.cancelRegistration();
+            }
+        }
+    }
+
     private void debug(String format, Object... args) {
         if (debug.messageEnabled()) {
             debug.message(MessageFormat.format(CoreTokenConstants.DEBUG_HEADER + format, args));
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.impl;
@@ -45,6 +46,7 @@ import org.forgerock.openam.sm.datalayer.providers.LdapConnectionFactoryProvider
 import org.forgerock.openam.tokens.CoreTokenField;
 import org.forgerock.openam.utils.IOUtils;
 import org.forgerock.opendj.ldap.AssertionFailureException;
+import org.forgerock.opendj.ldap.Attribute;
 import org.forgerock.opendj.ldap.Connection;
 import org.forgerock.opendj.ldap.DN;
 import org.forgerock.opendj.ldap.DecodeException;
@@ -52,6 +54,7 @@ import org.forgerock.opendj.ldap.DecodeOptions;
 import org.forgerock.opendj.ldap.Entries;
 import org.forgerock.opendj.ldap.Entry;
 import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.ModificationType;
 import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldap.controls.PostReadRequestControl;
 import org.forgerock.opendj.ldap.controls.PostReadResponseControl;
@@ -206,6 +209,51 @@ public class LdapAdapter implements TokenStorageAdapter {
         }
     }
 
+    /**
+     * Replace the attributes of the stored Token with those present on the provided Token, without reading
+     * the stored Token first.
+     *
+     * <p>The {@link CoreTokenField#TOKEN_ID} and {@link CoreTokenField#TOKEN_TYPE} identify the Token and are
+     * not modified. Attributes which are not present on the provided Token are left unchanged.</p>
+     *
+     * @param token The non null Token containing the attributes to update.
+     * @param options The non null Options for the operation.
+     * @throws LdapOperationFailedException If the operation failed, including if the Token does not exist.
+     * @throws OptimisticConcurrencyCheckFailedException If the operation failed due to an
+     * assertion on the tokens ETag.
+     */
+    public Token updateAttributes(Token token, Options options) throws DataLayerException {
+        Entry entry = conversion.getEntry(token);
+        LdapTokenAttributeConversion.stripObjectClass(entry);
+        entry.removeAttribute(ETAG.toString());
+        entry.removeAttribute(TOKEN_ID.toString());
+        entry.removeAttribute(TOKEN_TYPE.toString());
+
+        ModifyRequest request = LDAPRequests.newModifyRequest(entry.getName());
+        for (Attribute attribute : entry.getAllAttributes()) {
+            request.addModification(ModificationType.REPLACE, attribute);
+        }
+
+        if (request.getModifications().isEmpty()) {
+            return token;
+        }
+
+        request.addControl(PostReadRequestControl.newControl(true, ETAG.toString()));
+
+        request = applyOptions(request, options);
+
+        try {
+            getConnection();
+            Result result = connection.modify(request);
+            return tokenWithNewEtag(token, result);
+        } catch (AssertionFailureException e) {
+            throw new OptimisticConcurrencyCheckFailedException(token.getTokenId(),
+                    options.get(OPTIMISTIC_CONCURRENCY_CHECK_OPTION), e);
+        } catch (LdapException e) {
+            throw new LdapOperationFailedException(e.getResult());
+        }
+    }
+
     /**
      * Performs a delete against the Token ID provided.
      *
@@ -0,0 +1,279 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.impl;
+
+import static org.forgerock.util.query.QueryFilter.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.api.filter.TokenFilter;
+import org.forgerock.openam.cts.api.filter.TokenFilterBuilder;
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.continuous.ChangeType;
+import org.forgerock.openam.cts.continuous.ContinuousQueryListener;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.openam.tokens.TokenType;
+import org.forgerock.util.query.QueryFilter;
+import org.wrensecurity.guava.common.cache.Cache;
+import org.wrensecurity.guava.common.cache.CacheBuilder;
+import org.wrensecurity.guava.common.cache.CacheStats;
+
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * A bounded local cache of Tokens read from the CTS, which is used by {@link CoreTokenAdapter} to avoid
+ * a round trip to the directory for Tokens which are read repeatedly.
+ * <p>
+ * Entries are invalidated when this server writes the Token, and when the {@link ContinuousQueryListener}
+ * registered for the cached token types reports that another server has modified or deleted it. Because the
+ * continuous query is notified after the directory has applied the change, a Token may be served stale for
+ * the short time it takes the notification to arrive. Each entry also expires after the configured time to
+ * live, which bounds how stale an entry can become if a notification is missed.
+ * <p>
+ * To avoid caching a Token that was read before a concurrent write, each read records a generation for the
+ * Token ID before it is dispatched. Invalidation advances the generation, and a read result is discarded if
+ * the generation has changed by the time it is cached.
+ * <p>
+ * The cache is disabled unless {@link CoreTokenConfig#getReadCacheSize()} is positive, and Tokens are only
+ * cached once this listener has been registered and {@link #activate()} has been called. If the continuous
+ * query fails to start, caching is suspended until the listener is registered again, and it resumes whenever the
+ * continuous query (re)starts its search.
+ */
+@Singleton
+public class TokenReadCache implements ContinuousQueryListener<Object> {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<String, Token> cache;
+    private final Set<TokenType> tokenTypes;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Debug debug;
+    private final AtomicBoolean registered = new AtomicBoolean(false);
+    private volatile boolean active = false;
+
+    /**
+     * @param config Required to size the cache and select the eligible token types.
+     * @param debug Required for debugging.
+     */
+    @Inject
+    public TokenReadCache(CoreTokenConfig config, @Named(CoreTokenConstants.CTS_DEBUG) Debug debug) {
+        this.debug = debug;
+        this.tokenTypes = config.getReadCacheTokenTypes();
+        if (config.getReadCacheSize() > 0 && !tokenTypes.isEmpty()) {
+            this.cache = CacheBuilder.newBuilder()
+                    .maximumSize(config.getReadCacheSize())
+                    .expireAfterWrite(config.getReadCacheTtl(), TimeUnit.MILLISECONDS)
+                    .recordStats()
+                    .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * @return True if the cache has been enabled in configuration.
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Claims the registration of this listener. Returns true at most once until the continuous query reports
+     * an error, after which the listener must be registered again.
+     *
+     * @return True if the caller should register this listener for the {@link #getInvalidationFilter()
+     * invalidation filter}.
+     */
+    public boolean startRegistration() {
+        return registered.compareAndSet(false, true);
+    }
+
+    /**
+     * Stops caching Tokens and releases the registration claimed by {@link #startRegistration()}, so that the
+     * listener is registered again on next use.
+     */
+    public void cancelRegistration() {
+        active = false;
+        invalidateAll();
+        registered.set(false);
+    }
+
+    /**
+     * Allows Tokens to be cached, once this listener has been registered for the
+     * {@link #getInvalidationFilter() invalidation filter}.
+     */
+    public void activate() {
+        active = true;
+    }
+
+    /**
+     * @return The non null filter selecting changes to the token types held in this cache.
+     */
+    public TokenFilter getInvalidationFilter() {
+        List<QueryFilter<CoreTokenField>> types = new ArrayList<>();
+        for (TokenType type : tokenTypes) {
+            types.add(equalTo(CoreTokenField.TOKEN_TYPE, type));
+        }
+        return new TokenFilterBuilder()
+                .returnAttribute(CoreTokenField.TOKEN_ID)
+                .withQuery(or(types))
+                .build();
+    }
+
+    /**
+     * Returns the current generation of the Token ID, which must be passed to {@link #put(Token, long)}
+     * once the Token has been read.
+     *
+     * @param tokenId Non null Token ID about to be read.
+     * @return The current generation.
+     */
+    public long generation(String tokenId) {
+        return generations.get(stripe(tokenId));
+    }
+
+    /**
+     * @param tokenId Non null Token ID.
+     * @return A copy of the cached Token, or null if it was not cached or the cache is disabled.
+     */
+    public Token get(String tokenId) {
+        if (cache == null) {
+            return null;
+        }
+        Token token = cache.getIfPresent(tokenId);
+        return token == null ? null : new Token(token);
+    }
+
+    /**
+     * Caches a copy of the Token if its type is eligible and it has not been invalidated since it was read.
+     *
+     * @param token Non null Token which has been read.
+     * @param generation The generation of the Token ID before it was read.
+     */
+    public void put(Token token, long generation) {
+        if (cache == null || !active || !tokenTypes.contains(token.getType())) {
+            return;
+        }
+        String tokenId = token.getTokenId();
+        cache.put(tokenId, new Token(token));
+        // Re-check after the put, so that an invalidation racing with the put cannot be lost
+        if (generation(tokenId) != generation) {
+            cache.invalidate(tokenId);
+        }
+    }
+
+    /**
+     * @param tokenId Non null Token ID to remove from the cache.
+     */
+    public void invalidate(String tokenId) {
+        if (cache == null) {
+            return;
+        }
+        generations.incrementAndGet(stripe(tokenId));
+        cache.invalidate(tokenId);
+    }
+
+    /**
+     * Removes all Tokens from the cache.
+     */
+    public void invalidateAll() {
+        if (cache == null) {
+            return;
+        }
+        for (int ii = 0; ii < GENERATION_STRIPES; ii++) {
+            generations.incrementAndGet(ii);
+        }
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return The number of reads served from the cache.
+     */
+    public long getHitCount() {
+        return stats().hitCount();
+    }
+
+    /**
+     * @return The number of reads not served from the cache.
+     */
+    public long getMissCount() {
+        return stats().missCount();
+    }
+
+    /**
+     * @return The number of Tokens removed from the cache due to size or time to live.
+     */
+    public long getEvictionCount() {
+        return stats().evictionCount();
+    }
+
+    /**
+     * @return The approximate number of Tokens in the cache.
+     */
+    public long size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    @Override
+    public void objectChanged(String tokenId, Map<String, Object> changeSet, ChangeType changeType) {
+        if (changeType != ChangeType.ADD) {
+            invalidate(tokenId);
+        }
+    }
+
+    @Override
+    public void objectsChanged(Set<String> tokenIds) {
+        for (String tokenId : tokenIds) {
+            invalidate(tokenId);
+        }
+    }
+
+    @Override
+    public void connectionLost() {
+        debug.warning(CoreTokenConstants.DEBUG_HEADER + "Read cache invalidation (re)connected, clearing cache");
+        invalidateAll();
+        // The continuous query calls this each time its search (re)starts, so invalidations are flowing again
+        if (registered.get()) {
+            active = true;
+        }
+    }
+
+    @Override
+    public void processError(DataLayerException error) {
+        debug.error(CoreTokenConstants.DEBUG_HEADER + "Read cache invalidation failed, suspending cache", error);
+        cancelRegistration();
+    }
+
+    private CacheStats stats() {
+        return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+    }
+
+    private static int stripe(String tokenId) {
+        return (tokenId.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.impl.query.worker.queries;
+
+import java.io.Closeable;
+
+import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
+import org.forgerock.openam.sm.datalayer.api.query.QueryBuilder;
+import org.forgerock.openam.sm.datalayer.api.query.QueryFactory;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.opendj.ldap.Filter;
+import org.forgerock.util.Reject;
+import org.forgerock.util.query.QueryFilter;
+
+/**
+ * A query that selects all CTS tokens whose expiry date falls within a range, used to split the deletion of
+ * expired tokens into partitions which can be processed concurrently.
+ *
+ * @param <C> The type of connection queries are made for.
+ * @see CTSWorkerExpiryDateRangeQueryFactory
+ */
+public class CTSWorkerExpiryDateRangeQuery<C extends Closeable> extends CTSWorkerBaseQuery<C> {
+
+    private final QueryFactory<C, Filter> queryFactory;
+    private final int pageSize;
+    private final Long from;
+    private final long to;
+
+    /**
+     * @param factory Connection factory for the query.
+     * @param queryFactory Query factory for the query.
+     * @param pageSize The number of tokens to return in each page.
+     * @param from The inclusive lower bound of the expiry date in milliseconds since the epoch, or null for no
+     *             lower bound.
+     * @param to The exclusive upper bound of the expiry date in milliseconds since the epoch.
+     */
+    public CTSWorkerExpiryDateRangeQuery(ConnectionFactory<C> factory, QueryFactory<C, Filter> queryFactory,
+            int pageSize, Long from, long to) {
+        super(factory);
+        Reject.ifTrue(pageSize <= 0);
+
+        this.queryFactory = queryFactory;
+        this.pageSize = pageSize;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public QueryBuilder<C, Filter> getQuery() {
+        QueryFilter<CoreTokenField> filter = QueryFilter.lessThan(CoreTokenField.EXPIRY_DATE, to);
+        if (from != null) {
+            filter = QueryFilter.and(QueryFilter.greaterThanOrEqualTo(CoreTokenField.EXPIRY_DATE, from), filter);
+        }
+
+        return queryFactory.createInstance()
+                .withFilter(filter.accept(queryFactory.createFilterConverter(), null))
+                .pageResultsBy(pageSize)
+                .returnTheseAttributes(CoreTokenField.TOKEN_ID);
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "[" + (from == null ? "*" : from) + "," + to + ")";
+    }
+}
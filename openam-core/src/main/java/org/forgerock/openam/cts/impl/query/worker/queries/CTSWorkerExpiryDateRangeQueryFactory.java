@@ -0,0 +1,120 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.impl.query.worker.queries;
+
+import static org.forgerock.openam.sm.datalayer.api.ConnectionType.CTS_EXPIRY_DATE_WORKER;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Iterator;
+
+import javax.inject.Inject;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.exceptions.LdapInitializationFailedException;
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
+import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
+import org.forgerock.openam.sm.datalayer.api.DataLayer;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.forgerock.openam.sm.datalayer.api.query.QueryFactory;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.openam.utils.IOUtils;
+import org.forgerock.opendj.ldap.Filter;
+import org.forgerock.util.query.QueryFilter;
+
+/**
+ * Creates {@link CTSWorkerExpiryDateRangeQuery} instances, and probes the CTS for the range of expiry dates
+ * which they need to cover.
+ *
+ * @param <C> The type of connection queries are made for.
+ */
+public class CTSWorkerExpiryDateRangeQueryFactory<C extends Closeable> {
+
+    /** Bounds the probe to 2^30 run periods, which is several thousand years at the default run period. */
+    private static final int MAX_PROBES = 30;
+
+    private final ConnectionFactory<C> factory;
+    private final QueryFactory<C, Filter> queryFactory;
+    private final CoreTokenConfig config;
+
+    @Inject
+    public CTSWorkerExpiryDateRangeQueryFactory(
+            @DataLayer(CTS_EXPIRY_DATE_WORKER) ConnectionFactory factory,
+            @DataLayer(CTS_EXPIRY_DATE_WORKER) QueryFactory queryFactory,
+            CoreTokenConfig config) {
+        this.factory = factory;
+        this.queryFactory = queryFactory;
+        this.config = config;
+    }
+
+    /**
+     * @param from The inclusive lower bound of the expiry date in milliseconds since the epoch, or null for no
+     *             lower bound.
+     * @param to The exclusive upper bound of the expiry date in milliseconds since the epoch.
+     * @return A query selecting the tokens which expire within the range.
+     */
+    public CTSWorkerQuery createQuery(Long from, long to) {
+        return new CTSWorkerExpiryDateRangeQuery<>(factory, queryFactory, config.getCleanupPageSize(), from, to);
+    }
+
+    /**
+     * Finds an approximate lower bound of the expiry dates of the tokens which expired before {@code now}.
+     * <p>
+     * Starting one run period before {@code now}, the probe doubles its distance from {@code now} until it finds
+     * a time before which no token expires. Each probe is a single result query, so the bound is found in a
+     * number of queries logarithmic in the age of the oldest expired token.
+     *
+     * @param now The time in milliseconds since the epoch before which tokens have expired.
+     * @return The lower bound in milliseconds since the epoch, or null if no token expired more than one run
+     * period before {@code now}.
+     * @throws CoreTokenException If the CTS could not be queried.
+     */
+    public Long findExpiredLowerBound(long now) throws CoreTokenException {
+        long distance = Math.max(1, config.getRunPeriod());
+        long bound = now - distance;
+        if (!hasTokensExpiringBefore(bound)) {
+            return null;
+        }
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            distance *= 2;
+            bound = now - distance;
+            if (!hasTokensExpiringBefore(bound)) {
+                break;
+            }
+        }
+        return bound;
+    }
+
+    private boolean hasTokensExpiringBefore(long time) throws CoreTokenException {
+        QueryFilter<CoreTokenField> filter = QueryFilter.lessThan(CoreTokenField.EXPIRY_DATE, time);
+        C connection = null;
+        try {
+            connection = factory.create();
+            Iterator<Collection<PartialToken>> results = queryFactory.createInstance()
+                    .withFilter(filter.accept(queryFactory.createFilterConverter(), null))
+                    .limitResultsTo(1)
+                    .returnTheseAttributes(CoreTokenField.TOKEN_ID)
+                    .executeRawResults(connection, PartialToken.class);
+            return results.hasNext() && !results.next().isEmpty();
+        } catch (DataLayerException e) {
+            throw new LdapInitializationFailedException(e);
+        } finally {
+            IOUtils.closeIfNotNull(connection);
+        }
+    }
+}
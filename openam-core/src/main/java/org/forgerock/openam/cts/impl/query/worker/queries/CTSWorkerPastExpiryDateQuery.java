@@ -12,15 +12,14 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 package org.forgerock.openam.cts.impl.query.worker.queries;
 
 import static org.forgerock.openam.sm.datalayer.api.ConnectionType.CTS_EXPIRY_DATE_WORKER;
-import static org.forgerock.openam.utils.Time.getCalendarInstance;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
 
 import java.io.Closeable;
-import java.util.Calendar;
 
 import javax.inject.Inject;
 
@@ -59,7 +58,7 @@ public class CTSWorkerPastExpiryDateQuery<C extends Closeable> extends CTSWorker
 
     @Override
     public QueryBuilder<C, Filter> getQuery() {
-        Calendar now = getCalendarInstance();
+        long now = currentTimeMillis();
 
         QueryFilter<CoreTokenField> filter = QueryFilter.lessThan(CoreTokenField.EXPIRY_DATE, now);
 
@@ -12,17 +12,16 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 package org.forgerock.openam.cts.impl.query.worker.queries;
 
 import static org.forgerock.openam.sm.datalayer.api.ConnectionType.CTS_SESSION_IDLE_TIMEOUT_WORKER;
-import static org.forgerock.openam.utils.Time.getCalendarInstance;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
 import static org.forgerock.util.query.QueryFilter.equalTo;
 import static org.forgerock.util.query.QueryFilter.lessThanOrEqualTo;
 
 import java.io.Closeable;
-import java.util.Calendar;
 
 import javax.inject.Inject;
 
@@ -63,7 +62,7 @@ public class SessionIdleTimeExpiredQuery<C extends Closeable> extends CTSWorkerB
 
     @Override
     public QueryBuilder<C, Filter> getQuery() {
-        Calendar now = getCalendarInstance();
+        long now = currentTimeMillis();
 
         QueryFilter<CoreTokenField> filter =
                 QueryFilter.and(
@@ -0,0 +1,32 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.impl.queue;
+
+/**
+ * Selects queues using {@link String#hashCode()} of the Token ID.
+ *
+ * This was the only available selection algorithm prior to {@link MurmurTokenQueueSelector} and is retained
+ * for deployments that depend on its distribution.
+ *
+ * @see QueueSelector
+ */
+public class HashCodeTokenQueueSelector implements TokenQueueSelector {
+
+    @Override
+    public int select(String tokenId, int queues) {
+        return QueueSelector.select(tokenId, queues);
+    }
+}
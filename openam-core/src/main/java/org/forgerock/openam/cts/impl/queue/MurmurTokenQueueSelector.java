@@ -0,0 +1,95 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.impl.queue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.forgerock.util.Reject;
+
+/**
+ * Selects queues using the 32-bit MurmurHash3 of the UTF-8 bytes of the Token ID.
+ *
+ * {@link String#hashCode()} has poor avalanche behaviour, so Token IDs which share long common prefixes
+ * (such as session IDs issued by the same server) tend to cluster onto a small number of queues. MurmurHash3
+ * spreads these evenly across the queues, including when the number of queues is a power of two.
+ */
+public class MurmurTokenQueueSelector implements TokenQueueSelector {
+
+    private static final int SEED = 0x9747b28c;
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+
+    @Override
+    public int select(String tokenId, int queues) {
+        Reject.ifTrue(tokenId == null, "Token ID cannot be null");
+        Reject.ifTrue(queues <= 0, "queues must be positive");
+
+        return (hash(tokenId.getBytes(StandardCharsets.UTF_8)) & Integer.MAX_VALUE) % queues;
+    }
+
+    /**
+     * MurmurHash3 x86 32-bit.
+     *
+     * @param data Non null bytes to hash.
+     * @return The hash of the bytes.
+     */
+    static int hash(byte[] data) {
+        int h1 = SEED;
+        int length = data.length;
+        int blocks = length & ~3;
+
+        for (int i = 0; i < blocks; i += 4) {
+            int k1 = (data[i] & 0xff)
+                    | ((data[i + 1] & 0xff) << 8)
+                    | ((data[i + 2] & 0xff) << 16)
+                    | (data[i + 3] << 24);
+            h1 ^= mixK1(k1);
+            h1 = Integer.rotateLeft(h1, 13);
+            h1 = h1 * 5 + 0xe6546b64;
+        }
+
+        int k1 = 0;
+        switch (length & 3) {
+        case 3:
+            k1 = (data[blocks + 2] & 0xff) << 16;
+            // fall through
+        case 2:
+            k1 |= (data[blocks + 1] & 0xff) << 8;
+            // fall through
+        case 1:
+            k1 |= data[blocks] & 0xff;
+            h1 ^= mixK1(k1);
+            break;
+        default:
+            break;
+        }
+
+        h1 ^= length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+
+    private static int mixK1(int k1) {
+        k1 *= C1;
+        k1 = Integer.rotateLeft(k1, 15);
+        k1 *= C2;
+        return k1;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.impl.queue;
 
@@ -28,6 +29,8 @@ import org.forgerock.util.Reject;
  *
  * This algorithm is prone to modulus bias towards zero for numbers that are not a power of
  * two. Therefore this algorithm should only be used if this is the case.
+ *
+ * @see TokenQueueSelector
  */
 public final class QueueSelector {
     /**
@@ -39,7 +42,8 @@ public final class QueueSelector {
         Reject.ifTrue(tokenId == null, "Token ID cannot be null");
         Reject.ifTrue(queues <= 0, "queues must be positive");
 
-        int value = Math.abs(tokenId.hashCode());
+        // Math.abs(Integer.MIN_VALUE) is negative, so mask off the sign bit instead
+        int value = tokenId.hashCode() & Integer.MAX_VALUE;
         return value % queues;
     }
 }
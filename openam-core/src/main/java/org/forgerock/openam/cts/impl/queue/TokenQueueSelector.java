@@ -0,0 +1,39 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.impl.queue;
+
+/**
+ * Selects which asynchronous queue a task for a given Token ID should be placed on.
+ *
+ * Implementations must be consistent: the same Token ID must always select the same queue for a
+ * given number of queues, so that operations on the same Token are processed in order by the same
+ * task processor.
+ *
+ * @see org.forgerock.openam.sm.datalayer.impl.SeriesTaskExecutor
+ * @see org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration#getQueueSelectorType()
+ */
+public interface TokenQueueSelector {
+
+    /**
+     * Selects the queue for the given Token ID.
+     *
+     * @param tokenId Non null Token ID.
+     * @param queues The positive number of queues to select from.
+     * @return The index of the selected queue, between zero inclusive and {@literal queues} exclusive.
+     * @throws IllegalArgumentException If the Token ID is null or the number of queues is not positive.
+     */
+    int select(String tokenId, int queues);
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.impl.queue.config;
 
@@ -23,12 +24,15 @@ import java.text.MessageFormat;
 import com.iplanet.am.util.SystemProperties;
 import com.sun.identity.shared.debug.Debug;
 import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.impl.queue.MurmurTokenQueueSelector;
 import org.forgerock.openam.cts.impl.queue.QueueSelector;
+import org.forgerock.openam.cts.impl.queue.TokenQueueSelector;
 import org.forgerock.openam.sm.ConnectionConfigFactory;
 import org.forgerock.openam.sm.datalayer.api.ConnectionType;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
 import org.forgerock.openam.sm.datalayer.api.QueueConfiguration;
 import org.forgerock.openam.sm.exceptions.InvalidConfigurationException;
+import org.forgerock.openam.utils.StringUtils;
 
 /**
  * The CTS asynchronous feature has a number of configuration properties which allow an
@@ -84,6 +88,24 @@ public class CTSQueueConfiguration implements QueueConfiguration {
         return queueSize;
     }
 
+    /**
+     * The type of {@link TokenQueueSelector} used to assign tasks to queues.
+     *
+     * @return The configured type, or {@link MurmurTokenQueueSelector} if none or an invalid type is configured.
+     */
+    public Class<? extends TokenQueueSelector> getQueueSelectorType() {
+        String type = SystemProperties.get(CoreTokenConstants.CTS_ASYNC_QUEUE_SELECTOR);
+        if (StringUtils.isNotBlank(type)) {
+            try {
+                return Class.forName(type).asSubclass(TokenQueueSelector.class);
+            } catch (ClassNotFoundException | ClassCastException e) {
+                debug.error(CoreTokenConstants.DEBUG_ASYNC_HEADER + "Queue selector " + type
+                        + " was invalid, using default", e);
+            }
+        }
+        return MurmurTokenQueueSelector.class;
+    }
+
     @Override
     public int getProcessors() throws DataLayerException {
         try {
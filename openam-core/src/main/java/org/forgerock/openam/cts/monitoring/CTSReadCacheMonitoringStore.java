@@ -0,0 +1,54 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.openam.cts.monitoring;
+
+/**
+ * Provides monitoring information about the local CTS read cache.
+ *
+ * @see org.forgerock.openam.cts.impl.TokenReadCache
+ */
+public interface CTSReadCacheMonitoringStore {
+
+    /**
+     * Gets the number of Token reads served from the read cache since server start up.
+     *
+     * @return The cumulative number of cache hits.
+     */
+    long getReadCacheHitCount();
+
+    /**
+     * Gets the number of Token reads which could not be served from the read cache since server start up.
+     *
+     * @return The cumulative number of cache misses.
+     */
+    long getReadCacheMissCount();
+
+    /**
+     * Gets the number of Tokens evicted from the read cache due to its size or time to live since server start up.
+     * Tokens removed because they were changed are not counted.
+     *
+     * @return The cumulative number of cache evictions.
+     */
+    long getReadCacheEvictionCount();
+
+    /**
+     * Gets the approximate number of Tokens currently held in the read cache.
+     *
+     * @return The number of cached Tokens.
+     */
+    long getReadCacheSize();
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.monitoring;
@@ -41,4 +42,36 @@ public interface CTSReaperMonitoringStore {
      * @return The rate of session deletion by the CTS Reaper.
      */
     double getRateOfDeletedSessions();
+
+    /**
+     * Records Tokens queued for deletion by the CTS Reaper, as each page of a reaper run is processed.
+     *
+     * @param numberOfTokens The number of Tokens queued for deletion.
+     */
+    void addReaperDeletions(long numberOfTokens);
+
+    /**
+     * Gets the number of Tokens queued for deletion by the CTS Reaper since server start up, including those of
+     * runs still in progress.
+     *
+     * @return The cumulative number of Tokens queued for deletion.
+     */
+    long getCumulativeReaperDeletions();
+
+    /**
+     * Records that the CTS Reaper has started deleting a partition of the expired Tokens.
+     */
+    void reaperPartitionStarted();
+
+    /**
+     * Records that the CTS Reaper has finished deleting a partition of the expired Tokens.
+     */
+    void reaperPartitionCompleted();
+
+    /**
+     * Gets the number of partitions of expired Tokens the CTS Reaper is currently deleting.
+     *
+     * @return The number of active partitions.
+     */
+    int getActiveReaperPartitions();
 }
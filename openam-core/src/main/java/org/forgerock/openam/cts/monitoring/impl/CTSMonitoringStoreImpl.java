@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.monitoring.impl;
@@ -22,7 +23,9 @@ import org.forgerock.openam.cts.api.CoreTokenConstants;
 import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.monitoring.CTSConnectionMonitoringStore;
+import org.forgerock.openam.cts.impl.TokenReadCache;
 import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
+import org.forgerock.openam.cts.monitoring.CTSReadCacheMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
 import org.forgerock.openam.cts.monitoring.impl.connections.ConnectionStore;
 import org.forgerock.openam.cts.monitoring.impl.operations.TokenOperationsStore;
@@ -43,7 +46,7 @@ import java.util.concurrent.RejectedExecutionException;
  */
 @Singleton
 public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTSReaperMonitoringStore,
-        CTSConnectionMonitoringStore {
+        CTSConnectionMonitoringStore, CTSReadCacheMonitoringStore {
 
     /**
      * Constant for binding an Executor for the CTS monitoring store to store CTS runtime data.
@@ -56,6 +59,7 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
     private final ExecutorService executorService;
     private final ReaperMonitor reaperMonitor;
     private final ConnectionStore connectionStore;
+    private final TokenReadCache readCache;
 
     /**
      * Constructs an instance of the CTSMonitoringStoreImpl.
@@ -64,18 +68,21 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
      * @param executorService An instance of an ExecutorService.
      * @param tokenOperationsStore An instance of the TokenOperationsStore.
      * @param reaperMonitor An instance of the ReaperMonitor.
+     * @param readCache An instance of the TokenReadCache.
      */
     @Inject
     public CTSMonitoringStoreImpl(@Named(EXECUTOR_BINDING_NAME) final ExecutorService executorService,
                                   final TokenOperationsStore tokenOperationsStore,
                                   final ReaperMonitor reaperMonitor,
                                   final ConnectionStore connectionStore,
+                                  final TokenReadCache readCache,
                                   @Named(CoreTokenConstants.CTS_DEBUG) final Debug debug) {
         this.debug = debug;
         this.executorService = executorService;
         this.tokenOperationsStore = tokenOperationsStore;
         this.reaperMonitor = reaperMonitor;
         this.connectionStore = connectionStore;
+        this.readCache = readCache;
     }
 
     /**
@@ -206,6 +213,31 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
         return reaperMonitor.getRateOfDeletion();
     }
 
+    @Override
+    public void addReaperDeletions(long numberOfTokens) {
+        reaperMonitor.addDeletions(numberOfTokens);
+    }
+
+    @Override
+    public long getCumulativeReaperDeletions() {
+        return reaperMonitor.getCumulativeDeletions();
+    }
+
+    @Override
+    public void reaperPartitionStarted() {
+        reaperMonitor.partitionStarted();
+    }
+
+    @Override
+    public void reaperPartitionCompleted() {
+        reaperMonitor.partitionCompleted();
+    }
+
+    @Override
+    public int getActiveReaperPartitions() {
+        return reaperMonitor.getActivePartitions();
+    }
+
     @Override
     public void addConnection(boolean success) {
         connectionStore.addConnection(success);
@@ -230,4 +262,24 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
     public double getConnectionsCumulativeCount(boolean success) {
         return connectionStore.getConnectionsCumulativeCount(success);
     }
+
+    @Override
+    public long getReadCacheHitCount() {
+        return readCache.getHitCount();
+    }
+
+    @Override
+    public long getReadCacheMissCount() {
+        return readCache.getMissCount();
+    }
+
+    @Override
+    public long getReadCacheEvictionCount() {
+        return readCache.getEvictionCount();
+    }
+
+    @Override
+    public long getReadCacheSize() {
+        return readCache.size();
+    }
 }
@@ -12,33 +12,39 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.monitoring.impl.reaper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * This class maintains a store of information about each CTS Reaper run since server start up.
+ * This class maintains a store of information about each CTS Reaper run since server start up, and about the
+ * progress of the runs in progress.
  *
  * @since 12.0.0
  */
 public class ReaperMonitor {
 
     private final List<ReaperRun> reaperRuns = new ArrayList<ReaperRun>();
+    private final AtomicLong deletions = new AtomicLong(0);
+    private final AtomicInteger activePartitions = new AtomicInteger(0);
 
     /**
      * {@inheritDoc}
      */
-    public void add(final long startTime, final long runTime, final long numberOfDeletedSessions) {
+    public synchronized void add(final long startTime, final long runTime, final long numberOfDeletedSessions) {
         reaperRuns.add(new ReaperRun(startTime, runTime, numberOfDeletedSessions));
     }
 
     /**
      * {@inheritDoc}
      */
-    public double getRateOfDeletion() {
+    public synchronized double getRateOfDeletion() {
 
         if (reaperRuns.isEmpty()) {
             return 0D;
@@ -51,6 +57,43 @@ public class ReaperMonitor {
         return numDeletedSessions / reaperRuns.size();
     }
 
+    /**
+     * Records Tokens queued for deletion by a reaper run in progress.
+     *
+     * @param numberOfTokens The number of Tokens queued for deletion.
+     */
+    public void addDeletions(final long numberOfTokens) {
+        deletions.addAndGet(numberOfTokens);
+    }
+
+    /**
+     * @return The number of Tokens queued for deletion since server start up.
+     */
+    public long getCumulativeDeletions() {
+        return deletions.get();
+    }
+
+    /**
+     * Records the start of a partition of a reaper run.
+     */
+    public void partitionStarted() {
+        activePartitions.incrementAndGet();
+    }
+
+    /**
+     * Records the completion of a partition of a reaper run.
+     */
+    public void partitionCompleted() {
+        activePartitions.decrementAndGet();
+    }
+
+    /**
+     * @return The number of partitions currently being processed.
+     */
+    public int getActivePartitions() {
+        return activePartitions.get();
+    }
+
     /**
      * Models a run by the CTS Reaper and holds information about when the run started and stopped and the number of
      * sessions the run deleted.
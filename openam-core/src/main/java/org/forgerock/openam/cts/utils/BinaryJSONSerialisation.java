@@ -0,0 +1,391 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Responsible for serialising and deserialising objects to and from a compact binary encoding of their JSON form.
+ * <p>
+ * Objects are converted to and from JSON with the same {@link ObjectMapper} as {@link JSONSerialisation}, so the
+ * same caveats apply. The JSON is then encoded with type tags, variable length integers and a table of the
+ * strings seen so far, so each repeated attribute name or value is written once and then referenced by index.
+ * <p>
+ * The encoding begins with a header which cannot be the start of JSON text, so {@link #isBinary(byte[])} can be
+ * used to determine which serialisation was used when reading data written by either.
+ */
+public class BinaryJSONSerialisation {
+
+    /** Magic number and format version. */
+    private static final byte[] HEADER = {(byte) 0xB7, (byte) 0x4A, 1};
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int INTEGER = 3;
+    private static final int DOUBLE = 4;
+    private static final int STRING = 5;
+    private static final int STRING_REFERENCE = 6;
+    private static final int ARRAY = 7;
+    private static final int OBJECT = 8;
+    private static final int BIG_INTEGER = 9;
+    private static final int DECIMAL = 10;
+    private static final int BINARY = 11;
+
+    private final ObjectMapper mapper;
+
+    /**
+     * @param mapper Non null CTS object mapper.
+     */
+    @Inject
+    public BinaryJSONSerialisation(@Named(CoreTokenConstants.OBJECT_MAPPER) ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param blob Non null data to examine.
+     * @return True if the data was written by this serialisation.
+     */
+    public static boolean isBinary(byte[] blob) {
+        return blob.length >= HEADER.length
+                && blob[0] == HEADER[0] && blob[1] == HEADER[1] && blob[2] == HEADER[2];
+    }
+
+    /**
+     * Convert an object to its JSON form, which can be modified before it is serialised.
+     *
+     * @param object Non null object to convert.
+     * @return Non null JSON object.
+     */
+    public ObjectNode toJson(Object object) {
+        JsonNode json = mapper.valueToTree(object);
+        if (!json.isObject()) {
+            throw new IllegalStateException(MessageFormat.format(
+                    "Failed to serialise {0}: not a JSON object", object.getClass().getSimpleName()));
+        }
+        return (ObjectNode) json;
+    }
+
+    /**
+     * Serialise an object to binary.
+     *
+     * @param object Non null object to serialise.
+     * @return Non null binary data.
+     */
+    public byte[] serialise(Object object) {
+        return serialise(toJson(object));
+    }
+
+    /**
+     * Serialise JSON to binary.
+     *
+     * @param json Non null JSON to serialise.
+     * @return Non null binary data.
+     */
+    public byte[] serialise(JsonNode json) {
+        Encoder encoder = new Encoder();
+        encoder.writeBytes(HEADER, 0, HEADER.length);
+        encoder.write(json);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Deserialise binary data to JSON.
+     *
+     * @param blob Non null binary data written by this serialisation.
+     * @return Non null JSON, which can be modified before it is converted to an object.
+     */
+    public JsonNode deserialise(byte[] blob) {
+        if (!isBinary(blob)) {
+            throw new IllegalStateException("Failed to deserialise: unrecognised binary header");
+        }
+        try {
+            Decoder decoder = new Decoder(blob, HEADER.length);
+            JsonNode json = decoder.read();
+            if (decoder.position != blob.length) {
+                throw new IllegalStateException("Failed to deserialise: unexpected trailing data");
+            }
+            return json;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalStateException("Failed to deserialise: truncated binary data", e);
+        }
+    }
+
+    /**
+     * Deserialise binary data to an object of type T.
+     *
+     * @param blob Non null binary data written by this serialisation.
+     * @param clazz Class of the serialised object.
+     * @param <T> Type to cast the created object to when deserialising.
+     * @return Non null object of type T.
+     */
+    public <T> T deserialise(byte[] blob, Class<T> clazz) {
+        return deserialise(deserialise(blob), clazz);
+    }
+
+    /**
+     * Convert JSON to an object of type T.
+     *
+     * @param json Non null JSON form of the object.
+     * @param clazz Class of the object.
+     * @param <T> Type to cast the created object to when deserialising.
+     * @return Non null object of type T.
+     */
+    public <T> T deserialise(JsonNode json, Class<T> clazz) {
+        try {
+            return mapper.treeToValue(json, clazz);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(
+                    MessageFormat.format("Failed to deserialise {0}", clazz.getSimpleName()), e);
+        }
+    }
+
+    /**
+     * Writes JSON in the binary encoding.
+     */
+    private static final class Encoder {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private byte[] buffer = new byte[1024];
+        private int position = 0;
+
+        void write(JsonNode json) {
+            if (json.isNull()) {
+                writeByte(NULL);
+            } else if (json.isBoolean()) {
+                writeByte(json.booleanValue() ? TRUE : FALSE);
+            } else if (json.isIntegralNumber() && json.canConvertToLong()) {
+                writeByte(INTEGER);
+                long value = json.longValue();
+                writeVarLong((value << 1) ^ (value >> 63));
+            } else if (json.isBigInteger()) {
+                writeByte(BIG_INTEGER);
+                writeString(json.bigIntegerValue().toString());
+            } else if (json.isBigDecimal()) {
+                writeByte(DECIMAL);
+                writeString(json.decimalValue().toString());
+            } else if (json.isFloatingPointNumber()) {
+                writeByte(DOUBLE);
+                long bits = Double.doubleToLongBits(json.doubleValue());
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    writeByte((int) (bits >>> shift));
+                }
+            } else if (json.isTextual()) {
+                writeString(json.textValue());
+            } else if (json.isBinary()) {
+                writeByte(BINARY);
+                byte[] value = binaryValue(json);
+                writeVarLong(value.length);
+                writeBytes(value, 0, value.length);
+            } else if (json.isArray()) {
+                writeByte(ARRAY);
+                writeVarLong(json.size());
+                for (JsonNode element : json) {
+                    write(element);
+                }
+            } else if (json.isObject()) {
+                writeByte(OBJECT);
+                writeVarLong(json.size());
+                Iterator<Map.Entry<String, JsonNode>> fields = json.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    writeString(field.getKey());
+                    write(field.getValue());
+                }
+            } else {
+                throw new IllegalStateException("Failed to serialise: unsupported JSON node " + json.getNodeType());
+            }
+        }
+
+        private static byte[] binaryValue(JsonNode json) {
+            try {
+                return json.binaryValue();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to serialise binary value", e);
+            }
+        }
+
+        private void writeString(String value) {
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeByte(STRING_REFERENCE);
+                writeVarLong(index);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeByte(STRING);
+            writeVarLong(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * Reads JSON from the binary encoding.
+     */
+    private static final class Decoder {
+        private final JsonNodeFactory factory = JsonNodeFactory.instance;
+        private final List<String> strings = new ArrayList<>();
+        private final byte[] buffer;
+        private int position;
+
+        Decoder(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        JsonNode read() {
+            int tag = buffer[position++];
+            switch (tag) {
+            case NULL:
+                return factory.nullNode();
+            case FALSE:
+                return factory.booleanNode(false);
+            case TRUE:
+                return factory.booleanNode(true);
+            case INTEGER:
+                long value = readVarLong();
+                value = (value >>> 1) ^ -(value & 1);
+                if (value == (int) value) {
+                    return factory.numberNode((int) value);
+                }
+                return factory.numberNode(value);
+            case DOUBLE:
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits = bits << 8 | (buffer[position++] & 0xFF);
+                }
+                return factory.numberNode(Double.longBitsToDouble(bits));
+            case STRING:
+            case STRING_REFERENCE:
+                return factory.textNode(readString(tag));
+            case BIG_INTEGER:
+                return factory.numberNode(new BigInteger(readString(buffer[position++])));
+            case DECIMAL:
+                return factory.numberNode(new BigDecimal(readString(buffer[position++])));
+            case BINARY:
+                int length = readLength();
+                byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+                position += length;
+                return factory.binaryNode(bytes);
+            case ARRAY:
+                int size = readLength();
+                ArrayNode array = factory.arrayNode();
+                for (int i = 0; i < size; i++) {
+                    array.add(read());
+                }
+                return array;
+            case OBJECT:
+                int fields = readLength();
+                ObjectNode object = factory.objectNode();
+                for (int i = 0; i < fields; i++) {
+                    String name = readString(buffer[position++]);
+                    object.set(name, read());
+                }
+                return object;
+            default:
+                throw new IllegalStateException("Failed to deserialise: unknown type " + tag);
+            }
+        }
+
+        private String readString(int tag) {
+            if (tag == STRING_REFERENCE) {
+                return strings.get(readLength());
+            }
+            if (tag != STRING) {
+                throw new IllegalStateException("Failed to deserialise: expected string but found type " + tag);
+            }
+            int length = readLength();
+            if (position + length > buffer.length) {
+                throw new IndexOutOfBoundsException();
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(value);
+            return value;
+        }
+
+        private int readLength() {
+            long length = readVarLong();
+            if (length < 0 || length > buffer.length) {
+                throw new IllegalStateException("Failed to deserialise: invalid length " + length);
+            }
+            return (int) length;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Failed to deserialise: malformed variable length integer");
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils;
+
+import org.forgerock.opendj.ldap.GeneralizedTime;
+
+/**
+ * Converts between epoch milliseconds and LDAP GeneralizedTime strings without creating a {@link java.util.Calendar}.
+ * <p>
+ * Times are formatted in UTC as {@code yyyyMMddHHmmss.SSSZ}. Parsing handles the forms written by this class and by
+ * {@link GeneralizedTime#toString()}, that is a full date and time with optional fraction of a second and a
+ * {@code Z} or numeric offset time zone. Any other valid GeneralizedTime is parsed by {@link GeneralizedTime}.
+ */
+public final class GeneralizedTimeFormat {
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+    private static final int DAYS_PER_ERA = 146097;
+    private static final int DAYS_FROM_ERA_TO_EPOCH = 719468;
+    private static final int FULL_DATE_TIME_LENGTH = 14;
+
+    private GeneralizedTimeFormat() {
+        // Utility class
+    }
+
+    /**
+     * @param epochMillis Milliseconds since the epoch, in the years 0 to 9999.
+     * @return The non null GeneralizedTime string in UTC.
+     */
+    public static String format(long epochMillis) {
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+        // Civil date from days since the epoch, see http://howardhinnant.github.io/date_algorithms.html
+        long shifted = days + DAYS_FROM_ERA_TO_EPOCH;
+        long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        int dayOfEra = (int) (shifted - era * DAYS_PER_ERA);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        char[] chars = new char[19];
+        digits(chars, 0, year, 4);
+        digits(chars, 4, month, 2);
+        digits(chars, 6, day, 2);
+        digits(chars, 8, millisOfDay / MILLIS_PER_HOUR, 2);
+        digits(chars, 10, millisOfDay / MILLIS_PER_MINUTE % 60, 2);
+        digits(chars, 12, millisOfDay / MILLIS_PER_SECOND % 60, 2);
+        chars[14] = '.';
+        digits(chars, 15, millisOfDay % MILLIS_PER_SECOND, 3);
+        chars[18] = 'Z';
+        return new String(chars);
+    }
+
+    /**
+     * @param generalizedTime Non null GeneralizedTime string.
+     * @return Milliseconds since the epoch.
+     * @throws org.forgerock.i18n.LocalizedIllegalArgumentException If the string is not a valid GeneralizedTime.
+     */
+    public static long parse(String generalizedTime) {
+        int length = generalizedTime.length();
+        if (length <= FULL_DATE_TIME_LENGTH) {
+            return GeneralizedTime.valueOf(generalizedTime).getTimeInMillis();
+        }
+        int year = number(generalizedTime, 0, 4);
+        int month = number(generalizedTime, 4, 2);
+        int day = number(generalizedTime, 6, 2);
+        int hour = number(generalizedTime, 8, 2);
+        int minute = number(generalizedTime, 10, 2);
+        int second = number(generalizedTime, 12, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return GeneralizedTime.valueOf(generalizedTime).getTimeInMillis();
+        }
+
+        int index = FULL_DATE_TIME_LENGTH;
+        long millis = 0;
+        char c = generalizedTime.charAt(index);
+        if (c == '.' || c == ',') {
+            int scale = 100;
+            int start = ++index;
+            while (index < length && isDigit(generalizedTime.charAt(index))) {
+                millis += (generalizedTime.charAt(index) - '0') * scale;
+                scale /= 10;
+                index++;
+            }
+            if (index == start || index == length) {
+                return GeneralizedTime.valueOf(generalizedTime).getTimeInMillis();
+            }
+            c = generalizedTime.charAt(index);
+        }
+
+        long offset;
+        if (c == 'Z' && index == length - 1) {
+            offset = 0;
+        } else if ((c == '+' || c == '-') && (index == length - 3 || index == length - 5)) {
+            int offsetHours = number(generalizedTime, index + 1, 2);
+            int offsetMinutes = index == length - 5 ? number(generalizedTime, index + 3, 2) : 0;
+            if (offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return GeneralizedTime.valueOf(generalizedTime).getTimeInMillis();
+            }
+            offset = (c == '+' ? 1 : -1) * (offsetHours * MILLIS_PER_HOUR + offsetMinutes * MILLIS_PER_MINUTE);
+        } else {
+            return GeneralizedTime.valueOf(generalizedTime).getTimeInMillis();
+        }
+
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY + hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE
+                + second * MILLIS_PER_SECOND + millis - offset;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        int adjustedYear = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(adjustedYear, 400);
+        int yearOfEra = adjustedYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return (long) era * DAYS_PER_ERA + dayOfEra - DAYS_FROM_ERA_TO_EPOCH;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return The decimal number of the given length at the index, or -1 if any character is not a digit.
+     */
+    private static int number(String s, int index, int length) {
+        int value = 0;
+        for (int ii = index; ii < index + length; ii++) {
+            char c = s.charAt(ii);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void digits(char[] chars, int index, long value, int length) {
+        for (int ii = index + length - 1; ii >= index; ii--) {
+            chars[ii] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2014 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.utils;
 
@@ -45,4 +46,24 @@ public class LDAPDataConversion {
     public Calendar fromLDAPDate(String ldapDate) {
         return GeneralizedTime.valueOf(ldapDate).toCalendar();
     }
+
+    /**
+     * Convert a time in milliseconds since the epoch to an LDAP date string, in UTC.
+     *
+     * @param epochMillis Milliseconds since the epoch.
+     * @return A non null String formatted for LDAP.
+     */
+    public String toLDAPDate(long epochMillis) {
+        return GeneralizedTimeFormat.format(epochMillis);
+    }
+
+    /**
+     * Parses an LDAP date string to a time in milliseconds since the epoch.
+     *
+     * @param ldapDate The date to parse.
+     * @return Milliseconds since the epoch.
+     */
+    public long toEpochMillis(String ldapDate) {
+        return GeneralizedTimeFormat.parse(ldapDate);
+    }
 }
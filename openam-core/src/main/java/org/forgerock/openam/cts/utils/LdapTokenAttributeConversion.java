@@ -12,10 +12,10 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.utils;
 
-import java.util.Calendar;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -93,9 +93,8 @@ public class LdapTokenAttributeConversion {
                     entry.addAttribute(key, addition);
                 }
             } else if (CoreTokenFieldTypes.isCalendar(field)) {
-                Calendar calendar = token.getAttribute(field);
-                String dateString = conversion.toLDAPDate(calendar);
-                entry.addAttribute(key, dateString);
+                // Dates are held in the Token as LDAP date strings
+                entry.addAttribute(key, token.getGeneralizedTimeAttribute(field));
             } else if (CoreTokenFieldTypes.isByteArray(field)) {
                 byte[] array = token.getAttribute(field);
                 entry.addAttribute(key, array);
@@ -145,6 +144,13 @@ public class LdapTokenAttributeConversion {
      * @return A mapping of zero or more CoreTokenFields to Objects.
      */
     public Map<CoreTokenField, Object> mapFromEntry(Entry entry) {
+        return mapFromEntry(entry, true);
+    }
+
+    /**
+     * @param convertDates If false, dates are left as LDAP date strings rather than converted to Calendars.
+     */
+    private Map<CoreTokenField, Object> mapFromEntry(Entry entry, boolean convertDates) {
         stripObjectClass(entry);
 
         Map<CoreTokenField, Object> r = new LinkedHashMap<>();
@@ -164,8 +170,7 @@ public class LdapTokenAttributeConversion {
                 r.put(field, parseMulti(field, entry, description));
             } else if (CoreTokenFieldTypes.isCalendar(field)) {
                 String dateString = entry.parseAttribute(description).asString();
-                Calendar calendar = conversion.fromLDAPDate(dateString);
-                r.put(field, calendar);
+                r.put(field, convertDates ? conversion.fromLDAPDate(dateString) : dateString);
             } else if (CoreTokenFieldTypes.isString(field)) {
                 String value = entry.parseAttribute(description).asString();
                 r.put(field, resolveEmpty(value));
@@ -220,7 +225,7 @@ public class LdapTokenAttributeConversion {
      * @see #mapFromEntry(org.forgerock.opendj.ldap.Entry)
      */
     public Token tokenFromEntry(Entry entry) {
-        Map<CoreTokenField, Object> map = mapFromEntry(entry);
+        Map<CoreTokenField, Object> map = mapFromEntry(entry, false);
 
         String tokenId = (String) map.get(CoreTokenField.TOKEN_ID);
         TokenType type = (TokenType) map.get(CoreTokenField.TOKEN_TYPE);
@@ -235,7 +240,9 @@ public class LdapTokenAttributeConversion {
                 continue;
             }
 
-            if (Collection.class.isAssignableFrom(value.getClass())) {
+            if (CoreTokenFieldTypes.isCalendar(key)) {
+                token.setGeneralizedTimeAttribute(key, (String) value);
+            } else if (Collection.class.isAssignableFrom(value.getClass())) {
                 Collection collection = (Collection) value;
                 for (Object content : collection) {
                     token.setMultiAttribute(key, content);
@@ -12,6 +12,8 @@
  * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
  * Header, with the fields enclosed by brackets [] replaced by your own identifying
  * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.utils.blob;
 
@@ -20,10 +22,13 @@ import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.cts.utils.blob.strategies.AttributeCompressionStrategy;
 import org.forgerock.openam.cts.utils.blob.strategies.CompressionStrategy;
 import org.forgerock.openam.cts.utils.blob.strategies.EncryptionStrategy;
+import org.forgerock.openam.cts.utils.blob.strategies.compression.CompressionCodecType;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Responsible for providing BlobStrategy implementations based on the CoreTokenConfig.
@@ -34,6 +39,7 @@ public class TokenStrategyFactory {
     private final CompressionStrategy compression;
     private final EncryptionStrategy encryption;
     private final AttributeCompressionStrategy attributeCompression;
+    private final Map<CompressionCodecType, CompressionStrategy> compressionByCodec;
 
     @Inject
     public TokenStrategyFactory(CompressionStrategy compression, EncryptionStrategy encryption,
@@ -41,6 +47,11 @@ public class TokenStrategyFactory {
         this.compression = compression;
         this.encryption = encryption;
         this.attributeCompression = attributeCompression;
+        this.compressionByCodec = new EnumMap<CompressionCodecType, CompressionStrategy>(CompressionCodecType.class);
+        for (CompressionCodecType codecType : CompressionCodecType.values()) {
+            compressionByCodec.put(codecType, codecType == compression.getCodecType()
+                    ? compression : new CompressionStrategy(codecType));
+        }
     }
 
     /**
@@ -56,11 +67,18 @@ public class TokenStrategyFactory {
             strategies.add(attributeCompression);
         }
         if (config.isTokenCompressed()) {
-            strategies.add(compression);
+            strategies.add(getCompression(config.getCompressionCodec()));
         }
         if (config.isTokenEncrypted()) {
             strategies.add(encryption);
         }
         return strategies;
     }
+
+    private CompressionStrategy getCompression(CompressionCodecType codecType) {
+        if (codecType == null) {
+            return compression;
+        }
+        return compressionByCodec.get(codecType);
+    }
 }
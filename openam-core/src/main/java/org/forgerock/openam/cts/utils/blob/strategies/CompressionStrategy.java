@@ -12,25 +12,56 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2014 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.utils.blob.strategies;
 
-import org.apache.commons.io.IOUtils;
 import org.forgerock.openam.cts.utils.blob.BlobStrategy;
 import org.forgerock.openam.cts.utils.blob.TokenStrategyFailedException;
+import org.forgerock.openam.cts.utils.blob.strategies.compression.CompressionCodec;
+import org.forgerock.openam.cts.utils.blob.strategies.compression.CompressionCodecType;
 import org.forgerock.util.Reject;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 /**
- * Responsible for compressing the binary object of Tokens using a GZip compression.
+ * Responsible for compressing the binary object of Tokens using a {@link CompressionCodec}.
+ * <p>
+ * GZip compressed Tokens are stored in plain GZip format, as they were before the codec could be selected, so
+ * they can still be read by servers which only support GZip. Tokens compressed with any other codec are stored
+ * with a header identifying the codec and the length of the decompressed data. Both formats can always be
+ * decompressed, regardless of the codec selected for compression.
  */
 public class CompressionStrategy implements BlobStrategy {
 
+    /** Chosen so as not to collide with the GZip magic number. */
+    private static final byte[] MAGIC = {(byte) 0xC7, (byte) 0x5A};
+    private static final int HEADER_LENGTH = MAGIC.length + 1 + 4;
+
+    private final CompressionCodecType codecType;
+
+    /**
+     * Create a CompressionStrategy which compresses using GZip.
+     */
+    public CompressionStrategy() {
+        this(CompressionCodecType.GZIP);
+    }
+
+    /**
+     * @param codecType Non null codec to compress Tokens with.
+     */
+    public CompressionStrategy(CompressionCodecType codecType) {
+        Reject.ifNull(codecType);
+        this.codecType = codecType;
+    }
+
+    /**
+     * @return The codec this strategy compresses Tokens with.
+     */
+    public CompressionCodecType getCodecType() {
+        return codecType;
+    }
+
     /**
      * Compress the Tokens binary object.
      *
@@ -41,16 +72,22 @@ public class CompressionStrategy implements BlobStrategy {
     @Override
     public byte[] perform(byte[] blob) throws TokenStrategyFailedException {
         Reject.ifNull(blob);
-        final ByteArrayOutputStream bout = new ByteArrayOutputStream(blob.length);
         try {
-            final GZIPOutputStream out = new GZIPOutputStream(bout);
-            out.write(blob);
-            out.flush();
-            out.close();
+            if (codecType == CompressionCodecType.GZIP) {
+                return codecType.getCodec().compress(blob, 0);
+            }
+            byte[] compressed = codecType.getCodec().compress(blob, HEADER_LENGTH);
+            compressed[0] = MAGIC[0];
+            compressed[1] = MAGIC[1];
+            compressed[2] = codecType.getId();
+            compressed[3] = (byte) (blob.length >>> 24);
+            compressed[4] = (byte) (blob.length >>> 16);
+            compressed[5] = (byte) (blob.length >>> 8);
+            compressed[6] = (byte) blob.length;
+            return compressed;
         } catch (IOException e) {
             throw new TokenStrategyFailedException(e);
         }
-        return bout.toByteArray();
     }
 
     /**
@@ -63,15 +100,18 @@ public class CompressionStrategy implements BlobStrategy {
     @Override
     public byte[] reverse(byte[] blob) throws TokenStrategyFailedException {
         Reject.ifNull(blob);
-        final int lengthGuess = blob.length * 2;
-        final ByteArrayOutputStream bout = new ByteArrayOutputStream(lengthGuess);
         try {
-            GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(blob));
-            IOUtils.copy(inputStream, bout);
-            inputStream.close();
+            if (blob.length < HEADER_LENGTH || blob[0] != MAGIC[0] || blob[1] != MAGIC[1]) {
+                return CompressionCodecType.GZIP.getCodec().decompress(blob, 0, blob.length, -1);
+            }
+            CompressionCodecType type = CompressionCodecType.forId(blob[2]);
+            if (type == null) {
+                throw new IOException("Unknown compression codec " + blob[2]);
+            }
+            int length = (blob[3] & 0xFF) << 24 | (blob[4] & 0xFF) << 16 | (blob[5] & 0xFF) << 8 | (blob[6] & 0xFF);
+            return type.getCodec().decompress(blob, HEADER_LENGTH, blob.length - HEADER_LENGTH, length);
         } catch (IOException e) {
             throw new TokenStrategyFailedException(e);
         }
-        return bout.toByteArray();
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.compression;
+
+import java.io.IOException;
+
+/**
+ * A compression algorithm which can be used by the
+ * {@link org.forgerock.openam.cts.utils.blob.strategies.CompressionStrategy} to compress the binary object of
+ * Tokens.
+ * <p>
+ * Implementations must be thread safe.
+ *
+ * @see CompressionCodecType
+ */
+public interface CompressionCodec {
+
+    /**
+     * Compress the data.
+     *
+     * @param data Non null data to compress.
+     * @param headerLength The number of bytes to leave unused at the start of the returned array, so that the
+     *                     caller can write a header without copying the compressed data.
+     * @return A non null array containing the compressed data from {@code headerLength} onwards.
+     * @throws IOException If the data could not be compressed.
+     */
+    byte[] compress(byte[] data, int headerLength) throws IOException;
+
+    /**
+     * Decompress the data.
+     *
+     * @param data Non null array containing the compressed data.
+     * @param offset The offset of the compressed data in the array.
+     * @param length The length of the compressed data.
+     * @param decompressedLength The length of the original data, or -1 if it is not known.
+     * @return The non null decompressed data.
+     * @throws IOException If the data was not valid for this codec.
+     */
+    byte[] decompress(byte[] data, int offset, int length, int decompressedLength) throws IOException;
+}
@@ -0,0 +1,74 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.compression;
+
+/**
+ * The compression codecs available to the
+ * {@link org.forgerock.openam.cts.utils.blob.strategies.CompressionStrategy}.
+ * <p>
+ * The ID of each codec is stored with the Tokens it has compressed and so must never be changed or reused.
+ */
+public enum CompressionCodecType {
+
+    /**
+     * GZip compression, which is compatible with Tokens written before codecs could be selected.
+     */
+    GZIP(0, new GzipCompressionCodec()),
+    /**
+     * Deflate compression primed with a dictionary of common session content, which compresses small
+     * Tokens better than GZip.
+     */
+    DEFLATE(1, new DeflateDictionaryCompressionCodec()),
+    /**
+     * LZ4 block compression, which is considerably faster than GZip at the cost of a lower compression ratio.
+     */
+    LZ4(2, new LZ4CompressionCodec());
+
+    private final byte id;
+    private final CompressionCodec codec;
+
+    CompressionCodecType(int id, CompressionCodec codec) {
+        this.id = (byte) id;
+        this.codec = codec;
+    }
+
+    /**
+     * @return The ID stored with Tokens compressed by this codec.
+     */
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * @return The non null codec implementation.
+     */
+    public CompressionCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * @param id The ID stored with a compressed Token.
+     * @return The codec type with the given ID, or null if there is none.
+     */
+    public static CompressionCodecType forId(byte id) {
+        for (CompressionCodecType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
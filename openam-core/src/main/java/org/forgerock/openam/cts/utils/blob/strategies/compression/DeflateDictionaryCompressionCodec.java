@@ -0,0 +1,85 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.compression;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Deflate compression primed with a preset dictionary of the attribute names and values that commonly appear in
+ * the JSON serialised form of an {@link com.iplanet.dpro.session.service.InternalSession}.
+ * <p>
+ * Session Tokens are small, so GZip spends much of its output establishing back references to content that is
+ * the same for every session. Priming the compressor with that content allows it to be referenced from the first
+ * byte. The compressed data is preceded by a single byte identifying the dictionary it was compressed with, so a
+ * new dictionary can be introduced by appending it to the list of dictionaries. Existing dictionaries are part of
+ * the stored format and so must never be changed or removed.
+ */
+class DeflateDictionaryCompressionCodec extends DeflaterCompressionCodec {
+
+    /**
+     * Deflate favours the end of the dictionary when searching for matches, so the most common content is last.
+     */
+    private static final byte[] SESSION_DICTIONARY_V0 = ("\"@class\":\"com.iplanet.dpro.session.DNOrIPAddressListTokenRestriction"
+            + "\",\"addressList\":[],\"asString\":\"\"restrictedTokensBySid\":{}"
+            + "\"sessionEventURLs\":{\"http://:8080/openam/notificationservice\":[{"
+            + "\"clientType\":\"genericHTML\",\"AuthType\":\"DataStore\",\"Service\":\"ldapService\","
+            + "\"UserProfile\":\"Required\",\"successURL\":\"/openam/console\",\"loginURL\":\"/openam/UI/Login\","
+            + "\"FullLoginURL\":\"/openam/UI/Login\",\"CharSet\":\"UTF-8\",\"cookieSupport\":\"true\","
+            + "\"AuthLevel\":\"0\",\"Locale\":\"en\",\"HostName\":\"\",\"Host\":\"\",\"AMCtxId\":\"\","
+            + "\"authInstant\":\"\",\"amlbcookie\":\"01\",\"sun.am.UniversalIdentifier\":\"id=,ou=user,"
+            + "\"Organization\":\"dc=openam,dc=forgerock,dc=org\",\"Principal\":\"\",\"Principals\":\"\","
+            + "\"UserId\":\"\",\"UserToken\":\"\",\"SessionHandle\":\"shandle:\",\"sessionProperties\":{"
+            + "\"sessionState\":1,\"sessionType\":0,\"timedOutAt\":0,\"willExpireFlag\":true}"
+            + "\"sessionHandle\":\"shandle:AQIC5wM2LY4Sfc\",\"sessionID\":{\"comingFromAuth\":false,"
+            + "\"cookieMode\":null,\"encryptedString\":\"AQIC5wM2LY4Sfc.*AAJTSQACMDIAAlNLAB\","
+            + "\"extensionPart\":null,\"extensions\":{\"SI\":\"\",\"S1\":\"\",\"SK\":\"\"},\"isParsed\":false,"
+            + "\"sessionDomain\":\"\",\"sessionServer\":\"\",\"sessionServerID\":\"\",\"sessionServerPort\":\"\","
+            + "\"sessionServerProtocol\":\"\",\"sessionServerURI\":\"\",\"tail\":null},"
+            + "{\"clientDomain\":\"dc=openam,dc=forgerock,dc=org\",\"clientID\":\"id=,ou=user,dc=openam,"
+            + "dc=forgerock,dc=org\",\"cookieMode\":null,\"cookieStr\":null,\"creationTime\":,"
+            + "\"latestAccessTime\":,\"maxCachingTime\":3,\"maxIdleTime\":30,\"maxSessionTime\":120,")
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The dictionaries indexed by the ID stored with the compressed data. The last dictionary is used to compress.
+     */
+    private static final byte[][] DICTIONARIES = {SESSION_DICTIONARY_V0};
+
+    DeflateDictionaryCompressionCodec() {
+        super(false);
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int headerLength) {
+        int dictionaryId = DICTIONARIES.length - 1;
+        byte[] out = deflate(data, headerLength + 1, 0, DICTIONARIES[dictionaryId]);
+        out[headerLength] = (byte) dictionaryId;
+        return out;
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int decompressedLength) throws IOException {
+        if (length < 1) {
+            throw new IOException("Missing compression dictionary ID");
+        }
+        int dictionaryId = data[offset] & 0xFF;
+        if (dictionaryId >= DICTIONARIES.length) {
+            throw new IOException("Unknown compression dictionary " + dictionaryId);
+        }
+        return inflate(data, offset + 1, length - 1, decompressedLength, DICTIONARIES[dictionaryId]);
+    }
+}
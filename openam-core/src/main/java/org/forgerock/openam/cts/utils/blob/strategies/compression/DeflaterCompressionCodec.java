@@ -0,0 +1,144 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.compression;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Base class for codecs based on the Deflate algorithm.
+ * <p>
+ * Creating a {@link Deflater} or {@link Inflater} allocates native memory which is comparatively expensive, so
+ * instances are reused from a pool rather than created for every Token. The pool is bounded, and any instance
+ * that cannot be returned to it is {@link Deflater#end() ended} so that its native memory is released
+ * immediately rather than when it is garbage collected.
+ */
+abstract class DeflaterCompressionCodec implements CompressionCodec {
+
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final boolean nowrap;
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * @param nowrap True if the raw Deflate format should be used, without the ZLib header and checksum.
+     */
+    DeflaterCompressionCodec(boolean nowrap) {
+        this.nowrap = nowrap;
+    }
+
+    /**
+     * Deflate the data into a new array.
+     *
+     * @param data Non null data to compress.
+     * @param headerLength The number of bytes to leave unused at the start of the array.
+     * @param trailerLength The number of bytes to leave unused at the end of the array.
+     * @param dictionary The preset dictionary to use, or null if there is none.
+     * @return The array containing the compressed data.
+     */
+    byte[] deflate(byte[] data, int headerLength, int trailerLength, byte[] dictionary) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+        }
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(data);
+            deflater.finish();
+
+            byte[] out = new byte[headerLength + data.length / 2 + 64 + trailerLength];
+            int position = headerLength;
+            while (!deflater.finished()) {
+                if (position == out.length - trailerLength) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                position += deflater.deflate(out, position, out.length - trailerLength - position);
+            }
+            return Arrays.copyOf(out, position + trailerLength);
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Inflate the data into a new array.
+     *
+     * @param data Non null array containing the compressed data.
+     * @param offset The offset of the compressed data in the array.
+     * @param length The length of the compressed data.
+     * @param decompressedLength The length of the original data, or -1 if it is not known.
+     * @param dictionary The preset dictionary the data was compressed with, or null if there is none.
+     * @return The decompressed data.
+     * @throws IOException If the data was not valid or did not match the expected length.
+     */
+    byte[] inflate(byte[] data, int offset, int length, int decompressedLength, byte[] dictionary)
+            throws IOException {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(nowrap);
+        }
+        try {
+            return inflate(inflater, data, offset, length, decompressedLength, dictionary);
+        } finally {
+            inflater.reset();
+            if (!inflaters.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] data, int offset, int length, int decompressedLength,
+            byte[] dictionary) throws IOException {
+        inflater.setInput(data, offset, length);
+
+        byte[] out = new byte[decompressedLength >= 0 ? decompressedLength : Math.max(length * 4, 64)];
+        int position = 0;
+        try {
+            while (!inflater.finished()) {
+                if (position == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2 + 1);
+                }
+                int inflated = inflater.inflate(out, position, out.length - position);
+                if (inflated == 0 && !inflater.finished()) {
+                    if (inflater.needsDictionary() && dictionary != null) {
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput() || inflater.needsDictionary()) {
+                        throw new EOFException("Unexpected end of compressed data");
+                    }
+                }
+                position += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        }
+        if (decompressedLength >= 0 && position != decompressedLength) {
+            throw new IOException("Decompressed length " + position + " did not match " + decompressedLength);
+        }
+        return position == out.length ? out : Arrays.copyOf(out, position);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * GZip compression, producing the same format as {@link java.util.zip.GZIPOutputStream}.
+ * <p>
+ * The GZip header and trailer are written directly so that the underlying {@link java.util.zip.Deflater} can be
+ * reused, and the length recorded in the trailer is used to size the decompressed data exactly.
+ */
+class GzipCompressionCodec extends DeflaterCompressionCodec {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final byte[] HEADER = {
+        (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), 8, 0, 0, 0, 0, 0, 0, 0
+    };
+    private static final int TRAILER_LENGTH = 8;
+
+    GzipCompressionCodec() {
+        super(true);
+    }
+
+    /**
+     * @param data Non null data.
+     * @param offset The offset of the data to check.
+     * @param length The length of the data to check.
+     * @return True if the data starts with the GZip magic number.
+     */
+    private static boolean isGzip(byte[] data, int offset, int length) {
+        return length >= 2 && data[offset] == HEADER[0] && data[offset + 1] == HEADER[1];
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int headerLength) {
+        byte[] out = deflate(data, headerLength + HEADER.length, TRAILER_LENGTH, null);
+        System.arraycopy(HEADER, 0, out, headerLength, HEADER.length);
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        int trailer = out.length - TRAILER_LENGTH;
+        writeInt(out, trailer, (int) crc.getValue());
+        writeInt(out, trailer + 4, data.length);
+        return out;
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int decompressedLength) throws IOException {
+        if (length < HEADER.length + TRAILER_LENGTH || !isGzip(data, offset, length)) {
+            throw new IOException("Not in GZip format");
+        }
+        int trailer = offset + length - TRAILER_LENGTH;
+        int size = readInt(data, trailer + 4);
+        if (data[offset + 2] != HEADER[2] || data[offset + 3] != 0 || size < 0) {
+            // Optional header fields or very large content, which are not written by this codec
+            return decompressStream(data, offset, length);
+        }
+        // The trailer is included in the input as the raw Inflater may need to read beyond the end of the stream
+        byte[] result = inflate(data, offset + HEADER.length, length - HEADER.length, size, null);
+        CRC32 crc = new CRC32();
+        crc.update(result, 0, result.length);
+        if ((int) crc.getValue() != readInt(data, trailer)) {
+            throw new IOException("Corrupt GZip trailer");
+        }
+        return result;
+    }
+
+    private static byte[] decompressStream(byte[] data, int offset, int length) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream(length * 2);
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+            IOUtils.copy(inputStream, bout);
+        }
+        return bout.toByteArray();
+    }
+
+    private static void writeInt(byte[] data, int offset, int value) {
+        data[offset] = (byte) value;
+        data[offset + 1] = (byte) (value >> 8);
+        data[offset + 2] = (byte) (value >> 16);
+        data[offset + 3] = (byte) (value >> 24);
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xff)
+                | (data[offset + 1] & 0xff) << 8
+                | (data[offset + 2] & 0xff) << 16
+                | (data[offset + 3] & 0xff) << 24;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A pure Java implementation of the LZ4 block format.
+ * <p>
+ * Matches are found with a single probe of a hash table of recently seen four byte sequences, which makes
+ * compression considerably cheaper than Deflate, and decompression is a simple copy loop. The block format does
+ * not record the decompressed length, so it must be stored alongside the compressed data.
+ *
+ * @see <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md">LZ4 Block Format</a>
+ */
+class LZ4CompressionCodec implements CompressionCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    private static final int RUN_MASK = 0x0F;
+    private static final int HASH_LOG = 12;
+
+    private final ThreadLocal<int[]> hashTables = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1 << HASH_LOG];
+        }
+    };
+
+    @Override
+    public byte[] compress(byte[] data, int headerLength) {
+        final int length = data.length;
+        byte[] out = new byte[headerLength + length + length / 255 + 16];
+        int position = headerLength;
+        int anchor = 0;
+
+        if (length > MATCH_FIND_LIMIT) {
+            int[] hashTable = hashTables.get();
+            Arrays.fill(hashTable, -1);
+            final int matchLimit = length - LAST_LITERALS;
+            int current = 0;
+            while (current < length - MATCH_FIND_LIMIT) {
+                int sequence = readInt(data, current);
+                int hash = hash(sequence);
+                int reference = hashTable[hash];
+                hashTable[hash] = current;
+                if (reference < 0 || current - reference > MAX_DISTANCE || readInt(data, reference) != sequence) {
+                    current++;
+                    continue;
+                }
+                while (current > anchor && reference > 0 && data[current - 1] == data[reference - 1]) {
+                    current--;
+                    reference--;
+                }
+                int matchLength = MIN_MATCH;
+                while (current + matchLength < matchLimit && data[current + matchLength] == data[reference + matchLength]) {
+                    matchLength++;
+                }
+                position = writeSequence(data, anchor, current - anchor, current - reference, matchLength,
+                        out, position);
+                current += matchLength;
+                anchor = current;
+            }
+        }
+
+        position = writeLiterals(data, anchor, length - anchor, out, position);
+        return Arrays.copyOf(out, position);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int decompressedLength) throws IOException {
+        if (decompressedLength < 0) {
+            throw new IOException("LZ4 requires the decompressed length");
+        }
+        byte[] out = new byte[decompressedLength];
+        final int end = offset + length;
+        int input = offset;
+        int position = 0;
+        try {
+            while (true) {
+                int token = data[input++] & 0xFF;
+                int literalLength = token >>> 4;
+                if (literalLength == RUN_MASK) {
+                    int next;
+                    do {
+                        next = data[input++] & 0xFF;
+                        literalLength += next;
+                    } while (next == 0xFF);
+                }
+                System.arraycopy(data, input, out, position, literalLength);
+                input += literalLength;
+                position += literalLength;
+                if (input >= end) {
+                    break;
+                }
+
+                int distance = (data[input++] & 0xFF) | (data[input++] & 0xFF) << 8;
+                int matchLength = token & RUN_MASK;
+                if (matchLength == RUN_MASK) {
+                    int next;
+                    do {
+                        next = data[input++] & 0xFF;
+                        matchLength += next;
+                    } while (next == 0xFF);
+                }
+                matchLength += MIN_MATCH;
+                int reference = position - distance;
+                if (distance == 0 || reference < 0) {
+                    throw new IOException("Invalid LZ4 match offset " + distance);
+                }
+                // Byte by byte, as the match may overlap the bytes being written
+                for (int i = 0; i < matchLength; i++) {
+                    out[position++] = out[reference++];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Malformed LZ4 data", e);
+        }
+        if (input != end) {
+            throw new IOException("Malformed LZ4 data");
+        }
+        if (position != decompressedLength) {
+            throw new IOException("Decompressed length " + position + " did not match " + decompressedLength);
+        }
+        return out;
+    }
+
+    private static int writeSequence(byte[] data, int literalOffset, int literalLength, int distance,
+            int matchLength, byte[] out, int position) {
+        int token = position++;
+        int matchRun = matchLength - MIN_MATCH;
+        out[token] = (byte) (Math.min(literalLength, RUN_MASK) << 4 | Math.min(matchRun, RUN_MASK));
+        if (literalLength >= RUN_MASK) {
+            position = writeLength(literalLength - RUN_MASK, out, position);
+        }
+        System.arraycopy(data, literalOffset, out, position, literalLength);
+        position += literalLength;
+        out[position++] = (byte) distance;
+        out[position++] = (byte) (distance >>> 8);
+        if (matchRun >= RUN_MASK) {
+            position = writeLength(matchRun - RUN_MASK, out, position);
+        }
+        return position;
+    }
+
+    private static int writeLiterals(byte[] data, int literalOffset, int literalLength, byte[] out, int position) {
+        out[position++] = (byte) (Math.min(literalLength, RUN_MASK) << 4);
+        if (literalLength >= RUN_MASK) {
+            position = writeLength(literalLength - RUN_MASK, out, position);
+        }
+        System.arraycopy(data, literalOffset, out, position, literalLength);
+        return position + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] out, int position) {
+        while (length >= 0xFF) {
+            out[position++] = (byte) 0xFF;
+            length -= 0xFF;
+        }
+        out[position++] = (byte) length;
+        return position;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF)
+                | (data[offset + 1] & 0xFF) << 8
+                | (data[offset + 2] & 0xFF) << 16
+                | (data[offset + 3] & 0xFF) << 24;
+    }
+}
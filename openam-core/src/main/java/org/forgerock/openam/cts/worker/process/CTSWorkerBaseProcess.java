@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.worker.process;
 
@@ -28,6 +29,9 @@ import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
 /**
  * {@link CTSWorkerProcess} base class handling repeated steps such as paging through query results,
  * thread interruption and waiting for each page of results to be processed.
+ * <p>
+ * The next page of results is retrieved while the previous page is processed, so at most two pages are
+ * held in memory at any one time.
  */
 public abstract class CTSWorkerBaseProcess implements CTSWorkerProcess {
 
@@ -37,11 +41,37 @@ public abstract class CTSWorkerBaseProcess implements CTSWorkerProcess {
         StopWatch queryStopWatch = new StopWatch();
         StopWatch waitingStopWatch = new StopWatch();
 
+        try {
+            long total = process(workerQuery, filter, queryStopWatch, waitingStopWatch);
+            handleSucceeded(queryStopWatch, waitingStopWatch, total);
+        } catch (CoreTokenException e) {
+            handleFailed(e);
+        } catch (InterruptedException e) {
+            handleFailed(e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Pages through the query results, handing each filtered page to {@link #handleBatch} and waiting for it to
+     * be processed, without calling either of the completion hooks.
+     *
+     * @param workerQuery the query to page through, which is closed once all pages have been processed.
+     * @param filter the filter to apply to each page.
+     * @param queryStopWatch unstarted timer for the query and task spawning step.
+     * @param waitingStopWatch unstarted timer for the task completion wait time.
+     * @return number of query results which matched the filter and were processed.
+     * @throws CoreTokenException if an exception occurs while querying or handling a batch.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    final long process(CTSWorkerQuery workerQuery, CTSWorkerFilter filter, StopWatch queryStopWatch,
+            StopWatch waitingStopWatch) throws CoreTokenException, InterruptedException {
         long total = 0;
         waitingStopWatch.start();
         waitingStopWatch.suspend();
         queryStopWatch.start();
 
+        CountDownLatch previousLatch = null;
         try (CTSWorkerQuery query = workerQuery) {
             for (Collection<PartialToken> tokens = query.nextPage(); tokens != null; tokens = query.nextPage()) {
 
@@ -55,25 +85,30 @@ public abstract class CTSWorkerBaseProcess implements CTSWorkerProcess {
                 total += filteredTokens.size();
                 queryStopWatch.suspend();
 
-                // process the results; as handleBatch is an asynchronous call, await its completion
+                // process the results; as handleBatch is an asynchronous call, the next page is retrieved while
+                // this one is processed, but the previous page must complete before this one is handed over
                 // - retrieving and processing all results pages may cause an OutOfMemory error
                 waitingStopWatch.resume();
                 CountDownLatch latch = handleBatch(filteredTokens);
-                latch.await();
+                if (previousLatch != null) {
+                    previousLatch.await();
+                }
+                previousLatch = latch;
                 waitingStopWatch.suspend();
 
                 queryStopWatch.resume();
             }
+            if (previousLatch != null) {
+                queryStopWatch.suspend();
+                waitingStopWatch.resume();
+                previousLatch.await();
+                waitingStopWatch.suspend();
+                queryStopWatch.resume();
+            }
             queryStopWatch.stop();
             waitingStopWatch.stop();
-
-            handleSucceeded(queryStopWatch, waitingStopWatch, total);
-        } catch (CoreTokenException e) {
-            handleFailed(e);
-        } catch (InterruptedException e) {
-            handleFailed(e);
-            Thread.currentThread().interrupt();
         }
+        return total;
     }
 
     /**
@@ -82,8 +117,10 @@ public abstract class CTSWorkerBaseProcess implements CTSWorkerProcess {
      * @param batch the filtered page of query results to be processed.
      * @return CountDownLatch which will open once the {@code batch} has been processed.
      * @throws CoreTokenException if an exception occurs while handling the batch.
+     * @throws InterruptedException if the thread is interrupted while handling the batch.
      */
-    protected abstract CountDownLatch handleBatch(Collection<PartialToken> batch) throws CoreTokenException;
+    protected abstract CountDownLatch handleBatch(Collection<PartialToken> batch)
+            throws CoreTokenException, InterruptedException;
 
     /**
      * Hook method called when {@link #handle} completes successfully.
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.worker.process;
 
@@ -64,9 +65,27 @@ public class CTSWorkerDeleteProcess extends CTSWorkerBaseProcess {
         this.debug = debug;
     }
 
+    /**
+     * Deletes the tokens returned from the query, having applied the filter to them, without recording a reaper
+     * run. This allows a caller which splits a reaper run across several queries to record it once.
+     *
+     * @param query the query returning the tokens to delete.
+     * @param filter the filter to apply to the query results.
+     * @return the number of tokens deleted.
+     * @throws CoreTokenException if the query failed or the deletions could not be queued.
+     * @throws InterruptedException if the thread was interrupted.
+     */
+    long deleteWithoutRecordingRun(CTSWorkerQuery query, CTSWorkerFilter filter)
+            throws CoreTokenException, InterruptedException {
+        return process(query, filter, new StopWatch(), new StopWatch());
+    }
+
     @Override
-    protected CountDownLatch handleBatch(final Collection<PartialToken> batch) throws CoreTokenException {
-        return tokenDeletion.deleteBatch(batch);
+    protected CountDownLatch handleBatch(final Collection<PartialToken> batch)
+            throws CoreTokenException, InterruptedException {
+        CountDownLatch latch = tokenDeletion.deleteBatch(batch);
+        monitoringStore.addReaperDeletions(batch.size());
+        return latch;
     }
 
     @Override
@@ -86,14 +105,17 @@ public class CTSWorkerDeleteProcess extends CTSWorkerBaseProcess {
      *
      * This class manages the detail of both the triggering the deletes and also collecting
      * up the responses to ensure that the operation has been processed asynchronously.
+     * Deletes are paced by the {@link ReaperRateLimiter}.
      */
     public static class TokenDeletion {
 
         private final TaskDispatcher queue;
+        private final ReaperRateLimiter rateLimiter;
 
         @Inject
-        public TokenDeletion(TaskDispatcher queue) {
+        public TokenDeletion(TaskDispatcher queue, ReaperRateLimiter rateLimiter) {
             this.queue = queue;
+            this.rateLimiter = rateLimiter;
         }
 
         /**
@@ -107,12 +129,15 @@ public class CTSWorkerDeleteProcess extends CTSWorkerBaseProcess {
          * the delete tasks have been completed.
          *
          * @throws CoreTokenException If there was any problem queuing the delete operation.
+         * @throws InterruptedException If the thread was interrupted while waiting for the rate limit.
          */
-        public CountDownLatch deleteBatch(Collection<PartialToken> tokens) throws CoreTokenException {
+        public CountDownLatch deleteBatch(Collection<PartialToken> tokens)
+                throws CoreTokenException, InterruptedException {
             CountDownLatch latch = new CountDownLatch(tokens.size());
             ResultHandler<PartialToken, CoreTokenException> handler = new CountDownHandler<>(latch);
             for (PartialToken token : tokens) {
                 String tokenId = token.getValue(CoreTokenField.TOKEN_ID);
+                rateLimiter.acquire();
                 queue.delete(tokenId, handler);
             }
             return latch;
@@ -0,0 +1,168 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.worker.process;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
+import org.forgerock.openam.cts.impl.query.worker.queries.CTSWorkerExpiryDateRangeQueryFactory;
+import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
+import org.forgerock.openam.cts.worker.CTSWorkerFilter;
+import org.forgerock.openam.cts.worker.CTSWorkerProcess;
+
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * A process which deletes expired tokens concurrently, by splitting the range of their expiry dates into
+ * {@link CoreTokenConfig#getReaperPartitions()} partitions and deleting each with a {@link CTSWorkerDeleteProcess}
+ * on its own thread. The partitions are recorded in the {@link CTSReaperMonitoringStore} as a single reaper run.
+ * <p>
+ * The range is found by probing the CTS for the oldest expiry date, so it only needs to be split when a backlog
+ * of expired tokens has built up, for instance after an outage. When there is no backlog, or only a single
+ * partition is configured, the provided query is handled by the {@link CTSWorkerDeleteProcess} directly.
+ * Deletions from all partitions share the {@link ReaperRateLimiter}, and progress is recorded in the
+ * {@link CTSReaperMonitoringStore}. Each partition holds a connection of the reaper's connection pool while it
+ * runs, so the pool is sized from {@link CoreTokenConfig#getReaperPartitions()}.
+ */
+@Singleton
+public class CTSWorkerPartitionedDeleteProcess implements CTSWorkerProcess {
+
+    private final CoreTokenConfig config;
+    private final CTSWorkerExpiryDateRangeQueryFactory queryFactory;
+    private final CTSWorkerDeleteProcess deleteProcess;
+    private final CTSReaperMonitoringStore monitoringStore;
+    private final ExecutorService executorService;
+    private final Debug debug;
+
+    /**
+     * @param config Required to read the number of partitions.
+     * @param queryFactory Required to find the range of expiry dates and query each partition.
+     * @param deleteProcess The process which deletes the tokens of each partition.
+     * @param monitoringStore Utility to record monitoring information.
+     * @param executorServiceFactory Required to create the partition threads.
+     * @param debug Debug output.
+     */
+    @Inject
+    public CTSWorkerPartitionedDeleteProcess(CoreTokenConfig config,
+            CTSWorkerExpiryDateRangeQueryFactory queryFactory,
+            CTSWorkerDeleteProcess deleteProcess,
+            CTSReaperMonitoringStore monitoringStore,
+            AMExecutorServiceFactory executorServiceFactory,
+            @Named(CoreTokenConstants.CTS_DEBUG) Debug debug) {
+        this.config = config;
+        this.queryFactory = queryFactory;
+        this.deleteProcess = deleteProcess;
+        this.monitoringStore = monitoringStore;
+        this.executorService = executorServiceFactory.createCachedThreadPool("CTSReaperPartition");
+        this.debug = debug;
+    }
+
+    @Override
+    public void handle(CTSWorkerQuery query, CTSWorkerFilter filter) {
+        int partitions = config.getReaperPartitions();
+        if (partitions <= 1) {
+            deleteProcess.handle(query, filter);
+            return;
+        }
+
+        long now = currentTimeMillis();
+        Long lowerBound;
+        try {
+            lowerBound = queryFactory.findExpiredLowerBound(now);
+        } catch (CoreTokenException e) {
+            debug.error("Reaper failed to find range of expired tokens", e);
+            return;
+        }
+        if (lowerBound == null) {
+            deleteProcess.handle(query, filter);
+            return;
+        }
+
+        List<Future<Long>> futures = new ArrayList<>(partitions);
+        long start = lowerBound;
+        long span = (now - start) / partitions;
+        for (int partition = 0; partition < partitions; partition++) {
+            // The outer partitions are left open so that no expired token falls outside the range
+            Long from = partition == 0 ? null : start + partition * span;
+            long to = partition == partitions - 1 ? now : start + (partition + 1) * span;
+            futures.add(executorService.submit(new Partition(queryFactory.createQuery(from, to), filter)));
+        }
+
+        long total = 0;
+        try {
+            for (Future<Long> future : futures) {
+                total += awaitPartition(future);
+            }
+        } catch (InterruptedException e) {
+            for (Future<Long> future : futures) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            return;
+        }
+        monitoringStore.addReaperRun(now, currentTimeMillis() - now, total);
+    }
+
+    private long awaitPartition(Future<Long> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            debug.error("Reaper partition failed", e.getCause());
+            return 0;
+        }
+    }
+
+    private class Partition implements Callable<Long> {
+
+        private final CTSWorkerQuery query;
+        private final CTSWorkerFilter filter;
+
+        private Partition(CTSWorkerQuery query, CTSWorkerFilter filter) {
+            this.query = query;
+            this.filter = filter;
+        }
+
+        @Override
+        public Long call() throws CoreTokenException, InterruptedException {
+            monitoringStore.reaperPartitionStarted();
+            try {
+                return deleteProcess.deleteWithoutRecordingRun(query, filter);
+            } finally {
+                monitoringStore.reaperPartitionCompleted();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName();
+    }
+}
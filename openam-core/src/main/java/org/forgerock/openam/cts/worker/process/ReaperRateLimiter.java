@@ -0,0 +1,69 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.worker.process;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+
+/**
+ * Paces the deletions issued by the CTS Reaper so that, across all reaper threads, they do not exceed
+ * {@link CoreTokenConfig#getReaperRateLimit()} per second.
+ * <p>
+ * Each deletion is assigned the next free slot in a schedule spaced at the configured rate, and the caller
+ * sleeps until its slot. The rate is read on each call, so changes to the configuration apply immediately.
+ */
+@Singleton
+public class ReaperRateLimiter {
+
+    private final CoreTokenConfig config;
+    private long nextSlot;
+
+    /**
+     * @param config Required to read the rate limit.
+     */
+    @Inject
+    public ReaperRateLimiter(CoreTokenConfig config) {
+        this.config = config;
+        this.nextSlot = System.nanoTime();
+    }
+
+    /**
+     * Blocks until a deletion may be issued without exceeding the rate limit.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        int rate = config.getReaperRateLimit();
+        if (rate <= 0) {
+            return;
+        }
+        long interval = SECONDS.toNanos(1) / rate;
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = nextSlot - now > 0 ? nextSlot : now;
+            nextSlot = slot + interval;
+            wait = slot - now;
+        }
+        if (wait > 0) {
+            NANOSECONDS.sleep(wait);
+        }
+    }
+}
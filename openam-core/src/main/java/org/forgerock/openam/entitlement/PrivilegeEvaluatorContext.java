@@ -21,6 +21,7 @@
  * your own identifying information:
  * "Portions Copyrighted [year] [name of copyright owner]"
  *
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.entitlement;
@@ -47,6 +48,10 @@ public class PrivilegeEvaluatorContext implements Serializable {
      * representation.
      */
     private Map<String, ConditionDecision> conditionDecisionCache = new HashMap<String, ConditionDecision>();
+    /**
+     * The memberships of the identities looked up during the evaluation, which is not serialized with the context.
+     */
+    private transient SubjectMembershipContext membershipContext;
     private static ThreadLocal <PrivilegeEvaluatorContext> currentCtx = new ThreadLocal();
 
     /**
@@ -135,4 +140,17 @@ public class PrivilegeEvaluatorContext implements Serializable {
     public Map<String, ConditionDecision> getConditionDecisionCache() {
         return conditionDecisionCache;
     }
+
+    /**
+     * Return the subject membership context, which is shared by all subject and condition evaluations within this
+     * policy evaluation.
+     *
+     * @return the subject membership context.
+     */
+    public synchronized SubjectMembershipContext getMembershipContext() {
+        if (membershipContext == null) {
+            membershipContext = new SubjectMembershipContext();
+        }
+        return membershipContext;
+    }
 }
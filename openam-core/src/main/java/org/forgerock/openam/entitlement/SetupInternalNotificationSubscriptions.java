@@ -12,6 +12,7 @@
  *  information: "Portions copyright [year] [name of copyright owner]".
  *
  *  Copyright 2016 ForgeRock AS.
+ *  Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.entitlement;
@@ -25,6 +26,7 @@ import org.forgerock.openam.notifications.Consumer;
 import org.forgerock.openam.notifications.NotificationBroker;
 import org.forgerock.openam.notifications.Topic;
 
+import com.sun.identity.entitlement.PolicyDecisionCache;
 import com.sun.identity.entitlement.PolicyEventType;
 import com.sun.identity.setup.SetupListener;
 
@@ -84,6 +86,7 @@ public final class SetupInternalNotificationSubscriptions implements SetupListen
 
         private void handlePolicySetUpdate(JsonValue realm) {
             getApplicationService(SUPER_ADMIN_SUBJECT, realm.asString()).clearCache();
+            PolicyDecisionCache.getInstance().invalidateAll();
         }
     }
 }
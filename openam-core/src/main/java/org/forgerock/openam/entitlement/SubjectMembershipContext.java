@@ -0,0 +1,141 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.entitlement;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.iplanet.sso.SSOException;
+import com.sun.identity.idm.AMIdentity;
+import com.sun.identity.idm.IdRepoException;
+import com.sun.identity.idm.IdType;
+
+/**
+ * Memoises the identity memberships looked up while evaluating policies for a subject, so that subjects and
+ * conditions which check the memberships of the same identity query the identity repository only once per policy
+ * evaluation.
+ * <p>
+ * A context is carried on the {@link PrivilegeEvaluatorContext} of each evaluation, and so is shared by all of the
+ * threads evaluating its policies. Memberships are filled lazily the first time they are required, and are never
+ * refreshed, so a context must not outlive the evaluation it was created for. A failed lookup is not memoised.
+ */
+public class SubjectMembershipContext {
+
+    private static final String SEPARATOR = "\n";
+
+    private final ConcurrentMap<String, Set<AMIdentity>> identityMemberships =
+            new ConcurrentHashMap<String, Set<AMIdentity>>();
+    private final ConcurrentMap<String, Boolean> memberships = new ConcurrentHashMap<String, Boolean>();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong lookupsAvoided = new AtomicLong();
+
+    /**
+     * Returns the membership context of the policy evaluation running on this thread. If no evaluation is running,
+     * a new context is returned which is not shared with any other caller.
+     *
+     * @return A non null membership context.
+     */
+    public static SubjectMembershipContext getCurrent() {
+        PrivilegeEvaluatorContext context = PrivilegeEvaluatorContext.getCurrent();
+        return context == null ? new SubjectMembershipContext() : context.getMembershipContext();
+    }
+
+    /**
+     * Returns the identities of the given type which an identity is a member of.
+     *
+     * @param member The identity whose memberships are returned.
+     * @param type The type of the identities to return.
+     * @return A non null, unmodifiable set of identities.
+     * @throws IdRepoException If the memberships could not be read from the identity repository.
+     * @throws SSOException If the token of the identity is not valid.
+     * @see AMIdentity#getMemberships(IdType)
+     */
+    public Set<AMIdentity> getMemberships(AMIdentity member, IdType type) throws IdRepoException, SSOException {
+        String key = member.getUniversalId() + SEPARATOR + type.getName();
+        Set<AMIdentity> result = identityMemberships.get(key);
+        if (result != null) {
+            lookupsAvoided.incrementAndGet();
+            return result;
+        }
+        lookups.incrementAndGet();
+        Set<AMIdentity> found = member.getMemberships(type);
+        result = found == null
+                ? Collections.<AMIdentity>emptySet()
+                : Collections.unmodifiableSet(new HashSet<AMIdentity>(found));
+        identityMemberships.put(key, result);
+        return result;
+    }
+
+    /**
+     * Returns whether an identity is a member of another identity, answered from the memberships of the member.
+     *
+     * @param member The identity whose membership is checked.
+     * @param identity The identity which the member may belong to.
+     * @return {@code true} if the member belongs to the identity.
+     * @throws IdRepoException If the memberships could not be read from the identity repository.
+     * @throws SSOException If the token of the member is not valid.
+     * @see AMIdentity#isMember(AMIdentity)
+     */
+    public boolean isMember(AMIdentity member, AMIdentity identity) throws IdRepoException, SSOException {
+        return AMIdentity.containsMembership(getMemberships(member, identity.getType()), identity);
+    }
+
+    /**
+     * Returns a membership previously recorded with {@link #putMembership(String, String, boolean)}, for subjects
+     * which check memberships outside of the identity repository.
+     *
+     * @param member The key of the member.
+     * @param group The key of the group.
+     * @return The recorded membership, or {@code null} if it has not been recorded.
+     */
+    public Boolean getMembership(String member, String group) {
+        Boolean result = memberships.get(member + SEPARATOR + group);
+        if (result != null) {
+            lookupsAvoided.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Records a membership which was looked up by a subject.
+     *
+     * @param member The key of the member.
+     * @param group The key of the group.
+     * @param isMember Whether the member belongs to the group.
+     */
+    public void putMembership(String member, String group, boolean isMember) {
+        lookups.incrementAndGet();
+        memberships.put(member + SEPARATOR + group, isMember);
+    }
+
+    /**
+     * @return The number of membership lookups which were made.
+     */
+    public long getLookupCount() {
+        return lookups.get();
+    }
+
+    /**
+     * @return The number of membership lookups which were avoided by answering them from this context.
+     */
+    public long getLookupsAvoidedCount() {
+        return lookupsAvoided.get();
+    }
+}
@@ -12,11 +12,13 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2016 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 package org.forgerock.openam.monitoring.session;
 
 import org.forgerock.guice.core.InjectorHolder;
 import org.forgerock.openam.session.service.SessionAccessManager;
+import org.forgerock.openam.session.service.access.persistence.caching.OffHeapInternalSessionCacheStep;
 
 import com.iplanet.dpro.session.monitoring.SessionMonitorType;
 import com.iplanet.dpro.session.monitoring.SessionMonitoringStore;
@@ -70,5 +72,44 @@ public class InternalSessionsImpl extends InternalSessions {
         return (long) InjectorHolder.getInstance(SessionAccessManager.class).getInternalSessionCount();
     }
 
+    /**
+     * Getter for the "OffHeapSessionCacheSize" variable.
+     */
+    public Long getOffHeapSessionCacheSize() throws SnmpStatusException {
+        return getOffHeapCache().size();
+    }
+
+    /**
+     * Getter for the "OffHeapSessionCacheBytes" variable.
+     */
+    public Long getOffHeapSessionCacheBytes() throws SnmpStatusException {
+        return getOffHeapCache().getUsedBytes();
+    }
+
+    /**
+     * Getter for the "OffHeapSessionCacheHits" variable.
+     */
+    public Long getOffHeapSessionCacheHits() throws SnmpStatusException {
+        return getOffHeapCache().getHitCount();
+    }
+
+    /**
+     * Getter for the "OffHeapSessionCacheMisses" variable.
+     */
+    public Long getOffHeapSessionCacheMisses() throws SnmpStatusException {
+        return getOffHeapCache().getMissCount();
+    }
+
+    /**
+     * Getter for the "OffHeapSessionCacheEvictions" variable.
+     */
+    public Long getOffHeapSessionCacheEvictions() throws SnmpStatusException {
+        return getOffHeapCache().getEvictionCount();
+    }
+
+    private static OffHeapInternalSessionCacheStep getOffHeapCache() {
+        return InjectorHolder.getInstance(OffHeapInternalSessionCacheStep.class);
+    }
+
 
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.session;
 
@@ -23,12 +24,17 @@ import javax.inject.Singleton;
 
 import org.forgerock.guice.core.GuiceModule;
 import org.forgerock.guice.core.InjectorHolder;
+import org.forgerock.openam.session.service.access.persistence.AccessTimeCoalescingStep;
 import org.forgerock.openam.session.service.access.persistence.InternalSessionPersistenceStore;
 import org.forgerock.openam.session.service.access.persistence.InternalSessionStore;
 import org.forgerock.openam.session.service.access.persistence.InternalSessionStoreChain;
+import org.forgerock.openam.session.service.access.persistence.InternalSessionStoreStep;
 import org.forgerock.openam.session.service.access.persistence.SessionPersistenceManagerStep;
+import org.forgerock.openam.session.service.access.persistence.SessionUUIDIndex;
 import org.forgerock.openam.session.service.access.persistence.TimeOutSessionFilterStep;
 import org.forgerock.openam.session.service.access.persistence.caching.InMemoryInternalSessionCacheStep;
+import org.forgerock.openam.session.service.access.persistence.caching.OffHeapInternalSessionCacheStep;
+import org.forgerock.openam.session.service.access.persistence.caching.SessionSummaryCacheStep;
 import org.forgerock.openam.sso.providers.stateless.StatelessSSOProvider;
 import org.forgerock.openam.utils.Config;
 
@@ -117,6 +123,8 @@ public class SessionGuiceModule extends PrivateModule {
         });
 
         bind(SessionServerConfig.class);
+        bind(OffHeapInternalSessionCacheStep.class);
+        bind(SessionSummaryCacheStep.class);
 
         expose(Debug.class).annotatedWith(Names.named(SessionConstants.SESSION_DEBUG));
         expose(InternalSessionStore.class);
@@ -129,6 +137,8 @@ public class SessionGuiceModule extends PrivateModule {
         expose(SessionPollerPool.class);
         expose(SessionServiceURLService.class);
         expose(StatelessSSOProvider.class);
+        expose(OffHeapInternalSessionCacheStep.class);
+        expose(SessionSummaryCacheStep.class);
         expose(Stats.class).annotatedWith(Names.named(SessionConstants.STATS_MASTER_TABLE));
     }
 
@@ -136,11 +146,16 @@ public class SessionGuiceModule extends PrivateModule {
     @Inject
     @Singleton
     InternalSessionStore getInternalSessionStore(TimeOutSessionFilterStep timeOutSessionFilterStep,
+                                                 SessionSummaryCacheStep sessionSummaryCacheStep,
                                                  InMemoryInternalSessionCacheStep internalSessionCacheStep,
                                                  SessionPersistenceManagerStep sessionPersistenceManagerStep,
+                                                 OffHeapInternalSessionCacheStep offHeapInternalSessionCacheStep,
+                                                 AccessTimeCoalescingStep accessTimeCoalescingStep,
                                                  InternalSessionPersistenceStore internalSessionPersistenceStore) {
         return new InternalSessionStoreChain(
-                Arrays.asList(timeOutSessionFilterStep, internalSessionCacheStep, sessionPersistenceManagerStep),
+                Arrays.<InternalSessionStoreStep>asList(timeOutSessionFilterStep, sessionSummaryCacheStep,
+                        internalSessionCacheStep, sessionPersistenceManagerStep, offHeapInternalSessionCacheStep,
+                        accessTimeCoalescingStep),
                 internalSessionPersistenceStore);
     }
 
@@ -150,11 +165,12 @@ public class SessionGuiceModule extends PrivateModule {
             final SessionAuditor sessionAuditor,
             final SessionNotificationSender sessionNotificationSender,
             final SessionNotificationPublisher sessionNotificationPublisher,
-            final SessionTimeoutHandlerExecutor sessionTimeoutHandlerExecutor) {
+            final SessionTimeoutHandlerExecutor sessionTimeoutHandlerExecutor,
+            final SessionUUIDIndex sessionUUIDIndex) {
 
         return new InternalSessionEventBroker(
                 sessionLogging, sessionAuditor, sessionNotificationSender, sessionNotificationPublisher,
-                sessionTimeoutHandlerExecutor);
+                sessionTimeoutHandlerExecutor, sessionUUIDIndex);
     }
 
     @Provides
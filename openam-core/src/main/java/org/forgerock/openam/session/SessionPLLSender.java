@@ -23,30 +23,69 @@
  * "Portions Copyrighted [year] [name of copyright owner]"
  *
  * Portions Copyrighted 2014-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.session;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.forgerock.openam.session.SessionConstants.*;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Inject;
 
+import org.forgerock.http.header.TransactionIdHeader;
+import org.forgerock.openam.audit.context.AuditRequestContext;
+import org.forgerock.openam.utils.IOUtils;
+
 import com.iplanet.am.util.SystemProperties;
 import com.iplanet.dpro.session.SessionException;
 import com.iplanet.dpro.session.SessionID;
 import com.iplanet.dpro.session.share.SessionBundle;
+import com.iplanet.dpro.session.share.SessionJsonCodec;
 import com.iplanet.dpro.session.share.SessionRequest;
 import com.iplanet.dpro.session.share.SessionResponse;
 import com.iplanet.services.comm.client.PLLClient;
 import com.iplanet.services.comm.share.Request;
 import com.iplanet.services.comm.share.RequestSet;
 import com.iplanet.services.comm.share.Response;
-
+import com.sun.identity.common.HttpURLConnectionManager;
+import com.sun.identity.shared.Constants;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Sends session requests to the session service of a remote server.
+ * <p>
+ * Requests are first sent to the compact JSON session endpoint, {@link #JSON_ENDPOINT} relative to the session
+ * service URL. If a server does not provide it, which is the case for servers of earlier versions, the session
+ * service URL is remembered and requests to it are sent over PLL XML for the next five minutes, after which the
+ * JSON endpoint is tried again in case the server has been upgraded. The JSON endpoint can be disabled altogether
+ * with {@link Constants#AM_SESSION_JSON_PROTOCOL_ENABLED}.
+ */
 public class SessionPLLSender {
 
+    /** The path of the JSON session endpoint, relative to the session service URL. */
+    public static final String JSON_ENDPOINT = "/json";
+
+    private static final Debug debug = Debug.getInstance(SESSION_DEBUG);
+
+    private static final long PLL_ONLY_TTL = MINUTES.toMillis(5);
+
+    /* Session service URLs which do not provide the JSON endpoint, to when that was found, shared by all senders */
+    private static final ConcurrentMap<String, Long> PLL_ONLY_URLS = new ConcurrentHashMap<>();
+
     private final SessionCookies sessionCookies;
 
     @Inject
@@ -55,42 +94,153 @@ public class SessionPLLSender {
     }
 
     /**
-     * Returns a Session Response object based on the XML document received from
+     * Returns a Session Response object based on the document received from
      * remote Session Server. This is in response to a request that we send to
      * the session server.
      *
      * @param svcurl The URL of the Session Service.
-     * @param sreq The Session Request XML document.
-     * @return a Vector of responses from the remote server
-     * @exception com.iplanet.dpro.session.SessionException if there was an error in sending the XML
-     *            document or if the response has multiple components.
+     * @param sreq The Session Request.
+     * @return The response from the remote server.
+     * @exception com.iplanet.dpro.session.SessionException if there was an error in sending the
+     *            request or if the response has multiple components.
      */
     public SessionResponse sendPLLRequest(URL svcurl, SessionRequest sreq) throws SessionException {
-        try {
+        return sendPLLRequests(svcurl, Collections.singletonList(sreq)).get(0);
+    }
 
-            String cookies = sessionCookies.getCookieName() + "=" + sreq.getSessionID();
+    /**
+     * Sends a batch of session requests to the remote Session Server in a single round trip. All requests are sent
+     * with the cookies of the first request's session, so the batch should only contain requests which can be
+     * authorised by that session.
+     *
+     * @param svcurl The URL of the Session Service.
+     * @param sreqs The non empty list of Session Requests.
+     * @return The responses from the remote server, in the same order as the requests.
+     * @exception com.iplanet.dpro.session.SessionException if there was an error in sending the
+     *            requests or if the number of responses does not match the number of requests.
+     */
+    public List<SessionResponse> sendPLLRequests(URL svcurl, List<SessionRequest> sreqs) throws SessionException {
+        try {
+            String sid = sreqs.get(0).getSessionID();
+            String cookies = sessionCookies.getCookieName() + "=" + sid;
 
             if (!SystemProperties.isServerMode()) {
-                SessionID sessionID = new SessionID(sreq.getSessionID());
+                SessionID sessionID = new SessionID(sid);
                 cookies = cookies + ";" + sessionCookies.getLBCookie(sessionID);
             }
 
-            final Request req = new Request(sreq.toXMLString());
-
-            final RequestSet set = new RequestSet(SESSION_SERVICE);
-            set.addRequest(req);
-
-            final Vector responses = PLLClient.send(svcurl, cookies, set);
+            List<SessionResponse> responses = null;
+            if (isJsonEnabled() && !isPllOnly(svcurl)) {
+                responses = sendJsonRequests(svcurl, cookies, sreqs);
+            }
+            if (responses == null) {
+                responses = sendXmlRequests(svcurl, cookies, sreqs);
+            }
 
-            if (responses.size() != 1) {
+            if (responses.size() != sreqs.size()) {
                 throw new SessionException(SessionBundle.rbName, "unexpectedResponse", null);
             }
 
-            final Response res = (Response) responses.elementAt(0);
-
-            return SessionResponse.parseXML(res.getContent());
+            return responses;
+        } catch (SessionException e) {
+            throw e;
         } catch (Exception e) {
             throw new SessionException(e);
         }
     }
+
+    private List<SessionResponse> sendXmlRequests(URL svcurl, String cookies, List<SessionRequest> sreqs)
+            throws Exception {
+        final RequestSet set = new RequestSet(SESSION_SERVICE);
+        for (SessionRequest sreq : sreqs) {
+            set.addRequest(new Request(sreq.toXMLString()));
+        }
+
+        final Vector responses = PLLClient.send(svcurl, cookies, set);
+
+        List<SessionResponse> sresps = new ArrayList<>(responses.size());
+        for (Object res : responses) {
+            sresps.add(SessionResponse.parseXML(((Response) res).getContent()));
+        }
+        return sresps;
+    }
+
+    /**
+     * Sends the requests to the JSON endpoint.
+     *
+     * @return The responses, or null if the server does not provide the JSON endpoint.
+     */
+    private List<SessionResponse> sendJsonRequests(URL svcurl, String cookies, List<SessionRequest> sreqs)
+            throws IOException, SessionException {
+        byte[] body = SessionJsonCodec.encodeRequests(sreqs);
+
+        HttpURLConnection conn = HttpURLConnectionManager.getConnection(new URL(svcurl + JSON_ENDPOINT));
+        conn.setDoOutput(true);
+        conn.setUseCaches(false);
+        conn.setRequestMethod("POST");
+        conn.setRequestProperty("Cookie", cookies);
+        conn.setRequestProperty("Content-Type", SessionJsonCodec.CONTENT_TYPE + ";charset=UTF-8");
+        conn.setRequestProperty("Accept", SessionJsonCodec.CONTENT_TYPE);
+        conn.setRequestProperty(TransactionIdHeader.NAME, AuditRequestContext.createSubTransactionIdValue());
+        conn.setFixedLengthStreamingMode(body.length);
+
+        OutputStream out = conn.getOutputStream();
+        try {
+            out.write(body);
+        } finally {
+            IOUtils.closeIfNotNull(out);
+        }
+
+        int status = conn.getResponseCode();
+        String contentType = conn.getContentType();
+        if (status == HttpURLConnection.HTTP_OK && contentType != null
+                && contentType.startsWith(SessionJsonCodec.CONTENT_TYPE)) {
+            InputStream in = conn.getInputStream();
+            try {
+                return SessionJsonCodec.decodeResponses(in);
+            } finally {
+                IOUtils.closeIfNotNull(in);
+            }
+        }
+
+        // Read and discard the body so that the connection can be reused
+        InputStream in = status >= HttpURLConnection.HTTP_BAD_REQUEST ? conn.getErrorStream() : conn.getInputStream();
+        if (in != null) {
+            try {
+                IOUtils.readStream(in);
+            } finally {
+                IOUtils.closeIfNotNull(in);
+            }
+        }
+
+        if (status == HttpURLConnection.HTTP_OK || status == HttpURLConnection.HTTP_NOT_FOUND
+                || status == HttpURLConnection.HTTP_BAD_METHOD || status == HttpURLConnection.HTTP_UNSUPPORTED_TYPE
+                || status == HttpURLConnection.HTTP_NOT_IMPLEMENTED) {
+            debug.message("SessionPLLSender: JSON session endpoint not provided by {}, using PLL", svcurl);
+            PLL_ONLY_URLS.put(svcurl.toString(), currentTimeMillis());
+            return null;
+        }
+        throw new SessionException(SessionBundle.rbName, "unexpectedResponse", null);
+    }
+
+    /**
+     * @return True if the session service URL was found not to provide the JSON endpoint within the last five
+     * minutes.
+     */
+    private static boolean isPllOnly(URL svcurl) {
+        String key = svcurl.toString();
+        Long since = PLL_ONLY_URLS.get(key);
+        if (since == null) {
+            return false;
+        }
+        if (currentTimeMillis() - since >= PLL_ONLY_TTL) {
+            PLL_ONLY_URLS.remove(key, since);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isJsonEnabled() {
+        return SystemProperties.getAsBoolean(Constants.AM_SESSION_JSON_PROTOCOL_ENABLED, true);
+    }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.session.service.access;
@@ -20,6 +21,7 @@ import static com.iplanet.dpro.session.service.SessionState.*;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -27,11 +29,13 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import com.iplanet.dpro.session.SessionID;
+import org.forgerock.json.JsonPointer;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.dpro.session.PartialSession;
 import org.forgerock.openam.session.SessionConstants;
 import org.forgerock.openam.session.authorisation.SessionChangeAuthorizer;
 import org.forgerock.openam.session.service.access.persistence.SessionPersistenceStore;
+import org.forgerock.openam.session.service.access.persistence.SessionUUIDIndex;
 import org.forgerock.openam.utils.CrestQuery;
 
 import com.iplanet.dpro.session.Session;
@@ -53,21 +57,25 @@ public class SessionQueryManager {
     private SessionPersistenceStore sessionPersistenceStore;
     private final SessionChangeAuthorizer sessionChangeAuthorizer;
     private final SessionServiceConfig serviceConfig;
+    private final SessionUUIDIndex sessionUUIDIndex;
 
     /**
      * Creates a session query manager.
      * @param debug The debug object.
      * @param sessionPersistenceStore The store which is being used for queries.
+     * @param sessionUUIDIndex The local index used to find the sessions of a user.
      */
     @Inject
     public SessionQueryManager(@Named(SessionConstants.SESSION_DEBUG) final Debug debug,
                                SessionPersistenceStore sessionPersistenceStore,
                                SessionChangeAuthorizer sessionChangeAuthorizer,
-                               SessionServiceConfig serviceConfig) {
+                               SessionServiceConfig serviceConfig,
+                               SessionUUIDIndex sessionUUIDIndex) {
         this.debug = debug;
         this.sessionPersistenceStore = sessionPersistenceStore;
         this.sessionChangeAuthorizer = sessionChangeAuthorizer;
         this.serviceConfig = serviceConfig;
+        this.sessionUUIDIndex = sessionUUIDIndex;
     }
 
     /**
@@ -86,6 +94,22 @@ public class SessionQueryManager {
         }
     }
 
+    /**
+     * Return partial sessions for all valid sessions from the CTS servers, populated with only the requested fields.
+     *
+     * @param fields The session fields to populate, or null or empty for all fields.
+     * @return The collection of all valid partial sessions.
+     * @throws SessionException If the request fails.
+     */
+    public Collection<PartialSession> getAllValidPartialSessions(List<JsonPointer> fields) throws SessionException {
+        try {
+            return sessionPersistenceStore.getValidPartialSessions(fields);
+        } catch (CoreTokenException cte) {
+            debug.error("An error occurred whilst querying CTS for valid sessions", cte);
+            throw new SessionException(cte);
+        }
+    }
+
     /**
      * Returns the expiration information of all sessions belonging to a user
      * (uuid). The returned value will be a Map (sid->expiration_time).
@@ -98,7 +122,7 @@ public class SessionQueryManager {
      *             repository.
      */
     public Map<String, Long> getAllSessionsByUUID(String uuid) throws SessionException {
-        return sessionPersistenceStore.getAllSessionsByUUID(uuid);
+        return sessionUUIDIndex.getAllSessionsByUUID(uuid);
     }
 
     /**
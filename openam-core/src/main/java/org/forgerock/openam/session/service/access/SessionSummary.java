@@ -0,0 +1,120 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.SessionState;
+
+/**
+ * The subset of the state of a session required to decide whether it is valid: its state, expiration times and
+ * latest access time, along with the universal ID of its owner.
+ * <p>
+ * A summary can be read from the attributes of the session token in the CTS, so obtaining one does not require the
+ * session blob to be read or deserialised.
+ */
+public final class SessionSummary {
+
+    private final String sessionID;
+    private final String universalId;
+    private final SessionState state;
+    private final long maxSessionExpirationTime;
+    private final long maxIdleExpirationTime;
+    private final long latestAccessTime;
+
+    /**
+     * @param sessionID Non null ID of the session.
+     * @param universalId The universal ID of the owner of the session, or null if it is not known.
+     * @param state Non null state of the session.
+     * @param maxSessionExpirationTime The time at which the session's lifetime expires, in milliseconds.
+     * @param maxIdleExpirationTime The time at which the session's idle time expires, in milliseconds.
+     * @param latestAccessTime The last time the session was accessed, in milliseconds.
+     */
+    public SessionSummary(String sessionID, String universalId, SessionState state, long maxSessionExpirationTime,
+            long maxIdleExpirationTime, long latestAccessTime) {
+        this.sessionID = sessionID;
+        this.universalId = universalId;
+        this.state = state;
+        this.maxSessionExpirationTime = maxSessionExpirationTime;
+        this.maxIdleExpirationTime = maxIdleExpirationTime;
+        this.latestAccessTime = latestAccessTime;
+    }
+
+    /**
+     * Creates a summary of the current state of a session.
+     *
+     * @param session Non null session.
+     * @return Non null summary.
+     */
+    public static SessionSummary of(InternalSession session) {
+        return new SessionSummary(session.getID().toString(), session.getUUID(), session.getState(),
+                session.getMaxSessionExpirationTime(MILLISECONDS), session.getMaxIdleExpirationTime(MILLISECONDS),
+                session.getLatestAccessTime(MILLISECONDS));
+    }
+
+    /**
+     * @return Non null ID of the session.
+     */
+    public String getSessionID() {
+        return sessionID;
+    }
+
+    /**
+     * @return The universal ID of the owner of the session, or null if it is not known.
+     */
+    public String getUniversalId() {
+        return universalId;
+    }
+
+    /**
+     * @return Non null state of the session.
+     */
+    public SessionState getState() {
+        return state;
+    }
+
+    /**
+     * @return The time at which the session's lifetime expires, in milliseconds.
+     */
+    public long getMaxSessionExpirationTime() {
+        return maxSessionExpirationTime;
+    }
+
+    /**
+     * @return The time at which the session's idle time expires, in milliseconds.
+     */
+    public long getMaxIdleExpirationTime() {
+        return maxIdleExpirationTime;
+    }
+
+    /**
+     * @return The last time the session was accessed, in milliseconds.
+     */
+    public long getLatestAccessTime() {
+        return latestAccessTime;
+    }
+
+    /**
+     * Whether the session was valid at the given time, according to this summary.
+     *
+     * @param now The time in milliseconds.
+     * @return True if the session is in the valid state and has not reached either of its expiration times.
+     */
+    public boolean isValid(long now) {
+        return state == SessionState.VALID && now < maxSessionExpirationTime && now < maxIdleExpirationTime;
+    }
+}
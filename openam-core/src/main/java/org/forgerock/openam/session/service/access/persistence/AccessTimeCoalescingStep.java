@@ -0,0 +1,131 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.forgerock.openam.session.SessionConstants;
+import org.forgerock.openam.shared.concurrency.ThreadMonitor;
+import org.forgerock.util.thread.listener.ShutdownListener;
+import org.forgerock.util.thread.listener.ShutdownManager;
+
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Coalesces writes of sessions whose only change since they were last persisted is their latest access time.
+ * <p>
+ * Such writes are held back and flushed once per configured window, so that a session which is validated many
+ * times within the window is written at most once. Any other change to the session is written immediately, and
+ * carries the latest access time with it.
+ * <p>
+ * Held back writes are flushed when the server shuts down. If the server fails instead, the latest access time
+ * held in the CTS may lag the true latest access time by at most the window, so a session may be considered idle
+ * by another server up to the window earlier than it would otherwise. To keep this small relative to the idle
+ * timeout, sessions with a max idle time of less than twice the window are always written immediately.
+ * <p>
+ * The window is read when the server starts. If it is not positive, all writes are passed straight through.
+ *
+ * @see SessionServiceConfig#getAccessTimeWriteWindow()
+ */
+@Singleton
+public class AccessTimeCoalescingStep extends AbstractInternalSessionStoreStep {
+
+    private final ConcurrentMap<SessionID, InternalSession> pending = new ConcurrentHashMap<>();
+    private final InternalSessionStore persistenceStore;
+    private final long window;
+    private final Debug debug;
+
+    /**
+     * @param sessionConfig Required to read the coalescing window.
+     * @param persistenceStore The store which pending writes are flushed to.
+     * @param executorServiceFactory Required to schedule flushes.
+     * @param threadMonitor Required to restart the flush thread on failure.
+     * @param shutdownManager Required to flush pending writes on shutdown.
+     * @param debug Required for debugging.
+     */
+    @Inject
+    public AccessTimeCoalescingStep(SessionServiceConfig sessionConfig,
+            InternalSessionPersistenceStore persistenceStore, AMExecutorServiceFactory executorServiceFactory,
+            ThreadMonitor threadMonitor, ShutdownManager shutdownManager,
+            @Named(SessionConstants.SESSION_DEBUG) Debug debug) {
+        this.persistenceStore = persistenceStore;
+        this.window = sessionConfig.getAccessTimeWriteWindow();
+        this.debug = debug;
+
+        if (window > 0) {
+            threadMonitor.watchScheduledThread(
+                    executorServiceFactory.createScheduledService(1, "AccessTimeCoalescingStep"),
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            flush();
+                        }
+                    }, window, window, MILLISECONDS);
+            shutdownManager.addShutdownListener(new ShutdownListener() {
+                @Override
+                public void shutdown() {
+                    flush();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void store(InternalSession session, InternalSessionStore next) throws SessionPersistenceException {
+        if (window > 0 && session.isContentPersisted() && MINUTES.toMillis(session.getMaxIdleTime()) >= 2 * window) {
+            pending.put(session.getID(), session);
+            return;
+        }
+        // This write includes the latest access time, so any pending write is no longer required
+        pending.remove(session.getID());
+        next.store(session);
+    }
+
+    @Override
+    public void remove(InternalSession session, InternalSessionStore next) throws SessionPersistenceException {
+        pending.remove(session.getID());
+        next.remove(session);
+    }
+
+    /**
+     * Writes all pending sessions which are still stored.
+     */
+    void flush() {
+        for (SessionID sessionID : pending.keySet()) {
+            InternalSession session = pending.remove(sessionID);
+            if (session == null || !session.isStored()) {
+                continue;
+            }
+            try {
+                persistenceStore.store(session);
+            } catch (SessionPersistenceException e) {
+                debug.warning("AccessTimeCoalescingStep: Failed to write latest access time of session {}",
+                        sessionID, e);
+            }
+        }
+    }
+}
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
- * Portions copyright 2022 Wren Security
+ * Portions copyright 2022-2026 Wren Security
  */
 
 package org.forgerock.openam.session.service.access.persistence;
@@ -38,6 +38,7 @@ import org.forgerock.guice.core.InjectorHolder;
 import org.forgerock.json.JsonPointer;
 import org.forgerock.openam.cts.CTSPersistentStore;
 import org.forgerock.openam.cts.adapters.SessionAdapter;
+import org.forgerock.openam.cts.api.CTSOptions;
 import org.forgerock.openam.cts.api.fields.SessionTokenField;
 import org.forgerock.openam.cts.api.filter.TokenFilter;
 import org.forgerock.openam.cts.api.filter.TokenFilterBuilder;
@@ -49,12 +50,14 @@ import org.forgerock.openam.dpro.session.PartialSession;
 import org.forgerock.openam.dpro.session.PartialSessionFactory;
 import org.forgerock.openam.identity.idm.IdentityUtils;
 import org.forgerock.openam.session.SessionConstants;
+import org.forgerock.openam.session.service.access.SessionSummary;
 import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
 import org.forgerock.openam.tokens.CoreTokenField;
 import org.forgerock.openam.utils.CollectionUtils;
 import org.forgerock.openam.utils.CrestQuery;
 import org.forgerock.openam.utils.StringUtils;
 import org.forgerock.openam.utils.TimeUtils;
+import org.forgerock.util.Options;
 import org.forgerock.util.Reject;
 import org.forgerock.util.query.QueryFilter;
 
@@ -67,6 +70,7 @@ import com.iplanet.dpro.session.service.InternalSessionEventBroker;
 import com.iplanet.dpro.session.service.SessionService;
 import com.iplanet.dpro.session.service.SessionServiceConfig;
 import com.iplanet.dpro.session.service.SessionState;
+import com.iplanet.dpro.session.service.SessionType;
 import com.sun.identity.session.util.SessionUtilsWrapper;
 import com.sun.identity.shared.Constants;
 import com.sun.identity.shared.debug.Debug;
@@ -114,11 +118,27 @@ public class SessionPersistenceStore {
 
     /**
      * Persist the provided session to the CTS, or update it if it is already there.
+     * <p>
+     * If only the latest access time of the session has changed since it was last persisted, only the
+     * attributes derived from the access time are updated, and the session blob is not rewritten.
+     *
      * @param session The session to persist.
      * @throws CoreTokenException If the operation fails.
      */
     public void save(InternalSession session) throws CoreTokenException {
+        if (session.isContentPersisted()) {
+            try {
+                coreTokenService.update(tokenAdapter.toAccessTimeToken(session),
+                        Options.defaultOptions().set(CTSOptions.PARTIAL_UPDATE_OPTION, true));
+                return;
+            } catch (CoreTokenException e) {
+                debug.message("Failed to update session access time, performing full update", e);
+            }
+        }
+        // Read the version before serialising, so that a concurrent change forces the next save to be a full update
+        long contentVersion = session.getContentVersion();
         coreTokenService.update(tokenAdapter.toToken(session));
+        session.setPersistedContentVersion(contentVersion);
     }
 
     /**
@@ -153,6 +173,60 @@ public class SessionPersistenceStore {
         return getInternalSessionFromToken(token);
     }
 
+    /**
+     * Reads a summary of the specified session from the attributes of its token, without reading the session blob.
+     *
+     * @param sessionID Session ID.
+     * @return The summary of the session, or null if the session token is not in the CTS or does not hold the
+     * attributes of a summary.
+     * @throws CoreTokenException If the partial query CTS call fails.
+     */
+    public SessionSummary getSessionSummary(SessionID sessionID) throws CoreTokenException {
+        final String tokenId;
+        try {
+            tokenId = tokenIdFactory.toSessionTokenId(sessionID);
+        } catch (IllegalStateException e) {
+            // Not a session which can be stored in the CTS, for example a stateless session
+            return null;
+        }
+        TokenFilter filter = new TokenFilterBuilder()
+                .returnAttribute(SessionTokenField.SESSION_ID.getField())
+                .returnAttribute(SessionTokenField.UNIVERSAL_ID.getField())
+                .returnAttribute(SessionTokenField.SESSION_STATE.getField())
+                .returnAttribute(SessionTokenField.MAX_SESSION_EXPIRATION_TIME.getField())
+                .returnAttribute(SessionTokenField.MAX_IDLE_EXPIRATION_TIME.getField())
+                .returnAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField())
+                .and()
+                .withAttribute(CoreTokenField.TOKEN_ID, tokenId)
+                .build();
+        PartialToken partialToken = CollectionUtils.getFirstItem(coreTokenService.attributeQuery(filter));
+        if (partialToken == null) {
+            return null;
+        }
+        Collection<CoreTokenField> fields = partialToken.getFields();
+        if (!fields.contains(SessionTokenField.SESSION_ID.getField())
+                || !fields.contains(SessionTokenField.SESSION_STATE.getField())
+                || !fields.contains(SessionTokenField.MAX_SESSION_EXPIRATION_TIME.getField())
+                || !fields.contains(SessionTokenField.MAX_IDLE_EXPIRATION_TIME.getField())
+                || !fields.contains(SessionTokenField.LATEST_ACCESS_TIME.getField())) {
+            return null;
+        }
+        String universalId = fields.contains(SessionTokenField.UNIVERSAL_ID.getField())
+                ? partialToken.<String>getValue(SessionTokenField.UNIVERSAL_ID.getField())
+                : null;
+        String latestAccessTime = partialToken.getValue(SessionTokenField.LATEST_ACCESS_TIME.getField());
+        Calendar maxSessionExpirationTime =
+                partialToken.getValue(SessionTokenField.MAX_SESSION_EXPIRATION_TIME.getField());
+        Calendar maxIdleExpirationTime = partialToken.getValue(SessionTokenField.MAX_IDLE_EXPIRATION_TIME.getField());
+        return new SessionSummary(
+                partialToken.<String>getValue(SessionTokenField.SESSION_ID.getField()),
+                universalId,
+                SessionState.valueOf(partialToken.<String>getValue(SessionTokenField.SESSION_STATE.getField())),
+                maxSessionExpirationTime.getTimeInMillis(),
+                maxIdleExpirationTime.getTimeInMillis(),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(latestAccessTime)));
+    }
+
     /**
      * This will recover the specified session from the repository based on the provided session handle.
      * Returns null if no session was recovered.
@@ -214,6 +288,45 @@ public class SessionPersistenceStore {
         return results;
     }
 
+    /**
+     * Returns partial sessions for all the valid sessions in the CTS servers. Only the requested fields are read,
+     * so the session blobs are neither transferred nor deserialised. Application sessions are only returned if
+     * {@link SessionServiceConfig#isReturnAppSessionEnabled()}.
+     *
+     * @param fields The session fields to populate, or null or empty for all fields.
+     * @return The collection of all valid partial sessions.
+     * @throws CoreTokenException If the partial query CTS call fails.
+     */
+    public Collection<PartialSession> getValidPartialSessions(List<JsonPointer> fields) throws CoreTokenException {
+        FilterAttributeBuilder filterAttributeBuilder = new TokenFilterBuilder()
+                .withSizeLimit(sessionServiceConfig.getMaxSessionListSize())
+                .withTimeLimit(duration(10, TimeUnit.SECONDS)).and()
+                .withAttribute(SessionTokenField.SESSION_STATE.getField(), SessionState.VALID.toString());
+        addFieldsToFilter(filterAttributeBuilder, fields);
+        boolean userSessionsOnly = !sessionServiceConfig.isReturnAppSessionEnabled();
+        if (userSessionsOnly) {
+            filterAttributeBuilder.returnAttribute(SessionTokenField.SESSION_TYPE.getField());
+        }
+        final Collection<PartialToken> partialTokens = coreTokenService.attributeQuery(filterAttributeBuilder.build());
+        Collection<PartialSession> results = new ArrayList<>(partialTokens.size());
+        for (PartialToken partialToken : partialTokens) {
+            if (userSessionsOnly && isAppSession(partialToken)) {
+                continue;
+            }
+            results.add(partialSessionFactory.fromPartialToken(partialToken));
+        }
+        return results;
+    }
+
+    /**
+     * Sessions persisted before their type was stored as an attribute are treated as user sessions.
+     */
+    private boolean isAppSession(PartialToken partialToken) {
+        CoreTokenField typeField = SessionTokenField.SESSION_TYPE.getField();
+        return partialToken.getFields().contains(typeField)
+                && SessionType.APPLICATION.name().equals(partialToken.<String>getValue(typeField));
+    }
+
     private void addFieldsToFilter(FilterAttributeBuilder filterAttributeBuilder, List<JsonPointer> fields) {
         if (CollectionUtils.isNotEmpty(fields)) {
             for (JsonPointer field : fields) {
@@ -237,6 +350,7 @@ public class SessionPersistenceStore {
          * maintains the session expiry function.
          */
         InternalSession session = tokenAdapter.fromToken(token);
+        session.setPersistedContentVersion(session.getContentVersion());
         session.setSessionServiceDependencies(InjectorHolder.getInstance(SessionService.class),
                 InjectorHolder.getInstance(SessionServiceConfig.class),
                 InjectorHolder.getInstance(InternalSessionEventBroker.class),
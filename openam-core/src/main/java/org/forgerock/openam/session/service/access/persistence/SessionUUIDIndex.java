@@ -0,0 +1,321 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+import static org.forgerock.util.query.QueryFilter.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.forgerock.openam.cts.CTSPersistentStore;
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.fields.SessionTokenField;
+import org.forgerock.openam.cts.api.filter.TokenFilter;
+import org.forgerock.openam.cts.api.filter.TokenFilterBuilder;
+import org.forgerock.openam.cts.continuous.ChangeType;
+import org.forgerock.openam.cts.continuous.ContinuousQueryListener;
+import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.utils.GeneralizedTimeFormat;
+import org.forgerock.openam.session.SessionConstants;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.openam.tokens.TokenType;
+import org.forgerock.opendj.ldap.Attribute;
+import org.wrensecurity.guava.common.cache.Cache;
+import org.wrensecurity.guava.common.cache.CacheBuilder;
+import org.wrensecurity.guava.common.cache.CacheStats;
+
+import com.iplanet.dpro.session.SessionException;
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.InternalSessionEvent;
+import com.iplanet.dpro.session.service.InternalSessionListener;
+import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * A local index of the sessions held in the CTS for each user, used to answer session quota checks and other
+ * per user session queries without a round trip to the directory.
+ * <p>
+ * A user is added to the index the first time their sessions are queried, from the result of the CTS query.
+ * From then on the entry is kept up to date from {@link InternalSessionEvent}s for sessions on this server, and
+ * from a {@link ContinuousQueryListener} over session tokens for changes made by other servers. Because the
+ * continuous query is notified after the directory has applied a change, a session created or destroyed on
+ * another server may be missing from, or remain in, the index for the short time it takes the notification to
+ * arrive.
+ * <p>
+ * To avoid indexing a query result which was read before a concurrent change, each query records a generation
+ * for the user before it is dispatched. Every change advances the generation, and a query result is discarded
+ * if the generation has changed by the time it is indexed.
+ * <p>
+ * The index is disabled unless {@link SessionServiceConfig#getSessionUUIDIndexSize()} is positive. It is
+ * bypassed if the continuous query cannot be registered or fails, and the continuous query is registered again
+ * on the next lookup. The index is used again once the continuous query reports that its search has (re)started.
+ */
+@Singleton
+public class SessionUUIDIndex implements ContinuousQueryListener<Attribute>, InternalSessionListener {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<String, ConcurrentMap<String, Long>> index;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicBoolean registered = new AtomicBoolean(false);
+    private final CoreTokenConfig tokenConfig;
+    private final Provider<SessionPersistenceStore> persistenceStore;
+    private final Provider<CTSPersistentStore> store;
+    private final Debug debug;
+    private volatile boolean active = false;
+
+    /**
+     * @param sessionConfig Required to size the index.
+     * @param tokenConfig Required to derive the user ID and expiry time stored for a session.
+     * @param persistenceStore Required to query the CTS for users who are not indexed.
+     * @param store Required to register the continuous query.
+     * @param debug Required for debugging.
+     */
+    @Inject
+    public SessionUUIDIndex(SessionServiceConfig sessionConfig, CoreTokenConfig tokenConfig,
+            Provider<SessionPersistenceStore> persistenceStore, Provider<CTSPersistentStore> store,
+            @Named(SessionConstants.SESSION_DEBUG) Debug debug) {
+        this.tokenConfig = tokenConfig;
+        this.persistenceStore = persistenceStore;
+        this.store = store;
+        this.debug = debug;
+        if (sessionConfig.getSessionUUIDIndexSize() > 0) {
+            this.index = CacheBuilder.newBuilder()
+                    .maximumSize(sessionConfig.getSessionUUIDIndexSize())
+                    .recordStats()
+                    .build();
+        } else {
+            this.index = null;
+        }
+    }
+
+    /**
+     * Returns the expiration information of all sessions belonging to a user, from the index if the user is
+     * indexed, and otherwise from the CTS.
+     *
+     * @param uuid Non null user's universal unique ID.
+     * @return A non null map of session ID to expiration time in seconds since the epoch.
+     * @throws SessionException If the CTS could not be queried.
+     * @see SessionPersistenceStore#getAllSessionsByUUID(String)
+     */
+    public Map<String, Long> getAllSessionsByUUID(String uuid) throws SessionException {
+        if (index == null) {
+            return persistenceStore.get().getAllSessionsByUUID(uuid);
+        }
+        registerContinuousQuery();
+        if (!active) {
+            return persistenceStore.get().getAllSessionsByUUID(uuid);
+        }
+
+        String userId = normalise(uuid);
+        Map<String, Long> sessions = index.getIfPresent(userId);
+        if (sessions != null) {
+            return unexpired(sessions);
+        }
+
+        long generation = generations.get(stripe(userId));
+        Map<String, Long> result = persistenceStore.get().getAllSessionsByUUID(uuid);
+        ConcurrentMap<String, Long> entry = new ConcurrentHashMap<>();
+        for (Map.Entry<String, Long> session : result.entrySet()) {
+            if (session.getKey() != null && session.getValue() != null) {
+                entry.put(session.getKey(), session.getValue());
+            }
+        }
+        index.put(userId, entry);
+        // Re-check after the put, so that a change racing with the query cannot be lost
+        if (generations.get(stripe(userId)) != generation) {
+            index.invalidate(userId);
+        }
+        return result;
+    }
+
+    @Override
+    public void onEvent(InternalSessionEvent event) {
+        if (index == null) {
+            return;
+        }
+        InternalSession session = event.getInternalSession();
+        if (session.getUUID() == null) {
+            return;
+        }
+        switch (event.getType()) {
+        case SESSION_CREATION:
+            add(tokenConfig.getUserId(session), session.getID().toString(), MILLISECONDS.toSeconds(
+                    session.getExpirationTime(MILLISECONDS) + tokenConfig.getSessionExpiryGracePeriod(MILLISECONDS)));
+            break;
+        case IDLE_TIMEOUT:
+        case MAX_TIMEOUT:
+        case LOGOUT:
+        case DESTROY:
+            remove(tokenConfig.getUserId(session), session.getID().toString());
+            break;
+        default:
+            break;
+        }
+    }
+
+    @Override
+    public void objectChanged(String tokenId, Map<String, Attribute> changeSet, ChangeType changeType) {
+        String userId = value(changeSet, CoreTokenField.USER_ID);
+        String sessionId = value(changeSet, SessionTokenField.SESSION_ID.getField());
+        if (userId == null || sessionId == null) {
+            debug.warning("SessionUUIDIndex: Change to session token {} did not include its user, clearing index",
+                    tokenId);
+            invalidateAll();
+            return;
+        }
+        if (changeType == ChangeType.DELETE) {
+            remove(userId, sessionId);
+            return;
+        }
+        String expiryDate = value(changeSet, CoreTokenField.EXPIRY_DATE);
+        add(userId, sessionId,
+                expiryDate == null ? Long.MAX_VALUE : MILLISECONDS.toSeconds(GeneralizedTimeFormat.parse(expiryDate)));
+    }
+
+    @Override
+    public void objectsChanged(Set<String> tokenIds) {
+        invalidateAll();
+    }
+
+    @Override
+    public void connectionLost() {
+        debug.warning("SessionUUIDIndex: Continuous query (re)connected, clearing index");
+        invalidateAll();
+        // The continuous query calls this each time its search (re)starts, so changes are flowing again
+        if (registered.get()) {
+            active = true;
+        }
+    }
+
+    @Override
+    public void processError(DataLayerException error) {
+        debug.error("SessionUUIDIndex: Continuous query failed, suspending index", error);
+        active = false;
+        invalidateAll();
+        registered.set(false);
+    }
+
+    /**
+     * @return The approximate number of users in the index.
+     */
+    public long size() {
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * @return The number of queries answered from the index.
+     */
+    public long getHitCount() {
+        return stats().hitCount();
+    }
+
+    /**
+     * @return The number of queries which were passed to the CTS.
+     */
+    public long getMissCount() {
+        return stats().missCount();
+    }
+
+    private void registerContinuousQuery() {
+        if (!registered.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            store.get().addContinuousQueryListener(this, getTokenFilter());
+            active = true;
+        } catch (CoreTokenException e) {
+            debug.error("SessionUUIDIndex: Unable to register continuous query, suspending index", e);
+            registered.set(false);
+        }
+    }
+
+    private void add(String userId, String sessionId, long expiryTime) {
+        generations.incrementAndGet(stripe(userId));
+        ConcurrentMap<String, Long> sessions = index.getIfPresent(userId);
+        if (sessions != null) {
+            sessions.put(sessionId, expiryTime);
+        }
+    }
+
+    private void remove(String userId, String sessionId) {
+        generations.incrementAndGet(stripe(userId));
+        ConcurrentMap<String, Long> sessions = index.getIfPresent(userId);
+        if (sessions != null) {
+            sessions.remove(sessionId);
+        }
+    }
+
+    private void invalidateAll() {
+        if (index == null) {
+            return;
+        }
+        for (int ii = 0; ii < GENERATION_STRIPES; ii++) {
+            generations.incrementAndGet(ii);
+        }
+        index.invalidateAll();
+    }
+
+    private String normalise(String uuid) {
+        return tokenConfig.isCaseSensitiveUserId() ? uuid : uuid.toLowerCase();
+    }
+
+    private CacheStats stats() {
+        return index == null ? new CacheStats(0, 0, 0, 0, 0, 0) : index.stats();
+    }
+
+    private static Map<String, Long> unexpired(Map<String, Long> sessions) {
+        long now = MILLISECONDS.toSeconds(currentTimeMillis());
+        Map<String, Long> result = new HashMap<>();
+        for (Map.Entry<String, Long> session : sessions.entrySet()) {
+            if (session.getValue() > now) {
+                result.put(session.getKey(), session.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static String value(Map<String, Attribute> changeSet, CoreTokenField field) {
+        Attribute attribute = changeSet.get(field.toString());
+        return attribute == null || attribute.isEmpty() ? null : attribute.firstValueAsString();
+    }
+
+    private static TokenFilter getTokenFilter() {
+        return new TokenFilterBuilder()
+                .returnAttribute(CoreTokenField.USER_ID)
+                .returnAttribute(SessionTokenField.SESSION_ID.getField())
+                .returnAttribute(CoreTokenField.EXPIRY_DATE)
+                .withQuery(equalTo(CoreTokenField.TOKEN_TYPE, TokenType.SESSION))
+                .build();
+    }
+
+    private static int stripe(String userId) {
+        return (userId.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+}
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
- * Portions copyright 2022 Wren Security
+ * Portions copyright 2022-2026 Wren Security
  */
 
 package org.forgerock.openam.session.service.access.persistence.caching;
@@ -36,6 +36,9 @@ import org.wrensecurity.guava.common.base.Throwables;
 import org.wrensecurity.guava.common.cache.Cache;
 import org.wrensecurity.guava.common.cache.CacheBuilder;
 import org.wrensecurity.guava.common.cache.CacheStats;
+import org.wrensecurity.guava.common.cache.RemovalCause;
+import org.wrensecurity.guava.common.cache.RemovalListener;
+import org.wrensecurity.guava.common.cache.RemovalNotification;
 import org.wrensecurity.guava.common.cache.Weigher;
 import org.wrensecurity.guava.common.collect.ImmutableMap;
 import org.forgerock.openam.session.SessionConstants;
@@ -54,6 +57,9 @@ import com.sun.identity.shared.debug.Debug;
 
 /**
  * Session cache implemented using a simple in-memory cache data structure.
+ * <p>
+ * Sessions evicted from the cache for space are passed to the {@link OffHeapInternalSessionCacheStep}, which holds
+ * them outside of the Java heap if it is enabled.
  */
 public class InMemoryInternalSessionCacheStep implements InternalSessionStoreStep {
 
@@ -63,15 +69,18 @@ public class InMemoryInternalSessionCacheStep implements InternalSessionStoreSte
      */
     private final AtomicStampedReference<Cache<String, InternalSession>> cache;
     private final SessionServiceConfig sessionConfig;
+    private final OffHeapInternalSessionCacheStep offHeapCache;
     private final Debug debug;
 
     @Inject
     @VisibleForTesting
     InMemoryInternalSessionCacheStep(SessionServiceConfig sessionConfig,
                                      @Named(SessionConstants.SESSION_DEBUG) Debug sessionDebug,
-                                     SessionModificationWatcher watcher) {
+                                     SessionModificationWatcher watcher,
+                                     OffHeapInternalSessionCacheStep offHeapCache) {
         final int maxCacheSize = sessionConfig.getMaxSessionCacheSize();
         this.sessionConfig = sessionConfig;
+        this.offHeapCache = offHeapCache;
         this.cache = new AtomicStampedReference<>(buildCache(maxCacheSize), maxCacheSize);
         this.debug = sessionDebug;
 
@@ -239,7 +248,7 @@ public class InMemoryInternalSessionCacheStep implements InternalSessionStoreSte
         return currentCache;
     }
 
-    private static Cache<String, InternalSession> buildCache(final int maxCacheSize) {
+    private Cache<String, InternalSession> buildCache(final int maxCacheSize) {
         if (maxCacheSize <= 0) {
             return EmptyCache.INSTANCE;
         }
@@ -248,9 +257,27 @@ public class InMemoryInternalSessionCacheStep implements InternalSessionStoreSte
                     .maximumWeight(maxCacheSize)
                     .weigher(new SessionIDWeigher())
                     .softValues()
+                    .removalListener(new RemovalListener<String, InternalSession>() {
+                        @Override
+                        public void onRemoval(RemovalNotification<String, InternalSession> notification) {
+                            demote(notification);
+                        }
+                    })
                     .build();
     }
 
+    /**
+     * Passes a session evicted for space to the off-heap cache. Only the entry for the master session ID is
+     * passed, as the off-heap cache indexes the session by its handle and restricted tokens itself.
+     */
+    private void demote(RemovalNotification<String, InternalSession> notification) {
+        InternalSession session = notification.getValue();
+        if (notification.getCause() == RemovalCause.SIZE && session != null
+                && StringUtils.isEqualTo(notification.getKey(), session.getID().toString())) {
+            offHeapCache.demote(session);
+        }
+    }
+
     /**
      * A custom {@link Weigher} for the cache that only counts the master session ID as having weight, and the
      * session handle and restricted tokens as being "free". This ensures that we only count each session object once
@@ -0,0 +1,229 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence.caching;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.forgerock.guice.core.InjectorHolder;
+import org.forgerock.openam.cts.utils.BinaryJSONSerialisation;
+import org.forgerock.openam.session.SessionConstants;
+import org.forgerock.openam.session.service.access.persistence.InternalSessionStore;
+import org.forgerock.openam.session.service.access.persistence.InternalSessionStoreStep;
+import org.forgerock.openam.session.service.access.persistence.SessionPersistenceException;
+import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationListener;
+import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationWatcher;
+import org.forgerock.util.annotations.VisibleForTesting;
+
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.InternalSessionEventBroker;
+import com.iplanet.dpro.session.service.SessionConstraint;
+import com.iplanet.dpro.session.service.SessionService;
+import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.sun.identity.session.util.SessionUtilsWrapper;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * An off-heap tier of the internal session cache, holding sessions which have been evicted from the
+ * {@link InMemoryInternalSessionCacheStep} for space.
+ * <p>
+ * Evicted sessions are serialised with the same binary encoding as the session blobs written to the CTS, and held in
+ * an {@link OffHeapSessionArena} of direct buffers, so a much larger number of sessions can be cached without
+ * adding to the Java heap. A session found in this tier is deserialised and returned up the chain, where it is
+ * cached in memory again, and so is removed from this tier. When the tier is full, the sessions which were evicted
+ * from memory first are discarded first.
+ * <p>
+ * This step must follow the step which sets the persistence manager of sessions read from the store, as sessions
+ * are recreated here. The size of the tier is read when the server starts. If it is not positive, the tier is
+ * disabled and all requests are passed straight through.
+ *
+ * @see SessionServiceConfig#getOffHeapSessionCacheSize()
+ */
+@Singleton
+public class OffHeapInternalSessionCacheStep implements InternalSessionStoreStep {
+
+    private static final int SEGMENT_COUNT = 64;
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final OffHeapSessionArena arena;
+    private final BinaryJSONSerialisation serialisation;
+    private final Debug debug;
+
+    /**
+     * @param sessionConfig Required to size the tier.
+     * @param serialisation Required to serialise and deserialise sessions.
+     * @param debug Required for debugging.
+     * @param watcher Required to discard sessions changed by other servers.
+     */
+    @Inject
+    public OffHeapInternalSessionCacheStep(SessionServiceConfig sessionConfig, BinaryJSONSerialisation serialisation,
+            @Named(SessionConstants.SESSION_DEBUG) Debug debug, SessionModificationWatcher watcher) {
+        this.arena = createArena(sessionConfig.getOffHeapSessionCacheSize() * BYTES_PER_MEGABYTE);
+        this.serialisation = serialisation;
+        this.debug = debug;
+
+        if (arena != null) {
+            watcher.addListener(new SessionModificationListener() {
+                @Override
+                public void sessionChanged(SessionID sessionID) {
+                    arena.remove(sessionID.toString());
+                }
+            });
+        }
+    }
+
+    @Override
+    public InternalSession getBySessionID(SessionID sessionID, InternalSessionStore next)
+            throws SessionPersistenceException {
+        InternalSession session = take(sessionID.toString());
+        return session != null ? session : next.getBySessionID(sessionID);
+    }
+
+    @Override
+    public InternalSession getByHandle(String sessionHandle, InternalSessionStore next)
+            throws SessionPersistenceException {
+        InternalSession session = take(sessionHandle);
+        return session != null ? session : next.getByHandle(sessionHandle);
+    }
+
+    @Override
+    public InternalSession getByRestrictedID(SessionID sessionID, InternalSessionStore next)
+            throws SessionPersistenceException {
+        InternalSession session = take(sessionID.toString());
+        return session != null ? session : next.getByRestrictedID(sessionID);
+    }
+
+    @Override
+    public void store(InternalSession session, InternalSessionStore next) throws SessionPersistenceException {
+        next.store(session);
+        // The stored session is cached in memory, so any copy held here is out of date
+        if (arena != null) {
+            arena.remove(session.getID().toString());
+        }
+    }
+
+    @Override
+    public void remove(InternalSession session, InternalSessionStore next) throws SessionPersistenceException {
+        if (arena != null) {
+            arena.remove(session.getID().toString());
+        }
+        next.remove(session);
+    }
+
+    /**
+     * Adds a session which has been evicted from the in-memory cache to this tier.
+     *
+     * @param session The non null evicted session.
+     */
+    void demote(InternalSession session) {
+        if (arena == null || !session.isStored()) {
+            return;
+        }
+        List<String> aliases = new ArrayList<>();
+        if (session.getSessionHandle() != null) {
+            aliases.add(session.getSessionHandle());
+        }
+        for (SessionID restrictedToken : session.getRestrictedTokens()) {
+            aliases.add(restrictedToken.toString());
+        }
+        try {
+            if (!arena.put(session.getID().toString(), aliases, serialisation.serialise(session))) {
+                debug.message("OffHeapInternalSessionCacheStep: Session is too large to cache off heap");
+            }
+        } catch (RuntimeException e) {
+            debug.warning("OffHeapInternalSessionCacheStep: Failed to serialise session for off heap cache", e);
+        }
+    }
+
+    /**
+     * @return The number of sessions held in this tier.
+     */
+    public long size() {
+        return arena == null ? 0 : arena.size();
+    }
+
+    /**
+     * @return The total size in bytes of the serialised sessions held in this tier.
+     */
+    public long getUsedBytes() {
+        return arena == null ? 0 : arena.usedBytes();
+    }
+
+    /**
+     * @return The number of lookups which found a session in this tier.
+     */
+    public long getHitCount() {
+        return arena == null ? 0 : arena.hitCount();
+    }
+
+    /**
+     * @return The number of lookups which did not find a session in this tier.
+     */
+    public long getMissCount() {
+        return arena == null ? 0 : arena.missCount();
+    }
+
+    /**
+     * @return The number of sessions discarded from this tier to make space for others.
+     */
+    public long getEvictionCount() {
+        return arena == null ? 0 : arena.evictionCount();
+    }
+
+    @VisibleForTesting
+    InternalSession recreate(byte[] blob) {
+        InternalSession session = serialisation.deserialise(serialisation.deserialise(blob), InternalSession.class);
+        session.setPersistedContentVersion(session.getContentVersion());
+        session.setSessionServiceDependencies(InjectorHolder.getInstance(SessionService.class),
+                InjectorHolder.getInstance(SessionServiceConfig.class),
+                InjectorHolder.getInstance(InternalSessionEventBroker.class),
+                InjectorHolder.getInstance(SessionUtilsWrapper.class),
+                InjectorHolder.getInstance(SessionConstraint.class),
+                debug);
+        return session;
+    }
+
+    private InternalSession take(String key) {
+        if (arena == null) {
+            return null;
+        }
+        byte[] blob = arena.take(key);
+        if (blob == null) {
+            return null;
+        }
+        try {
+            return recreate(blob);
+        } catch (RuntimeException e) {
+            debug.warning("OffHeapInternalSessionCacheStep: Failed to deserialise session from off heap cache", e);
+            return null;
+        }
+    }
+
+    private static OffHeapSessionArena createArena(long capacity) {
+        if (capacity <= 0) {
+            return null;
+        }
+        int segmentSize = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_SEGMENT_SIZE, capacity / SEGMENT_COUNT));
+        int segmentCount = (int) Math.max(1, capacity / segmentSize);
+        return new OffHeapSessionArena(segmentCount, segmentSize);
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence.caching;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A fixed capacity store of binary values held in direct {@link ByteBuffer} segments outside of the Java heap.
+ * <p>
+ * Values are appended to the current segment in the order they are written. When a value does not fit in the
+ * current segment, the write moves on to the next segment in turn, and every value still held in that segment is
+ * evicted. Values are therefore evicted in the order they were written, and the space of a removed or replaced
+ * value is reclaimed when its segment is next reused. Each value may be looked up by its key or by any of a set of
+ * aliases, which are removed with the value.
+ * <p>
+ * Segments are allocated when they are first written to, so the capacity is reserved only as it is used.
+ */
+final class OffHeapSessionArena {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ByteBuffer[] segments;
+    private final List<List<Entry>> segmentEntries;
+    private final int segmentSize;
+    private final Map<String, Entry> index = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private int currentSegment = 0;
+    private int position = 0;
+    private int entryCount = 0;
+    private long usedBytes = 0;
+
+    /**
+     * @param segmentCount The number of segments, which must be positive.
+     * @param segmentSize The size of each segment in bytes, which limits the size of a single value.
+     */
+    OffHeapSessionArena(int segmentCount, int segmentSize) {
+        if (segmentCount <= 0 || segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment count and size must be positive");
+        }
+        this.segments = new ByteBuffer[segmentCount];
+        this.segmentEntries = new ArrayList<>(segmentCount);
+        for (int ii = 0; ii < segmentCount; ii++) {
+            segmentEntries.add(new ArrayList<Entry>());
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Stores a value, replacing any value previously stored under the key or any of the aliases.
+     *
+     * @param key The non null key of the value.
+     * @param aliases The non null other keys by which the value may be found.
+     * @param value The non null value.
+     * @return False if the value is larger than a segment and so was not stored.
+     */
+    boolean put(String key, Collection<String> aliases, byte[] value) {
+        if (value.length > segmentSize) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            removeEntry(index.get(key));
+            for (String alias : aliases) {
+                removeEntry(index.get(alias));
+            }
+            if (position + value.length > segmentSize) {
+                currentSegment = (currentSegment + 1) % segments.length;
+                position = 0;
+                evictSegment(currentSegment);
+            }
+            ByteBuffer segment = segments[currentSegment];
+            if (segment == null) {
+                segment = ByteBuffer.allocateDirect(segmentSize);
+                segments[currentSegment] = segment;
+            }
+            ByteBuffer target = segment.duplicate();
+            target.position(position);
+            target.put(value);
+
+            Entry entry = new Entry(key, new ArrayList<>(aliases), currentSegment, position, value.length);
+            position += value.length;
+            segmentEntries.get(currentSegment).add(entry);
+            index.put(key, entry);
+            for (String alias : aliases) {
+                index.put(alias, entry);
+            }
+            entryCount++;
+            usedBytes += value.length;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up and removes a value, along with all of its aliases, counting the lookup as a hit or a miss.
+     *
+     * @param key The key or an alias of the value.
+     * @return A copy of the removed value, or null if no value was stored under the key.
+     */
+    byte[] take(String key) {
+        byte[] value = remove(key);
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Removes a value, along with all of its aliases.
+     *
+     * @param key The key or an alias of the value.
+     * @return A copy of the removed value, or null if no value was stored under the key.
+     */
+    byte[] remove(String key) {
+        // Most lookups miss, so check under the read lock before taking the write lock
+        lock.readLock().lock();
+        try {
+            if (!index.containsKey(key)) {
+                return null;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            Entry entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            byte[] value = read(entry);
+            removeEntry(entry);
+            return value;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all values. Allocated segments are kept for reuse.
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            for (List<Entry> entries : segmentEntries) {
+                entries.clear();
+            }
+            currentSegment = 0;
+            position = 0;
+            entryCount = 0;
+            usedBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of values stored.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entryCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The total size in bytes of the values stored.
+     */
+    long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The total size in bytes of the segments.
+     */
+    long capacity() {
+        return (long) segments.length * segmentSize;
+    }
+
+    /**
+     * @return The number of lookups which found a value.
+     */
+    long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of lookups which did not find a value.
+     */
+    long missCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of values evicted to make space for others.
+     */
+    long evictionCount() {
+        return evictions.get();
+    }
+
+    private byte[] read(Entry entry) {
+        ByteBuffer source = segments[entry.segment].duplicate();
+        source.position(entry.offset);
+        byte[] value = new byte[entry.length];
+        source.get(value);
+        return value;
+    }
+
+    private void evictSegment(int segment) {
+        List<Entry> entries = segmentEntries.get(segment);
+        for (Entry entry : entries) {
+            if (!entry.removed) {
+                evictions.incrementAndGet();
+                removeEntry(entry);
+            }
+        }
+        entries.clear();
+    }
+
+    private void removeEntry(Entry entry) {
+        if (entry == null || entry.removed) {
+            return;
+        }
+        entry.removed = true;
+        index.remove(entry.key);
+        for (String alias : entry.aliases) {
+            index.remove(alias);
+        }
+        entryCount--;
+        usedBytes -= entry.length;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final Collection<String> aliases;
+        private final int segment;
+        private final int offset;
+        private final int length;
+        private boolean removed = false;
+
+        private Entry(String key, Collection<String> aliases, int segment, int offset, int length) {
+            this.key = key;
+            this.aliases = aliases;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
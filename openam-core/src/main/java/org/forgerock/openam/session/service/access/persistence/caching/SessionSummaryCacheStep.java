@@ -0,0 +1,215 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence.caching;
+
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.session.SessionConstants;
+import org.forgerock.openam.session.service.access.SessionSummary;
+import org.forgerock.openam.session.service.access.persistence.AbstractInternalSessionStoreStep;
+import org.forgerock.openam.session.service.access.persistence.InternalSessionStore;
+import org.forgerock.openam.session.service.access.persistence.SessionPersistenceException;
+import org.forgerock.openam.session.service.access.persistence.SessionPersistenceStore;
+import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationListener;
+import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationWatcher;
+import org.forgerock.util.annotations.VisibleForTesting;
+import org.wrensecurity.guava.common.cache.Cache;
+import org.wrensecurity.guava.common.cache.CacheBuilder;
+
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Caches a {@link SessionSummary} of sessions, so that session validation requests can be answered without reading
+ * or deserialising the full session.
+ * <p>
+ * Summaries are taken from sessions as they are read and stored on this server, and otherwise read from the attributes of the
+ * session token in the CTS. A summary is discarded when its session is removed from this server, or changed on
+ * another server. Because a summary only ever understates how recently its session was accessed, a summary which
+ * has become stale through access alone can make a valid session look expired, but never the reverse; callers fall
+ * back to reading the full session in that case.
+ * <p>
+ * A summary read from the CTS is discarded if its session changed while it was being read, using a generation per
+ * stripe of session IDs which every change advances.
+ * <p>
+ * The cache is disabled unless {@link SessionServiceConfig#getSessionSummaryCacheSize()} is positive.
+ */
+@Singleton
+public class SessionSummaryCacheStep extends AbstractInternalSessionStoreStep {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<String, SessionSummary> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Provider<SessionPersistenceStore> persistenceStore;
+    private final long accessTimeWindow;
+    private final Debug debug;
+
+    /**
+     * @param sessionConfig Required to size the cache and read the access time write window.
+     * @param persistenceStore Required to read summaries which are not cached.
+     * @param debug Required for debugging.
+     * @param watcher Required to discard summaries of sessions changed on other servers.
+     */
+    @Inject
+    public SessionSummaryCacheStep(SessionServiceConfig sessionConfig,
+            Provider<SessionPersistenceStore> persistenceStore, @Named(SessionConstants.SESSION_DEBUG) Debug debug,
+            SessionModificationWatcher watcher) {
+        this.persistenceStore = persistenceStore;
+        this.accessTimeWindow = sessionConfig.getAccessTimeWriteWindow();
+        this.debug = debug;
+        if (sessionConfig.getSessionSummaryCacheSize() > 0) {
+            this.cache = CacheBuilder.newBuilder()
+                    .maximumSize(sessionConfig.getSessionSummaryCacheSize())
+                    .build();
+            watcher.addListener(new SessionModificationListener() {
+                @Override
+                public void sessionChanged(SessionID sessionID) {
+                    invalidate(sessionID.toString());
+                }
+            });
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * @return True if session validation may be answered from a session summary.
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns a summary of the session if it shows the session to be valid, and is suitable for answering a
+     * validation request on its own.
+     * <p>
+     * A validation request which would reset the idle time of the session is only answered from a summary if the
+     * session was accessed within the access time write window, so that not resetting the idle time loses no more
+     * of it than coalescing access time writes does. If the window is not positive, such requests are never answered
+     * from a summary.
+     *
+     * @param sessionID Non null ID of the session, which must be its master session ID.
+     * @param resetIdleTime True if the request would reset the idle time of the session.
+     * @return The summary, or null if the full session must be read to answer the request.
+     */
+    public SessionSummary getValidSessionSummary(SessionID sessionID, boolean resetIdleTime) {
+        if (cache == null || (resetIdleTime && accessTimeWindow <= 0)) {
+            return null;
+        }
+        SessionSummary summary = getSessionSummary(sessionID);
+        long now = currentTimeMillis();
+        if (summary == null || !summary.isValid(now)) {
+            return null;
+        }
+        if (resetIdleTime && summary.getLatestAccessTime() < now - accessTimeWindow) {
+            return null;
+        }
+        return summary;
+    }
+
+    @Override
+    public InternalSession getBySessionID(SessionID sessionID, InternalSessionStore next)
+            throws SessionPersistenceException {
+        if (cache == null) {
+            return next.getBySessionID(sessionID);
+        }
+        String key = sessionID.toString();
+        long generation = generations.get(stripe(key));
+        InternalSession session = next.getBySessionID(sessionID);
+        if (session != null && session.isStored() && key.equals(session.getID().toString())) {
+            put(key, SessionSummary.of(session), generation);
+        }
+        return session;
+    }
+
+    @Override
+    public void store(InternalSession session, InternalSessionStore next) throws SessionPersistenceException {
+        if (cache == null) {
+            next.store(session);
+            return;
+        }
+        String key = session.getID().toString();
+        invalidate(key);
+        long generation = generations.get(stripe(key));
+        next.store(session);
+        put(key, SessionSummary.of(session), generation);
+    }
+
+    @Override
+    public void remove(InternalSession session, InternalSessionStore next) throws SessionPersistenceException {
+        if (cache != null) {
+            invalidate(session.getID().toString());
+        }
+        next.remove(session);
+    }
+
+    @VisibleForTesting
+    long size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    /**
+     * Returns the cached summary of the session, reading it from the CTS if it is not cached. Only a summary for
+     * exactly the given session ID is returned, so restricted tokens and session IDs which merely share a storage
+     * key are never answered from a summary.
+     */
+    private SessionSummary getSessionSummary(SessionID sessionID) {
+        String key = sessionID.toString();
+        SessionSummary summary = cache.getIfPresent(key);
+        if (summary == null) {
+            long generation = generations.get(stripe(key));
+            try {
+                summary = persistenceStore.get().getSessionSummary(sessionID);
+            } catch (CoreTokenException e) {
+                debug.warning("SessionSummaryCacheStep: Failed to read summary of session {}", sessionID, e);
+                return null;
+            }
+            if (summary == null || !key.equals(summary.getSessionID())) {
+                return null;
+            }
+            put(key, summary, generation);
+        }
+        return summary;
+    }
+
+    private void put(String key, SessionSummary summary, long generation) {
+        cache.put(key, summary);
+        // Re-check after the put, so that a change racing with the read cannot be lost
+        if (generations.get(stripe(key)) != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    private void invalidate(String key) {
+        generations.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+}
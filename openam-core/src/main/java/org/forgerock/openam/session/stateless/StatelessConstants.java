@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.session.stateless;
 
@@ -23,4 +24,10 @@ public class StatelessConstants {
      * System Property for Stateless JWT Cache sizing.
      */
     public static final String STATELESS_JWT_CACHE_MAX_SIZE = "org.forgerock.session.stateless.jwtcache.size";
+
+    /**
+     * System Property for sizing the cache of verified JWT claims held by each JWT session mapper.
+     */
+    public static final String STATELESS_VERIFIED_CLAIMS_CACHE_MAX_SIZE =
+            "org.forgerock.session.stateless.claimscache.size";
 }
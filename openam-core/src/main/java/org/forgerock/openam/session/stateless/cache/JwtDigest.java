@@ -0,0 +1,64 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.stateless.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * The SHA-256 digest of a serialised JWT, used in place of the JWT as a compact cache key.
+ * <p>
+ * The digest is uniformly distributed, so its leading bytes are used as the hash code.
+ */
+public final class JwtDigest {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final ThreadLocal<MessageDigest> DIGEST = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance(DIGEST_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("JWT digest requires " + DIGEST_ALGORITHM, e);
+            }
+        }
+    };
+
+    private final byte[] digest;
+    private final int hash;
+
+    /**
+     * @param jwt Non null serialised JWT.
+     */
+    public JwtDigest(String jwt) {
+        this.digest = DIGEST.get().digest(jwt.getBytes(StandardCharsets.UTF_8));
+        this.hash = (digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16 | (digest[2] & 0xFF) << 8
+                | (digest[3] & 0xFF);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof JwtDigest && Arrays.equals(digest, ((JwtDigest) o).digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -12,19 +12,21 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.session.stateless.cache;
 
-import java.util.Collections;
-import java.util.Map;
+import static java.util.concurrent.TimeUnit.*;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.forgerock.openam.session.stateless.StatelessConfig;
-import org.forgerock.openam.utils.collections.LeastRecentlyUsed;
 import org.forgerock.util.Reject;
 import org.forgerock.util.annotations.VisibleForTesting;
+import org.wrensecurity.guava.common.cache.Cache;
+import org.wrensecurity.guava.common.cache.CacheBuilder;
 
 import com.iplanet.dpro.session.service.SessionServiceConfig;
 import com.iplanet.dpro.session.share.SessionInfo;
@@ -41,16 +43,25 @@ import com.iplanet.services.naming.ServiceListeners;
  *
  * Assumption: There is only one representation of a JWT to the SessionInfo it contains.
  *
- * Thread Safety: This class uses a synchronized data structure and so is thread safe.
+ * Entries are keyed on the SHA-256 digest of the JWT rather than the JWT itself, which keeps the keys small
+ * regardless of the size of the session. Each entry is only returned until the session it holds would have
+ * expired, either because its maximum session time has been reached or because it has been idle for longer
+ * than its maximum idle time, as a JWT cannot be refreshed without being replaced.
+ *
+ * Thread Safety: This class uses a segmented concurrent cache, so lookups do not contend on a single lock.
  */
 @Singleton
 public class StatelessJWTCache {
-    private final Map<String, SessionInfo> sessionInfoCache;
+
+    private final Cache<JwtDigest, CachedSessionInfo> sessionInfoCache;
 
     @Inject
     public StatelessJWTCache(StatelessConfig config, ServiceListeners listeners) {
-        sessionInfoCache = Collections.synchronizedMap(
-                new LeastRecentlyUsed<String, SessionInfo>(config.getJWTCacheSize()));
+        sessionInfoCache = CacheBuilder.newBuilder()
+                .maximumSize(config.getJWTCacheSize())
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .recordStats()
+                .build();
 
         // Responds to configuration changes, preventing possibly invalid keys from remaining in the cache
         final ServiceListeners.Action action = new ServiceListeners.Action() {
@@ -70,7 +81,7 @@ public class StatelessJWTCache {
      */
     public void cache(SessionInfo info, String jwtToken) {
         Reject.ifNull(info, jwtToken, "Arguments cannot be null.");
-        sessionInfoCache.put(jwtToken, info);
+        sessionInfoCache.put(new JwtDigest(jwtToken), new CachedSessionInfo(info));
     }
 
     /**
@@ -78,15 +89,35 @@ public class StatelessJWTCache {
      * @return Possibly null. Cached SessionInfo that corresponds to the given JWT token.
      */
     public SessionInfo getSessionInfo(String jwt) {
-        return sessionInfoCache.get(jwt);
+        if (jwt == null) {
+            return null;
+        }
+        JwtDigest key = new JwtDigest(jwt);
+        CachedSessionInfo cached = sessionInfoCache.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired()) {
+            sessionInfoCache.invalidate(key);
+            return null;
+        }
+        return cached.info;
     }
 
     /**
+     * Tests whether the SessionInfo is cached. This requires a scan of the cache and should be avoided on
+     * performance sensitive paths.
+     *
      * @param info Non null SessionInfo to test.
      * @return True if there is a JWT representation for this SessionInfo.
      */
     public boolean contains(SessionInfo info) {
-        return sessionInfoCache.containsValue(info);
+        for (CachedSessionInfo cached : sessionInfoCache.asMap().values()) {
+            if (cached.info.equals(info) && !cached.isExpired()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -94,7 +125,7 @@ public class StatelessJWTCache {
      * @return True if this JWT has been stored in the cache previously.
      */
     public boolean contains(String jwtToken) {
-        return sessionInfoCache.containsKey(jwtToken);
+        return getSessionInfo(jwtToken) != null;
     }
 
     /**
@@ -103,7 +134,37 @@ public class StatelessJWTCache {
      * @param jwt the JWT to remove from the cache.
      */
     public void remove(String jwt) {
-        sessionInfoCache.remove(jwt);
+        if (jwt != null) {
+            sessionInfoCache.invalidate(new JwtDigest(jwt));
+        }
+    }
+
+    /**
+     * @return The proportion of lookups which were served from the cache, or 1.0 if there have been no lookups.
+     */
+    public double getHitRate() {
+        return sessionInfoCache.stats().hitRate();
+    }
+
+    /**
+     * @return The number of lookups which were served from the cache.
+     */
+    public long getHitCount() {
+        return sessionInfoCache.stats().hitCount();
+    }
+
+    /**
+     * @return The number of lookups which were not served from the cache.
+     */
+    public long getMissCount() {
+        return sessionInfoCache.stats().missCount();
+    }
+
+    /**
+     * @return The number of entries removed from the cache to keep it within its configured size.
+     */
+    public long getEvictionCount() {
+        return sessionInfoCache.stats().evictionCount();
     }
 
     /**
@@ -114,6 +175,29 @@ public class StatelessJWTCache {
      */
     @VisibleForTesting
     void clear() {
-        sessionInfoCache.clear();
+        sessionInfoCache.invalidateAll();
+    }
+
+    /**
+     * A cached SessionInfo with the time, in milliseconds from the UTC epoch, until which it may be returned.
+     */
+    private static final class CachedSessionInfo {
+        private final SessionInfo info;
+        private final long expiryTime;
+
+        private CachedSessionInfo(SessionInfo info) {
+            this.info = info;
+            if (info.isNeverExpiring()) {
+                this.expiryTime = Long.MAX_VALUE;
+            } else {
+                long now = currentTimeMillis();
+                long idleExpiryTime = now + MINUTES.toMillis(info.getMaxIdle()) - SECONDS.toMillis(info.getTimeIdle());
+                this.expiryTime = Math.min(info.getExpiryTime(MILLISECONDS), idleExpiryTime);
+            }
+        }
+
+        private boolean isExpired() {
+            return currentTimeMillis() >= expiryTime;
+        }
     }
-}
\ No newline at end of file
+}
@@ -12,14 +12,19 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.sm;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.inject.Provider;
 
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
+import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.ldap.LDAPURL;
 import org.forgerock.openam.sm.datalayer.api.ConnectionType;
 import org.forgerock.openam.sm.datalayer.api.DataLayerConstants;
@@ -35,12 +40,24 @@ import org.forgerock.openam.sm.utils.ConfigurationValidator;
  *
  * - What the caller intends to do with the connection.
  * - Which mode the CTS is in.
+ *
+ * When affinity based load balancing is enabled, requests for an entry are routed to the server selected by a
+ * hash of the entry's DN, failing over to the next available server. Reads and updates of a token therefore go
+ * to the replica which accepted its creation, but only if every server in the cluster lists the directory
+ * servers in the same order, so in this case the servers are listed in a canonical order rather than in the
+ * server and site specific order of preference. This only applies to the CTS connection types, which use the
+ * External CTS affinity setting even when the CTS is stored in the default store. The other data layers keep
+ * their server preference order.
+ *
+ * The CTS worker connections are limited to a single connection, except for the expiry date worker which has a
+ * connection for each partition the CTS Reaper runs concurrently.
  */
 public class ConnectionConfigFactory {
     private final ConnectionConfig externalTokenConfig;
     private final ConnectionConfig smsConfiguration;
     private final ConfigurationValidator validator;
     private final LdapDataLayerConfiguration dataLayerConfiguration;
+    private final Provider<CoreTokenConfig> coreTokenConfigProvider;
 
     /**
      * Guice initialised constructor.
@@ -48,16 +65,20 @@ public class ConnectionConfigFactory {
      * @param datalayerConfig Non null default configuration.
      * @param externalTokenConfig Non null External CTS configuration.
      * @param validator Required for validation.
+     * @param coreTokenConfigProvider Required to size the CTS Reaper connections, only resolved when they are
+     *                                configured.
      */
     @Inject
     public ConnectionConfigFactory(@Named(DataLayerConstants.SERVICE_MANAGER_CONFIG) ConnectionConfig datalayerConfig,
             @Named(DataLayerConstants.EXTERNAL_CONFIG) ConnectionConfig externalTokenConfig,
             LdapDataLayerConfiguration dataLayerConfiguration,
-            ConfigurationValidator validator) {
+            ConfigurationValidator validator,
+            Provider<CoreTokenConfig> coreTokenConfigProvider) {
         this.smsConfiguration = datalayerConfig;
         this.externalTokenConfig = externalTokenConfig;
         this.validator = validator;
         this.dataLayerConfiguration = dataLayerConfiguration;
+        this.coreTokenConfigProvider = coreTokenConfigProvider;
     }
 
     /**
@@ -76,7 +97,7 @@ public class ConnectionConfigFactory {
         ConnectionConfig configuration;
         switch (dataLayerConfiguration.getStoreMode()) {
             case DEFAULT:
-                configuration = getDefaultConfiguration();
+                configuration = getDefaultConfiguration(connectionType);
                 break;
             case EXTERNAL:
                 configuration = externalTokenConfig;
@@ -84,20 +105,28 @@ public class ConnectionConfigFactory {
             default:
                 throw new IllegalStateException();
         }
+        if (isCtsConnectionType(connectionType) && configuration.isAffinityEnabled()) {
+            configuration = wrapAffinityConfiguration(configuration);
+        }
         if (isCtsWorkerConnectionType(connectionType)) {
-            configuration = wrapCtsReaperConfiguration(configuration);
+            configuration = wrapCtsReaperConfiguration(configuration, connectionType);
         }
         validator.validate(configuration);
         return configuration;
     }
 
+    private boolean isCtsConnectionType(ConnectionType connectionType) {
+        return ConnectionType.CTS_ASYNC.equals(connectionType) || isCtsWorkerConnectionType(connectionType);
+    }
+
     private boolean isCtsWorkerConnectionType(ConnectionType connectionType) {
         return ConnectionType.CTS_EXPIRY_DATE_WORKER.equals(connectionType)
                 || ConnectionType.CTS_MAX_SESSION_TIMEOUT_WORKER.equals(connectionType)
                 || ConnectionType.CTS_SESSION_IDLE_TIMEOUT_WORKER.equals(connectionType);
     }
 
-    private ConnectionConfig getDefaultConfiguration() {
+    private ConnectionConfig getDefaultConfiguration(ConnectionType connectionType) {
+        final boolean ctsConnectionType = isCtsConnectionType(connectionType);
         return new DelegatingConnectionConfig(smsConfiguration) {
             @Override
             public int getMaxConnections() {
@@ -107,14 +136,38 @@ public class ConnectionConfigFactory {
                 }
                 return max;
             }
+
+            @Override
+            public boolean isAffinityEnabled() {
+                return smsConfiguration.isAffinityEnabled()
+                        || (ctsConnectionType && externalTokenConfig.isAffinityEnabled());
+            }
+        };
+    }
+
+    private ConnectionConfig wrapAffinityConfiguration(final ConnectionConfig configuration) {
+        return new DelegatingConnectionConfig(configuration) {
+            @Override
+            public Set<LDAPURL> getLDAPURLs() {
+                return new LinkedHashSet<>(new TreeSet<>(configuration.getLDAPURLs()));
+            }
+
+            @Override
+            public int getMaxConnections() {
+                return configuration.getMaxConnections();
+            }
         };
     }
 
-    private ConnectionConfig wrapCtsReaperConfiguration(ConnectionConfig configuration) {
+    private ConnectionConfig wrapCtsReaperConfiguration(ConnectionConfig configuration,
+            ConnectionType connectionType) {
+        final int maxConnections = ConnectionType.CTS_EXPIRY_DATE_WORKER.equals(connectionType)
+                ? coreTokenConfigProvider.get().getReaperPartitions()
+                : 1;
         return new DelegatingConnectionConfig(configuration) {
             @Override
             public int getMaxConnections() {
-                return 1;
+                return maxConnections;
             }
 
             @Override
@@ -133,7 +186,7 @@ public class ConnectionConfigFactory {
         }
 
         @Override
-        public final Set<LDAPURL> getLDAPURLs() {
+        public Set<LDAPURL> getLDAPURLs() {
             return delegateConnectionConfig.getLDAPURLs();
         }
 
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.sm.datalayer.api;
@@ -62,6 +63,18 @@ public interface TokenStorageAdapter {
      */
     Token update(Token previous, Token updated, Options options) throws DataLayerException;
 
+    /**
+     * Replace the attributes of the stored Token with those present on the provided Token, without reading
+     * the stored Token first. Attributes which are not present on the provided Token are left unchanged.
+     *
+     * @param token The non null Token containing the attributes to update.
+     * @param options The non null Options for the operation.
+     * @return A copy of the provided token. The token would contain the updated etag.
+     * @throws DataLayerException If the operation failed for a known reason, including if the Token does not exist.
+     * @throws OptimisticConcurrencyCheckFailedException If the operation failed due to an assertion on the tokens ETag.
+     */
+    Token updateAttributes(Token token, Options options) throws DataLayerException;
+
     /**
      * Performs a delete against the Token ID provided.
      *
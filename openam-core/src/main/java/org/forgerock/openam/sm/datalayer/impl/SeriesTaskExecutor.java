@@ -12,16 +12,18 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.sm.datalayer.impl;
 
 import java.text.MessageFormat;
-import java.util.Random;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -29,7 +31,7 @@ import javax.inject.Named;
 import org.forgerock.openam.audit.context.AbstractAuditRequestContextPropagatingDecorator;
 import org.forgerock.openam.audit.context.AuditRequestContext;
 import org.forgerock.openam.cts.api.CoreTokenConstants;
-import org.forgerock.openam.cts.impl.queue.QueueSelector;
+import org.forgerock.openam.cts.impl.queue.TokenQueueSelector;
 import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
 import org.forgerock.openam.sm.datalayer.api.DataLayerConstants;
@@ -52,12 +54,18 @@ import com.sun.identity.shared.debug.Debug;
  * threads which are responsible for processing tasks provided to this class. The
  * {@link Task}s themselves are keyed by the Token ID of the request.
  *
- * A {@link QueueSelector} algorithm is used to ensure that tasks for the same
+ * A {@link TokenQueueSelector} algorithm is used to ensure that tasks for the same
  * TokenID are processed by the same TaskProcessor within this instance of
  * OpenAM. The intention here is to prevent unpredictable ordering of operations
  * against the same Token ID which could cause concurrent modification errors
  * at the storage layer.
  *
+ * Tasks without a Token ID, such as queries, have no ordering requirement. These are
+ * placed on the less loaded of two randomly chosen queues and, where there is space,
+ * also on the other one. Whichever TaskProcessor reaches the task first claims and
+ * processes it, and the other copy is discarded when it is reached. This allows an idle
+ * TaskProcessor to take over queries which would otherwise wait behind a backed up queue.
+ *
  * Each TaskProcessor is assigned a FIFO {@link BlockingQueue} instance which will
  * provide the predictable processing order. The implication of this design ensures
  * that when this queue is full, the caller is required to block.
@@ -70,12 +78,12 @@ import com.sun.identity.shared.debug.Debug;
  * @see org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration#getQueueTimeout()
  */
 public class SeriesTaskExecutor implements TaskExecutor {
-    private static final Random random = new Random();
     private final Debug debug;
     private BlockingQueue<Task>[] taskQueues;
     private int processors;
     private boolean initialised = false;
     private final SeriesTaskExecutorThreadFactory processorFactory;
+    private final TokenQueueSelector queueSelector;
     private final ThreadMonitor monitor;
     private final CTSQueueConfiguration configuration;
     private final ExecutorService poolService;
@@ -87,6 +95,7 @@ public class SeriesTaskExecutor implements TaskExecutor {
      * @param processorFactory Required to create worker thread instances.
      * @param monitor Required to ensure threads are restarted.
      * @param configuration Required to determine runtime configuration options.
+     * @param queueSelector Required to assign tasks to queues by Token ID.
      * @param debug Required for debugging.
      */
     @Inject
@@ -95,18 +104,48 @@ public class SeriesTaskExecutor implements TaskExecutor {
             SeriesTaskExecutorThreadFactory processorFactory,
             ThreadMonitor monitor,
             CTSQueueConfiguration configuration,
+            TokenQueueSelector queueSelector,
             @Named(DataLayerConstants.DATA_LAYER_DEBUG) Debug debug) {
         this.debug = debug;
         this.monitor = monitor;
         this.configuration = configuration;
         this.processorFactory = processorFactory;
         this.poolService = poolService;
+        this.queueSelector = queueSelector;
     }
 
     @Override
     public void execute(String tokenId, Task task) throws DataLayerException {
+        if (tokenId == null) {
+            executeUnordered(task);
+            return;
+        }
         BlockingQueue<Task> queue = getQueue(tokenId);
-        offer(queue, task);
+        offer(queue, wrap(task));
+    }
+
+    /**
+     * Places a task with no ordering requirement on two queues, so that whichever
+     * TaskProcessor becomes free first will process it.
+     *
+     * @param task Non null task.
+     * @throws QueueTimeoutException If the timeout expired before the Task was added.
+     */
+    private void executeUnordered(Task task) throws QueueTimeoutException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BlockingQueue<Task> first = taskQueues[random.nextInt(processors)];
+        BlockingQueue<Task> second = taskQueues[random.nextInt(processors)];
+        if (second.size() < first.size()) {
+            BlockingQueue<Task> swap = first;
+            first = second;
+            second = swap;
+        }
+
+        ClaimableTask claimable = new ClaimableTask(wrap(task));
+        offer(first, claimable);
+        if (second != first && second.offer(claimable)) {
+            debug("Task {0} offered to second queue", task);
+        }
     }
 
     /**
@@ -138,30 +177,19 @@ public class SeriesTaskExecutor implements TaskExecutor {
         }
         debug("Created {0} Task Processors", processors);
 
-        initialised = true;    }
-
-    /**
-     * Select a random queue to use for the query operation.
-     * @return Non null.
-     */
-    private BlockingQueue<Task> getQueueForQuery() {
-        String key = Integer.toString(random.nextInt());
-        return getQueue(key);
+        initialised = true;
     }
 
     /**
      * Select the appropriate queue based on the given Token ID.
      *
-     * The QueueSelector algorithm used will be consistent against the Token ID.
+     * The TokenQueueSelector algorithm used will be consistent against the Token ID.
      *
      * @param tokenId Non null Token ID.
      * @return A non null Queue to assign the task to.
      */
     private BlockingQueue<Task> getQueue(String tokenId) {
-        if (tokenId == null) {
-            return getQueueForQuery();
-        }
-        int select = QueueSelector.select(tokenId, processors);
+        int select = queueSelector.select(tokenId, processors);
         debug("Select Queue: Token ID {0} - Queue {1}", tokenId, select);
         return taskQueues[select];
     }
@@ -175,7 +203,7 @@ public class SeriesTaskExecutor implements TaskExecutor {
     private void offer(BlockingQueue<Task> queue, Task task) throws QueueTimeoutException {
         try {
             debug("Queuing Task {0}", task.toString());
-            if (!queue.offer(wrap(task), configuration.getQueueTimeout(), TimeUnit.SECONDS)) {
+            if (!queue.offer(task, configuration.getQueueTimeout(), TimeUnit.SECONDS)) {
                 throw new QueueTimeoutException(task);
             }
         } catch (InterruptedException e) {
@@ -195,6 +223,43 @@ public class SeriesTaskExecutor implements TaskExecutor {
         return new AuditRequestContextPropagatingTask(task);
     }
 
+    /**
+     * <code>Task</code> Decorator that ensures a task placed on more than one queue is only processed once,
+     * by the first TaskProcessor to reach it. Later copies of the task do nothing when they are reached.
+     */
+    static class ClaimableTask implements Task {
+
+        private final Task delegate;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        ClaimableTask(Task delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(TokenStorageAdapter adapter) throws DataLayerException {
+            if (claim()) {
+                delegate.execute(adapter);
+            }
+        }
+
+        @Override
+        public void processError(DataLayerException error) {
+            if (claim()) {
+                delegate.processError(error);
+            }
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
     /**
      * <code>Task</code> Decorator that propagates thread local {@link AuditRequestContext} to worker thread.
      */
@@ -224,6 +289,11 @@ public class SeriesTaskExecutor implements TaskExecutor {
         public void processError(DataLayerException error) {
             delegate.processError(error);
         }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
     }
 
 }
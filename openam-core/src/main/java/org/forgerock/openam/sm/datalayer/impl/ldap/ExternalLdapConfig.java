@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.sm.datalayer.impl.ldap;
 
@@ -140,7 +141,7 @@ public class ExternalLdapConfig implements ConnectionConfig {
 
     @Override
     public boolean isAffinityEnabled() {
-        return affinityEnabled.get();
+        return Boolean.TRUE.equals(affinityEnabled.get());
     }
 
     /**
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.sm.datalayer.impl.ldap;
@@ -116,7 +117,14 @@ public class LdapQueryFilterVisitor implements QueryFilterVisitor<Filter, Void,
     }
 
     private Object convert(CoreTokenField field, Object value) {
-        return CoreTokenFieldTypes.isCalendar(field) ? dataConversion.toLDAPDate((Calendar) value) : value;
+        if (!CoreTokenFieldTypes.isCalendar(field)) {
+            return value;
+        }
+        // Dates may be given as milliseconds since the epoch to avoid creating a Calendar
+        if (value instanceof Long) {
+            return dataConversion.toLDAPDate((Long) value);
+        }
+        return dataConversion.toLDAPDate((Calendar) value);
     }
 
 }
@@ -12,9 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.sm.datalayer.impl.tasks;
 
+import static org.forgerock.openam.cts.api.CTSOptions.PARTIAL_UPDATE_OPTION;
+
 import java.text.MessageFormat;
 
 import org.forgerock.openam.cts.api.tokens.Token;
@@ -49,11 +52,18 @@ public class UpdateTask extends AbstractTask {
      * If the Token exists, then an update is performed, otherwise a create is
      * performed.
      *
+     * If the {@link org.forgerock.openam.cts.api.CTSOptions#PARTIAL_UPDATE_OPTION} is set then
+     * the read is skipped and only the attributes present on the Token are updated.
+     *
      * @param adapter Non null for connection-coupled operations.
      * @throws DataLayerException If there was an error of any kind.
      */
     @Override
     public void performTask(TokenStorageAdapter adapter) throws DataLayerException {
+        if (options.get(PARTIAL_UPDATE_OPTION)) {
+            handler.processResults(adapter.updateAttributes(token, options));
+            return;
+        }
         Token previous = adapter.read(token.getTokenId(), options);
         Token updated;
         if (previous == null) {
@@ -12,10 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.sso.providers.stateless;
 
 import java.security.Key;
+import java.util.Collections;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -34,8 +36,11 @@ import org.forgerock.json.jose.jws.JwsAlgorithm;
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
 import org.forgerock.json.jose.jwt.JwtClaimsSet;
+import org.forgerock.openam.session.stateless.cache.JwtDigest;
 import org.forgerock.util.Reject;
 import org.forgerock.util.annotations.VisibleForTesting;
+import org.wrensecurity.guava.common.cache.Cache;
+import org.wrensecurity.guava.common.cache.CacheBuilder;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -46,6 +51,11 @@ import com.iplanet.dpro.session.share.SessionInfo;
 /**
  * Responsible for converting {@link SessionInfo} objects to/from JWT with optional signing &/or encryption.
  *
+ * The claims of each JWT which has been verified and decrypted are held in a bounded cache keyed on the digest
+ * of the JWT, so that a JWT which is read again does not need to be verified and decrypted again. The cache
+ * belongs to this instance, so a change to the signing or encryption configuration, which creates a new instance,
+ * discards it.
+ *
  * @since 13.0.0
  */
 @Immutable
@@ -73,6 +83,7 @@ public final class JwtSessionMapper {
     final Key decryptionKey;
     @VisibleForTesting
     final CompressionAlgorithm compressionAlgorithm;
+    private final Cache<JwtDigest, Map<String, Object>> verifiedClaims;
 
     /**
      * Constructs a fully-configured, immutable instance of JwtSessionMapper.
@@ -88,6 +99,14 @@ public final class JwtSessionMapper {
         this.jweAlgorithm = builder.jweAlgorithm;
         this.encryptionMethod = builder.encryptionMethod;
         this.compressionAlgorithm = builder.compressionAlgorithm;
+        if (builder.verifiedClaimsCacheSize > 0) {
+            this.verifiedClaims = CacheBuilder.newBuilder()
+                    .maximumSize(builder.verifiedClaimsCacheSize)
+                    .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                    .build();
+        } else {
+            this.verifiedClaims = null;
+        }
     }
 
     /**
@@ -144,6 +163,26 @@ public final class JwtSessionMapper {
 
         Reject.ifNull(jwtString, "jwtString must not be null.");
 
+        if (verifiedClaims == null) {
+            return fromClaims(readClaims(jwtString));
+        }
+        JwtDigest digest = new JwtDigest(jwtString);
+        Map<String, Object> claims = verifiedClaims.getIfPresent(digest);
+        if (claims == null) {
+            claims = Collections.unmodifiableMap(readClaims(jwtString));
+            verifiedClaims.put(digest, claims);
+        }
+        return fromClaims(claims);
+    }
+
+    /**
+     * Reconstructs the JWT, verifies its signature and decrypts it as configured.
+     *
+     * @param jwtString Non-null, String which represents a JWT.
+     * @return The claims of the JWT.
+     * @throws JwtRuntimeException If the JWT could not be reconstructed, verified or decrypted.
+     */
+    private Map<String, Object> readClaims(String jwtString) throws JwtRuntimeException {
         SignedJwt signedJwt;
 
         if (jweAlgorithm != null) {
@@ -161,7 +200,7 @@ public final class JwtSessionMapper {
             } else {
                 EncryptedJwt encryptedJwt = jwtBuilderFactory.reconstruct(jwtString, EncryptedJwt.class);
                 encryptedJwt.decrypt(decryptionKey);
-                return fromJson(encryptedJwt.getClaimsSet());
+                return toMap(encryptedJwt.getClaimsSet());
             }
 
         } else {
@@ -175,12 +214,11 @@ public final class JwtSessionMapper {
         }
 
 
-        JwtClaimsSet claimsSet = signedJwt.getClaimsSet();
-        return fromJson(claimsSet);
+        return toMap(signedJwt.getClaimsSet());
     }
 
-    private SessionInfo fromJson(JwtClaimsSet claimsSet) {
-        return MAPPER.convertValue(toMap(claimsSet), SessionInfo.class);
+    private SessionInfo fromClaims(Map<String, Object> claims) {
+        return MAPPER.convertValue(claims, SessionInfo.class);
     }
 
     private boolean doesJwtAlgorithmMatch(SignedJwt signedJwt) {
@@ -12,9 +12,11 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.sso.providers.stateless;
 
+import static org.forgerock.openam.session.stateless.StatelessConstants.STATELESS_VERIFIED_CLAIMS_CACHE_MAX_SIZE;
 import static org.forgerock.util.Reject.checkNotNull;
 import static com.sun.identity.setup.AMSetupServlet.isCurrentConfigurationValid;
 
@@ -55,6 +57,7 @@ class JwtSessionMapperBuilder {
     private static final String DEFAULT_ENCRYPTION_METHOD = "A128CBC-HS256";
     private static final String RSA_PADDING_METHOD = "org.forgerock.openam.session.stateless.rsa.padding";
     private static final String DEFAULT_RSA_PADDING_METHOD = "RSA-OAEP-256";
+    private static final int DEFAULT_VERIFIED_CLAIMS_CACHE_SIZE = 10000;
 
     private final SigningManager signingManager;
     private final ISystemProperties systemProperties;
@@ -70,6 +73,8 @@ class JwtSessionMapperBuilder {
 
     CompressionAlgorithm compressionAlgorithm = CompressionAlgorithm.NONE;
 
+    int verifiedClaimsCacheSize = DEFAULT_VERIFIED_CLAIMS_CACHE_SIZE;
+
     @VisibleForTesting
     JwtSessionMapperBuilder(final SigningManager signingManager, final ISystemProperties systemProperties) {
         this.signingManager = signingManager;
@@ -341,9 +346,23 @@ class JwtSessionMapperBuilder {
                     "No encryption or signature scheme specified!");
         }
 
+        verifiedClaimsCacheSize = getVerifiedClaimsCacheSize();
+
         return new JwtSessionMapper(this);
     }
 
+    private int getVerifiedClaimsCacheSize() {
+        String size = systemProperties.getOrDefault(STATELESS_VERIFIED_CLAIMS_CACHE_MAX_SIZE, null);
+        if (StringUtils.isBlank(size)) {
+            return DEFAULT_VERIFIED_CLAIMS_CACHE_SIZE;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(size.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_VERIFIED_CLAIMS_CACHE_SIZE;
+        }
+    }
+
     @VisibleForTesting
     JwsAlgorithm getJwsAlgorithm() {
         return jwsAlgorithm;
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.sso.providers.stateless;
@@ -20,6 +21,7 @@ import static com.sun.identity.authentication.util.ISAuthConstants.AUTH_SERVICE_
 
 import java.security.AccessController;
 import java.security.Principal;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -167,6 +169,15 @@ public class StatelessSSOProvider implements SSOProviderPlugin, ServiceListener
         }
     }
 
+    @Override
+    public void setProperties(final SSOToken token, final Map<String, String> properties) throws SSOException {
+        try {
+            extractStatelessSession(token).setProperties(properties);
+        } catch (SessionException e) {
+            throw new SSOException(e);
+        }
+    }
+
     @Override
     public boolean isValidToken(SSOToken token) {
         return isValidToken(token, true);
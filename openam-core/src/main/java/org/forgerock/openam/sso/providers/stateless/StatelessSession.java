@@ -12,7 +12,8 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2015-2016 ForgeRock AS.
-*/
+ * Portions Copyright 2026 Wren Security.
+ */
 
 /*
 * @since 13.0.0
@@ -21,6 +22,7 @@ package org.forgerock.openam.sso.providers.stateless;
 
 import static org.forgerock.util.Reject.*;
 
+import java.util.Map;
 import java.util.Set;
 
 import org.forgerock.openam.session.SessionConstants;
@@ -108,6 +110,12 @@ public class StatelessSession extends Session {
         this.needToRegenerateSessionId = true;
     }
 
+    @Override
+    public void setProperties(Map<String, String> properties) throws SessionException {
+        super.setProperties(properties);
+        this.needToRegenerateSessionId = true;
+    }
+
     @Override
     public SessionState getState(boolean reset) throws SessionException {
         return sessionState;
@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2015-2017 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 
 package org.forgerock.openam.sso.providers.stateless;
@@ -127,12 +128,12 @@ public class StatelessSessionManager {
      */
     public SessionInfo getSessionInfo(SessionID sessionID) throws SessionException {
         String jwt = getJWTFromSessionID(sessionID, true);
-        if (cache.contains(jwt)) {
+        SessionInfo sessionInfo = cache.getSessionInfo(jwt);
+        if (sessionInfo != null) {
             debug.message("StatelessSessionFactory.getSessionInfo: JWT {} found in cache", jwt);
-            return cache.getSessionInfo(jwt);
+            return sessionInfo;
         }
 
-        SessionInfo sessionInfo;
         try {
             sessionInfo = getJwtSessionMapper().fromJwt(jwt);
         } catch (JwtRuntimeException e) {
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 package com.iplanet.dpro.session.operations.strategies;
 
@@ -21,13 +21,18 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.net.URL;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.forgerock.openam.session.SessionServiceURLService;
 import org.forgerock.openam.session.service.ServicesClusterMonitorHandler;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -155,4 +160,37 @@ public class ClientSdkOperationsTest extends AbstractMockBasedTest {
         // Then
         verify(mockClientSdkSessionRequests).sendRequest(any(), any(SessionRequest.class), eq(mockSession));
     }
+
+    @Test
+    public void shouldSendAllPropertiesInOneRequest() throws Exception {
+        // Given
+        URL url = new URL("http://openam.example.com:8080/openam/sessionservice");
+        given(mockSession.getSessionServiceURL()).willReturn(url);
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("first", "one");
+        properties.put("second", "two");
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+
+        // When
+        clientSdkOperations.setProperties(mockSession, properties);
+
+        // Then
+        verify(mockClientSdkSessionRequests).sendRequests(eq(url), captor.capture(), eq(mockSession));
+        List<SessionRequest> requests = captor.getValue();
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(0).getMethodID()).isEqualTo(SessionRequest.SetProperty);
+        assertThat(requests.get(0).getPropertyName()).isEqualTo("first");
+        assertThat(requests.get(0).getPropertyValue()).isEqualTo("one");
+        assertThat(requests.get(1).getPropertyName()).isEqualTo("second");
+        assertThat(requests.get(1).getPropertyValue()).isEqualTo("two");
+    }
+
+    @Test
+    public void shouldNotSendRequestForNoProperties() throws Exception {
+        // When
+        clientSdkOperations.setProperties(mockSession, new LinkedHashMap<String, String>());
+
+        // Then
+        verify(mockClientSdkSessionRequests, never()).sendRequests(any(), any(), any());
+    }
 }
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 
 package com.iplanet.dpro.session.service;
@@ -27,10 +27,15 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.forgerock.openam.session.SessionEventType;
+import org.forgerock.openam.session.service.access.SessionPersistenceManager;
 import org.forgerock.openam.utils.TimeTravelUtil;
 import org.forgerock.openam.utils.TimeTravelUtil.FrozenTimeService;
 import org.forgerock.util.time.TimeService;
@@ -337,6 +342,121 @@ public class InternalSessionTest extends AbstractMockBasedTest {
         assertThat(session.isTimedOut()).isTrue();
     }
 
+    @Test
+    public void shouldNotChangeContentVersionWhenLatestAccessTimeIsUpdated() {
+        // Given
+        final InternalSession session = createSession();
+        session.setPersistedContentVersion(session.getContentVersion());
+
+        // When
+        FrozenTimeService.INSTANCE.fastForward(10, MINUTES);
+        session.setLatestAccessTime();
+
+        // Then
+        assertThat(session.isContentPersisted()).isTrue();
+    }
+
+    @Test
+    public void shouldChangeContentVersionWhenSessionIsModified() {
+        // Given
+        final InternalSession session = createSession();
+        session.setPersistedContentVersion(session.getContentVersion());
+
+        // When
+        session.setMaxIdleTime(5);
+
+        // Then
+        assertThat(session.isContentPersisted()).isFalse();
+    }
+
+    @Test
+    public void shouldChangeContentVersionWhenCookieModeIsSet() {
+        // Given
+        final InternalSession session = createSession();
+        session.setPersistedContentVersion(session.getContentVersion());
+
+        // When
+        session.setCookieMode(true);
+
+        // Then
+        assertThat(session.isContentPersisted()).isFalse();
+    }
+
+    @Test
+    public void shouldChangeContentVersionWhenCookieStringIsCached() {
+        // Given
+        final InternalSession session = createSession();
+        session.setPersistedContentVersion(session.getContentVersion());
+
+        // When
+        session.cacheCookieString("badger");
+
+        // Then
+        assertThat(session.isContentPersisted()).isFalse();
+    }
+
+    @Test
+    public void shouldNotConsiderNewSessionContentPersisted() {
+        assertThat(createSession().isContentPersisted()).isFalse();
+    }
+
+    // Batched updates
+
+    @Test
+    public void shouldPersistAndNotifyBatchedPropertiesOnce() throws Exception {
+        // Given
+        final InternalSession session = createSession();
+        final SessionPersistenceManager persistenceManager = mock(SessionPersistenceManager.class);
+        session.setPersistenceManager(persistenceManager);
+        session.setState(SessionState.VALID);
+        given(mockSessionServiceConfig.isSendPropertyNotification(anyString())).willReturn(true);
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("one", "1");
+        properties.put("two", "2");
+        properties.put("three", "3");
+
+        // When
+        session.putProperties(properties);
+
+        // Then
+        assertThat(session.getProperty("two")).isEqualTo("2");
+        verify(persistenceManager, times(1)).notifyUpdate(session);
+        verifyEvent(session, SessionEventType.PROPERTY_CHANGED);
+    }
+
+    @Test
+    public void shouldNotPersistUntilOutermostBatchIsCommitted() throws Exception {
+        // Given
+        final InternalSession session = createSession();
+        final SessionPersistenceManager persistenceManager = mock(SessionPersistenceManager.class);
+        session.setPersistenceManager(persistenceManager);
+        session.beginUpdates();
+        session.beginUpdates();
+        session.putProperty("one", "1");
+        session.setMaxIdleTime(5);
+
+        // When
+        session.commitUpdates();
+
+        // Then
+        verify(persistenceManager, never()).notifyUpdate(session);
+    }
+
+    @Test
+    public void shouldNotPersistEmptyBatch() throws Exception {
+        // Given
+        final InternalSession session = createSession();
+        final SessionPersistenceManager persistenceManager = mock(SessionPersistenceManager.class);
+        session.setPersistenceManager(persistenceManager);
+
+        // When
+        session.beginUpdates();
+        session.commitUpdates();
+
+        // Then
+        verify(persistenceManager, never()).notifyUpdate(session);
+    }
+
     private void verifyEvent(InternalSession session, SessionEventType eventType) {
         ArgumentCaptor<InternalSessionEvent> eventCaptor = ArgumentCaptor.forClass(InternalSessionEvent.class);
         verify(mockInternalSessionEventBroker, times(1)).onEvent(eventCaptor.capture());
@@ -0,0 +1,168 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.iplanet.dpro.session.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.iplanet.dpro.session.share.SessionJsonCodec;
+import com.iplanet.dpro.session.share.SessionRequest;
+import com.iplanet.dpro.session.share.SessionResponse;
+import com.iplanet.services.comm.server.PLLAuditor;
+
+public class SessionJsonRequestServletTest extends AbstractMockBasedTest {
+
+    private static final int MAX_CONTENT_LENGTH = 1024;
+
+    @Mock private SessionRequestHandler mockHandler;
+    @Mock private PLLAuditor mockAuditor;
+    @Mock private HttpServletRequest mockRequest;
+    @Mock private HttpServletResponse mockResponse;
+    @Mock private ServletInputStream mockInputStream;
+    @Mock private ServletOutputStream mockOutputStream;
+
+    private SessionJsonRequestServlet servlet;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        given(mockRequest.getInputStream()).willReturn(mockInputStream);
+        given(mockResponse.getOutputStream()).willReturn(mockOutputStream);
+        servlet = new SessionJsonRequestServlet(mockHandler, MAX_CONTENT_LENGTH) {
+            @Override
+            PLLAuditor createAuditor(HttpServletRequest req) {
+                return mockAuditor;
+            }
+        };
+    }
+
+    @Test
+    public void shouldRejectUnsupportedContentType() throws Exception {
+        // Given
+        given(mockRequest.getContentType()).willReturn("text/xml");
+
+        // When
+        servlet.doPost(mockRequest, mockResponse);
+
+        // Then
+        verify(mockResponse).sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+        verify(mockHandler, never()).process(any(), anyList(), any());
+    }
+
+    @Test
+    public void shouldRequireContentLength() throws Exception {
+        // Given
+        given(mockRequest.getContentType()).willReturn(SessionJsonCodec.CONTENT_TYPE);
+        given(mockRequest.getContentLength()).willReturn(-1);
+
+        // When
+        servlet.doPost(mockRequest, mockResponse);
+
+        // Then
+        verify(mockResponse).sendError(HttpServletResponse.SC_LENGTH_REQUIRED);
+        verify(mockHandler, never()).process(any(), anyList(), any());
+    }
+
+    @Test
+    public void shouldRejectRequestLargerThanMaximumContentLength() throws Exception {
+        // Given
+        given(mockRequest.getContentType()).willReturn(SessionJsonCodec.CONTENT_TYPE);
+        given(mockRequest.getContentLength()).willReturn(MAX_CONTENT_LENGTH + 1);
+
+        // When
+        servlet.doPost(mockRequest, mockResponse);
+
+        // Then
+        verify(mockResponse).sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        verify(mockHandler, never()).process(any(), anyList(), any());
+    }
+
+    @Test
+    public void shouldRejectEmptyBatch() throws Exception {
+        // Given
+        givenRequestBody(SessionJsonCodec.encodeRequests(Collections.<SessionRequest>emptyList()));
+
+        // When
+        servlet.doPost(mockRequest, mockResponse);
+
+        // Then
+        verify(mockResponse).sendError(HttpServletResponse.SC_BAD_REQUEST);
+        verify(mockHandler, never()).process(any(), anyList(), any());
+    }
+
+    @Test
+    public void shouldRespondWithResponsesInRequestOrder() throws Exception {
+        // Given
+        SessionRequest first = new SessionRequest(SessionRequest.SetProperty, "sid1", false);
+        first.setPropertyName("name");
+        first.setPropertyValue("value");
+        SessionRequest second = new SessionRequest(SessionRequest.GetSession, "sid1", true);
+        givenRequestBody(SessionJsonCodec.encodeRequests(Arrays.asList(first, second)));
+        SessionResponse firstResponse = new SessionResponse(first.getRequestID(), SessionRequest.SetProperty);
+        SessionResponse secondResponse = new SessionResponse(second.getRequestID(), SessionRequest.GetSession);
+        secondResponse.setException("Invalid session ID.");
+        given(mockHandler.process(any(), anyList(), any()))
+                .willReturn(Arrays.asList(firstResponse, secondResponse));
+        ArgumentCaptor<List> requests = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+
+        // When
+        servlet.doPost(mockRequest, mockResponse);
+
+        // Then
+        verify(mockHandler).process(any(), requests.capture(), any());
+        List<SessionRequest> processed = requests.getValue();
+        assertThat(processed).hasSize(2);
+        assertThat(processed.get(0).getPropertyName()).isEqualTo("name");
+        assertThat(processed.get(1).getMethodID()).isEqualTo(SessionRequest.GetSession);
+        verify(mockResponse).setContentType(SessionJsonCodec.CONTENT_TYPE + ";charset=UTF-8");
+        verify(mockOutputStream).write(body.capture());
+        List<SessionResponse> result = SessionJsonCodec.decodeResponses(new ByteArrayInputStream(body.getValue()));
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getRequestID()).isEqualTo(first.getRequestID());
+        assertThat(result.get(0).getException()).isNull();
+        assertThat(result.get(1).getRequestID()).isEqualTo(second.getRequestID());
+        assertThat(result.get(1).getException()).isEqualTo("Invalid session ID.");
+    }
+
+    private void givenRequestBody(byte[] content) throws Exception {
+        final ByteArrayInputStream body = new ByteArrayInputStream(content);
+        given(mockRequest.getContentType()).willReturn(SessionJsonCodec.CONTENT_TYPE + ";charset=UTF-8");
+        given(mockRequest.getContentLength()).willReturn(content.length);
+        given(mockInputStream.read(any(byte[].class), anyInt(), anyInt())).willAnswer(invocation ->
+                body.read(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.iplanet.dpro.session.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.iplanet.services.comm.server.SendNotificationException;
+import com.iplanet.services.comm.share.Notification;
+import com.iplanet.services.comm.share.NotificationSet;
+import com.sun.identity.shared.debug.Debug;
+
+public class SessionNotificationDispatcherTest extends AbstractMockBasedTest {
+
+    private static final long WINDOW = 50L;
+
+    @Mock private SessionServiceConfig mockServiceConfig;
+    @Mock private AMExecutorServiceFactory mockExecutorServiceFactory;
+    @Mock private ScheduledExecutorService mockExecutor;
+    @Mock private Debug mockDebug;
+
+    private final List<NotificationSet> delivered = new ArrayList<>();
+    private int failures;
+    private int flushesRun;
+    private URL agentUrl;
+    private SessionNotificationDispatcher dispatcher;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        given(mockServiceConfig.getNotificationCoalesceWindow()).willReturn(WINDOW);
+        given(mockServiceConfig.getNotificationThreadPoolThreshold()).willReturn(2);
+        given(mockServiceConfig.getNotificationRetries()).willReturn(1);
+        given(mockServiceConfig.getNotificationThreadPoolSize()).willReturn(10);
+        given(mockExecutorServiceFactory.createScheduledService(anyInt(), anyString())).willReturn(mockExecutor);
+        agentUrl = new URL("http://agent.example.com:8080/notification");
+        delivered.clear();
+        failures = 0;
+        flushesRun = 0;
+
+        dispatcher = new SessionNotificationDispatcher(mockServiceConfig, mockExecutorServiceFactory, mockDebug) {
+            @Override
+            void deliver(URL url, NotificationSet set) throws SendNotificationException {
+                if (failures > 0) {
+                    failures--;
+                    throw new SendNotificationException("unreachable");
+                }
+                delivered.add(set);
+            }
+        };
+    }
+
+    @Test
+    public void shouldCoalesceNotificationsToSameDestination() throws Exception {
+        // Given
+        dispatcher.send(agentUrl, new Notification("first"));
+        dispatcher.send(agentUrl, new Notification("second"));
+
+        // When
+        runScheduledFlushes();
+
+        // Then
+        assertThat(delivered).hasSize(1);
+        assertThat(delivered.get(0).getNotifications()).hasSize(2);
+        assertThat(dispatcher.getSentCount()).isEqualTo(2);
+        assertThat(dispatcher.getDeliveryCount()).isEqualTo(1);
+        assertThat(dispatcher.getQueueSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDeliverToEachDestinationSeparately() throws Exception {
+        // Given
+        dispatcher.send(agentUrl, new Notification("first"));
+        dispatcher.send(new URL("http://other.example.com:8080/notification"), new Notification("second"));
+
+        // When
+        runScheduledFlushes();
+
+        // Then
+        assertThat(delivered).hasSize(2);
+    }
+
+    @Test
+    public void shouldDropNotificationsWhenDestinationQueueIsFull() throws Exception {
+        // When
+        dispatcher.send(agentUrl, new Notification("first"));
+        dispatcher.send(agentUrl, new Notification("second"));
+        dispatcher.send(agentUrl, new Notification("third"));
+
+        // Then
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(1);
+        assertThat(dispatcher.getQueueSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropNotificationsWhenThresholdIsReachedAcrossDestinations() throws Exception {
+        // When
+        dispatcher.send(agentUrl, new Notification("first"));
+        dispatcher.send(new URL("http://other.example.com:8080/notification"), new Notification("second"));
+        dispatcher.send(new URL("http://third.example.com:8080/notification"), new Notification("third"));
+
+        // Then
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(1);
+        assertThat(dispatcher.getQueueSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldAcceptNotificationsAgainOnceDelivered() throws Exception {
+        // Given
+        dispatcher.send(agentUrl, new Notification("first"));
+        dispatcher.send(agentUrl, new Notification("second"));
+        runScheduledFlushes();
+
+        // When
+        dispatcher.send(agentUrl, new Notification("third"));
+
+        // Then
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(0);
+        assertThat(dispatcher.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldForgetDestinationOnceFlushed() throws Exception {
+        // Given
+        dispatcher.send(agentUrl, new Notification("first"));
+        dispatcher.send(new URL("http://other.example.com:8080/notification"), new Notification("second"));
+
+        // When
+        runScheduledFlushes();
+
+        // Then
+        assertThat(dispatcher.getDestinationCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldKeepDestinationWhileRetryIsPending() throws Exception {
+        // Given
+        failures = 1;
+        dispatcher.send(agentUrl, new Notification("first"));
+
+        // When
+        runScheduledFlushes();
+
+        // Then
+        assertThat(dispatcher.getDestinationCount()).isEqualTo(1);
+        assertThat(dispatcher.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRetryFailedDelivery() throws Exception {
+        // Given
+        failures = 1;
+        dispatcher.send(agentUrl, new Notification("first"));
+        runScheduledFlushes();
+
+        // When
+        runScheduledFlushes();
+
+        // Then
+        assertThat(delivered).hasSize(1);
+        assertThat(dispatcher.getRetryCount()).isEqualTo(1);
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDropNotificationsOnceRetriesAreExhausted() throws Exception {
+        // Given
+        failures = 2;
+        dispatcher.send(agentUrl, new Notification("first"));
+        runScheduledFlushes();
+
+        // When
+        runScheduledFlushes();
+
+        // Then
+        assertThat(delivered).isEmpty();
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldScheduleDestinationOnceWhileFlushIsPending() throws Exception {
+        // When
+        dispatcher.send(agentUrl, new Notification("first"));
+        dispatcher.send(agentUrl, new Notification("second"));
+
+        // Then
+        verify(mockExecutor, times(1)).schedule(any(Runnable.class), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Runs each flush which has been scheduled since the last call, as the delivery thread pool would.
+     */
+    private void runScheduledFlushes() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockExecutor, atLeast(0)).schedule(captor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        List<Runnable> flushes = captor.getAllValues();
+        while (flushesRun < flushes.size()) {
+            flushes.get(flushesRun++).run();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.iplanet.dpro.session.share;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+public class SessionJsonCodecTest {
+
+    @Test
+    public void shouldRoundTripBatchOfRequests() throws Exception {
+        // Given
+        SessionRequest getSession = new SessionRequest(SessionRequest.GetSession, "sid1", true);
+        SessionRequest setProperty = new SessionRequest(SessionRequest.SetProperty, "sid2", false);
+        setProperty.setPropertyName("name");
+        setProperty.setPropertyValue("<value & \"quoted\">");
+        setProperty.setRequester("requester");
+
+        // When
+        List<SessionRequest> result = SessionJsonCodec.decodeRequests(new ByteArrayInputStream(
+                SessionJsonCodec.encodeRequests(Arrays.asList(getSession, setProperty))));
+
+        // Then
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getMethodID()).isEqualTo(SessionRequest.GetSession);
+        assertThat(result.get(0).getRequestID()).isEqualTo(getSession.getRequestID());
+        assertThat(result.get(0).getSessionID()).isEqualTo("sid1");
+        assertThat(result.get(0).getResetFlag()).isTrue();
+        assertThat(result.get(1).getMethodID()).isEqualTo(SessionRequest.SetProperty);
+        assertThat(result.get(1).getResetFlag()).isFalse();
+        assertThat(result.get(1).getPropertyName()).isEqualTo("name");
+        assertThat(result.get(1).getPropertyValue()).isEqualTo("<value & \"quoted\">");
+        assertThat(result.get(1).getRequester()).isEqualTo("requester");
+        assertThat(result.get(1).getPattern()).isNull();
+    }
+
+    @Test
+    public void shouldRoundTripBatchOfResponses() throws Exception {
+        // Given
+        SessionInfo info = new SessionInfo();
+        info.setSessionID("sid1");
+        info.setSessionType("user");
+        info.setMaxTime(120);
+        info.setTimeLeft(600);
+        info.setTimeIdle(30);
+        info.getProperties().put("UserToken", "demo");
+        SessionResponse getSession = new SessionResponse("1", SessionRequest.GetSession);
+        getSession.addSessionInfo(info);
+        SessionResponse getCount = new SessionResponse("2", SessionRequest.GetSessionCount);
+        getCount.addSessionForGivenUUID("sid1", 1234L);
+        SessionResponse failed = new SessionResponse("3", SessionRequest.Logout);
+        failed.setException("Invalid session ID.");
+
+        // When
+        List<SessionResponse> result = SessionJsonCodec.decodeResponses(new ByteArrayInputStream(
+                SessionJsonCodec.encodeResponses(Arrays.asList(getSession, getCount, failed))));
+
+        // Then
+        assertThat(result).hasSize(3);
+        SessionInfo resultInfo = result.get(0).getSessionInfo().get(0);
+        assertThat(resultInfo.getSessionID()).isEqualTo("sid1");
+        assertThat(resultInfo.getSessionType()).isEqualTo("user");
+        assertThat(resultInfo.getMaxTime()).isEqualTo(120);
+        assertThat(resultInfo.getTimeLeft()).isBetween(599L, 600L);
+        assertThat(resultInfo.getTimeIdle()).isBetween(30L, 31L);
+        assertThat(resultInfo.getState()).isEqualTo("valid");
+        assertThat(resultInfo.getProperties()).containsEntry("UserToken", "demo");
+        assertThat(result.get(1).getMethodID()).isEqualTo(SessionRequest.GetSessionCount);
+        assertThat(result.get(1).getSessionsForGivenUUID()).containsEntry("sid1", 1234L);
+        assertThat(result.get(1).getStatus()).isEqualTo(getCount.getStatus());
+        assertThat(result.get(2).getRequestID()).isEqualTo("3");
+        assertThat(result.get(2).getException()).isEqualTo("Invalid session ID.");
+        assertThat(result.get(2).getBooleanFlag()).isFalse();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldRejectRequestsWhichAreNotABatch() throws Exception {
+        SessionJsonCodec.decodeRequests(new ByteArrayInputStream("{\"m\":0}".getBytes("UTF-8")));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.sun.identity.entitlement;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.security.auth.Subject;
+
+import org.forgerock.openam.entitlement.monitoring.EntitlementConfigurationWrapper;
+import org.forgerock.openam.entitlement.monitoring.PolicyMonitor;
+import org.forgerock.openam.session.util.AppTokenHandler;
+import org.mockito.Mock;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+public class EvaluatorTest extends AbstractMockBasedTest {
+
+    private static final String REALM = "/";
+    private static final String APPLICATION = "iPlanetAMWebAgentService";
+    private static final Set<String> SUBJECT_INDEXES = singleton("subject");
+
+    @Mock private PolicyMonitor mockPolicyMonitor;
+    @Mock private EntitlementConfigurationWrapper mockConfigWrapper;
+
+    private final Set<String> evaluatedResources = ConcurrentHashMap.newKeySet();
+    private final Map<String, Object> appTokens = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> subjectIndexes = new ConcurrentHashMap<>();
+    private final AtomicInteger subjectIndexLookups = new AtomicInteger();
+    private ExecutorService pool;
+    private ResourceEvaluation resourceEvaluation;
+
+    @BeforeMethod
+    public void setup() {
+        evaluatedResources.clear();
+        appTokens.clear();
+        subjectIndexes.clear();
+        subjectIndexLookups.set(0);
+        resourceEvaluation = null;
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        pool.shutdownNow();
+        AppTokenHandler.getAndClear();
+    }
+
+    @Test
+    public void shouldReturnBatchResultsInResourceOrder() throws Exception {
+        // Given
+        Set<String> resources = resources(8);
+        resourceEvaluation = new ResourceEvaluation() {
+            @Override
+            public void evaluate(String resourceName) throws InterruptedException {
+                // Later resources complete first
+                Thread.sleep(10 * (8 - index(resourceName)));
+            }
+        };
+
+        // When
+        List<Entitlement> result = evaluator().evaluate(REALM, new Subject(), resources, emptyMap());
+
+        // Then
+        List<String> resourceNames = new ArrayList<>();
+        for (Entitlement entitlement : result) {
+            resourceNames.add(entitlement.getResourceName());
+        }
+        assertThat(resourceNames).containsExactlyElementsOf(resources);
+    }
+
+    @Test
+    public void shouldAbandonRemainingResourcesOnFirstFailure() throws Exception {
+        // Given
+        pool.shutdownNow();
+        pool = Executors.newSingleThreadExecutor();
+        final EntitlementException failure = new EntitlementException(100);
+        final CountDownLatch failed = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Set<String> resources = resources(5);
+        resourceEvaluation = new ResourceEvaluation() {
+            @Override
+            public void evaluate(String resourceName) throws Exception {
+                switch (index(resourceName)) {
+                case 0:
+                    // Still evaluating on the calling thread when the second resource fails
+                    failed.await();
+                    break;
+                case 1:
+                    failed.countDown();
+                    throw failure;
+                case 2:
+                    // Keeps the remaining resources queued until the failure has been handled
+                    release.await();
+                    break;
+                default:
+                    break;
+                }
+            }
+        };
+
+        // When
+        Throwable thrown;
+        try {
+            thrown = catchThrowable(() -> evaluator().evaluate(REALM, new Subject(), resources, emptyMap()));
+        } finally {
+            release.countDown();
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(thrown).isSameAs(failure);
+        assertThat(evaluatedResources).contains(resource(0), resource(1)).doesNotContain(resource(3), resource(4));
+    }
+
+    @Test
+    public void shouldPassAppTokenToEveryResourceEvaluation() throws Exception {
+        // Given
+        Object appToken = new Object();
+        AppTokenHandler.set(appToken);
+        Set<String> resources = resources(6);
+
+        // When
+        evaluator().evaluate(REALM, new Subject(), resources, emptyMap());
+
+        // Then
+        assertThat(appTokens).containsOnlyKeys(resources.toArray(new String[0]));
+        assertThat(appTokens.values()).containsOnly(appToken);
+    }
+
+    @Test
+    public void shouldResolveSubjectIndexesOnce() throws Exception {
+        // Given
+        Set<String> resources = resources(6);
+
+        // When
+        evaluator().evaluate(REALM, new Subject(), resources, emptyMap());
+
+        // Then
+        assertThat(subjectIndexLookups.get()).isEqualTo(1);
+        assertThat(subjectIndexes).containsOnlyKeys(resources.toArray(new String[0]));
+        assertThat(subjectIndexes.values()).containsOnly(SUBJECT_INDEXES);
+    }
+
+    private Evaluator evaluator() {
+        return new Evaluator(null, APPLICATION, mockPolicyMonitor, mockConfigWrapper) {
+            @Override
+            ExecutorService getBatchPool() {
+                return pool;
+            }
+
+            @Override
+            Set<String> getSubjectSearchFilter(String realm, Subject subject) {
+                subjectIndexLookups.incrementAndGet();
+                return SUBJECT_INDEXES;
+            }
+
+            @Override
+            List<Entitlement> evaluate(String realm, Subject subject, String resourceName,
+                    Map<String, Set<String>> environment, boolean recursive, SubjectIndexes indexes)
+                    throws EntitlementException {
+                evaluatedResources.add(resourceName);
+                Object appToken = AppTokenHandler.getAndClear();
+                if (appToken != null) {
+                    appTokens.put(resourceName, appToken);
+                }
+                subjectIndexes.put(resourceName, indexes.get());
+                if (resourceEvaluation != null) {
+                    try {
+                        resourceEvaluation.evaluate(resourceName);
+                    } catch (EntitlementException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new EntitlementException(100, e);
+                    }
+                }
+                return singletonList(new Entitlement(APPLICATION, resourceName, singletonMap("GET", true)));
+            }
+        };
+    }
+
+    private static Set<String> resources(int count) {
+        Set<String> resources = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            resources.add(resource(i));
+        }
+        return resources;
+    }
+
+    private static String resource(int index) {
+        return "http://www.example.com:80/" + index;
+    }
+
+    private static int index(String resourceName) {
+        return Integer.parseInt(resourceName.substring(resourceName.lastIndexOf('/') + 1));
+    }
+
+    private interface ResourceEvaluation {
+        void evaluate(String resourceName) throws Exception;
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.sun.identity.entitlement;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.security.auth.Subject;
+
+import org.forgerock.openam.session.SessionCache;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.iplanet.dpro.session.Session;
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.sso.SSOToken;
+import com.iplanet.sso.SSOTokenEvent;
+import com.iplanet.sso.SSOTokenID;
+import com.iplanet.sso.SSOTokenListener;
+
+public class PolicyDecisionCacheTest extends AbstractMockBasedTest {
+
+    private static final String REALM = "/";
+    private static final String APPLICATION = "iPlanetAMWebAgentService";
+    private static final String RESOURCE = "http://www.example.com:80/index.html";
+
+    @Mock private SSOToken mockToken;
+    @Mock private SSOTokenID mockTokenId;
+    @Mock private SessionCache mockSessionCache;
+    @Mock private Session mockSession;
+
+    private Subject adminSubject;
+    private Subject subject;
+    private PolicyDecisionCache cache;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        given(mockTokenId.toString()).willReturn("token");
+        given(mockToken.getTokenID()).willReturn(mockTokenId);
+        subject = new Subject();
+        subject.getPrivateCredentials().add(mockToken);
+        adminSubject = subject("admin");
+        given(mockSessionCache.readSession(any(SessionID.class))).willReturn(mockSession);
+        given(mockSession.getPropertiesVersion()).willReturn(1L);
+
+        cache = new PolicyDecisionCache(100, 60000L, mockSessionCache);
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedDecision() throws Exception {
+        // Given
+        Entitlement entitlement = entitlement(Long.MAX_VALUE);
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement));
+
+        // When
+        List<Entitlement> result = cache.get(key(environment("127.0.0.1")));
+
+        // Then
+        assertThat(result).containsExactly(entitlement);
+        assertThat(result.get(0)).isNotSameAs(entitlement);
+        verify(mockToken).addSSOTokenListener(any(SSOTokenListener.class));
+    }
+
+    @Test
+    public void shouldShareApplicationOfCachedDecision() throws Exception {
+        // Given
+        Application application = new Application(APPLICATION, null);
+        Entitlement entitlement = entitlement(Long.MAX_VALUE);
+        Field applicationField = Entitlement.class.getDeclaredField("application");
+        applicationField.setAccessible(true);
+        applicationField.set(entitlement, application);
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement));
+
+        // When
+        List<Entitlement> result = cache.get(key(environment("127.0.0.1")));
+
+        // Then
+        assertThat(result.get(0).getApplication(null, REALM)).isSameAs(application);
+    }
+
+    @Test
+    public void shouldForgetSubjectsBeyondCacheSize() throws Exception {
+        // Given
+        cache = new PolicyDecisionCache(1, 60000L, mockSessionCache);
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(Long.MAX_VALUE)));
+
+        // When
+        cache.getKey(REALM, APPLICATION, RESOURCE, RESOURCE, false, adminSubject, subject("other"),
+                environment("127.0.0.1"));
+
+        // Then
+        assertThat(cache.get(key(environment("127.0.0.1")))).isNull();
+    }
+
+    @Test
+    public void shouldNotReturnDecisionForDifferentEnvironment() throws Exception {
+        // Given
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(Long.MAX_VALUE)));
+
+        // When
+        List<Entitlement> result = cache.get(key(environment("127.0.0.2")));
+
+        // Then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    public void shouldNotCacheDecisionForSubjectWithoutSession() throws Exception {
+        // When
+        PolicyDecisionCache.Key key = cache.getKey(REALM, APPLICATION, RESOURCE, RESOURCE, false, adminSubject,
+                new Subject(), environment("127.0.0.1"));
+
+        // Then
+        assertThat(key).isNull();
+    }
+
+    @Test
+    public void shouldNotCacheDecisionForSessionNotInSessionCache() throws Exception {
+        // Given
+        given(mockSessionCache.readSession(any(SessionID.class))).willReturn(null);
+
+        // When
+        PolicyDecisionCache.Key key = key(environment("127.0.0.1"));
+
+        // Then
+        assertThat(key).isNull();
+    }
+
+    @Test
+    public void shouldNotReturnDecisionOnceSessionPropertiesChangeWithoutNotification() throws Exception {
+        // Given
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(Long.MAX_VALUE)));
+
+        // When
+        given(mockSession.getPropertiesVersion()).willReturn(2L);
+
+        // Then
+        assertThat(cache.get(key(environment("127.0.0.1")))).isNull();
+    }
+
+    @Test
+    public void shouldNotReturnDecisionForDifferentAdminSubject() throws Exception {
+        // Given
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(Long.MAX_VALUE)));
+
+        // When
+        List<Entitlement> result = cache.get(cache.getKey(REALM, APPLICATION, RESOURCE, RESOURCE, false,
+                subject("otherAdmin"), subject, environment("127.0.0.1")));
+
+        // Then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    public void shouldNotCacheDecisionWhichHasExpired() throws Exception {
+        // When
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(1L)));
+
+        // Then
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldNotCacheDecisionMadeBeforePolicyChange() throws Exception {
+        // Given
+        PolicyDecisionCache.Key key = key(environment("127.0.0.1"));
+
+        // When
+        cache.invalidateAll();
+        cache.put(key, Collections.singletonList(entitlement(Long.MAX_VALUE)));
+
+        // Then
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldDiscardDecisionsWhenPolicyChanges() throws Exception {
+        // Given
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(Long.MAX_VALUE)));
+
+        // When
+        cache.invalidateAll();
+
+        // Then
+        assertThat(cache.get(key(environment("127.0.0.1")))).isNull();
+    }
+
+    @Test
+    public void shouldDiscardDecisionsWhenSessionEnds() throws Exception {
+        // Given
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(Long.MAX_VALUE)));
+
+        // When
+        sessionChanged(SSOTokenEvent.SSO_TOKEN_DESTROY);
+
+        // Then
+        assertThat(cache.get(key(environment("127.0.0.1")))).isNull();
+    }
+
+    @Test
+    public void shouldCacheAgainWithoutAddingListenerWhenSessionPropertyChanges() throws Exception {
+        // Given
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(Long.MAX_VALUE)));
+        sessionChanged(SSOTokenEvent.SSO_TOKEN_PROPERTY_CHANGED);
+        assertThat(cache.get(key(environment("127.0.0.1")))).isNull();
+
+        // When
+        cache.put(key(environment("127.0.0.1")), Collections.singletonList(entitlement(Long.MAX_VALUE)));
+
+        // Then
+        assertThat(cache.get(key(environment("127.0.0.1")))).isNotNull();
+        verify(mockToken, times(1)).addSSOTokenListener(any(SSOTokenListener.class));
+    }
+
+    @Test
+    public void shouldNotCacheWhenDisabled() throws Exception {
+        // Given
+        cache = new PolicyDecisionCache(0, 60000L, mockSessionCache);
+
+        // When
+        PolicyDecisionCache.Key key = key(environment("127.0.0.1"));
+
+        // Then
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(key).isNull();
+    }
+
+    private PolicyDecisionCache.Key key(Map<String, Set<String>> environment) {
+        return cache.getKey(REALM, APPLICATION, RESOURCE, RESOURCE, false, adminSubject, subject, environment);
+    }
+
+    private static Subject subject(String tokenId) {
+        SSOTokenID ssoTokenId = mock(SSOTokenID.class);
+        given(ssoTokenId.toString()).willReturn(tokenId);
+        SSOToken token = mock(SSOToken.class);
+        given(token.getTokenID()).willReturn(ssoTokenId);
+        Subject subject = new Subject();
+        subject.getPrivateCredentials().add(token);
+        return subject;
+    }
+
+    private void sessionChanged(int type) throws Exception {
+        ArgumentCaptor<SSOTokenListener> listenerCaptor = ArgumentCaptor.forClass(SSOTokenListener.class);
+        verify(mockToken).addSSOTokenListener(listenerCaptor.capture());
+        SSOTokenEvent event = mock(SSOTokenEvent.class);
+        given(event.getToken()).willReturn(mockToken);
+        given(event.getType()).willReturn(type);
+        listenerCaptor.getValue().ssoTokenChanged(event);
+    }
+
+    private static Entitlement entitlement(long timeToLive) {
+        Map<String, Boolean> actionValues = new HashMap<>();
+        actionValues.put("GET", true);
+        Entitlement entitlement = new Entitlement(APPLICATION, RESOURCE, actionValues);
+        entitlement.setTTL(timeToLive);
+        return entitlement;
+    }
+
+    private static Map<String, Set<String>> environment(String ipAddress) {
+        Map<String, Set<String>> environment = new HashMap<>();
+        environment.put("requestIp", singleton(ipAddress));
+        return environment;
+    }
+}
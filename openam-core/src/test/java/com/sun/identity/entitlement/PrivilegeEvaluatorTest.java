@@ -0,0 +1,234 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.sun.identity.entitlement;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.security.auth.Subject;
+
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.mockito.verification.VerificationMode;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.sun.identity.entitlement.interfaces.ResourceName;
+
+public class PrivilegeEvaluatorTest extends AbstractMockBasedTest {
+
+    private static final String REALM = "/";
+    private static final String APPLICATION = "iPlanetAMWebAgentService";
+    private static final String RESOURCE = "http://www.example.com:80/index.html";
+    private static final String ACTION = "GET";
+
+    @Mock private Application mockApplication;
+    @Mock private ResourceName mockResourceComparator;
+    @Mock private ResourceSearchIndexes mockIndexes;
+
+    private final Set<Thread> evaluatingThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    private Iterator<IPrivilege> policies;
+    private ExecutorService pool;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        evaluatingThreads.clear();
+        given(mockApplication.getName()).willReturn(APPLICATION);
+        given(mockApplication.getResourceComparator()).willReturn(mockResourceComparator);
+        given(mockApplication.getEntitlementCombiner()).willReturn(new DenyOverride());
+        given(mockApplication.getResourceSearchIndex(RESOURCE, REALM)).willReturn(mockIndexes);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    @Test
+    public void shouldEvaluateAllPoliciesOnCallingThreadWithoutPool() throws Exception {
+        // Given
+        List<IPrivilege> privileges = policies(7, true);
+
+        // When
+        List<Entitlement> result = evaluate(evaluator(null));
+
+        // Then
+        assertThat(result.get(0).getActionValue(ACTION)).isTrue();
+        for (IPrivilege privilege : privileges) {
+            verifyEvaluated(privilege, times(1));
+        }
+        assertThat(evaluatingThreads).containsOnly(Thread.currentThread());
+    }
+
+    @Test
+    public void shouldEvaluateFurtherBatchesOnPool() throws Exception {
+        // Given
+        pool = Executors.newFixedThreadPool(2);
+        List<IPrivilege> privileges = policies(12, true);
+
+        // When
+        List<Entitlement> result = evaluate(evaluator(pool));
+
+        // Then
+        assertThat(result.get(0).getActionValue(ACTION)).isTrue();
+        for (IPrivilege privilege : privileges) {
+            verifyEvaluated(privilege, times(1));
+        }
+        assertThat(evaluatingThreads).contains(Thread.currentThread()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    public void shouldNotEvaluateFurtherPoliciesOnceDenyIsCombined() throws Exception {
+        // Given
+        List<IPrivilege> privileges = new ArrayList<>(policies(1, false));
+        privileges.addAll(policies(9, true));
+        policies = privileges.iterator();
+
+        // When
+        boolean result = evaluator(null).hasEntitlement(REALM, null, new Subject(), APPLICATION, entitlement(),
+                emptyMap());
+
+        // Then
+        assertThat(result).isFalse();
+        for (IPrivilege privilege : privileges.subList(0, 5)) {
+            verifyEvaluated(privilege, times(1));
+        }
+        for (IPrivilege privilege : privileges.subList(5, 10)) {
+            verifyEvaluated(privilege, never());
+        }
+    }
+
+    @Test
+    public void shouldPropagateEntitlementExceptionFromPooledBatch() throws Exception {
+        // Given
+        pool = Executors.newFixedThreadPool(2);
+        EntitlementException failure = new EntitlementException(100);
+        List<IPrivilege> privileges = new ArrayList<>(policies(7, true));
+        privileges.add(failingPolicy(failure));
+        policies = privileges.iterator();
+
+        // When
+        Throwable thrown = catchThrowable(() -> evaluate(evaluator(pool)));
+
+        // Then
+        assertThat(thrown).isSameAs(failure);
+    }
+
+    @Test
+    public void shouldWrapRuntimeExceptionFromPooledBatch() throws Exception {
+        // Given
+        pool = Executors.newFixedThreadPool(2);
+        RuntimeException failure = new IllegalStateException("failed");
+        List<IPrivilege> privileges = new ArrayList<>(policies(7, true));
+        privileges.add(failingPolicy(failure));
+        policies = privileges.iterator();
+
+        // When
+        Throwable thrown = catchThrowable(() -> evaluate(evaluator(pool)));
+
+        // Then
+        assertThat(thrown).isInstanceOf(EntitlementException.class);
+        assertThat(thrown.getCause()).isSameAs(failure);
+    }
+
+    private PrivilegeEvaluator evaluator(ExecutorService threadPool) {
+        return new PrivilegeEvaluator(threadPool) {
+            @Override
+            Application getApplication() {
+                return mockApplication;
+            }
+
+            @Override
+            Iterator<IPrivilege> search(String realm) {
+                return policies;
+            }
+        };
+    }
+
+    private List<Entitlement> evaluate(PrivilegeEvaluator evaluator) throws EntitlementException {
+        return evaluator.evaluate(REALM, null, new Subject(), APPLICATION, RESOURCE, RESOURCE,
+                emptyMap(), false, emptySet());
+    }
+
+    private List<IPrivilege> policies(int count, boolean allow) throws Exception {
+        List<IPrivilege> privileges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            IPrivilege privilege = mock(IPrivilege.class);
+            final List<Entitlement> decision =
+                    singletonList(new Entitlement(APPLICATION, RESOURCE, singletonMap(ACTION, allow)));
+            given(evaluate(privilege)).willAnswer(new Answer<List<Entitlement>>() {
+                @Override
+                public List<Entitlement> answer(InvocationOnMock invocation) {
+                    evaluatingThreads.add(Thread.currentThread());
+                    return decision;
+                }
+            });
+            privileges.add(privilege);
+        }
+        policies = privileges.iterator();
+        return privileges;
+    }
+
+    private IPrivilege failingPolicy(Throwable failure) throws Exception {
+        IPrivilege privilege = mock(IPrivilege.class);
+        given(evaluate(privilege)).willThrow(failure);
+        return privilege;
+    }
+
+    private List<Entitlement> evaluate(IPrivilege privilege) throws EntitlementException {
+        return privilege.evaluate(any(), any(), any(), any(), any(), any(), any(), any(), anyBoolean(), any());
+    }
+
+    private void verifyEvaluated(IPrivilege privilege, VerificationMode mode) throws EntitlementException {
+        evaluate(verify(privilege, mode));
+    }
+
+    private Entitlement entitlement() throws EntitlementException {
+        Entitlement entitlement = mock(Entitlement.class);
+        given(entitlement.getResourceName()).willReturn(RESOURCE);
+        given(entitlement.getRequestedResourceName()).willReturn(RESOURCE);
+        given(entitlement.getActionValues()).willReturn(singletonMap(ACTION, true));
+        given(entitlement.getResourceSearchIndexes(any(), eq(REALM))).willReturn(mockIndexes);
+        return entitlement;
+    }
+}
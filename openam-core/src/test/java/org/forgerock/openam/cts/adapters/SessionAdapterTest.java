@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.adapters;
 
@@ -34,6 +35,7 @@ import org.forgerock.openam.cts.api.fields.SessionTokenField;
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.api.tokens.TokenIdFactory;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.utils.BinaryJSONSerialisation;
 import org.forgerock.openam.cts.utils.JSONSerialisation;
 import org.forgerock.openam.cts.utils.blob.TokenBlobUtils;
 import org.forgerock.openam.tokens.CoreTokenField;
@@ -47,6 +49,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.iplanet.dpro.session.SessionID;
 import com.iplanet.dpro.session.service.InternalSession;
 import com.iplanet.dpro.session.service.SessionState;
+import com.iplanet.dpro.session.service.SessionType;
 
 public class SessionAdapterTest {
 
@@ -64,8 +67,8 @@ public class SessionAdapterTest {
         mockJsonSerialisation = mock(JSONSerialisation.class);
         blobUtils = new TokenBlobUtils();
         dnWrapper = mock(DNWrapper.class);
-        adapter = new SessionAdapter(mockTokenIdFactory, mockCoreTokenConfig, mockJsonSerialisation, blobUtils,
-                dnWrapper);
+        adapter = new SessionAdapter(mockTokenIdFactory, mockCoreTokenConfig, mockJsonSerialisation,
+                mock(BinaryJSONSerialisation.class), blobUtils, dnWrapper);
     }
 
     @Test
@@ -97,7 +100,7 @@ public class SessionAdapterTest {
 
         Token token = new Token(mockSessionId, TokenType.SESSION);
         token.setUserId(mockUserId);
-        token.setExpiryTimestamp(now);
+        token.setExpiryTimeMillis(now.getTimeInMillis());
         token.setBlob(mockByteData);
         token.setAttribute(SessionTokenField.SESSION_ID.getField(), mockSessionId);
         token.setAttribute(SessionTokenField.SESSION_HANDLE.getField(), mockSessionHandle);
@@ -125,15 +128,10 @@ public class SessionAdapterTest {
         token.setBlob("{\"clientDomain\":null,\"creationTime\":1376307674,\"maxCachingTime\":3}".getBytes());
 
         // need a real JSONSerialisation for this test
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setVisibilityChecker(mapper.getSerializationConfig().getDefaultVisibilityChecker()
-                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        ObjectMapper mapper = fieldVisibleObjectMapper();
         JSONSerialisation serialisation = new JSONSerialisation(mapper);
-        adapter = new SessionAdapter(mockTokenIdFactory, mockCoreTokenConfig, serialisation, blobUtils, dnWrapper);
+        adapter = new SessionAdapter(mockTokenIdFactory, mockCoreTokenConfig, serialisation,
+                new BinaryJSONSerialisation(mapper), blobUtils, dnWrapper);
 
         // When
         InternalSession session = adapter.fromToken(token);
@@ -146,6 +144,38 @@ public class SessionAdapterTest {
 
     }
 
+    @Test
+    public void shouldRestoreLatestAccessTimeFromAttributeForBinaryBlob() throws Exception {
+        // Given
+        ObjectMapper mapper = fieldVisibleObjectMapper();
+        BinaryJSONSerialisation binarySerialisation = new BinaryJSONSerialisation(mapper);
+        adapter = new SessionAdapter(mockTokenIdFactory, mockCoreTokenConfig, mock(JSONSerialisation.class),
+                binarySerialisation, blobUtils, dnWrapper);
+
+        Token token = new Token("badger", TokenType.SESSION);
+        token.setAttribute(SessionTokenField.LATEST_ACCESS_TIME.getField(), "12345");
+        token.setBlob(binarySerialisation.serialise(mapper.readTree(
+                "{\"clientDomain\":null,\"creationTime\":1376307674,\"maxCachingTime\":3}")));
+
+        // When
+        InternalSession session = adapter.fromToken(token);
+
+        // Then
+        long epochedSeconds = currentTimeMillis() / 1000;
+        assertTrue(session.getIdleTime() < epochedSeconds);
+    }
+
+    private static ObjectMapper fieldVisibleObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibilityChecker(mapper.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
+        return mapper;
+    }
+
     @Test
     public void shouldAssignUserIDToTokenAttribute() {
         // Given
@@ -200,6 +230,33 @@ public class SessionAdapterTest {
         assertThat(token.<String>getAttribute(SessionTokenField.SESSION_HANDLE.getField())).isEqualTo(mockSessionHandle);
     }
 
+    @Test
+    public void shouldAssignUniversalIdToTokenAttribute() {
+        // Given
+        InternalSession mockSession = prototypeMockInternalSession();
+        String mockUniversalId = "id=Ferret,ou=user,dc=example,dc=com";
+        given(mockSession.getUUID()).willReturn(mockUniversalId);
+
+        // When
+        Token token = adapter.toToken(mockSession);
+
+        // Then
+        assertThat(token.<String>getAttribute(SessionTokenField.UNIVERSAL_ID.getField())).isEqualTo(mockUniversalId);
+    }
+
+    @Test
+    public void shouldAssignSessionTypeToTokenAttribute() {
+        // Given
+        InternalSession mockSession = prototypeMockInternalSession();
+        given(mockSession.getType()).willReturn(SessionType.APPLICATION);
+
+        // When
+        Token token = adapter.toToken(mockSession);
+
+        // Then
+        assertThat(token.<String>getAttribute(SessionTokenField.SESSION_TYPE.getField())).isEqualTo("APPLICATION");
+    }
+
     @Test
     public void shouldAssignSessionStateInvalidToTokenAttribute() {
         // Given
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.api.tokens;
 
@@ -57,6 +58,47 @@ public class TokenTest {
         assertEquals(now.getTimeInMillis(), result.getTimeInMillis());
     }
 
+    @Test
+    public void shouldReadDateSetAsCalendarInMillis() {
+        // Given
+        Calendar now = getCalendarInstance();
+        Token token = new Token("", TokenType.SESSION);
+        // When
+        token.setExpiryTimestamp(now);
+        // Then
+        assertThat(token.getExpiryTimeMillis()).isEqualTo(now.getTimeInMillis());
+    }
+
+    @Test
+    public void shouldReadDateSetInMillisAsCalendar() {
+        // Given
+        long now = currentTimeMillis();
+        Token token = new Token("", TokenType.SESSION);
+        // When
+        token.setDateAttributeMillis(DATE_ONE, now);
+        // Then
+        Calendar result = token.getAttribute(DATE_ONE);
+        assertThat(result.getTimeInMillis()).isEqualTo(now);
+    }
+
+    @Test
+    public void shouldReturnNullMillisForUnsetDate() {
+        // Given
+        Token token = new Token("", TokenType.SESSION);
+        // When
+        Long result = token.getExpiryTimeMillis();
+        // Then
+        assertThat(result).isNull();
+    }
+
+    @Test (expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotSetMillisOnNonDateField() {
+        // Given
+        Token token = new Token("", TokenType.SESSION);
+        // When
+        token.setDateAttributeMillis(STRING_ONE, currentTimeMillis());
+    }
+
     @Test
     public void shouldStoreInteger() {
         // Given
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 package org.forgerock.openam.cts.impl;
 
@@ -49,6 +49,7 @@ public class CoreTokenAdapterTest {
     private ResultHandlerFactory mockResultHandlerFactory;
     private Debug mockDebug;
     private CTSWorkerManager mockReaperInit;
+    private TokenReadCache mockReadCache;
     private Options options;
 
     @BeforeMethod
@@ -57,11 +58,12 @@ public class CoreTokenAdapterTest {
         mockTaskDispatcher = mock(TaskDispatcher.class);
         mockResultHandlerFactory = mock(ResultHandlerFactory.class);
         mockReaperInit = mock(CTSWorkerManager.class);
+        mockReadCache = mock(TokenReadCache.class);
         mockDebug = mock(Debug.class);
         options = Options.defaultOptions();
 
         adapter = new CoreTokenAdapter(mockStrategy, mockTaskDispatcher, mockResultHandlerFactory, mockReaperInit,
-                mockDebug);
+                mockReadCache, mockDebug);
     }
 
     @Test
@@ -95,6 +97,52 @@ public class CoreTokenAdapterTest {
         assertThat(result.getTokenId()).isEqualTo(tokenId);
     }
 
+    @Test
+    public void shouldReturnCachedTokenWithoutQueuingRead() throws Exception {
+        // Given
+        String tokenId = "badger";
+        given(mockReadCache.isEnabled()).willReturn(true);
+        given(mockReadCache.get(tokenId)).willReturn(new Token(tokenId, TokenType.SESSION));
+
+        // When
+        Token result = adapter.read(tokenId, options);
+
+        // Then
+        assertThat(result.getTokenId()).isEqualTo(tokenId);
+        verify(mockTaskDispatcher, never()).read(anyString(), any(Options.class), any(ResultHandler.class));
+        verify(mockTaskDispatcher).continuousQuery(eq(mockReadCache), any(TokenFilter.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldCacheTokenAfterRead() throws Exception {
+        // Given
+        String tokenId = "badger";
+        Token token = new Token(tokenId, TokenType.SESSION);
+        ResultHandler<Token, CoreTokenException> mockResultHandler = mock(ResultHandler.class);
+        given(mockResultHandler.getResults()).willReturn(token);
+        given(mockResultHandlerFactory.getReadHandler()).willReturn(mockResultHandler);
+        given(mockReadCache.generation(tokenId)).willReturn(7L);
+
+        // When
+        adapter.read(tokenId, options);
+
+        // Then
+        verify(mockReadCache).put(token, 7L);
+    }
+
+    @Test
+    public void shouldInvalidateCachedTokenOnUpdate() throws Exception {
+        // Given
+        Token token = new Token("badger", TokenType.SESSION);
+
+        // When
+        adapter.updateOrCreate(token, options);
+
+        // Then
+        verify(mockReadCache).invalidate("badger");
+    }
+
     @Test (expectedExceptions = IllegalArgumentException.class)
     public void shouldPreventAttributeQueryWhenReturnAttributesAreNotDefined() throws CoreTokenException {
         adapter.attributeQuery(new TokenFilterBuilder().and().build());
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.impl;
@@ -57,6 +57,7 @@ import org.forgerock.opendj.ldap.DecodeOptions;
 import org.forgerock.opendj.ldap.Entry;
 import org.forgerock.opendj.ldap.Filter;
 import org.forgerock.opendj.ldap.LdapException;
+import org.forgerock.opendj.ldap.ModificationType;
 import org.forgerock.opendj.ldap.ResultCode;
 import org.forgerock.opendj.ldap.controls.AssertionRequestControl;
 import org.forgerock.opendj.ldap.controls.PostReadRequestControl;
@@ -543,6 +544,59 @@ public class LdapAdapterTest {
         verify(mockConnection).modify(any(ModifyRequest.class));
     }
 
+    @Test
+    public void shouldReplaceOnlyPresentAttributesOnUpdateAttributes() throws Exception {
+        // Given
+        Token token = new Token("badger", TokenType.SESSION);
+        token.setAttribute(CoreTokenField.STRING_ONE, "weasel");
+        Options options = Options.defaultOptions();
+
+        Result successResult = mockSuccessfulResult();
+
+        given(mockConnection.modify(any(ModifyRequest.class))).willReturn(successResult);
+
+        LdapDataLayerConfiguration config = mock(LdapDataLayerConfiguration.class);
+        when(config.getTokenStoreRootSuffix()).thenReturn(DN.valueOf("ou=unit-test"));
+        LDAPDataConversion dataConversion = new LDAPDataConversion();
+        LdapTokenAttributeConversion conversion = new LdapTokenAttributeConversion(dataConversion, config);
+        LdapAdapter adapter = new LdapAdapter(conversion, null, null, mockConnectionFactoryProvider,
+                optionFunctionMap);
+
+        // When
+        adapter.updateAttributes(token, options);
+
+        // Then
+        ArgumentCaptor<ModifyRequest> requestCaptor = ArgumentCaptor.forClass(ModifyRequest.class);
+        verify(mockConnection).modify(requestCaptor.capture());
+        ModifyRequest request = requestCaptor.getValue();
+        assertThat(request.getName()).isEqualTo(conversion.generateTokenDN(token));
+        assertThat(request.getModifications()).hasSize(1);
+        assertThat(request.getModifications().get(0).getModificationType()).isEqualTo(ModificationType.REPLACE);
+        assertThat(request.getModifications().get(0).getAttribute().getAttributeDescriptionAsString())
+                .isEqualTo(CoreTokenField.STRING_ONE.toString());
+        assertThat(request.getControl(PostReadRequestControl.DECODER, new DecodeOptions())).isNotNull();
+    }
+
+    @Test (expectedExceptions = LdapOperationFailedException.class)
+    public void shouldFailUpdateAttributesIfObjectNotFound() throws Exception {
+        // Given
+        Token token = new Token("badger", TokenType.SESSION);
+        token.setAttribute(CoreTokenField.STRING_ONE, "weasel");
+
+        given(mockConnection.modify(any(ModifyRequest.class)))
+                .willThrow(LdapException.newLdapException(ResultCode.NO_SUCH_OBJECT));
+
+        LdapDataLayerConfiguration config = mock(LdapDataLayerConfiguration.class);
+        when(config.getTokenStoreRootSuffix()).thenReturn(DN.valueOf("ou=unit-test"));
+        LDAPDataConversion dataConversion = new LDAPDataConversion();
+        LdapTokenAttributeConversion conversion = new LdapTokenAttributeConversion(dataConversion, config);
+        LdapAdapter adapter = new LdapAdapter(conversion, null, null, mockConnectionFactoryProvider,
+                optionFunctionMap);
+
+        // When
+        adapter.updateAttributes(token, Options.defaultOptions());
+    }
+
     @Test
     public void shouldQuery() throws Exception {
         // Given
@@ -0,0 +1,171 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.*;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.continuous.ChangeType;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.tokens.TokenType;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.identity.shared.debug.Debug;
+
+public class TokenReadCacheTest {
+
+    private TokenReadCache cache;
+
+    @BeforeMethod
+    public void setup() {
+        CoreTokenConfig config = mock(CoreTokenConfig.class);
+        given(config.getReadCacheSize()).willReturn(10);
+        given(config.getReadCacheTtl()).willReturn(60000L);
+        given(config.getReadCacheTokenTypes()).willReturn(EnumSet.of(TokenType.SESSION));
+        cache = new TokenReadCache(config, mock(Debug.class));
+        cache.startRegistration();
+        cache.activate();
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedToken() {
+        // Given
+        Token token = new Token("badger", TokenType.SESSION);
+        cache.put(token, cache.generation("badger"));
+
+        // When
+        Token result = cache.get("badger");
+
+        // Then
+        assertThat(result.getTokenId()).isEqualTo("badger");
+        assertThat(result).isNotSameAs(token);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCacheIneligibleTokenType() {
+        // Given
+        Token token = new Token("badger", TokenType.OAUTH);
+
+        // When
+        cache.put(token, cache.generation("badger"));
+
+        // Then
+        assertThat(cache.get("badger")).isNull();
+    }
+
+    @Test
+    public void shouldNotCacheTokenReadBeforeInvalidation() {
+        // Given
+        long generation = cache.generation("badger");
+        cache.invalidate("badger");
+
+        // When
+        cache.put(new Token("badger", TokenType.SESSION), generation);
+
+        // Then
+        assertThat(cache.get("badger")).isNull();
+    }
+
+    @Test
+    public void shouldInvalidateOnContinuousQueryModification() {
+        // Given
+        cache.put(new Token("badger", TokenType.SESSION), cache.generation("badger"));
+
+        // When
+        cache.objectChanged("badger", Collections.<String, Object>emptyMap(), ChangeType.MODIFY);
+
+        // Then
+        assertThat(cache.get("badger")).isNull();
+    }
+
+    @Test
+    public void shouldClearCacheWhenConnectionLost() {
+        // Given
+        cache.put(new Token("badger", TokenType.SESSION), cache.generation("badger"));
+
+        // When
+        cache.connectionLost();
+
+        // Then
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSuspendCachingWhenContinuousQueryFails() {
+        // Given
+        cache.put(new Token("badger", TokenType.SESSION), cache.generation("badger"));
+
+        // When
+        cache.processError(new DataLayerException("weasel"));
+        cache.put(new Token("ferret", TokenType.SESSION), cache.generation("ferret"));
+
+        // Then
+        assertThat(cache.get("badger")).isNull();
+        assertThat(cache.get("ferret")).isNull();
+        assertThat(cache.startRegistration()).isTrue();
+    }
+
+    @Test
+    public void shouldResumeCachingWhenContinuousQueryReconnects() {
+        // Given
+        cache.processError(new DataLayerException("weasel"));
+        cache.startRegistration();
+
+        // When
+        cache.connectionLost();
+        cache.put(new Token("badger", TokenType.SESSION), cache.generation("badger"));
+
+        // Then
+        assertThat(cache.get("badger")).isNotNull();
+    }
+
+    @Test
+    public void shouldOnlyClaimRegistrationOnce() {
+        // Given
+        cache.cancelRegistration();
+
+        // When
+        boolean first = cache.startRegistration();
+        boolean second = cache.startRegistration();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+    }
+
+    @Test
+    public void shouldNotCacheUntilActivated() {
+        // Given
+        CoreTokenConfig config = mock(CoreTokenConfig.class);
+        given(config.getReadCacheSize()).willReturn(10);
+        given(config.getReadCacheTtl()).willReturn(60000L);
+        given(config.getReadCacheTokenTypes()).willReturn(EnumSet.of(TokenType.SESSION));
+        TokenReadCache inactive = new TokenReadCache(config, mock(Debug.class));
+
+        // When
+        inactive.put(new Token("badger", TokenType.SESSION), inactive.generation("badger"));
+
+        // Then
+        assertThat(inactive.get("badger")).isNull();
+    }
+}
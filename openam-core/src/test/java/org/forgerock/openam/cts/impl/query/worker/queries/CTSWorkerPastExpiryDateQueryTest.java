@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.impl.query.worker.queries;
 
@@ -20,8 +21,6 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.verify;
 
-import java.util.Calendar;
-
 import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
 import org.forgerock.openam.sm.datalayer.api.query.QueryBuilder;
@@ -51,7 +50,7 @@ public class CTSWorkerPastExpiryDateQueryTest {
 
         mockQueryFilterConverter = mock(QueryFilterVisitor.class);
         given(mockQueryFilterConverter.visitLessThanFilter(
-                (Void)isNull(), eq(CoreTokenField.EXPIRY_DATE), any(Calendar.class)))
+                (Void)isNull(), eq(CoreTokenField.EXPIRY_DATE), any(Long.class)))
                 .willReturn(Filter.alwaysTrue());
 
         mockFactory = mock(QueryFactory.class);
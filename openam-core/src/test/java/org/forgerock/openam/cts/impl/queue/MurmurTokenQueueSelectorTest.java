@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.impl.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class MurmurTokenQueueSelectorTest {
+
+    private MurmurTokenQueueSelector selector;
+
+    @BeforeMethod
+    public void setup() {
+        selector = new MurmurTokenQueueSelector();
+    }
+
+    @Test
+    public void shouldMatchReferenceHashValues() {
+        assertThat(MurmurTokenQueueSelector.hash("abc".getBytes(StandardCharsets.UTF_8))).isEqualTo(0xc84a62dd);
+        assertThat(MurmurTokenQueueSelector.hash("Hello, world!".getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo(0x24884cba);
+        assertThat(MurmurTokenQueueSelector.hash(
+                "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo(0x2fa826cd);
+    }
+
+    @Test
+    public void shouldBeConsistentWithTokens() {
+        assertThat(selector.select("badger", 8)).isEqualTo(selector.select("badger", 8));
+    }
+
+    @Test (expectedExceptions = IllegalArgumentException.class)
+    public void shouldEnforceQueuesAsPositive() {
+        selector.select("badger", 0);
+    }
+
+    @Test (expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotSupportNullToken() {
+        selector.select(null, 2);
+    }
+
+    @Test
+    public void shouldDistributeTokensWithCommonPrefixAcrossAllQueues() {
+        int queues = 16;
+        int[] counts = new int[queues];
+        for (int ii = 0; ii < 16000; ii++) {
+            counts[selector.select("AQIC5wM2LY4Sfcx" + ii + "*AAJTSQACMDEAAlNLABQt", queues)]++;
+        }
+        for (int count : counts) {
+            assertThat(count).isBetween(800, 1200);
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.impl.queue;
 
@@ -51,4 +52,10 @@ public class QueueSelectorTest {
             assertThat(select).isGreaterThanOrEqualTo(0);
         }
     }
+
+    @Test
+    public void shouldNotReturnNegativeNumberForMinimumHashCode() {
+        // "polygenelubricants".hashCode() == Integer.MIN_VALUE
+        assertThat(QueueSelector.select("polygenelubricants", 3)).isGreaterThanOrEqualTo(0);
+    }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.monitoring;
@@ -20,6 +21,7 @@ import com.sun.identity.shared.debug.Debug;
 import org.forgerock.openam.cts.CTSOperation;
 import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.impl.TokenReadCache;
 import org.forgerock.openam.cts.monitoring.impl.CTSMonitoringStoreImpl;
 import org.forgerock.openam.cts.monitoring.impl.connections.ConnectionStore;
 import org.forgerock.openam.cts.monitoring.impl.operations.TokenOperationsStore;
@@ -46,6 +48,7 @@ public class CTSMonitoringStoreImplTest {
     private TokenOperationsStore tokenOperationsStore;
     private ReaperMonitor reaperMonitor;
     private ConnectionStore connectionStore;
+    private TokenReadCache readCache;
 
     @BeforeMethod
     public void setUp() {
@@ -55,12 +58,14 @@ public class CTSMonitoringStoreImplTest {
         final Debug debug = mock(Debug.class);
         reaperMonitor = mock(ReaperMonitor.class);
         connectionStore = mock(ConnectionStore.class);
+        readCache = mock(TokenReadCache.class);
 
         ctsOperationsMonitoringStore = new CTSMonitoringStoreImpl(
                 executorService,
                 tokenOperationsStore,
                 reaperMonitor,
                 connectionStore,
+                readCache,
                 debug);
         ctsReaperMonitoringStore = (CTSReaperMonitoringStore) ctsOperationsMonitoringStore;
 
@@ -283,4 +288,17 @@ public class CTSMonitoringStoreImplTest {
         //Then
         assertEquals(result, 2.0D);
     }
+
+    @Test
+    public void shouldGetReadCacheHitCount() {
+
+        //Given
+        given(readCache.getHitCount()).willReturn(42L);
+
+        //When
+        long result = ((CTSReadCacheMonitoringStore) ctsOperationsMonitoringStore).getReadCacheHitCount();
+
+        //Then
+        assertEquals(result, 42L);
+    }
 }
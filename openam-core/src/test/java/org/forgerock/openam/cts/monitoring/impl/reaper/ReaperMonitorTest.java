@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.cts.monitoring.impl.reaper;
@@ -73,4 +74,31 @@ public class ReaperMonitorTest {
         //Then
         assertEquals(result, 12.5D);
     }
+
+    @Test
+    public void shouldAccumulateDeletions() {
+
+        //Given
+        reaperMonitor.addDeletions(10);
+
+        //When
+        reaperMonitor.addDeletions(15);
+
+        //Then
+        assertEquals(reaperMonitor.getCumulativeDeletions(), 25L);
+    }
+
+    @Test
+    public void shouldTrackActivePartitions() {
+
+        //Given
+        reaperMonitor.partitionStarted();
+        reaperMonitor.partitionStarted();
+
+        //When
+        reaperMonitor.partitionCompleted();
+
+        //Then
+        assertEquals(reaperMonitor.getActivePartitions(), 1);
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.forgerock.openam.core.guice.CTSObjectMapperProvider;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class BinaryJSONSerialisationTest {
+
+    private ObjectMapper mapper;
+    private BinaryJSONSerialisation serialisation;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        mapper = new CTSObjectMapperProvider().get();
+        serialisation = new BinaryJSONSerialisation(mapper);
+    }
+
+    @Test
+    public void shouldSerialiseAMap() {
+        // Given
+        Map<String, Object> test = new HashMap<>();
+        test.put("badger", 1234);
+        test.put("ferret", -4321);
+        test.put("weasel", "badger");
+        test.put("stoat", null);
+
+        // When
+        byte[] blob = serialisation.serialise(test);
+        Map<?, ?> result = serialisation.deserialise(blob, Map.class);
+
+        // Then
+        assertThat(BinaryJSONSerialisation.isBinary(blob)).isTrue();
+        assertThat(result).isEqualTo(test);
+    }
+
+    @Test
+    public void shouldNotTreatJsonTextAsBinary() {
+        assertThat(BinaryJSONSerialisation.isBinary("{\"badger\":1}".getBytes())).isFalse();
+    }
+
+    @Test
+    public void shouldRoundTripJsonValues() throws Exception {
+        // Given
+        JsonNode json = mapper.readTree("{\"a\":[true,false,null,0,-1,2147483648,9223372036854775807,"
+                + "123456789012345678901234567890,1.5,\"text\",\"text\",\"\u00e9\u4e2d\"],\"b\":{\"a\":{}},\"c\":[]}");
+
+        // When
+        JsonNode result = serialisation.deserialise(serialisation.serialise(json));
+
+        // Then
+        assertThat(result).isEqualTo(json);
+    }
+
+    @DataProvider
+    public Object[][] sessions() {
+        return new Object[][]{
+                {"/json/basic-session.json"},
+                {"/json/complex-session-with-restriction-v12.json"}
+        };
+    }
+
+    @Test(dataProvider = "sessions")
+    public void shouldSerialiseSessionSmallerThanJson(String path) throws Exception {
+        // Given
+        JsonNode json;
+        try (InputStream in = getClass().getResourceAsStream(path)) {
+            json = mapper.readTree(in);
+        }
+        byte[] text = mapper.writeValueAsBytes(json);
+
+        // When
+        byte[] blob = serialisation.serialise(json);
+
+        // Then
+        assertThat(blob.length).isLessThan(text.length);
+        assertThat(serialisation.deserialise(blob)).isEqualTo(json);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldRejectTruncatedData() {
+        // Given
+        byte[] blob = serialisation.serialise(Collections.singletonMap("badger", "ferret"));
+
+        // When
+        serialisation.deserialise(Arrays.copyOf(blob, blob.length - 2));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.tokens.TokenType;
+import org.forgerock.opendj.ldap.GeneralizedTime;
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class GeneralizedTimeFormatTest {
+
+    private static final int ITERATIONS = 10000;
+
+    @DataProvider
+    public Object[][] times() {
+        return new Object[][] {
+                { 0L },
+                { 951782400000L },      // 2000-02-29T00:00:00Z
+                { 1767225599999L },     // 2025-12-31T23:59:59.999Z
+                { -2208988800001L },    // 1899-12-31T23:59:59.999Z
+                { 253402300799999L }    // 9999-12-31T23:59:59.999Z
+        };
+    }
+
+    @Test(dataProvider = "times")
+    public void shouldFormatSameTimeAsGeneralizedTime(long time) {
+        // When
+        String result = GeneralizedTimeFormat.format(time);
+
+        // Then
+        assertThat(GeneralizedTime.valueOf(result).getTimeInMillis()).isEqualTo(time);
+    }
+
+    @Test(dataProvider = "times")
+    public void shouldParseFormattedTime(long time) {
+        // When
+        long result = GeneralizedTimeFormat.parse(GeneralizedTimeFormat.format(time));
+
+        // Then
+        assertThat(result).isEqualTo(time);
+    }
+
+    @Test
+    public void shouldParseGeneralizedTimeWithOffset() {
+        // Given
+        Calendar calendar = Calendar.getInstance(LDAPDataConversionTest.CHICAGO);
+        calendar.setTimeInMillis(1767225599999L);
+        String generalizedTime = GeneralizedTime.valueOf(calendar).toString();
+
+        // When
+        long result = GeneralizedTimeFormat.parse(generalizedTime);
+
+        // Then
+        assertThat(result).isEqualTo(1767225599999L);
+    }
+
+    @Test
+    public void shouldParseReducedPrecisionGeneralizedTime() {
+        // Given
+        String generalizedTime = "2025123123Z";
+
+        // When
+        long result = GeneralizedTimeFormat.parse(generalizedTime);
+
+        // Then
+        assertThat(result).isEqualTo(GeneralizedTime.valueOf(generalizedTime).getTimeInMillis());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectInvalidDate() {
+        GeneralizedTimeFormat.parse("20250230120000Z");
+    }
+
+    @Test
+    public void shouldAllocateLessThanCalendarConversion() {
+        // Given
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            throw new SkipException("Thread allocation measurement is not supported");
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        Token token = new Token("badger", TokenType.SESSION);
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        long time = calendar.getTimeInMillis();
+        convertWithCalendar(token, calendar);
+        convertWithMillis(token, time);
+
+        // When
+        long threadId = Thread.currentThread().getId();
+        long start = allocationBean.getThreadAllocatedBytes(threadId);
+        convertWithCalendar(token, calendar);
+        long calendarBytes = allocationBean.getThreadAllocatedBytes(threadId) - start;
+        start = allocationBean.getThreadAllocatedBytes(threadId);
+        convertWithMillis(token, time);
+        long millisBytes = allocationBean.getThreadAllocatedBytes(threadId) - start;
+
+        // Then
+        assertThat(millisBytes).isLessThan(calendarBytes / 2);
+    }
+
+    private static void convertWithCalendar(Token token, Calendar calendar) {
+        for (int ii = 0; ii < ITERATIONS; ii++) {
+            token.setExpiryTimestamp(calendar);
+            calendar = token.getExpiryTimestamp();
+        }
+    }
+
+    private static void convertWithMillis(Token token, long time) {
+        for (int ii = 0; ii < ITERATIONS; ii++) {
+            token.setExpiryTimeMillis(time);
+            time = token.getExpiryTimeMillis();
+        }
+    }
+}
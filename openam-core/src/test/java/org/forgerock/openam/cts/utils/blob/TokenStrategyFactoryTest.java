@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.utils.blob;
 
@@ -20,6 +21,7 @@ import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.cts.utils.blob.strategies.AttributeCompressionStrategy;
 import org.forgerock.openam.cts.utils.blob.strategies.CompressionStrategy;
 import org.forgerock.openam.cts.utils.blob.strategies.EncryptionStrategy;
+import org.forgerock.openam.cts.utils.blob.strategies.compression.CompressionCodecType;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -60,6 +62,21 @@ public class TokenStrategyFactoryTest {
         assertThat(strategies).contains(compression);
     }
 
+    @Test
+    public void shouldReturnCompressionForConfiguredCodec() {
+        // Given
+        CoreTokenConfig config = mock(CoreTokenConfig.class);
+        given(config.isTokenCompressed()).willReturn(true);
+        given(config.getCompressionCodec()).willReturn(CompressionCodecType.LZ4);
+
+        // When
+        List<BlobStrategy> strategies = new ArrayList<BlobStrategy>(factory.getStrategies(config));
+
+        // Then
+        assertThat(strategies).hasSize(1);
+        assertThat(((CompressionStrategy) strategies.get(0)).getCodecType()).isEqualTo(CompressionCodecType.LZ4);
+    }
+
     @Test
     public void shouldReturnEncryption() {
         // Given
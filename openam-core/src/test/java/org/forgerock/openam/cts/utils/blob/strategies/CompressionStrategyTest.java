@@ -12,16 +12,22 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.utils.blob.strategies;
 
 import org.HdrHistogram.AbstractHistogram;
 import org.HdrHistogram.AtomicHistogram;
+import org.apache.commons.io.IOUtils;
 import org.forgerock.openam.cts.utils.blob.TokenStrategyFailedException;
+import org.forgerock.openam.cts.utils.blob.strategies.compression.CompressionCodecType;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.util.Collection;
@@ -32,6 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.forgerock.openam.utils.Time.*;
@@ -98,6 +105,132 @@ public class CompressionStrategyTest {
         assertThat(compression.reverse(compression.perform(data))).isEqualTo(data);
     }
 
+    @Test
+    public void shouldDecompressLegacyGzipContents() throws Exception {
+        // Given
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        GZIPOutputStream out = new GZIPOutputStream(bout);
+        out.write(data);
+        out.close();
+
+        // When / Then
+        assertThat(compression.reverse(bout.toByteArray())).isEqualTo(data);
+    }
+
+    @Test
+    public void shouldCompressGzipWithoutCodecHeader() throws TokenStrategyFailedException {
+        // When
+        byte[] compressed = compression.perform(data);
+
+        // Then
+        assertThat(compressed[0]).isEqualTo((byte) 0x1f);
+        assertThat(compressed[1]).isEqualTo((byte) 0x8b);
+    }
+
+    @DataProvider
+    public Object[][] codecTypes() {
+        return new Object[][]{
+                { CompressionCodecType.GZIP },
+                { CompressionCodecType.DEFLATE },
+                { CompressionCodecType.LZ4 }
+        };
+    }
+
+    @Test(dataProvider = "codecTypes")
+    public void shouldDecompressContentsCompressedWithCodec(CompressionCodecType codecType)
+            throws TokenStrategyFailedException {
+        // Given
+        CompressionStrategy strategy = new CompressionStrategy(codecType);
+
+        // When
+        byte[] compressed = strategy.perform(data);
+
+        // Then
+        assertThat(compressed.length).isLessThan(data.length);
+        assertThat(strategy.reverse(compressed)).isEqualTo(data);
+    }
+
+    @Test(dataProvider = "codecTypes")
+    public void shouldDecompressContentsCompressedWithAnyCodec(CompressionCodecType codecType)
+            throws TokenStrategyFailedException {
+        // Given
+        byte[] compressed = new CompressionStrategy(codecType).perform(data);
+
+        // When / Then
+        for (CompressionCodecType other : CompressionCodecType.values()) {
+            assertThat(new CompressionStrategy(other).reverse(compressed)).isEqualTo(data);
+        }
+    }
+
+    @Test (expectedExceptions = TokenStrategyFailedException.class)
+    public void shouldFailToDecompressUnknownCodec() throws TokenStrategyFailedException {
+        // Given
+        byte[] compressed = new CompressionStrategy(CompressionCodecType.LZ4).perform(data);
+        compressed[2] = 127;
+
+        // When
+        compression.reverse(compressed);
+    }
+
+    @Test
+    public void shouldStoreDictionaryIdWithDeflateContents() throws TokenStrategyFailedException {
+        // When
+        byte[] compressed = new CompressionStrategy(CompressionCodecType.DEFLATE).perform(data);
+
+        // Then
+        assertThat(compressed[7]).isEqualTo((byte) 0);
+    }
+
+    @Test (expectedExceptions = TokenStrategyFailedException.class)
+    public void shouldFailToDecompressUnknownDictionary() throws TokenStrategyFailedException {
+        // Given
+        byte[] compressed = new CompressionStrategy(CompressionCodecType.DEFLATE).perform(data);
+        compressed[7] = 127;
+
+        // When
+        compression.reverse(compressed);
+    }
+
+    /**
+     * Compares the compressed size and the time taken per operation of each codec on serialised sessions.
+     * Disabled by default to avoid slowing down the build.
+     */
+    @Test(dataProvider = "codecTypes", enabled = false)
+    public void compareCodecs(CompressionCodecType codecType) throws Exception {
+        final int WARMUP_ROUNDS = 20000;
+        final int ROUNDS = 100000;
+        CompressionStrategy strategy = new CompressionStrategy(codecType);
+        for (String resource : new String[] { "/json/basic-session.json",
+                "/json/complex-session-with-restriction-v12.json" }) {
+            byte[] session = readResource(resource);
+            byte[] compressed = strategy.perform(session);
+            for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+                strategy.reverse(strategy.perform(session));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; ++i) {
+                compressed = strategy.perform(session);
+            }
+            long performTime = (System.nanoTime() - start) / ROUNDS;
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; ++i) {
+                strategy.reverse(compressed);
+            }
+            long reverseTime = (System.nanoTime() - start) / ROUNDS;
+
+            System.out.println(String.format(Locale.US, "%-8s %-50s %5d -> %5d bytes, perform %6d ns/op, "
+                    + "reverse %6d ns/op", codecType, resource, session.length, compressed.length, performTime,
+                    reverseTime));
+        }
+    }
+
+    private static byte[] readResource(String resource) throws IOException {
+        try (InputStream in = CompressionStrategyTest.class.getResourceAsStream(resource)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
     @DataProvider
     public Object[][] numThreads() {
         return new Object[][]{
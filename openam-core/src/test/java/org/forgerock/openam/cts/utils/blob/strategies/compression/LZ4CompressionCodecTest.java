@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.utils.blob.strategies.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class LZ4CompressionCodecTest {
+
+    private final LZ4CompressionCodec codec = new LZ4CompressionCodec();
+
+    @DataProvider
+    public Object[][] data() {
+        Random random = new Random(0);
+        byte[] randomBytes = new byte[10000];
+        random.nextBytes(randomBytes);
+        byte[] lowEntropy = new byte[70000];
+        for (int i = 0; i < lowEntropy.length; i++) {
+            lowEntropy[i] = (byte) random.nextInt(4);
+        }
+        byte[] runs = new byte[100000];
+        Arrays.fill(runs, 50000, runs.length, (byte) 1);
+        return new Object[][]{
+                { new byte[0] },
+                { "badger".getBytes() },
+                { "badger badger badger badger badger badger".getBytes() },
+                { randomBytes },
+                { lowEntropy },
+                { runs }
+        };
+    }
+
+    @Test(dataProvider = "data")
+    public void shouldDecompressCompressedData(byte[] data) throws IOException {
+        // When
+        byte[] compressed = codec.compress(data, 3);
+
+        // Then
+        assertThat(codec.decompress(compressed, 3, compressed.length - 3, data.length)).isEqualTo(data);
+    }
+
+    @Test
+    public void shouldCompressRepeatedData() {
+        // Given
+        byte[] data = new byte[100000];
+
+        // When / Then
+        assertThat(codec.compress(data, 0).length).isLessThan(data.length / 100);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldRejectTruncatedData() throws IOException {
+        // Given
+        byte[] data = "badger badger badger badger badger badger badger".getBytes();
+        byte[] compressed = codec.compress(data, 0);
+
+        // When
+        codec.decompress(compressed, 0, compressed.length - 2, data.length);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldRejectIncorrectLength() throws IOException {
+        // Given
+        byte[] data = "badger badger badger badger badger badger badger".getBytes();
+        byte[] compressed = codec.compress(data, 0);
+
+        // When
+        codec.decompress(compressed, 0, compressed.length, data.length + 1);
+    }
+}
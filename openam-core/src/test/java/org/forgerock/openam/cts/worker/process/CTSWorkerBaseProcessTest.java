@@ -12,12 +12,14 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.worker.process;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 
@@ -29,6 +31,7 @@ import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
 import org.forgerock.openam.cts.worker.CTSWorkerFilter;
 import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.mockito.InOrder;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -85,6 +88,26 @@ public class CTSWorkerBaseProcessTest {
         verify(three).await();
     }
 
+    @Test
+    public void shouldHandleNextPageBeforeAwaitingPreviousPage() throws CoreTokenException, InterruptedException {
+        // Given
+        CountDownLatch one = mock(CountDownLatch.class);
+        CountDownLatch two = mock(CountDownLatch.class);
+
+        Collection<PartialToken> tokens = Arrays.asList(partialToken(), partialToken(), partialToken());
+        given(mockQuery.nextPage()).willReturn(tokens).willReturn(tokens).willReturn(null);
+        given(mockProcess.handleBatch(anyCollection())).willReturn(one).willReturn(two);
+
+        // When
+        mockProcess.handle(mockQuery, mockFilter);
+
+        // Then
+        InOrder inOrder = inOrder(mockProcess, one, two);
+        inOrder.verify(mockProcess, times(2)).handleBatch(anyCollection());
+        inOrder.verify(one).await();
+        inOrder.verify(two).await();
+    }
+
     @Test
     public void shouldRespondToInterruptSignal() throws CoreTokenException {
         // Given
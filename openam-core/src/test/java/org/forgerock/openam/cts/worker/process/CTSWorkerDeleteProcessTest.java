@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.cts.worker.process;
 
@@ -20,12 +21,12 @@ import static org.mockito.BDDMockito.verify;
 import static org.mockito.Matchers.anyCollection;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.CountDownLatch;
 
-import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
 import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
 import org.forgerock.openam.cts.worker.CTSWorkerFilter;
@@ -61,7 +62,7 @@ public class CTSWorkerDeleteProcessTest {
     }
 
     @Test
-    public void shouldSignalTokensToTokenDeletion() throws CoreTokenException {
+    public void shouldSignalTokensToTokenDeletion() throws Exception {
         // Given
         Collection<PartialToken> tokens = Arrays.asList(partialToken(), partialToken(), partialToken());
         given(mockFilter.filter(anyCollection())).willReturn(tokens);
@@ -75,6 +76,21 @@ public class CTSWorkerDeleteProcessTest {
         verify(mockTokenDeletion).deleteBatch(tokens);
     }
 
+    @Test
+    public void shouldRecordQueuedDeletionsInMonitoringStore() throws Exception {
+        // Given
+        Collection<PartialToken> tokens = Arrays.asList(partialToken(), partialToken(), partialToken());
+        given(mockFilter.filter(anyCollection())).willReturn(tokens);
+        given(mockQuery.nextPage()).willReturn(tokens).willReturn(tokens).willReturn(null);
+        given(mockTokenDeletion.deleteBatch(anyCollection())).willReturn(new CountDownLatch(0));
+
+        // When
+        process.handle(mockQuery, mockFilter);
+
+        // Then
+        verify(monitoringStore, times(2)).addReaperDeletions(3);
+    }
+
     private PartialToken partialToken() {
         return mock(PartialToken.class);
     }
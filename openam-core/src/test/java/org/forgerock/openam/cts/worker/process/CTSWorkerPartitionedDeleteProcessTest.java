@@ -0,0 +1,142 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.worker.process;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
+import org.forgerock.openam.cts.impl.query.worker.queries.CTSWorkerExpiryDateRangeQueryFactory;
+import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
+import org.forgerock.openam.cts.worker.CTSWorkerFilter;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.sun.identity.shared.debug.Debug;
+
+public class CTSWorkerPartitionedDeleteProcessTest extends AbstractMockBasedTest {
+
+    @Mock private CoreTokenConfig mockConfig;
+    @Mock private CTSWorkerExpiryDateRangeQueryFactory mockQueryFactory;
+    @Mock private CTSWorkerDeleteProcess mockDeleteProcess;
+    @Mock private CTSReaperMonitoringStore mockMonitoringStore;
+    @Mock private AMExecutorServiceFactory mockExecutorServiceFactory;
+    @Mock private CTSWorkerQuery mockQuery;
+    @Mock private CTSWorkerFilter mockFilter;
+
+    private ExecutorService executorService;
+    private CTSWorkerPartitionedDeleteProcess process;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        executorService = Executors.newCachedThreadPool();
+        given(mockExecutorServiceFactory.createCachedThreadPool(anyString())).willReturn(executorService);
+        process = new CTSWorkerPartitionedDeleteProcess(mockConfig, mockQueryFactory, mockDeleteProcess,
+                mockMonitoringStore, mockExecutorServiceFactory, mock(Debug.class));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldHandleQueryDirectlyWithSinglePartition() throws Exception {
+        // Given
+        given(mockConfig.getReaperPartitions()).willReturn(1);
+
+        // When
+        process.handle(mockQuery, mockFilter);
+
+        // Then
+        verify(mockDeleteProcess).handle(mockQuery, mockFilter);
+        verify(mockQueryFactory, never()).findExpiredLowerBound(anyLong());
+    }
+
+    @Test
+    public void shouldHandleQueryDirectlyWithoutBacklog() throws Exception {
+        // Given
+        given(mockConfig.getReaperPartitions()).willReturn(4);
+        given(mockQueryFactory.findExpiredLowerBound(anyLong())).willReturn(null);
+
+        // When
+        process.handle(mockQuery, mockFilter);
+
+        // Then
+        verify(mockDeleteProcess).handle(mockQuery, mockFilter);
+    }
+
+    @Test
+    public void shouldSplitBacklogIntoContiguousPartitions() throws Exception {
+        // Given
+        given(mockConfig.getReaperPartitions()).willReturn(4);
+        given(mockQueryFactory.findExpiredLowerBound(anyLong())).willReturn(0L);
+        CTSWorkerQuery partitionQuery = mock(CTSWorkerQuery.class);
+        given(mockQueryFactory.createQuery(any(Long.class), anyLong())).willReturn(partitionQuery);
+        given(mockQueryFactory.createQuery(isNull(), anyLong())).willReturn(partitionQuery);
+
+        // When
+        process.handle(mockQuery, mockFilter);
+
+        // Then
+        ArgumentCaptor<Long> from = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> to = ArgumentCaptor.forClass(Long.class);
+        verify(mockQueryFactory, times(4)).createQuery(from.capture(), to.capture());
+        assertThat(from.getAllValues().get(0)).isNull();
+        for (int ii = 1; ii < 4; ii++) {
+            assertThat(from.getAllValues().get(ii)).isEqualTo(to.getAllValues().get(ii - 1));
+        }
+        verify(mockDeleteProcess, times(4)).deleteWithoutRecordingRun(partitionQuery, mockFilter);
+        verify(mockDeleteProcess, never()).handle(any(CTSWorkerQuery.class), any(CTSWorkerFilter.class));
+        verify(mockMonitoringStore, times(4)).reaperPartitionStarted();
+        verify(mockMonitoringStore, times(4)).reaperPartitionCompleted();
+    }
+
+    @Test
+    public void shouldRecordSingleReaperRunForAllPartitions() throws Exception {
+        // Given
+        given(mockConfig.getReaperPartitions()).willReturn(4);
+        given(mockQueryFactory.findExpiredLowerBound(anyLong())).willReturn(0L);
+        CTSWorkerQuery partitionQuery = mock(CTSWorkerQuery.class);
+        given(mockQueryFactory.createQuery(any(Long.class), anyLong())).willReturn(partitionQuery);
+        given(mockQueryFactory.createQuery(isNull(), anyLong())).willReturn(partitionQuery);
+        given(mockDeleteProcess.deleteWithoutRecordingRun(partitionQuery, mockFilter)).willReturn(10L);
+
+        // When
+        process.handle(mockQuery, mockFilter);
+
+        // Then
+        verify(mockMonitoringStore, times(1)).addReaperRun(anyLong(), anyLong(), eq(40L));
+    }
+}
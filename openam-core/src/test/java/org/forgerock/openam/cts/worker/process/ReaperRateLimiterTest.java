@@ -0,0 +1,68 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.cts.worker.process;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ReaperRateLimiterTest {
+
+    private CoreTokenConfig mockConfig;
+    private ReaperRateLimiter rateLimiter;
+
+    @BeforeMethod
+    public void setUp() {
+        mockConfig = mock(CoreTokenConfig.class);
+        rateLimiter = new ReaperRateLimiter(mockConfig);
+    }
+
+    @Test
+    public void shouldNotWaitWhenUnlimited() throws Exception {
+        // Given
+        given(mockConfig.getReaperRateLimit()).willReturn(0);
+        long start = System.nanoTime();
+
+        // When
+        for (int ii = 0; ii < 1000; ii++) {
+            rateLimiter.acquire();
+        }
+
+        // Then
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000L);
+    }
+
+    @Test
+    public void shouldPaceAcquisitionsAtConfiguredRate() throws Exception {
+        // Given
+        given(mockConfig.getReaperRateLimit()).willReturn(50);
+        long start = System.nanoTime();
+
+        // When
+        for (int ii = 0; ii < 11; ii++) {
+            rateLimiter.acquire();
+        }
+
+        // Then - the first is immediate and the remaining ten are spaced 20ms apart
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(190L);
+    }
+}
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 package org.forgerock.openam.cts.worker.process;
 
@@ -22,7 +22,6 @@ import static org.mockito.BDDMockito.*;
 import java.util.Arrays;
 import java.util.Collection;
 
-import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.cts.impl.queue.TaskDispatcher;
 import org.forgerock.openam.cts.worker.process.CTSWorkerDeleteProcess.TokenDeletion;
 import org.forgerock.openam.sm.datalayer.api.ResultHandler;
@@ -34,26 +33,34 @@ public class TokenDeletionTest {
 
     private TokenDeletion deletion;
     private TaskDispatcher mockQueue;
+    private ReaperRateLimiter mockRateLimiter;
     private Collection<PartialToken> tokens;
 
     @BeforeMethod
     public void setUp() throws Exception {
         mockQueue = mock(TaskDispatcher.class);
-        deletion = new TokenDeletion(mockQueue);
+        mockRateLimiter = mock(ReaperRateLimiter.class);
+        deletion = new TokenDeletion(mockQueue, mockRateLimiter);
         tokens = Arrays.asList(partialToken(), partialToken(), partialToken());
     }
 
     @Test
-    public void shouldQueueEachTokenProvided() throws CoreTokenException {
+    public void shouldQueueEachTokenProvided() throws Exception {
         deletion.deleteBatch(tokens);
         verify(mockQueue, times(3)).delete(any(), any(ResultHandler.class));
     }
 
     @Test
-    public void shouldReturnCountDownLatchThatCorrespondsToTokensProvided() throws CoreTokenException {
+    public void shouldReturnCountDownLatchThatCorrespondsToTokensProvided() throws Exception {
         assertThat(deletion.deleteBatch(tokens).getCount()).isEqualTo(tokens.size());
     }
 
+    @Test
+    public void shouldAcquireRateLimitForEachToken() throws Exception {
+        deletion.deleteBatch(tokens);
+        verify(mockRateLimiter, times(3)).acquire();
+    }
+
     private PartialToken partialToken() {
         return mock(PartialToken.class);
     }
@@ -0,0 +1,131 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.entitlement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+
+import org.mockito.Mock;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.sun.identity.idm.AMIdentity;
+import com.sun.identity.idm.IdRepoException;
+import com.sun.identity.idm.IdType;
+
+public class SubjectMembershipContextTest extends AbstractMockBasedTest {
+
+    @Mock private AMIdentity mockUser;
+    @Mock private AMIdentity mockGroup;
+    @Mock private AMIdentity mockOtherGroup;
+
+    private SubjectMembershipContext context;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        given(mockUser.getUniversalId()).willReturn("id=demo,ou=user,dc=example,dc=com");
+        given(mockGroup.getUniversalId()).willReturn("id=staff,ou=group,dc=example,dc=com");
+        given(mockGroup.getType()).willReturn(IdType.GROUP);
+        given(mockOtherGroup.getUniversalId()).willReturn("id=admins,ou=group,dc=example,dc=com");
+        given(mockOtherGroup.getType()).willReturn(IdType.GROUP);
+        given(mockUser.getMemberships(IdType.GROUP)).willReturn(Collections.singleton(mockGroup));
+
+        context = new SubjectMembershipContext();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        PrivilegeEvaluatorContext.setCurrent(null);
+    }
+
+    @Test
+    public void shouldLookUpMembershipsOncePerIdentityAndType() throws Exception {
+        // When
+        boolean isStaff = context.isMember(mockUser, mockGroup);
+        boolean isAdmin = context.isMember(mockUser, mockOtherGroup);
+
+        // Then
+        assertThat(isStaff).isTrue();
+        assertThat(isAdmin).isFalse();
+        verify(mockUser, times(1)).getMemberships(IdType.GROUP);
+        assertThat(context.getLookupCount()).isEqualTo(1);
+        assertThat(context.getLookupsAvoidedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotMemoiseFailedLookup() throws Exception {
+        // Given
+        given(mockUser.getMemberships(IdType.GROUP))
+                .willThrow(new IdRepoException())
+                .willReturn(Collections.singleton(mockGroup));
+        try {
+            context.getMemberships(mockUser, IdType.GROUP);
+        } catch (IdRepoException e) {
+            // Expected
+        }
+
+        // When
+        boolean isStaff = context.isMember(mockUser, mockGroup);
+
+        // Then
+        assertThat(isStaff).isTrue();
+        verify(mockUser, times(2)).getMemberships(IdType.GROUP);
+    }
+
+    @Test
+    public void shouldReturnRecordedMembership() {
+        // Given
+        assertThat(context.getMembership("token", "ldap://host/cn=staff")).isNull();
+
+        // When
+        context.putMembership("token", "ldap://host/cn=staff", true);
+
+        // Then
+        assertThat(context.getMembership("token", "ldap://host/cn=staff")).isTrue();
+        assertThat(context.getMembership("token", "ldap://host/cn=admins")).isNull();
+        assertThat(context.getLookupCount()).isEqualTo(1);
+        assertThat(context.getLookupsAvoidedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldShareContextOfCurrentEvaluation() {
+        // Given
+        PrivilegeEvaluatorContext evaluation = new PrivilegeEvaluatorContext("/", "http://example.com", "app");
+        PrivilegeEvaluatorContext.setCurrent(evaluation);
+
+        // When
+        SubjectMembershipContext current = SubjectMembershipContext.getCurrent();
+
+        // Then
+        assertThat(current).isSameAs(evaluation.getMembershipContext());
+        assertThat(SubjectMembershipContext.getCurrent()).isSameAs(current);
+    }
+
+    @Test
+    public void shouldNotShareContextOutsideOfEvaluation() {
+        // When
+        SubjectMembershipContext current = SubjectMembershipContext.getCurrent();
+
+        // Then
+        assertThat(SubjectMembershipContext.getCurrent()).isNotSameAs(current);
+    }
+}
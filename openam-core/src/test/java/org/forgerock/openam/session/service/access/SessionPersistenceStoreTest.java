@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.session.service.access;
@@ -19,17 +20,30 @@ package org.forgerock.openam.session.service.access;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.*;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.fest.util.Collections;
 import org.forgerock.guice.core.GuiceModules;
 import org.forgerock.guice.core.GuiceTestCase;
 import org.forgerock.openam.cts.CTSPersistentStore;
 import org.forgerock.openam.cts.adapters.SessionAdapter;
+import org.forgerock.openam.cts.api.CTSOptions;
+import org.forgerock.openam.cts.api.fields.SessionTokenField;
 import org.forgerock.openam.cts.api.filter.TokenFilter;
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.api.tokens.TokenIdFactory;
+import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.session.service.access.persistence.SessionPersistenceStore;
+import org.forgerock.openam.dpro.session.PartialSession;
 import org.forgerock.openam.dpro.session.PartialSessionFactory;
 import org.forgerock.openam.identity.idm.IdentityUtils;
+import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.util.Options;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.testng.annotations.BeforeClass;
@@ -43,6 +57,7 @@ import com.iplanet.dpro.session.service.InternalSessionEventBroker;
 import com.iplanet.dpro.session.service.SessionLogging;
 import com.iplanet.dpro.session.service.SessionService;
 import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.iplanet.dpro.session.service.SessionType;
 import com.sun.identity.shared.debug.Debug;
 
 @GuiceModules({SessionPersistenceStoreTest.TestSessionGuiceModule.class})
@@ -85,6 +100,38 @@ public class SessionPersistenceStoreTest extends GuiceTestCase {
         verify(mockCoreTokenService).update(mockToken);
     }
 
+    @Test
+    public void updatesOnlyAccessTimeWhenContentPersisted() throws Exception {
+        InternalSession session = mock(InternalSession.class);
+        Token accessTimeToken = mock(Token.class);
+        given(session.isContentPersisted()).willReturn(true);
+        given(mockTokenAdapter.toAccessTimeToken(session)).willReturn(accessTimeToken);
+
+        sessionPersistenceStore.save(session);
+
+        ArgumentCaptor<Options> optionsCaptor = ArgumentCaptor.forClass(Options.class);
+        verify(mockCoreTokenService).update(eq(accessTimeToken), optionsCaptor.capture());
+        assertThat(optionsCaptor.getValue().get(CTSOptions.PARTIAL_UPDATE_OPTION)).isTrue();
+        verify(mockTokenAdapter, never()).toToken(session);
+    }
+
+    @Test
+    public void savesTokenWhenAccessTimeUpdateFails() throws Exception {
+        InternalSession session = mock(InternalSession.class);
+        Token accessTimeToken = mock(Token.class);
+        Token token = mock(Token.class);
+        given(session.isContentPersisted()).willReturn(true);
+        given(session.getContentVersion()).willReturn(3L);
+        given(mockTokenAdapter.toAccessTimeToken(session)).willReturn(accessTimeToken);
+        given(mockTokenAdapter.toToken(session)).willReturn(token);
+        willThrow(CoreTokenException.class).given(mockCoreTokenService).update(eq(accessTimeToken), any(Options.class));
+
+        sessionPersistenceStore.save(session);
+
+        verify(mockCoreTokenService).update(token);
+        verify(session).setPersistedContentVersion(3L);
+    }
+
     @Test
     public void deletesToken() throws Exception {
         sessionPersistenceStore.delete(mockSessionID);
@@ -112,6 +159,41 @@ public class SessionPersistenceStoreTest extends GuiceTestCase {
         assertThat(sessionPersistenceStore.recoverSessionByHandle(HANDLE)).isNull();
     }
 
+    @Test
+    public void excludesAppSessionsFromValidPartialSessions() throws Exception {
+        PartialToken userToken = partialSessionToken(SessionType.USER);
+        PartialToken appToken = partialSessionToken(SessionType.APPLICATION);
+        PartialSession userSession = mock(PartialSession.class);
+        given(mockSessionServiceConfig.isReturnAppSessionEnabled()).willReturn(false);
+        given(mockCoreTokenService.attributeQuery(any(TokenFilter.class)))
+                .willReturn(Arrays.asList(userToken, appToken));
+        given(mockPartialSessionFactory.fromPartialToken(userToken)).willReturn(userSession);
+
+        Collection<PartialSession> sessions = sessionPersistenceStore.getValidPartialSessions(null);
+
+        assertThat(sessions).containsOnly(userSession);
+        verify(mockPartialSessionFactory, never()).fromPartialToken(appToken);
+    }
+
+    @Test
+    public void includesAppSessionsInValidPartialSessionsWhenEnabled() throws Exception {
+        PartialToken appToken = partialSessionToken(SessionType.APPLICATION);
+        PartialSession appSession = mock(PartialSession.class);
+        given(mockSessionServiceConfig.isReturnAppSessionEnabled()).willReturn(true);
+        given(mockCoreTokenService.attributeQuery(any(TokenFilter.class))).willReturn(Arrays.asList(appToken));
+        given(mockPartialSessionFactory.fromPartialToken(appToken)).willReturn(appSession);
+
+        Collection<PartialSession> sessions = sessionPersistenceStore.getValidPartialSessions(null);
+
+        assertThat(sessions).containsOnly(appSession);
+    }
+
+    private static PartialToken partialSessionToken(SessionType type) {
+        Map<CoreTokenField, Object> entry = new HashMap<>();
+        entry.put(SessionTokenField.SESSION_TYPE.getField(), type.name());
+        return new PartialToken(entry);
+    }
+
     public static class TestSessionGuiceModule extends AbstractModule {
 
         @Override
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 
 package org.forgerock.openam.session.service.access;
@@ -26,6 +26,7 @@ import java.util.Arrays;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
 import org.forgerock.openam.session.authorisation.SessionChangeAuthorizer;
 import org.forgerock.openam.session.service.access.persistence.SessionPersistenceStore;
+import org.forgerock.openam.session.service.access.persistence.SessionUUIDIndex;
 import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -52,6 +53,8 @@ public class SessionQueryManagerTest extends AbstractMockBasedTest {
     @Mock
     private SessionServiceConfig serviceConfig;
     @Mock
+    private SessionUUIDIndex sessionUUIDIndex;
+    @Mock
     private Session actingSession;
     @Mock
     private InternalSession internalSession;
@@ -65,7 +68,7 @@ public class SessionQueryManagerTest extends AbstractMockBasedTest {
     public void setup() throws SessionException {
         given(actingSession.getState(false)).willReturn(VALID);
         sessionQueryManager = new SessionQueryManager(debug, sessionPersistenceStore,
-                sessionChangeAuthorizer, serviceConfig);
+                sessionChangeAuthorizer, serviceConfig, sessionUUIDIndex);
     }
 
     @Test
@@ -0,0 +1,172 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.forgerock.openam.shared.concurrency.ThreadMonitor;
+import org.forgerock.util.thread.listener.ShutdownListener;
+import org.forgerock.util.thread.listener.ShutdownManager;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.sun.identity.shared.debug.Debug;
+
+public class AccessTimeCoalescingStepTest extends AbstractMockBasedTest {
+
+    private static final long WINDOW = 60000L;
+
+    @Mock private SessionServiceConfig mockSessionConfig;
+    @Mock private InternalSessionPersistenceStore mockPersistenceStore;
+    @Mock private AMExecutorServiceFactory mockExecutorServiceFactory;
+    @Mock private ThreadMonitor mockThreadMonitor;
+    @Mock private ShutdownManager mockShutdownManager;
+    @Mock private Debug mockDebug;
+    @Mock private InternalSessionStore mockNext;
+    @Mock private InternalSession mockSession;
+
+    private AccessTimeCoalescingStep step;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        given(mockSessionConfig.getAccessTimeWriteWindow()).willReturn(WINDOW);
+        given(mockExecutorServiceFactory.createScheduledService(anyInt(), anyString()))
+                .willReturn(mock(ScheduledExecutorService.class));
+        given(mockSession.getID()).willReturn(mock(SessionID.class));
+        given(mockSession.isContentPersisted()).willReturn(true);
+        given(mockSession.isStored()).willReturn(true);
+        given(mockSession.getMaxIdleTime()).willReturn(30L);
+
+        step = new AccessTimeCoalescingStep(mockSessionConfig, mockPersistenceStore, mockExecutorServiceFactory,
+                mockThreadMonitor, mockShutdownManager, mockDebug);
+    }
+
+    @Test
+    public void shouldScheduleFlushForWindow() throws Exception {
+        verify(mockThreadMonitor).watchScheduledThread(any(ScheduledExecutorService.class), any(Runnable.class),
+                eq(WINDOW), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldHoldBackAccessTimeOnlyWrite() throws Exception {
+        // When
+        step.store(mockSession, mockNext);
+
+        // Then
+        verify(mockNext, never()).store(mockSession);
+        verify(mockPersistenceStore, never()).store(mockSession);
+    }
+
+    @Test
+    public void shouldWriteHeldBackSessionOnFlush() throws Exception {
+        // Given
+        step.store(mockSession, mockNext);
+        step.store(mockSession, mockNext);
+
+        // When
+        step.flush();
+        step.flush();
+
+        // Then
+        verify(mockPersistenceStore).store(mockSession);
+    }
+
+    @Test
+    public void shouldWriteImmediatelyWhenContentChanged() throws Exception {
+        // Given
+        step.store(mockSession, mockNext);
+        given(mockSession.isContentPersisted()).willReturn(false);
+
+        // When
+        step.store(mockSession, mockNext);
+        step.flush();
+
+        // Then
+        verify(mockNext).store(mockSession);
+        verify(mockPersistenceStore, never()).store(mockSession);
+    }
+
+    @Test
+    public void shouldWriteImmediatelyWhenIdleTimeoutIsShorterThanTwiceTheWindow() throws Exception {
+        // Given
+        given(mockSession.getMaxIdleTime()).willReturn(1L);
+
+        // When
+        step.store(mockSession, mockNext);
+
+        // Then
+        verify(mockNext).store(mockSession);
+    }
+
+    @Test
+    public void shouldNotWriteRemovedSessionOnFlush() throws Exception {
+        // Given
+        step.store(mockSession, mockNext);
+
+        // When
+        step.remove(mockSession, mockNext);
+        step.flush();
+
+        // Then
+        verify(mockNext).remove(mockSession);
+        verify(mockPersistenceStore, never()).store(mockSession);
+    }
+
+    @Test
+    public void shouldFlushOnShutdown() throws Exception {
+        // Given
+        ArgumentCaptor<ShutdownListener> listenerCaptor = ArgumentCaptor.forClass(ShutdownListener.class);
+        verify(mockShutdownManager).addShutdownListener(listenerCaptor.capture());
+        step.store(mockSession, mockNext);
+
+        // When
+        listenerCaptor.getValue().shutdown();
+
+        // Then
+        verify(mockPersistenceStore).store(mockSession);
+    }
+
+    @Test
+    public void shouldPassThroughWhenDisabled() throws Exception {
+        // Given
+        given(mockSessionConfig.getAccessTimeWriteWindow()).willReturn(0L);
+        step = new AccessTimeCoalescingStep(mockSessionConfig, mockPersistenceStore, mockExecutorServiceFactory,
+                mockThreadMonitor, mockShutdownManager, mockDebug);
+
+        // When
+        step.store(mockSession, mockNext);
+
+        // Then
+        verify(mockNext).store(mockSession);
+    }
+}
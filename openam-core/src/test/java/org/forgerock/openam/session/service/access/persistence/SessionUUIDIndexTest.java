@@ -0,0 +1,250 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.inject.Provider;
+
+import org.forgerock.openam.cts.CTSPersistentStore;
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.fields.SessionTokenField;
+import org.forgerock.openam.cts.api.filter.TokenFilter;
+import org.forgerock.openam.cts.continuous.ChangeType;
+import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.utils.GeneralizedTimeFormat;
+import org.forgerock.openam.session.SessionEventType;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.opendj.ldap.Attribute;
+import org.forgerock.opendj.ldap.LinkedAttribute;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.InternalSessionEvent;
+import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.sun.identity.shared.debug.Debug;
+
+public class SessionUUIDIndexTest extends AbstractMockBasedTest {
+
+    private static final String USER = "id=demo,ou=user,dc=example,dc=com";
+
+    @Mock private SessionServiceConfig mockSessionConfig;
+    @Mock private CoreTokenConfig mockTokenConfig;
+    @Mock private SessionPersistenceStore mockPersistenceStore;
+    @Mock private CTSPersistentStore mockStore;
+    @Mock private Provider<SessionPersistenceStore> mockPersistenceStoreProvider;
+    @Mock private Provider<CTSPersistentStore> mockStoreProvider;
+    @Mock private Debug mockDebug;
+
+    private long expiry;
+    private SessionUUIDIndex index;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        expiry = MILLISECONDS.toSeconds(System.currentTimeMillis()) + 600;
+        given(mockSessionConfig.getSessionUUIDIndexSize()).willReturn(100);
+        given(mockPersistenceStoreProvider.get()).willReturn(mockPersistenceStore);
+        given(mockStoreProvider.get()).willReturn(mockStore);
+        given(mockPersistenceStore.getAllSessionsByUUID(USER)).willReturn(sessions("one", expiry));
+
+        index = new SessionUUIDIndex(mockSessionConfig, mockTokenConfig, mockPersistenceStoreProvider,
+                mockStoreProvider, mockDebug);
+    }
+
+    @Test
+    public void shouldQueryCTSOnlyOnceForIndexedUser() throws Exception {
+        // When
+        index.getAllSessionsByUUID(USER);
+        Map<String, Long> result = index.getAllSessionsByUUID(USER);
+
+        // Then
+        assertThat(result).containsOnlyKeys("one");
+        verify(mockPersistenceStore, times(1)).getAllSessionsByUUID(USER);
+        verify(mockStore).addContinuousQueryListener(any(SessionUUIDIndex.class), any(TokenFilter.class));
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldAddSessionCreatedOnThisServer() throws Exception {
+        // Given
+        index.getAllSessionsByUUID(USER);
+
+        // When
+        index.onEvent(new InternalSessionEvent(session("two"), SessionEventType.SESSION_CREATION, 0));
+
+        // Then
+        assertThat(index.getAllSessionsByUUID(USER)).containsOnlyKeys("one", "two");
+    }
+
+    @Test
+    public void shouldRemoveSessionDestroyedOnThisServer() throws Exception {
+        // Given
+        index.getAllSessionsByUUID(USER);
+
+        // When
+        index.onEvent(new InternalSessionEvent(session("one"), SessionEventType.LOGOUT, 0));
+
+        // Then
+        assertThat(index.getAllSessionsByUUID(USER)).isEmpty();
+    }
+
+    @Test
+    public void shouldApplyChangesMadeByOtherServers() throws Exception {
+        // Given
+        index.getAllSessionsByUUID(USER);
+
+        // When
+        index.objectChanged("two", changeSet("two", expiry), ChangeType.ADD);
+        index.objectChanged("one", changeSet("one", expiry), ChangeType.DELETE);
+
+        // Then
+        assertThat(index.getAllSessionsByUUID(USER)).containsOnlyKeys("two");
+    }
+
+    @Test
+    public void shouldNotReturnExpiredSessions() throws Exception {
+        // Given
+        index.getAllSessionsByUUID(USER);
+
+        // When
+        index.objectChanged("two", changeSet("two", expiry - 1200), ChangeType.MODIFY);
+
+        // Then
+        assertThat(index.getAllSessionsByUUID(USER)).containsOnlyKeys("one");
+    }
+
+    @Test
+    public void shouldNotIndexQueryResultWhichRacedWithChange() throws Exception {
+        // Given
+        given(mockPersistenceStore.getAllSessionsByUUID(USER)).will(invocation -> {
+            index.objectChanged("two", changeSet("two", expiry), ChangeType.ADD);
+            return sessions("one", expiry);
+        });
+
+        // When
+        index.getAllSessionsByUUID(USER);
+
+        // Then
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    public void shouldClearIndexWhenConnectionLost() throws Exception {
+        // Given
+        index.getAllSessionsByUUID(USER);
+
+        // When
+        index.connectionLost();
+        index.getAllSessionsByUUID(USER);
+
+        // Then
+        verify(mockPersistenceStore, times(2)).getAllSessionsByUUID(USER);
+    }
+
+    @Test
+    public void shouldRegisterContinuousQueryAgainAfterItFails() throws Exception {
+        // Given
+        index.getAllSessionsByUUID(USER);
+
+        // When
+        index.processError(mock(DataLayerException.class));
+        index.getAllSessionsByUUID(USER);
+        index.getAllSessionsByUUID(USER);
+
+        // Then
+        verify(mockStore, times(2)).addContinuousQueryListener(any(SessionUUIDIndex.class), any(TokenFilter.class));
+        verify(mockPersistenceStore, times(2)).getAllSessionsByUUID(USER);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldBypassIndexWhileContinuousQueryCannotBeRegistered() throws Exception {
+        // Given
+        index.getAllSessionsByUUID(USER);
+        index.processError(mock(DataLayerException.class));
+        willThrow(new CoreTokenException("unavailable")).given(mockStore)
+                .addContinuousQueryListener(any(SessionUUIDIndex.class), any(TokenFilter.class));
+
+        // When
+        index.getAllSessionsByUUID(USER);
+        index.getAllSessionsByUUID(USER);
+
+        // Then
+        verify(mockPersistenceStore, times(3)).getAllSessionsByUUID(USER);
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    public void shouldQueryCTSWhenDisabled() throws Exception {
+        // Given
+        given(mockSessionConfig.getSessionUUIDIndexSize()).willReturn(0);
+        index = new SessionUUIDIndex(mockSessionConfig, mockTokenConfig, mockPersistenceStoreProvider,
+                mockStoreProvider, mockDebug);
+
+        // When
+        index.getAllSessionsByUUID(USER);
+        index.getAllSessionsByUUID(USER);
+
+        // Then
+        verify(mockPersistenceStore, times(2)).getAllSessionsByUUID(USER);
+        verify(mockStore, times(0)).addContinuousQueryListener(any(SessionUUIDIndex.class), any(TokenFilter.class));
+    }
+
+    private InternalSession session(String sessionId) {
+        InternalSession session = mock(InternalSession.class);
+        SessionID sid = mock(SessionID.class);
+        given(sid.toString()).willReturn(sessionId);
+        given(session.getID()).willReturn(sid);
+        given(session.getUUID()).willReturn(USER);
+        given(session.getExpirationTime(MILLISECONDS)).willReturn(SECONDS.toMillis(expiry));
+        given(mockTokenConfig.getUserId(session)).willReturn(USER);
+        return session;
+    }
+
+    private static Map<String, Long> sessions(String sessionId, long expiryTime) {
+        Map<String, Long> sessions = new HashMap<>();
+        sessions.put(sessionId, expiryTime);
+        return sessions;
+    }
+
+    private static Map<String, Attribute> changeSet(String sessionId, long expiryTime) {
+        Map<String, Attribute> changeSet = new HashMap<>();
+        changeSet.put(CoreTokenField.USER_ID.toString(),
+                new LinkedAttribute(CoreTokenField.USER_ID.toString(), USER));
+        changeSet.put(SessionTokenField.SESSION_ID.getField().toString(),
+                new LinkedAttribute(SessionTokenField.SESSION_ID.getField().toString(), sessionId));
+        changeSet.put(CoreTokenField.EXPIRY_DATE.toString(),
+                new LinkedAttribute(CoreTokenField.EXPIRY_DATE.toString(),
+                        GeneralizedTimeFormat.format(SECONDS.toMillis(expiryTime))));
+        return changeSet;
+    }
+}
@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 
 package org.forgerock.openam.session.service.access.persistence.caching;
@@ -22,6 +22,8 @@ import static org.mockito.BDDMockito.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.Collections;
@@ -70,6 +72,9 @@ public class InMemoryInternalSessionCacheStepTest extends AbstractMockBasedTest
     @Mock
     private Debug mockDebug;
 
+    @Mock
+    private OffHeapInternalSessionCacheStep mockOffHeapCache;
+
     private InMemoryInternalSessionCacheStep testCache;
     private SessionModificationListener sessionModificationListener;
 
@@ -80,7 +85,8 @@ public class InMemoryInternalSessionCacheStepTest extends AbstractMockBasedTest
 
         setupMockCTSToCaptureQueryListener(mockSessionModificationWatcher);
 
-        testCache = new InMemoryInternalSessionCacheStep(mockSessionConfig, mockDebug, mockSessionModificationWatcher);
+        testCache = new InMemoryInternalSessionCacheStep(mockSessionConfig, mockDebug, mockSessionModificationWatcher,
+                mockOffHeapCache);
     }
 
     @Test
@@ -165,6 +171,34 @@ public class InMemoryInternalSessionCacheStepTest extends AbstractMockBasedTest
         assertThat(testCache.size()).isLessThanOrEqualTo(MAX_SESSIONS);
     }
 
+    @Test
+    public void shouldDemoteSessionsEvictedForSpaceToOffHeapCache() throws Exception {
+        // Given
+        given(mockSessionConfig.getMaxSessionCacheSize()).willReturn(1);
+
+        // When
+        for (int i = 0; i < 3; ++i) {
+            InternalSession session = mock(InternalSession.class);
+            given(session.getID()).willReturn(new SessionID("Session" + i));
+            testCache.store(session, mockStore);
+        }
+
+        // Then
+        verify(mockOffHeapCache, times(2)).demote(any(InternalSession.class));
+    }
+
+    @Test
+    public void shouldNotDemoteRemovedSessionsToOffHeapCache() throws Exception {
+        // Given
+        testCache.store(mockSession, mockStore);
+
+        // When
+        testCache.remove(mockSession, mockStore);
+
+        // Then
+        verify(mockOffHeapCache, never()).demote(any(InternalSession.class));
+    }
+
     @Test
     public void shouldDetectCacheSizeHotSwap() throws Exception {
         for (int i = 0; i < MAX_SESSIONS * 2; ++i) {
@@ -0,0 +1,182 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence.caching;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+
+import org.forgerock.openam.cts.utils.BinaryJSONSerialisation;
+import org.forgerock.openam.session.service.access.persistence.InternalSessionStore;
+import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationListener;
+import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationWatcher;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.sun.identity.shared.debug.Debug;
+
+public class OffHeapInternalSessionCacheStepTest extends AbstractMockBasedTest {
+
+    private static final SessionID SESSION_ID = new SessionID("test");
+    private static final byte[] BLOB = {1, 2, 3};
+
+    @Mock private SessionServiceConfig mockSessionConfig;
+    @Mock private BinaryJSONSerialisation mockSerialisation;
+    @Mock private SessionModificationWatcher mockWatcher;
+    @Mock private Debug mockDebug;
+    @Mock private InternalSessionStore mockStore;
+    @Mock private InternalSession mockSession;
+    @Mock private InternalSession mockRecreatedSession;
+
+    private OffHeapInternalSessionCacheStep step;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        given(mockSessionConfig.getOffHeapSessionCacheSize()).willReturn(1);
+        given(mockSession.getID()).willReturn(SESSION_ID);
+        given(mockSession.getSessionHandle()).willReturn("handle");
+        given(mockSession.getRestrictedTokens()).willReturn(Collections.singleton(new SessionID("restricted")));
+        given(mockSession.isStored()).willReturn(true);
+        given(mockSerialisation.serialise(mockSession)).willReturn(BLOB);
+
+        step = spy(new OffHeapInternalSessionCacheStep(mockSessionConfig, mockSerialisation, mockDebug, mockWatcher));
+        doReturn(mockRecreatedSession).when(step).recreate(BLOB);
+    }
+
+    @Test
+    public void shouldReturnDemotedSessionWithoutAskingLowerLayers() throws Exception {
+        // Given
+        step.demote(mockSession);
+
+        // When
+        InternalSession session = step.getBySessionID(SESSION_ID, mockStore);
+
+        // Then
+        assertThat(session).isSameAs(mockRecreatedSession);
+        verify(mockStore, never()).getBySessionID(SESSION_ID);
+        assertThat(step.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldFindDemotedSessionByHandleAndRestrictedToken() throws Exception {
+        // Given
+        step.demote(mockSession);
+
+        // When
+        InternalSession byHandle = step.getByHandle("handle", mockStore);
+        step.demote(mockSession);
+        InternalSession byRestrictedID = step.getByRestrictedID(new SessionID("restricted"), mockStore);
+
+        // Then
+        assertThat(byHandle).isSameAs(mockRecreatedSession);
+        assertThat(byRestrictedID).isSameAs(mockRecreatedSession);
+    }
+
+    @Test
+    public void shouldRemoveSessionWhenPromoted() throws Exception {
+        // Given
+        step.demote(mockSession);
+        step.getBySessionID(SESSION_ID, mockStore);
+
+        // When
+        step.getByHandle("handle", mockStore);
+
+        // Then
+        verify(mockStore).getByHandle("handle");
+        assertThat(step.size()).isZero();
+    }
+
+    @Test
+    public void shouldDiscardSessionWhenStored() throws Exception {
+        // Given
+        step.demote(mockSession);
+
+        // When
+        step.store(mockSession, mockStore);
+
+        // Then
+        verify(mockStore).store(mockSession);
+        assertThat(step.size()).isZero();
+    }
+
+    @Test
+    public void shouldDiscardSessionWhenRemoved() throws Exception {
+        // Given
+        step.demote(mockSession);
+
+        // When
+        step.remove(mockSession, mockStore);
+
+        // Then
+        verify(mockStore).remove(mockSession);
+        assertThat(step.size()).isZero();
+    }
+
+    @Test
+    public void shouldDiscardSessionChangedByOtherServer() throws Exception {
+        // Given
+        ArgumentCaptor<SessionModificationListener> listenerCaptor =
+                ArgumentCaptor.forClass(SessionModificationListener.class);
+        verify(mockWatcher).addListener(listenerCaptor.capture());
+        step.demote(mockSession);
+
+        // When
+        listenerCaptor.getValue().sessionChanged(SESSION_ID);
+
+        // Then
+        assertThat(step.size()).isZero();
+    }
+
+    @Test
+    public void shouldNotDemoteSessionWhichIsNotStored() throws Exception {
+        // Given
+        given(mockSession.isStored()).willReturn(false);
+
+        // When
+        step.demote(mockSession);
+
+        // Then
+        assertThat(step.size()).isZero();
+    }
+
+    @Test
+    public void shouldPassThroughWhenDisabled() throws Exception {
+        // Given
+        given(mockSessionConfig.getOffHeapSessionCacheSize()).willReturn(0);
+        step = new OffHeapInternalSessionCacheStep(mockSessionConfig, mockSerialisation, mockDebug, mockWatcher);
+
+        // When
+        step.demote(mockSession);
+        step.getBySessionID(SESSION_ID, mockStore);
+
+        // Then
+        verify(mockStore).getBySessionID(SESSION_ID);
+        verify(mockSerialisation, never()).serialise(any(InternalSession.class));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence.caching;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class OffHeapSessionArenaTest {
+
+    private static final int SEGMENT_SIZE = 16;
+
+    private OffHeapSessionArena arena;
+
+    @BeforeMethod
+    public void setup() {
+        arena = new OffHeapSessionArena(2, SEGMENT_SIZE);
+    }
+
+    @Test
+    public void shouldReturnStoredValueByKeyOrAlias() {
+        // Given
+        arena.put("key", asList("alias"), bytes(4, 1));
+
+        // When
+        byte[] byAlias = arena.remove("alias");
+
+        // Then
+        assertThat(byAlias).isEqualTo(bytes(4, 1));
+        assertThat(arena.remove("key")).isNull();
+        assertThat(arena.size()).isZero();
+        assertThat(arena.usedBytes()).isZero();
+    }
+
+    @Test
+    public void shouldReplaceValueStoredUnderSameKey() {
+        // Given
+        arena.put("key", asList("alias"), bytes(4, 1));
+
+        // When
+        arena.put("key", emptyList(), bytes(6, 2));
+
+        // Then
+        assertThat(arena.remove("alias")).isNull();
+        assertThat(arena.remove("key")).isEqualTo(bytes(6, 2));
+    }
+
+    @Test
+    public void shouldEvictOldestValuesWhenFull() {
+        // Given
+        arena.put("one", emptyList(), bytes(10, 1));
+        arena.put("two", emptyList(), bytes(10, 2));
+
+        // When
+        arena.put("three", emptyList(), bytes(10, 3));
+
+        // Then
+        assertThat(arena.remove("one")).isNull();
+        assertThat(arena.remove("two")).isEqualTo(bytes(10, 2));
+        assertThat(arena.remove("three")).isEqualTo(bytes(10, 3));
+        assertThat(arena.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCountRemovedValuesAsEvicted() {
+        // Given
+        arena.put("one", emptyList(), bytes(10, 1));
+        arena.put("two", emptyList(), bytes(10, 2));
+        arena.remove("one");
+
+        // When
+        arena.put("three", emptyList(), bytes(10, 3));
+
+        // Then
+        assertThat(arena.evictionCount()).isZero();
+        assertThat(arena.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRejectValueLargerThanSegment() {
+        assertThat(arena.put("key", emptyList(), bytes(SEGMENT_SIZE + 1, 1))).isFalse();
+        assertThat(arena.size()).isZero();
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        // Given
+        arena.put("key", emptyList(), bytes(4, 1));
+
+        // When
+        arena.take("key");
+        arena.take("key");
+
+        // Then
+        assertThat(arena.hitCount()).isEqualTo(1);
+        assertThat(arena.missCount()).isEqualTo(1);
+    }
+
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        for (int ii = 0; ii < length; ii++) {
+            bytes[ii] = (byte) (value + ii);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.session.service.access.persistence.caching;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import javax.inject.Provider;
+
+import org.forgerock.openam.session.service.access.SessionSummary;
+import org.forgerock.openam.session.service.access.persistence.InternalSessionStore;
+import org.forgerock.openam.session.service.access.persistence.SessionPersistenceStore;
+import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationListener;
+import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationWatcher;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wrensecurity.wrenam.test.AbstractMockBasedTest;
+
+import com.iplanet.dpro.session.SessionID;
+import com.iplanet.dpro.session.service.InternalSession;
+import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.iplanet.dpro.session.service.SessionState;
+import com.sun.identity.shared.debug.Debug;
+
+public class SessionSummaryCacheStepTest extends AbstractMockBasedTest {
+
+    private static final String USER = "id=demo,ou=user,dc=example,dc=com";
+    private static final long WINDOW = 60000L;
+
+    @Mock private SessionServiceConfig mockSessionConfig;
+    @Mock private SessionPersistenceStore mockPersistenceStore;
+    @Mock private Provider<SessionPersistenceStore> mockPersistenceStoreProvider;
+    @Mock private SessionModificationWatcher mockWatcher;
+    @Mock private InternalSessionStore mockNext;
+    @Mock private Debug mockDebug;
+
+    private SessionID sessionID;
+    private long now;
+    private SessionSummaryCacheStep step;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        now = System.currentTimeMillis();
+        sessionID = sessionID("one");
+        given(mockSessionConfig.getSessionSummaryCacheSize()).willReturn(100);
+        given(mockSessionConfig.getAccessTimeWriteWindow()).willReturn(WINDOW);
+        given(mockPersistenceStoreProvider.get()).willReturn(mockPersistenceStore);
+        given(mockPersistenceStore.getSessionSummary(sessionID)).willReturn(summary("one", now));
+
+        step = new SessionSummaryCacheStep(mockSessionConfig, mockPersistenceStoreProvider, mockDebug, mockWatcher);
+    }
+
+    @Test
+    public void shouldReadSummaryFromCTSOnce() throws Exception {
+        // When
+        step.getValidSessionSummary(sessionID, false);
+        SessionSummary result = step.getValidSessionSummary(sessionID, false);
+
+        // Then
+        assertThat(result.getUniversalId()).isEqualTo(USER);
+        verify(mockPersistenceStore, times(1)).getSessionSummary(sessionID);
+        assertThat(step.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotReturnSummaryOfAnotherSession() throws Exception {
+        // Given
+        given(mockPersistenceStore.getSessionSummary(sessionID)).willReturn(summary("two", now));
+
+        // When
+        SessionSummary result = step.getValidSessionSummary(sessionID, false);
+
+        // Then
+        assertThat(result).isNull();
+        assertThat(step.size()).isZero();
+    }
+
+    @Test
+    public void shouldNotReturnSummaryOfExpiredSession() throws Exception {
+        // Given
+        given(mockPersistenceStore.getSessionSummary(sessionID)).willReturn(new SessionSummary("one", USER,
+                SessionState.VALID, now + MINUTES.toMillis(60), now - 1, now - MINUTES.toMillis(30)));
+
+        // When
+        SessionSummary result = step.getValidSessionSummary(sessionID, false);
+
+        // Then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    public void shouldReturnSummaryForIdleResetIfAccessedWithinWindow() throws Exception {
+        // When
+        SessionSummary result = step.getValidSessionSummary(sessionID, true);
+
+        // Then
+        assertThat(result).isNotNull();
+    }
+
+    @Test
+    public void shouldNotReturnSummaryForIdleResetIfNotAccessedWithinWindow() throws Exception {
+        // Given
+        given(mockPersistenceStore.getSessionSummary(sessionID)).willReturn(summary("one", now - 2 * WINDOW));
+
+        // When
+        SessionSummary result = step.getValidSessionSummary(sessionID, true);
+
+        // Then
+        assertThat(result).isNull();
+        assertThat(step.getValidSessionSummary(sessionID, false)).isNotNull();
+    }
+
+    @Test
+    public void shouldNotReturnSummaryForIdleResetIfWindowIsDisabled() throws Exception {
+        // Given
+        given(mockSessionConfig.getAccessTimeWriteWindow()).willReturn(0L);
+        step = new SessionSummaryCacheStep(mockSessionConfig, mockPersistenceStoreProvider, mockDebug, mockWatcher);
+
+        // When
+        SessionSummary result = step.getValidSessionSummary(sessionID, true);
+
+        // Then
+        assertThat(result).isNull();
+        verify(mockPersistenceStore, never()).getSessionSummary(sessionID);
+    }
+
+    @Test
+    public void shouldCacheSummaryOfStoredSession() throws Exception {
+        // Given
+        InternalSession session = session(sessionID, SessionState.VALID);
+
+        // When
+        step.store(session, mockNext);
+        SessionSummary result = step.getValidSessionSummary(sessionID, false);
+
+        // Then
+        verify(mockNext).store(session);
+        assertThat(result).isNotNull();
+        verify(mockPersistenceStore, never()).getSessionSummary(sessionID);
+    }
+
+    @Test
+    public void shouldReplaceSummaryWhenSessionIsStored() throws Exception {
+        // Given
+        step.getValidSessionSummary(sessionID, false);
+
+        // When
+        step.store(session(sessionID, SessionState.DESTROYED), mockNext);
+
+        // Then
+        assertThat(step.getValidSessionSummary(sessionID, false)).isNull();
+    }
+
+    @Test
+    public void shouldCacheSummaryOfSessionReadFromStore() throws Exception {
+        // Given
+        InternalSession session = session(sessionID, SessionState.VALID);
+        given(mockNext.getBySessionID(sessionID)).willReturn(session);
+
+        // When
+        InternalSession result = step.getBySessionID(sessionID, mockNext);
+
+        // Then
+        assertThat(result).isSameAs(session);
+        assertThat(step.getValidSessionSummary(sessionID, false)).isNotNull();
+        verify(mockPersistenceStore, never()).getSessionSummary(sessionID);
+    }
+
+    @Test
+    public void shouldDiscardSummaryWhenSessionIsRemoved() throws Exception {
+        // Given
+        InternalSession session = session(sessionID, SessionState.VALID);
+        step.store(session, mockNext);
+
+        // When
+        step.remove(session, mockNext);
+
+        // Then
+        verify(mockNext).remove(session);
+        assertThat(step.size()).isZero();
+    }
+
+    @Test
+    public void shouldDiscardSummaryWhenSessionChangedOnAnotherServer() throws Exception {
+        // Given
+        ArgumentCaptor<SessionModificationListener> listenerCaptor =
+                ArgumentCaptor.forClass(SessionModificationListener.class);
+        verify(mockWatcher).addListener(listenerCaptor.capture());
+        step.getValidSessionSummary(sessionID, false);
+
+        // When
+        listenerCaptor.getValue().sessionChanged(sessionID);
+        step.getValidSessionSummary(sessionID, false);
+
+        // Then
+        verify(mockPersistenceStore, times(2)).getSessionSummary(sessionID);
+    }
+
+    @Test
+    public void shouldNotCacheSummaryReadWhichRacedWithChange() throws Exception {
+        // Given
+        ArgumentCaptor<SessionModificationListener> listenerCaptor =
+                ArgumentCaptor.forClass(SessionModificationListener.class);
+        verify(mockWatcher).addListener(listenerCaptor.capture());
+        given(mockPersistenceStore.getSessionSummary(sessionID)).will(invocation -> {
+            listenerCaptor.getValue().sessionChanged(sessionID);
+            return summary("one", now);
+        });
+
+        // When
+        step.getValidSessionSummary(sessionID, false);
+
+        // Then
+        assertThat(step.size()).isZero();
+    }
+
+    @Test
+    public void shouldPassThroughWhenDisabled() throws Exception {
+        // Given
+        given(mockSessionConfig.getSessionSummaryCacheSize()).willReturn(0);
+        step = new SessionSummaryCacheStep(mockSessionConfig, mockPersistenceStoreProvider, mockDebug, mockWatcher);
+        InternalSession session = session(sessionID, SessionState.VALID);
+
+        // When
+        step.store(session, mockNext);
+        SessionSummary result = step.getValidSessionSummary(sessionID, false);
+
+        // Then
+        assertThat(step.isEnabled()).isFalse();
+        assertThat(result).isNull();
+        verify(mockNext).store(session);
+        verify(mockPersistenceStore, never()).getSessionSummary(any(SessionID.class));
+    }
+
+    private SessionSummary summary(String id, long latestAccessTime) {
+        return new SessionSummary(id, USER, SessionState.VALID, now + MINUTES.toMillis(60),
+                latestAccessTime + MINUTES.toMillis(30), latestAccessTime);
+    }
+
+    private InternalSession session(SessionID id, SessionState state) {
+        InternalSession session = mock(InternalSession.class);
+        given(session.getID()).willReturn(id);
+        given(session.getUUID()).willReturn(USER);
+        given(session.getState()).willReturn(state);
+        given(session.isStored()).willReturn(true);
+        given(session.getMaxSessionExpirationTime(MILLISECONDS)).willReturn(now + MINUTES.toMillis(60));
+        given(session.getMaxIdleExpirationTime(MILLISECONDS)).willReturn(now + MINUTES.toMillis(30));
+        given(session.getLatestAccessTime(MILLISECONDS)).willReturn(now);
+        return session;
+    }
+
+    private static SessionID sessionID(String id) {
+        SessionID sessionID = mock(SessionID.class);
+        given(sessionID.toString()).willReturn(id);
+        return sessionID;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.session.stateless.cache;
 
@@ -86,7 +87,7 @@ public class StatelessJWTCacheTest {
         given(mockConfig.getJWTCacheSize()).willReturn(1);
         cache = new StatelessJWTCache(mockConfig, mockListeners);
         String jwt = "badger";
-        SessionInfo mockInfo = mock(SessionInfo.class);
+        SessionInfo mockInfo = sessionInfo(60, 30);
         // When
         cache.cache(mockInfo, jwt);
         // Then
@@ -100,7 +101,7 @@ public class StatelessJWTCacheTest {
         cache = new StatelessJWTCache(mockConfig, mockListeners);
         String key = "badger";
         // When
-        cache.cache(mock(SessionInfo.class), key);
+        cache.cache(sessionInfo(60, 30), key);
         // Then
         assertThat(cache.contains(key)).isFalse();
     }
@@ -111,7 +112,7 @@ public class StatelessJWTCacheTest {
         given(mockConfig.getJWTCacheSize()).willReturn(1);
         cache = new StatelessJWTCache(mockConfig, mockListeners);
 
-        SessionInfo mockSessionInfo = mock(SessionInfo.class);
+        SessionInfo mockSessionInfo = sessionInfo(60, 30);
         cache.cache(mockSessionInfo, "badger");
 
         // When
@@ -133,7 +134,7 @@ public class StatelessJWTCacheTest {
         given(mockConfig.getJWTCacheSize()).willReturn(1);
         cache = new StatelessJWTCache(mockConfig, mockListeners);
 
-        SessionInfo mockSessionInfo = mock(SessionInfo.class);
+        SessionInfo mockSessionInfo = sessionInfo(60, 30);
         cache.cache(mockSessionInfo, "badger");
 
         // When
@@ -144,4 +145,89 @@ public class StatelessJWTCacheTest {
         // Then
         assertThat(cache.contains(mockSessionInfo)).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotReturnSessionInfoPastItsExpiryTime() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        cache.cache(sessionInfo(-1, 30), "badger");
+
+        // When
+        SessionInfo result = cache.getSessionInfo("badger");
+
+        // Then
+        assertThat(result).isNull();
+        assertThat(cache.contains("badger")).isFalse();
+    }
+
+    @Test
+    public void shouldNotReturnSessionInfoPastItsIdleTimeout() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo info = sessionInfo(3600, 1);
+        info.setTimeIdle(61);
+        cache.cache(info, "badger");
+
+        // When
+        SessionInfo result = cache.getSessionInfo("badger");
+
+        // Then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    public void shouldRemoveJWT() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        cache.cache(sessionInfo(60, 30), "badger");
+
+        // When
+        cache.remove("badger");
+
+        // Then
+        assertThat(cache.contains("badger")).isFalse();
+    }
+
+    @Test
+    public void shouldNotConfuseDifferentJWTs() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(2);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo first = sessionInfo(60, 30);
+        SessionInfo second = sessionInfo(120, 30);
+        cache.cache(first, "badger");
+        cache.cache(second, "weasel");
+
+        // When / Then
+        assertThat(cache.getSessionInfo("badger")).isSameAs(first);
+        assertThat(cache.getSessionInfo("weasel")).isSameAs(second);
+    }
+
+    @Test
+    public void shouldRecordHitRate() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        cache.cache(sessionInfo(60, 30), "badger");
+
+        // When
+        cache.getSessionInfo("badger");
+        cache.getSessionInfo("weasel");
+
+        // Then
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+    }
+
+    private static SessionInfo sessionInfo(long timeLeftSeconds, long maxIdleMinutes) {
+        SessionInfo info = new SessionInfo();
+        info.setTimeLeft(timeLeftSeconds);
+        info.setMaxIdle(maxIdleMinutes);
+        info.setTimeIdle(0);
+        return info;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.sm.datalayer.impl;
@@ -20,16 +21,19 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 
+import org.forgerock.openam.cts.impl.queue.MurmurTokenQueueSelector;
 import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
 import org.forgerock.openam.sm.datalayer.api.Task;
+import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
 import org.forgerock.openam.sm.datalayer.impl.tasks.CreateTask;
 import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
@@ -53,7 +57,8 @@ public class SeriesTaskExecutorTest {
         configuration = mock(CTSQueueConfiguration.class);
         given(configuration.getQueueSize()).willReturn(10);
 
-        executor = new SeriesTaskExecutor(executorService, processorFactory, monitor, configuration, mock(Debug.class));
+        executor = new SeriesTaskExecutor(executorService, processorFactory, monitor, configuration,
+                new MurmurTokenQueueSelector(), mock(Debug.class));
     }
 
     @Test
@@ -94,6 +99,41 @@ public class SeriesTaskExecutorTest {
         assertThat(captor.getValue().size()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldPlaceTokenlessTaskOnTwoQueuesAndProcessItOnce() throws Exception {
+        // Given
+        ArgumentCaptor<BlockingQueue> captor = ArgumentCaptor.forClass(BlockingQueue.class);
+        given(processorFactory.create(captor.capture())).willReturn(mock(SeriesTaskExecutorThread.class));
+        given(configuration.getProcessors()).willReturn(1);
+        executor.start();
+        Task task = mock(Task.class);
+        TokenStorageAdapter adapter = mock(TokenStorageAdapter.class);
+
+        // When
+        executor.execute(null, task);
+        Task queued = (Task) captor.getValue().poll();
+        queued.execute(adapter);
+        queued.execute(adapter);
+
+        // Then
+        verify(task, times(1)).execute(adapter);
+    }
+
+    @Test
+    public void shouldDiscardClaimedTaskWhenReachedOnOtherQueue() throws Exception {
+        // Given
+        Task task = mock(Task.class);
+        SeriesTaskExecutor.ClaimableTask claimable = new SeriesTaskExecutor.ClaimableTask(task);
+        TokenStorageAdapter adapter = mock(TokenStorageAdapter.class);
+        claimable.execute(adapter);
+
+        // When
+        claimable.processError(mock(DataLayerException.class));
+
+        // Then
+        verify(task).execute(adapter);
+        verify(task, never()).processError(any(DataLayerException.class));
+    }
 
     @Test
     public void shouldCatchTimeoutWhenOfferingTaskToQueue() throws Exception {
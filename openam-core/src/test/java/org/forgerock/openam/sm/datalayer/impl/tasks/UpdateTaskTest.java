@@ -12,16 +12,18 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
- * Portions Copyright 2021 Wren Security.
+ * Portions Copyright 2021-2026 Wren Security.
  */
 package org.forgerock.openam.sm.datalayer.impl.tasks;
 
 import static org.forgerock.openam.cts.api.CTSOptions.OPTIMISTIC_CONCURRENCY_CHECK_OPTION;
+import static org.forgerock.openam.cts.api.CTSOptions.PARTIAL_UPDATE_OPTION;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import org.forgerock.openam.cts.api.tokens.Token;
@@ -81,4 +83,19 @@ public class UpdateTaskTest {
         task.execute(mockAdapter);
         verify(mockHandler).processResults(eq(mockReturned));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldUpdateAttributesWithoutReadWhenPartialUpdate() throws Exception {
+        // Given
+        Options partialOptions = Options.defaultOptions().set(PARTIAL_UPDATE_OPTION, true);
+        given(mockAdapter.updateAttributes(mockUpdated, partialOptions)).willReturn(mockReturned);
+        task = new UpdateTask(mockUpdated, partialOptions, mockHandler);
+
+        // When
+        task.execute(mockAdapter);
+
+        // Then
+        verify(mockAdapter, never()).read(any(), any(Options.class));
+        verify(mockHandler).processResults(eq(mockReturned));
+    }
+}
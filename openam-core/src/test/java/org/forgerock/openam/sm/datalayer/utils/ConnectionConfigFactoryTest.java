@@ -12,14 +12,25 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.openam.sm.datalayer.utils;
 
 import static org.fest.assertions.Assertions.*;
 import static org.mockito.BDDMockito.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import javax.inject.Provider;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.ldap.LDAPURL;
+
 import org.forgerock.openam.sm.ConnectionConfig;
 import org.forgerock.openam.sm.ConnectionConfigFactory;
+import org.forgerock.openam.sm.datalayer.api.ConnectionType;
 import org.forgerock.openam.sm.datalayer.api.StoreMode;
 import org.forgerock.openam.sm.datalayer.impl.ldap.LdapDataLayerConfiguration;
 import org.forgerock.openam.sm.exceptions.InvalidConfigurationException;
@@ -33,6 +44,8 @@ public class ConnectionConfigFactoryTest {
     private ConnectionConfig mockExternalCTSConfig;
     private ConfigurationValidator mockConfigurationValidator;
     private LdapDataLayerConfiguration mockDataLayerConfiguration;
+    private CoreTokenConfig mockCoreTokenConfig;
+    private Provider<CoreTokenConfig> mockCoreTokenConfigProvider;
 
     @BeforeMethod
     public void setup() {
@@ -40,13 +53,17 @@ public class ConnectionConfigFactoryTest {
         mockExternalCTSConfig = mock(ConnectionConfig.class);
         mockConfigurationValidator = mock(ConfigurationValidator.class);
         mockDataLayerConfiguration = mock(LdapDataLayerConfiguration.class);
+        mockCoreTokenConfig = mock(CoreTokenConfig.class);
+        mockCoreTokenConfigProvider = mock(Provider.class);
+        given(mockCoreTokenConfigProvider.get()).willReturn(mockCoreTokenConfig);
     }
 
     @Test
     public void shouldReturnConfigForDefaultStoreMode() throws InvalidConfigurationException {
         // given
         ConnectionConfigFactory factory = new ConnectionConfigFactory(
-                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator);
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfigProvider);
         when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.DEFAULT);
 
         // when
@@ -70,7 +87,8 @@ public class ConnectionConfigFactoryTest {
     public void shouldReturnConfigForExternalStoreMode() throws InvalidConfigurationException {
         // given
         ConnectionConfigFactory factory = new ConnectionConfigFactory(
-                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator);
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfigProvider);
         when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.EXTERNAL);
 
         // when
@@ -79,4 +97,117 @@ public class ConnectionConfigFactoryTest {
         // then
         assertThat(config).isSameAs(mockExternalCTSConfig);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldUseExternalAffinitySettingForDefaultStoreMode() throws InvalidConfigurationException {
+        // given
+        ConnectionConfigFactory factory = new ConnectionConfigFactory(
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfigProvider);
+        when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.DEFAULT);
+        when(mockExternalCTSConfig.isAffinityEnabled()).thenReturn(true);
+
+        // when
+        ConnectionConfig config = factory.getConfig(ConnectionType.CTS_ASYNC);
+
+        // then
+        assertThat(config.isAffinityEnabled()).isTrue();
+    }
+
+    @Test
+    public void shouldIgnoreExternalAffinitySettingForOtherDataLayersInDefaultStoreMode()
+            throws InvalidConfigurationException {
+        // given
+        ConnectionConfigFactory factory = new ConnectionConfigFactory(
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfigProvider);
+        when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.DEFAULT);
+        when(mockExternalCTSConfig.isAffinityEnabled()).thenReturn(true);
+        LDAPURL first = LDAPURL.valueOf("ds1.example.com", 1389);
+        LDAPURL second = LDAPURL.valueOf("ds2.example.com", 1389);
+        when(mockDataLayerConfig.getLDAPURLs()).thenReturn(new LinkedHashSet<>(Arrays.asList(second, first)));
+
+        // when
+        ConnectionConfig config = factory.getConfig(ConnectionType.DATA_LAYER);
+
+        // then
+        assertThat(config.isAffinityEnabled()).isFalse();
+        assertThat(new ArrayList<>(config.getLDAPURLs())).containsExactly(second, first);
+    }
+
+    @Test
+    public void shouldListServersInCanonicalOrderWhenAffinityEnabled() throws InvalidConfigurationException {
+        // given
+        ConnectionConfigFactory factory = new ConnectionConfigFactory(
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfigProvider);
+        when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.EXTERNAL);
+        when(mockExternalCTSConfig.isAffinityEnabled()).thenReturn(true);
+        LDAPURL first = LDAPURL.valueOf("ds1.example.com", 1389);
+        LDAPURL second = LDAPURL.valueOf("ds2.example.com", 1389);
+        LDAPURL third = LDAPURL.valueOf("ds3.example.com", 1389);
+        when(mockExternalCTSConfig.getLDAPURLs()).thenReturn(new LinkedHashSet<>(Arrays.asList(third, first, second)));
+
+        // when
+        ConnectionConfig config = factory.getConfig(ConnectionType.CTS_ASYNC);
+
+        // then
+        assertThat(new ArrayList<>(config.getLDAPURLs())).containsExactly(first, second, third);
+    }
+
+    @Test
+    public void shouldKeepServerPreferenceOrderForOtherDataLayersWhenAffinityEnabled()
+            throws InvalidConfigurationException {
+        // given
+        ConnectionConfigFactory factory = new ConnectionConfigFactory(
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfigProvider);
+        when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.EXTERNAL);
+        when(mockExternalCTSConfig.isAffinityEnabled()).thenReturn(true);
+        LDAPURL first = LDAPURL.valueOf("ds1.example.com", 1389);
+        LDAPURL second = LDAPURL.valueOf("ds2.example.com", 1389);
+        when(mockExternalCTSConfig.getLDAPURLs()).thenReturn(new LinkedHashSet<>(Arrays.asList(second, first)));
+
+        // when
+        ConnectionConfig config = factory.getConfig(ConnectionType.RESOURCE_SETS);
+
+        // then
+        assertThat(new ArrayList<>(config.getLDAPURLs())).containsExactly(second, first);
+    }
+
+    @Test
+    public void shouldKeepServerPreferenceOrderWhenAffinityDisabled() throws InvalidConfigurationException {
+        // given
+        ConnectionConfigFactory factory = new ConnectionConfigFactory(
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfigProvider);
+        when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.EXTERNAL);
+        LDAPURL first = LDAPURL.valueOf("ds1.example.com", 1389);
+        LDAPURL second = LDAPURL.valueOf("ds2.example.com", 1389);
+        when(mockExternalCTSConfig.getLDAPURLs()).thenReturn(new LinkedHashSet<>(Arrays.asList(second, first)));
+
+        // when
+        ConnectionConfig config = factory.getConfig(null);
+
+        // then
+        assertThat(new ArrayList<>(config.getLDAPURLs())).containsExactly(second, first);
+    }
+
+    @Test
+    public void shouldSizeExpiryDateWorkerConnectionsFromReaperPartitions() throws InvalidConfigurationException {
+        // given
+        ConnectionConfigFactory factory = new ConnectionConfigFactory(
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfigProvider);
+        when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.EXTERNAL);
+        given(mockCoreTokenConfig.getReaperPartitions()).willReturn(4);
+
+        // when
+        ConnectionConfig expiryDateConfig = factory.getConfig(ConnectionType.CTS_EXPIRY_DATE_WORKER);
+        ConnectionConfig idleTimeoutConfig = factory.getConfig(ConnectionType.CTS_SESSION_IDLE_TIMEOUT_WORKER);
+
+        // then
+        assertThat(expiryDateConfig.getMaxConnections()).isEqualTo(4);
+        assertThat(idleTimeoutConfig.getMaxConnections()).isEqualTo(1);
+    }
+}
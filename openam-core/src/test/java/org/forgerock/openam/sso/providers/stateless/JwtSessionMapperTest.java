@@ -12,11 +12,17 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.sso.providers.stateless;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -30,7 +36,9 @@ import javax.crypto.spec.SecretKeySpec;
 import org.forgerock.json.jose.exceptions.InvalidJwtException;
 import org.forgerock.json.jose.exceptions.JwtRuntimeException;
 import org.forgerock.json.jose.jwe.JweAlgorithm;
+import org.forgerock.json.jose.jws.JwsAlgorithm;
 import org.forgerock.json.jose.jws.SigningManager;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -160,6 +168,47 @@ public class JwtSessionMapperTest {
         // expect InvalidJwtException
     }
 
+    @Test
+    public void shouldVerifyRepeatedlyReadJwtOnlyOnce() {
+        // Given
+        String jwtString = new JwtSessionMapperBuilder().signedUsingHS256("SHARED_SECRET").build()
+                .asJwt(newExampleSessionInfo());
+        JwtSessionMapperBuilder builder = new JwtSessionMapperBuilder().signedUsingHS256("SHARED_SECRET");
+        SigningHandler verificationHandler = spy(builder.verificationHandler);
+        builder.verificationHandler = verificationHandler;
+        JwtSessionMapper jwtSessionMapper = builder.build();
+
+        // When
+        SessionInfo first = jwtSessionMapper.fromJwt(jwtString);
+        SessionInfo second = jwtSessionMapper.fromJwt(jwtString);
+
+        // Then
+        verify(verificationHandler, times(1)).verify(any(JwsAlgorithm.class), any(byte[].class), any(byte[].class));
+        assertEquals(first, second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void shouldNotCacheJwtWhichFailsVerification() {
+        // Given
+        String jwtString = new JwtSessionMapperBuilder().signedUsingHS256("SHARED_SECRET").build()
+                .asJwt(newExampleSessionInfo());
+        JwtSessionMapper jwtSessionMapper = new JwtSessionMapperBuilder().signedUsingHS256("OTHER_SECRET").build();
+        int failures = 0;
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            try {
+                jwtSessionMapper.fromJwt(jwtString);
+            } catch (JwtRuntimeException e) {
+                failures++;
+            }
+        }
+
+        // Then
+        assertEquals(failures, 2);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void throwsExceptionIfConfigSpecifiesHmacSigningButDoesntProvideSharedSecret() throws Exception {
         new JwtSessionMapperBuilder().signedUsingHS256("").build();
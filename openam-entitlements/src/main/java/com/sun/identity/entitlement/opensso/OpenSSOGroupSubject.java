@@ -25,6 +25,7 @@
  * $Id: OpenSSOGroupSubject.java,v 1.2 2009/08/21 21:52:01 hengming Exp $
  *
  * Portions Copyrighted 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.sun.identity.entitlement.opensso;
@@ -43,6 +44,7 @@ import com.sun.identity.idm.IdRepoException;
 import com.sun.identity.idm.IdType;
 import com.sun.identity.idm.IdUtils;
 import com.sun.identity.security.AdminTokenAction;
+import org.forgerock.openam.entitlement.SubjectMembershipContext;
 
 import javax.security.auth.Subject;
 import java.security.AccessController;
@@ -223,9 +225,10 @@ public class OpenSSOGroupSubject extends GroupSubject {
         Set<Principal> userPrincipals = subject.getPrincipals();
         SSOToken adminToken = (SSOToken) AccessController.doPrivileged(
             AdminTokenAction.getInstance());
+        SubjectMembershipContext membershipContext = SubjectMembershipContext.getCurrent();
         for (Principal p : userPrincipals) {
             AMIdentity amid = IdUtils.getIdentity(adminToken, p.getName());
-            Set<AMIdentity> memberships = amid.getMemberships(IdType.GROUP);
+            Set<AMIdentity> memberships = membershipContext.getMemberships(amid, IdType.GROUP);
             for(AMIdentity amgrp: memberships) {
                 if (amgrp.equals(idGroup)) {
                     return true;
@@ -15,6 +15,7 @@
  */
 /*
  * Portions Copyright 2011-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.entitlement.conditions.environment;
@@ -30,6 +31,7 @@ import com.sun.identity.idm.IdRepoException;
 import com.sun.identity.idm.IdType;
 import com.sun.identity.shared.debug.Debug;
 import org.forgerock.openam.core.CoreWrapper;
+import org.forgerock.openam.entitlement.SubjectMembershipContext;
 import org.forgerock.openam.utils.CollectionUtils;
 import org.forgerock.openam.utils.StringUtils;
 import org.json.JSONArray;
@@ -146,6 +148,7 @@ public class AMIdentityMembershipCondition extends EntitlementConditionAdaptor {
         }
 
         if (!amIdentityName.isEmpty()) {
+            SubjectMembershipContext memberships = SubjectMembershipContext.getCurrent();
             for (String nameValue : amIdentityName) {
 
                 if (debug.messageEnabled()) {
@@ -185,7 +188,7 @@ public class AMIdentityMembershipCondition extends EntitlementConditionAdaptor {
                         subjectMatch = true;
                     } else if ((allowedMemberTypes = nameValueIdType.canHaveMembers()) != null
                             && allowedMemberTypes.contains(invocatorIdType)) {
-                        subjectMatch = invocatorIdentity.isMember(nameValueIdentity);
+                        subjectMatch = memberships.isMember(invocatorIdentity, nameValueIdentity);
                         if (debug.messageEnabled()) {
                             debug.message("AMIdentityMembershipCondition.isMember():invocatorIdentityType "
                                             + invocatorIdType + " can be a member of nameValueIdentityType "
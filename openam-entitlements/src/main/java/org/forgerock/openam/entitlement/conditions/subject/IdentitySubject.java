@@ -25,6 +25,7 @@
  * $Id: AMIdentitySubject.java,v 1.3 2008/06/25 05:43:50 qcheng Exp $
  *
  * Portions Copyright 2011-2016 ForgeRock AS
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.entitlement.conditions.subject;
@@ -51,6 +52,7 @@ import com.sun.identity.policy.PolicyEvaluator;
 import com.sun.identity.policy.PolicyManager;
 import com.sun.identity.policy.SubjectEvaluationCache;
 import com.sun.identity.shared.debug.Debug;
+import org.forgerock.openam.entitlement.SubjectMembershipContext;
 import org.forgerock.openam.entitlement.utils.EntitlementUtils;
 import org.forgerock.openam.utils.CollectionUtils;
 import org.json.JSONArray;
@@ -179,6 +181,7 @@ public class IdentitySubject implements EntitlementSubject {
         }
 
         if (subjectValues.size() > 0) {
+            SubjectMembershipContext memberships = SubjectMembershipContext.getCurrent();
             Iterator valueIter = subjectValues.iterator();
             while (valueIter.hasNext()) {
                 Boolean matchFound = null;
@@ -275,7 +278,7 @@ public class IdentitySubject implements EntitlementSubject {
                             ((allowedMemberTypes
                                     = subjectIdType.canHaveMembers()) != null)
                                     && allowedMemberTypes.contains(userIdType)) {
-                        subjectMatch = userIdentity.isMember(subjectIdentity);
+                        subjectMatch = memberships.isMember(userIdentity, subjectIdentity);
                         if (debug.messageEnabled()) {
                             debug.message("IdentitySubject.isMember():"
                                     + "userIdentity type " + userIdType +
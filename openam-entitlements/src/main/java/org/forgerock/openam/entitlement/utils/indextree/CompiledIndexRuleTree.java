@@ -0,0 +1,366 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.entitlement.utils.indextree;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.forgerock.openam.entitlement.utils.indextree.treenodes.MultiWildcardNode;
+import org.forgerock.openam.entitlement.utils.indextree.treenodes.SingleWildcardNode;
+
+/**
+ * An index rule tree which is laid out for searching, matching the same rules as {@link SimpleReferenceTree} in a
+ * single pass over the resource.
+ * <p />
+ * Rules are held in a character trie, in which each node holds its literal children in an array sorted by character,
+ * and its multi-level ('*') and single-level ('^') wildcard children separately. A search runs the trie as a
+ * non-deterministic automaton: each character of the resource moves the set of current states along the one literal
+ * transition found by binary search, and along any wildcard transitions, without visiting the other children of a
+ * node. Each state tracks whether its single-level wildcard has consumed a '/', so that several single-level
+ * wildcards can be matched at the same time. The rule ending at a node is held on the node, so matched rules are
+ * returned without walking back up the tree.
+ * <p />
+ * Searches do not lock. Adds and removes are serialised, and a node's children are replaced rather than modified, so a
+ * search always sees a consistent tree, and sees an add or remove once it has completed. As with
+ * {@link SimpleReferenceTree}, removing a rule never removes nodes, only the end point marking the rule.
+ */
+public class CompiledIndexRuleTree implements IndexRuleTree {
+
+    private final Node root = new Node(Node.ROOT, '\u0000');
+
+    @Override
+    public void addIndexRule(String indexRule) {
+        if (indexRule == null) {
+            throw new IllegalArgumentException("Pattern must not be null");
+        }
+        if (indexRule.isEmpty()) {
+            return;
+        }
+
+        synchronized (root) {
+            Node node = root;
+            for (int index = 0; index < indexRule.length(); index++) {
+                node = node.getOrAddChild(indexRule.charAt(index));
+            }
+            node.markEndPoint(indexRule);
+        }
+    }
+
+    @Override
+    public void addIndexRules(Collection<String> indexRules) {
+        for (String indexRule : indexRules) {
+            addIndexRule(indexRule);
+        }
+    }
+
+    @Override
+    public void removeIndexRule(String indexRule) {
+        if (indexRule == null) {
+            throw new IllegalArgumentException("Pattern must not be null");
+        }
+
+        synchronized (root) {
+            Node node = root;
+            for (int index = 0; index < indexRule.length() && node != null; index++) {
+                node = node.getChild(indexRule.charAt(index));
+            }
+            if (node != null && node != root) {
+                node.removeEndPoint();
+            }
+        }
+    }
+
+    @Override
+    public Set<String> searchTree(String resource) {
+        if (resource == null) {
+            throw new IllegalArgumentException("The search term must not be null");
+        }
+
+        States candidates = new States();
+        States elected = new States();
+        // Start with the root node as the candidate.
+        candidates.add(root, false);
+
+        for (int i = 0, l = resource.length(); i < l && !candidates.isEmpty(); i++) {
+            char searchTerm = resource.charAt(i);
+            boolean last = i == l - 1;
+
+            elected.clear();
+            for (int j = 0; j < candidates.size(); j++) {
+                Node candidate = candidates.node(j);
+                // Reelect any previous wildcard candidates.
+                if (candidate.isWildcard()) {
+                    electWildcard(candidate, candidates.levelReached(j), searchTerm, last, elected);
+                }
+                // Evaluate previous candidates children.
+                electChildren(candidate, searchTerm, last, elected);
+            }
+
+            States swap = candidates;
+            candidates = elected;
+            elected = swap;
+        }
+
+        Set<String> results = new HashSet<String>();
+        for (int j = 0; j < candidates.size(); j++) {
+            String rule = candidates.node(j).getEndPoint();
+            if (rule != null) {
+                results.add(rule);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Elects the children of a candidate which have interest in the current search term, including the children of
+     * any wildcard child, which may match zero characters.
+     */
+    private void electChildren(Node parent, char searchTerm, boolean last, States elected) {
+        Node child = parent.getLiteralChild(searchTerm);
+        if (child != null) {
+            elected.add(child, false);
+            if (last) {
+                lastChanceElection(child, searchTerm, elected);
+            }
+        }
+        electWildcardChild(parent.multiWildcard, searchTerm, last, elected);
+        electWildcardChild(parent.singleWildcard, searchTerm, last, elected);
+    }
+
+    private void electWildcardChild(Node wildcard, char searchTerm, boolean last, States elected) {
+        if (wildcard == null) {
+            return;
+        }
+        if (electWildcard(wildcard, false, searchTerm, last, elected) && last) {
+            lastChanceElection(wildcard, searchTerm, elected);
+        }
+        // This scenario handles zero or more characters.
+        electChildren(wildcard, searchTerm, last, elected);
+    }
+
+    /**
+     * Given the last character in the resource, elects any wildcard children which may match zero characters.
+     */
+    private void lastChanceElection(Node node, char searchTerm, States elected) {
+        if (node.multiWildcard != null) {
+            electWildcard(node.multiWildcard, false, searchTerm, true, elected);
+        }
+        if (node.singleWildcard != null) {
+            electWildcard(node.singleWildcard, false, searchTerm, true, elected);
+        }
+    }
+
+    /**
+     * Elects a wildcard if it has interest in the current search term.
+     *
+     * @return Whether the wildcard was elected.
+     */
+    private boolean electWildcard(Node wildcard, boolean levelReached, char searchTerm, boolean last,
+            States elected) {
+        if (searchTerm == '?' || searchTerm == '#') {
+            // Ignore illegal character unless it is the last character.
+            if (!last) {
+                return false;
+            }
+            elected.add(wildcard, levelReached);
+            return true;
+        }
+        if (wildcard.type == Node.SINGLE_WILDCARD) {
+            if (levelReached) {
+                // Next URL level reached, so no longer interested.
+                return false;
+            }
+            elected.add(wildcard, searchTerm == '/');
+            return true;
+        }
+        elected.add(wildcard, false);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder view = new StringBuilder();
+        for (String rule : searchAll(root, new TreeSet<String>())) {
+            view.append(rule).append('\n');
+        }
+        return view.toString().trim();
+    }
+
+    private static Set<String> searchAll(Node node, Set<String> rules) {
+        if (node.getEndPoint() != null) {
+            rules.add(node.getEndPoint());
+        }
+        for (Node child : node.children) {
+            searchAll(child, rules);
+        }
+        if (node.multiWildcard != null) {
+            searchAll(node.multiWildcard, rules);
+        }
+        if (node.singleWildcard != null) {
+            searchAll(node.singleWildcard, rules);
+        }
+        return rules;
+    }
+
+    /**
+     * A node of the trie, representing a single character of one or more index rules.
+     */
+    private static final class Node {
+
+        private static final int ROOT = 0;
+        private static final int LITERAL = 1;
+        private static final int MULTI_WILDCARD = 2;
+        private static final int SINGLE_WILDCARD = 3;
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final int type;
+        private final char value;
+        // Literal children sorted by value, replaced on each add.
+        private volatile Node[] children = NO_CHILDREN;
+        private volatile Node multiWildcard;
+        private volatile Node singleWildcard;
+        // Guarded by the tree's lock for writes.
+        private volatile int endPointCount;
+        private volatile String rule;
+
+        private Node(int type, char value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        private boolean isWildcard() {
+            return type == MULTI_WILDCARD || type == SINGLE_WILDCARD;
+        }
+
+        private Node getChild(char value) {
+            if (value == MultiWildcardNode.WILDCARD) {
+                return multiWildcard;
+            }
+            if (value == SingleWildcardNode.WILDCARD) {
+                return singleWildcard;
+            }
+            return getLiteralChild(value);
+        }
+
+        private Node getLiteralChild(char value) {
+            Node[] nodes = children;
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char middleValue = nodes[middle].value;
+                if (middleValue < value) {
+                    low = middle + 1;
+                } else if (middleValue > value) {
+                    high = middle - 1;
+                } else {
+                    return nodes[middle];
+                }
+            }
+            return null;
+        }
+
+        private Node getOrAddChild(char value) {
+            Node child = getChild(value);
+            if (child != null) {
+                return child;
+            }
+            if (value == MultiWildcardNode.WILDCARD) {
+                multiWildcard = new Node(MULTI_WILDCARD, value);
+                return multiWildcard;
+            }
+            if (value == SingleWildcardNode.WILDCARD) {
+                singleWildcard = new Node(SINGLE_WILDCARD, value);
+                return singleWildcard;
+            }
+            child = new Node(LITERAL, value);
+            Node[] nodes = Arrays.copyOf(children, children.length + 1);
+            int index = nodes.length - 1;
+            while (index > 0 && nodes[index - 1].value > value) {
+                nodes[index] = nodes[index - 1];
+                index--;
+            }
+            nodes[index] = child;
+            children = nodes;
+            return child;
+        }
+
+        private void markEndPoint(String rule) {
+            this.rule = rule;
+            endPointCount++;
+        }
+
+        private void removeEndPoint() {
+            if (endPointCount > 0) {
+                endPointCount--;
+            }
+        }
+
+        private String getEndPoint() {
+            return endPointCount > 0 ? rule : null;
+        }
+    }
+
+    /**
+     * The states of a search, each being a node and whether a single-level wildcard at that node has consumed a '/'.
+     * Duplicate states are not added, so the number of states is bounded by the number of wildcards matched at once.
+     */
+    private static final class States {
+
+        private Node[] nodes = new Node[8];
+        private boolean[] levelsReached = new boolean[8];
+        private int size;
+
+        private void add(Node node, boolean levelReached) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node && levelsReached[i] == levelReached) {
+                    return;
+                }
+            }
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                levelsReached = Arrays.copyOf(levelsReached, size * 2);
+            }
+            nodes[size] = node;
+            levelsReached[size] = levelReached;
+            size++;
+        }
+
+        private Node node(int index) {
+            return nodes[index];
+        }
+
+        private boolean levelReached(int index) {
+            return levelsReached[index];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void clear() {
+            Arrays.fill(nodes, 0, size, null);
+            size = 0;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.openam.entitlement.conditions.environment;
@@ -324,7 +325,7 @@ public class AMIdentityMembershipConditionTest {
         given(invocatorIdentity.getType()).willReturn(invocatorIdType);
         given(identity.getType()).willReturn(identityIdType);
         given(identityIdType.canHaveMembers()).willReturn(Collections.singleton(invocatorIdType));
-        given(invocatorIdentity.isMember(identity)).willReturn(false);
+        given(invocatorIdentity.getMemberships(identityIdType)).willReturn(Collections.emptySet());
 
         //When
         ConditionDecision decision = condition.evaluate(realm, subject, resourceName, env);
@@ -356,7 +357,7 @@ public class AMIdentityMembershipConditionTest {
         given(invocatorIdentity.getType()).willReturn(invocatorIdType);
         given(identity.getType()).willReturn(identityIdType);
         given(identityIdType.canHaveMembers()).willReturn(Collections.singleton(invocatorIdType));
-        given(invocatorIdentity.isMember(identity)).willReturn(true);
+        given(invocatorIdentity.getMemberships(identityIdType)).willReturn(Collections.singleton(identity));
 
         //When
         ConditionDecision decision = condition.evaluate(realm, subject, resourceName, env);
@@ -0,0 +1,139 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.openam.entitlement.utils.indextree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class CompiledIndexRuleTreeTest {
+
+    private static final List<String> RULES = Arrays.asList(
+            "http://www.example.com",
+            "http://www.example.com/index.jsp",
+            "http://www.endurl.com/*",
+            "http://www.middleurl.com/*/home",
+            "http://www.substringurl.com/a*b/",
+            "http://www.singleurl.com/^",
+            "http://www.singlemiddleurl.com/^/home",
+            "http://www.test1.com/?",
+            "http://www.test2.com/*?",
+            "http://www.test3.com/?^",
+            "http://www.test4.com/*#*",
+            "*");
+
+    private IndexRuleTree tree;
+    private IndexRuleTree referenceTree;
+
+    @BeforeMethod
+    public void setUp() {
+        tree = new CompiledIndexRuleTree();
+        tree.addIndexRules(RULES);
+        referenceTree = new SimpleReferenceTree();
+        referenceTree.addIndexRules(RULES);
+    }
+
+    @DataProvider
+    public Object[][] resources() {
+        return new Object[][] {
+                {"http://www.example.com"},
+                {"http://www.example.com/index.jsp"},
+                {"http://www.example.com/index.js"},
+                {"http://www.endurl.com"},
+                {"http://www.endurl.com/"},
+                {"http://www.endurl.com/a/b/c/d"},
+                {"http://www.middleurl.com/home"},
+                {"http://www.middleurl.com//home"},
+                {"http://www.middleurl.com/a/b/c/home"},
+                {"http://www.substringurl.com/ahellob/"},
+                {"http://www.singleurl.com/"},
+                {"http://www.singleurl.com/home"},
+                {"http://www.singleurl.com/a/b"},
+                {"http://www.singlemiddleurl.com/abc/home"},
+                {"http://www.singlemiddleurl.com/a/b/home"},
+                {"http://www.test1.com/?"},
+                {"http://www.test2.com/a/b/c?"},
+                {"http://www.test3.com/?abc"},
+                {"http://www.test3.com/?a/b"},
+                {"http://www.test4.com/a/b/c#d/e/f"},
+                {"http://www.someotherurl.com"},
+                {""}
+        };
+    }
+
+    @Test(dataProvider = "resources")
+    public void shouldMatchSameRulesAsSimpleReferenceTree(String resource) {
+        // When
+        Set<String> results = tree.searchTree(resource);
+
+        // Then
+        assertThat(results).isEqualTo(referenceTree.searchTree(resource));
+    }
+
+    @Test
+    public void shouldTrackEachSingleLevelWildcardSeparately() {
+        // Given
+        tree = new CompiledIndexRuleTree();
+        tree.addIndexRule("a^/^");
+
+        // Then
+        assertThat(tree.searchTree("ab/c")).containsOnly("a^/^");
+        assertThat(tree.searchTree("ab//c")).containsOnly("a^/^");
+        assertThat(tree.searchTree("ab/c/d")).isEmpty();
+    }
+
+    @Test
+    public void shouldOnlyRemoveRuleOnceAllAddsAreRemoved() {
+        // Given
+        tree.addIndexRule("http://www.example.com");
+
+        // When
+        tree.removeIndexRule("http://www.example.com");
+
+        // Then
+        assertThat(tree.searchTree("http://www.example.com")).containsOnly("http://www.example.com", "*");
+        tree.removeIndexRule("http://www.example.com");
+        assertThat(tree.searchTree("http://www.example.com")).containsOnly("*");
+        assertThat(tree.searchTree("http://www.example.com/index.jsp"))
+                .containsOnly("http://www.example.com/index.jsp", "*");
+    }
+
+    @Test
+    public void shouldNotRemovePrefixOfUnknownRule() {
+        // When
+        tree.removeIndexRule("http://www.example.com.unknown");
+
+        // Then
+        assertThat(tree.searchTree("http://www.example.com")).containsOnly("http://www.example.com", "*");
+    }
+
+    @Test
+    public void shouldListRules() {
+        // Given
+        tree = new CompiledIndexRuleTree();
+        tree.addIndexRule("abc");
+        tree.addIndexRule("http://www.test.com");
+
+        // Then
+        assertThat(tree.toString()).isEqualTo("abc\nhttp://www.test.com");
+    }
+}
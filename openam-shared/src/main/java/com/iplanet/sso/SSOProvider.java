@@ -25,11 +25,13 @@
  * $Id: SSOProvider.java,v 1.2 2008/06/25 05:41:42 qcheng Exp $
  *
  * Portions copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.iplanet.sso;
 
 import java.security.Principal;
+import java.util.Map;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
@@ -174,6 +176,21 @@ public interface SSOProvider {
      */
     public void logout(SSOToken token) throws SSOException;
 
+    /**
+     * Sets each of the properties of the session underlying this SSOToken. By default each property is set in
+     * turn with {@link SSOToken#setProperty(String, String)}; providers which support it may override this to set
+     * the properties as a single update to the session.
+     *
+     * @param token the sso token whose session should be updated.
+     * @param properties the property names and values.
+     * @throws SSOException if the properties could not be set.
+     */
+    default void setProperties(SSOToken token, Map<String, String> properties) throws SSOException {
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            token.setProperty(property.getKey(), property.getValue());
+        }
+    }
+
     /**
      * Returns valid Sessions.
      *
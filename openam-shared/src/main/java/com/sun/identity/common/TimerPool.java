@@ -25,6 +25,7 @@
  * $Id: TimerPool.java,v 1.6 2008/10/20 22:00:05 ww203982 Exp $
  *
  * Portions Copyrighted 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package com.sun.identity.common;
@@ -32,14 +33,11 @@ package com.sun.identity.common;
 import static org.forgerock.openam.utils.Time.*;
 
 import com.sun.identity.shared.debug.Debug;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.SortedMap;
 import java.util.Timer;
-import java.util.TreeMap;
 
 /**
  * TimerPool is a scheduleable version of ThreadPool.
@@ -56,7 +54,7 @@ public class TimerPool implements Triggerable {
     private boolean daemon;
     private WorkerThread[] threads;
     private Scheduler scheduler;
-    private SortedMap taskList;
+    private final TimingWheel<HeadTaskRunnable> taskList;
     private Date nextRun;
     private Debug debug;
 
@@ -81,7 +79,7 @@ public class TimerPool implements Triggerable {
         this.threads = new WorkerThread[poolSize];
         this.scheduler = new Scheduler(this);
         this.scheduler.start();
-        this.taskList = Collections.synchronizedSortedMap(new TreeMap());
+        this.taskList = new TimingWheel<>(currentTimeMillis());
         synchronized (this) {
             createThreads(poolSize);
         }
@@ -125,7 +123,7 @@ public class TimerPool implements Triggerable {
     }
     
     /**
-     * Runs the next timeout task in the sorted container.
+     * Runs the next timeout task in the timing wheel.
      */
     
     private void runNext() {
@@ -149,19 +147,20 @@ public class TimerPool implements Triggerable {
                 }
                 if (nextRun != null) {
                     long now = currentTimeMillis();
-                    if (nextRun.getTime() <= now ) {
-                        if ((task = (HeadTaskRunnable) taskList.remove(nextRun)) 
-                            != null) {
-                            t = getAvailableThread();
+                    synchronized (taskList) {
+                        if (nextRun.getTime() <= now) {
+                            if ((task = taskList.remove(nextRun.getTime())) != null) {
+                                t = getAvailableThread();
+                            }
+                        }
+                        try {
+                            nextRun = new Date(taskList.firstTime());
+                            long delay = nextRun.getTime() - now;
+                            scheduler.setDelay((delay >= 0 ? delay : 0));
+                        } catch(NoSuchElementException ex) {
+                            nextRun = null;
+                            scheduler.setDelay(-1);
                         }
-                    }
-                    try {
-                        nextRun = (Date) taskList.firstKey();
-                        long delay = nextRun.getTime() - now;
-                        scheduler.setDelay((delay >= 0 ? delay : 0));
-                    } catch(NoSuchElementException ex) {
-                        nextRun = null;
-                        scheduler.setDelay(-1);
                     }
                 }
             }
@@ -255,9 +254,9 @@ public class TimerPool implements Triggerable {
                     }
                 } while (head != task.getHeadTask());
                 synchronized (taskList) {
-                    if((head = (HeadTaskRunnable) taskList.get(time)) == null) {
+                    if((head = taskList.get(time.getTime())) == null) {
                         task.setNext(null);
-                        taskList.put(time, new HeadTaskRunnable(this, task,
+                        taskList.put(time.getTime(), new HeadTaskRunnable(this, task,
                             time));        
                     }
                 }
@@ -310,8 +309,9 @@ public class TimerPool implements Triggerable {
      */
     
     public void trigger(Date time) {
-        // no need to synchronize for single operation
-        taskList.remove(time);
+        synchronized (taskList) {
+            taskList.remove(time.getTime());
+        }
     }
     
     /**
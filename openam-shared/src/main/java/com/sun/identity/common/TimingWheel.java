@@ -0,0 +1,246 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.sun.identity.common;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * A hashed hierarchical timing wheel, which holds values keyed by a time in milliseconds and finds the earliest
+ * time held, for use as the task list of a {@link TimerPool}.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. Each level spans {@value #SLOTS} times as much
+ * time as the level below it, and the slots of the lowest level are one millisecond wide. A time is held at the
+ * lowest level whose span from the wheel's cursor covers it, so adding and removing a time takes constant time
+ * regardless of how many times are held, unlike a sorted map. Times beyond the highest level (about 49 days from
+ * the cursor) are held in an overflow set. Times before the cursor are held in a sorted set of overdue times, which
+ * stays small as such a time must be earlier than every time held when the earliest time was last found.
+ * <p>
+ * Finding the earliest time scans the occupancy bitmap of each level from the cursor. When the earliest time is
+ * in a higher level, the cursor is advanced to the start of its slot and the slot is cascaded into the levels
+ * below, so each time is moved at most once per level. The earliest time returned is exact.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <V> The type of value held for each time.
+ */
+public class TimingWheel<V> {
+
+    private static final int LEVEL_BITS = 8;
+    static final int SLOTS = 1 << LEVEL_BITS;
+    static final int LEVELS = 4;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    @SuppressWarnings("unchecked")
+    private final Map<Long, V>[][] slots = new Map[LEVELS][SLOTS];
+    private final long[][] occupied = new long[LEVELS][SLOTS / Long.SIZE];
+    private final TreeMap<Long, V> overdue = new TreeMap<>();
+    private final Map<Long, V> overflow = new HashMap<>();
+    private long cursor;
+    private int size;
+
+    /**
+     * Constructs an empty timing wheel with its cursor at the given time.
+     *
+     * @param now The time in milliseconds to start the cursor at.
+     */
+    public TimingWheel(long now) {
+        this.cursor = now;
+    }
+
+    /**
+     * Returns the value held for the given time.
+     *
+     * @param time The time in milliseconds.
+     * @return The value, or {@code null} if no value is held for the time.
+     */
+    public V get(long time) {
+        Map<Long, V> values = values(time, false);
+        return values == null ? null : values.get(time);
+    }
+
+    /**
+     * Holds a value for the given time, replacing any value already held for it.
+     *
+     * @param time The time in milliseconds.
+     * @param value The non null value.
+     * @return The value previously held for the time, or {@code null}.
+     */
+    public V put(long time, V value) {
+        V previous = values(time, true).put(time, value);
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the value held for the given time.
+     *
+     * @param time The time in milliseconds.
+     * @return The value removed, or {@code null} if no value was held for the time.
+     */
+    public V remove(long time) {
+        Map<Long, V> values = values(time, false);
+        if (values == null) {
+            return null;
+        }
+        V value = values.remove(time);
+        if (value != null) {
+            size--;
+            int level = level(time);
+            if (values.isEmpty() && level >= 0 && level < LEVELS) {
+                clear(level, slot(time, level));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the earliest time for which a value is held.
+     *
+     * @return The earliest time in milliseconds.
+     * @throws NoSuchElementException If no values are held.
+     */
+    public long firstTime() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        if (!overdue.isEmpty()) {
+            return overdue.firstKey();
+        }
+        while (true) {
+            for (int level = 0; level < LEVELS; level++) {
+                int slot = nextOccupied(level, slot(cursor, level));
+                if (slot < 0) {
+                    continue;
+                }
+                if (level == 0) {
+                    // Slots of the lowest level are one millisecond wide, so hold a single time
+                    return slots[0][slot].keySet().iterator().next();
+                }
+                long slotStart = (cursor >>> (LEVEL_BITS * (level + 1)) << (LEVEL_BITS * (level + 1)))
+                        | ((long) slot << (LEVEL_BITS * level));
+                Map<Long, V> values = slots[level][slot];
+                clear(level, slot);
+                cascade(values, slotStart);
+                break;
+            }
+            if (isWheelEmpty()) {
+                Map<Long, V> values = new HashMap<>(overflow);
+                overflow.clear();
+                cascade(values, Collections.min(values.keySet()));
+            }
+        }
+    }
+
+    /**
+     * @return Whether no values are held.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The number of times for which values are held.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the values which hold the given time, creating them if required.
+     */
+    private Map<Long, V> values(long time, boolean create) {
+        int level = level(time);
+        if (level < 0) {
+            return overdue;
+        } else if (level >= LEVELS) {
+            return overflow;
+        }
+        int slot = slot(time, level);
+        Map<Long, V> values = slots[level][slot];
+        if (values == null && create) {
+            values = new HashMap<>();
+            slots[level][slot] = values;
+            occupied[level][slot / Long.SIZE] |= 1L << slot;
+        }
+        return values;
+    }
+
+    private void clear(int level, int slot) {
+        slots[level][slot] = null;
+        occupied[level][slot / Long.SIZE] &= ~(1L << slot);
+    }
+
+    /**
+     * Returns the level which holds the given time relative to the cursor, which is negative if the time is
+     * overdue and {@link #LEVELS} or more if the time is in the overflow set.
+     */
+    private int level(long time) {
+        if (time < cursor) {
+            return -1;
+        }
+        long difference = time ^ cursor;
+        return difference == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(difference)) / LEVEL_BITS;
+    }
+
+    private static int slot(long time, int level) {
+        return (int) (time >>> (LEVEL_BITS * level)) & SLOT_MASK;
+    }
+
+    /**
+     * Returns the first occupied slot of the level at or after the given slot, or -1 if there is none.
+     */
+    private int nextOccupied(int level, int from) {
+        long[] bitmap = occupied[level];
+        for (int word = from / Long.SIZE; word < bitmap.length; word++) {
+            long bits = bitmap[word];
+            if (word == from / Long.SIZE) {
+                bits &= -1L << (from % Long.SIZE);
+            }
+            if (bits != 0) {
+                return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Advances the cursor to the given time, which must be no later than the earliest time held, and moves the
+     * given values, which have been removed from the wheel, into the levels below.
+     */
+    private void cascade(Map<Long, V> values, long newCursor) {
+        cursor = newCursor;
+        for (Map.Entry<Long, V> entry : values.entrySet()) {
+            values(entry.getKey(), true).put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private boolean isWheelEmpty() {
+        for (long[] bitmap : occupied) {
+            for (long bits : bitmap) {
+                if (bits != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -25,6 +25,7 @@
  * $Id: Constants.java,v 1.47 2009/08/12 23:10:44 ericow Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package com.sun.identity.shared;
 
@@ -348,6 +349,35 @@ public interface Constants {
      */
     String AM_SESSION_MAX_CACHE_SIZE = "org.forgerock.openam.session.service.access.persistence.caching.maxsize";
 
+    /**
+     * Property name for the size in megabytes of the off-heap tier of the internal session cache.
+     */
+    String AM_SESSION_OFF_HEAP_CACHE_SIZE =
+            "org.forgerock.openam.session.service.access.persistence.caching.offheap.size";
+
+    /**
+     * Property name for the maximum number of session summaries held in the cache used to validate sessions.
+     */
+    String AM_SESSION_SUMMARY_CACHE_SIZE =
+            "org.forgerock.openam.session.service.access.persistence.caching.summary.size";
+
+    /**
+     * Property name for the window in milliseconds over which latest access time writes are coalesced.
+     */
+    String AM_SESSION_ACCESS_TIME_WRITE_WINDOW =
+            "org.forgerock.openam.session.service.access.persistence.accesstime.window";
+
+    /**
+     * Property name for the maximum number of users whose session handles are held in the local session index.
+     */
+    String AM_SESSION_UUID_INDEX_SIZE = "org.forgerock.openam.session.service.access.persistence.uuidindex.size";
+
+    /**
+     * Property name for whether session requests are first sent to the compact JSON session endpoint, before
+     * falling back to PLL.
+     */
+    String AM_SESSION_JSON_PROTOCOL_ENABLED = "org.forgerock.openam.session.json.protocol.enabled";
+
     /**
      * Property string for security provider package.
      */
@@ -408,11 +438,22 @@ public interface Constants {
     static final String IDENTITY_WEB_CONTAINER = "com.sun.identity.webcontainer";
 
     /**
-     * Property string for session notification thread pool queue size.
+     * Property string for the maximum number of session notifications queued for a single destination.
      */
     static final String NOTIFICATION_THREADPOOL_THRESHOLD =
             "com.iplanet.am.notification.threadpool.threshold";
 
+    /**
+     * Property string for the window in milliseconds over which session notifications to the same destination are
+     * coalesced into a single notification set.
+     */
+    static final String NOTIFICATION_COALESCE_WINDOW = "com.iplanet.am.notification.coalesce.window";
+
+    /**
+     * Property string for the number of times delivery of session notifications to a destination is retried.
+     */
+    static final String NOTIFICATION_RETRIES = "com.iplanet.am.notification.retries";
+
     /**
      * Property string for fully qualified host name map.
      */
@@ -1119,6 +1160,21 @@ public interface Constants {
     static final String DELIMITER_PREF_LEFT =
             "openam.entitlement.delimiter.precedence.left";
 
+    /**
+     * Property string for the maximum number of policy decisions held in the server side policy decision cache.
+     */
+    static final String POLICY_DECISION_CACHE_SIZE = "org.forgerock.openam.entitlement.decision.cache.size";
+
+    /**
+     * Property string for the maximum time in milliseconds a decision is held in the policy decision cache.
+     */
+    static final String POLICY_DECISION_CACHE_MAX_TTL = "org.forgerock.openam.entitlement.decision.cache.ttl";
+
+    /**
+     * Property string for the number of threads the resources of a batch policy evaluation are evaluated on.
+     */
+    static final String POLICY_BATCH_EVALUATION_THREADS = "org.forgerock.openam.entitlement.batch.threads";
+
     static final String USE_OLD_LOG_FORMAT =
             "openam.logging.use.old.log.format";
 
@@ -0,0 +1,203 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package com.sun.identity.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TimingWheelTest {
+
+    private static final long NOW = 1500000000000L;
+
+    private TimingWheel<String> wheel;
+
+    @BeforeMethod
+    public void setup() {
+        wheel = new TimingWheel<>(NOW);
+    }
+
+    @Test
+    public void shouldReturnEarliestTimeAcrossLevels() {
+        // Given
+        wheel.put(NOW + 3600000L, "hour");
+        wheel.put(NOW + 60000L, "minute");
+        wheel.put(NOW + 10L, "millis");
+
+        // When
+        long first = wheel.firstTime();
+
+        // Then
+        assertThat(first).isEqualTo(NOW + 10L);
+    }
+
+    @Test
+    public void shouldFindRemainingTimesAfterRemovingEarliest() {
+        // Given
+        wheel.put(NOW + 3600000L, "hour");
+        wheel.put(NOW + 60000L, "minute");
+        wheel.put(NOW + 60001L, "minute and a millisecond");
+
+        // When
+        assertThat(wheel.remove(wheel.firstTime())).isEqualTo("minute");
+        assertThat(wheel.remove(wheel.firstTime())).isEqualTo("minute and a millisecond");
+
+        // Then
+        assertThat(wheel.firstTime()).isEqualTo(NOW + 3600000L);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldHoldTimesBeforeCursor() {
+        // Given
+        wheel.put(NOW + 60000L, "minute");
+        wheel.firstTime();
+
+        // When
+        wheel.put(NOW + 1000L, "second");
+        wheel.put(NOW - 1000L, "past");
+
+        // Then
+        assertThat(wheel.remove(wheel.firstTime())).isEqualTo("past");
+        assertThat(wheel.remove(wheel.firstTime())).isEqualTo("second");
+        assertThat(wheel.remove(wheel.firstTime())).isEqualTo("minute");
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldHoldTimesBeyondHighestLevel() {
+        // Given
+        long year = 365L * 24 * 3600000L;
+        wheel.put(NOW + 2 * year, "two years");
+        wheel.put(NOW + year, "year");
+
+        // When
+        long first = wheel.firstTime();
+
+        // Then
+        assertThat(first).isEqualTo(NOW + year);
+        assertThat(wheel.get(NOW + 2 * year)).isEqualTo("two years");
+    }
+
+    @Test
+    public void shouldReplaceValueForSameTime() {
+        // Given
+        wheel.put(NOW + 10L, "first");
+
+        // When
+        String previous = wheel.put(NOW + 10L, "second");
+
+        // Then
+        assertThat(previous).isEqualTo("first");
+        assertThat(wheel.remove(NOW + 10L)).isEqualTo("second");
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void shouldThrowWhenEmpty() {
+        wheel.firstTime();
+    }
+
+    @Test
+    public void shouldAgreeWithSortedMap() {
+        // Given
+        Random random = new Random(42);
+        TreeMap<Long, String> expected = new TreeMap<>();
+        long now = NOW;
+
+        // When
+        for (int i = 0; i < 200000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 6 || expected.isEmpty()) {
+                long time = now + (long) (random.nextDouble() * random.nextDouble() * 7200000L);
+                String value = String.valueOf(i);
+                assertThat(wheel.put(time, value)).isEqualTo(expected.put(time, value));
+            } else if (operation < 8) {
+                Long time = expected.ceilingKey(now + random.nextInt(7200000));
+                if (time != null) {
+                    assertThat(wheel.remove(time)).isEqualTo(expected.remove(time));
+                }
+            } else {
+                long first = wheel.firstTime();
+                assertThat(first).isEqualTo(expected.firstKey());
+                now = Math.max(now, first);
+                assertThat(wheel.remove(first)).isEqualTo(expected.remove(first));
+            }
+        }
+
+        // Then
+        assertThat(wheel.size()).isEqualTo(expected.size());
+        while (!expected.isEmpty()) {
+            assertThat(wheel.firstTime()).isEqualTo(expected.firstKey());
+            wheel.remove(expected.pollFirstEntry().getKey());
+        }
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    /**
+     * Compares the time taken to schedule, reschedule and expire one million timeouts spread over two hours, as
+     * session idle timeouts are, with a sorted map. Disabled by default to avoid slowing down the build.
+     */
+    @Test(enabled = false)
+    public void compareWithSortedMap() {
+        final int TIMEOUTS = 1000000;
+        final long SPREAD = 7200000L;
+        long[] times = new long[TIMEOUTS];
+        Random random = new Random(42);
+        for (int i = 0; i < TIMEOUTS; i++) {
+            times[i] = NOW + (long) (random.nextDouble() * SPREAD);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            TreeMap<Long, String> map = new TreeMap<>();
+            long start = System.nanoTime();
+            for (long time : times) {
+                map.put(time, "");
+            }
+            for (long time : times) {
+                map.remove(time);
+                map.put(time + SPREAD, "");
+            }
+            while (!map.isEmpty()) {
+                map.remove(map.firstKey());
+            }
+            long mapTime = System.nanoTime() - start;
+
+            TimingWheel<String> timingWheel = new TimingWheel<>(NOW);
+            start = System.nanoTime();
+            for (long time : times) {
+                timingWheel.put(time, "");
+            }
+            for (long time : times) {
+                timingWheel.remove(time);
+                timingWheel.put(time + SPREAD, "");
+            }
+            while (!timingWheel.isEmpty()) {
+                timingWheel.remove(timingWheel.firstTime());
+            }
+            long wheelTime = System.nanoTime() - start;
+
+            System.out.println(String.format(Locale.US, "%d timeouts: sorted map %d ms, timing wheel %d ms",
+                    TIMEOUTS, mapTime / 1000000, wheelTime / 1000000));
+        }
+    }
+}